@@ -20,7 +20,7 @@ import com.badlogic.gdx.utils.XmlReader;
  *   // 在应用启动时加载配置文件
  *   ConfigManager config = ConfigManager.loadConfig("config/config.json");
  *   if (config != null) {
- *       SpinePet pet = new SpinePet(config.modelDirPath, config.modelName);
+ *       SpinePet pet = petManager.spawn(config.modelDirPath, config.modelName);
  *   }
  * </pre>
  *
@@ -20,13 +20,16 @@ import com.badlogic.gdx.utils.XmlReader;
  *   // 在应用启动时加载配置文件
  *   ConfigManager config = ConfigManager.loadConfig("config/config.json");
  *   if (config != null) {
- *       SpinePet pet = new SpinePet(config.modelDirPath, config.modelName);
+ *       SpinePet pet = petManager.spawn(config.modelDirPath, config.modelName);
  *   }
  * </pre>
  *
  * <p>注意：配置文件应放在 assets 目录下，例如：
  * assets/config/config.json 或 assets/config/config.xml</p>
  *
+ * <p>运行期间修改配置文件会由 {@link ConfigWatcher} 在后台线程重新解析，
+ * 再由 {@link MainApp} 在 GL 线程一次性应用，无需重启程序。</p>
+ *
  * @author lujy
  *
  * @version 1.0
@@ -44,6 +47,16 @@ public class ConfigManager {
     public String iconPath;                   // 图标文件路径
     public String defaultAnimationName;       // 默认动画名称
     public String onClickedAnimationName;     // 点击后的动画名称
+    public String idleAnimationName = "Sleep"; // 闲置一段时间后播放的动画名称
+    public float idleTriggerSeconds = 60f;     // 闲置多久后播放闲置动画（秒）
+    public float modelScale = 0.3f;            // 模型缩放比
+    public int foregroundFps = 0;              // 前台帧率上限，0 表示跟随显示器刷新率
+    public boolean lowMemoryWhenMinimized = true; // 最小化时释放纹理、菜单与不播放的动画
+    public int dragPredictionMillis = 0;       // 拖拽窗口时的预测时长（毫秒），0 表示关闭
+    public boolean compressAnimations = false; // 加载模型时删除冗余关键帧并压缩时间轴，有损但更省内存
+
+    // 配置文件来源，用于热重载，不参与序列化
+    private transient FileHandle source;
 
     // 单例实例
     private static ConfigManager INSTANTCE;
@@ -62,27 +75,40 @@ public class ConfigManager {
      * @return 加载成功后的 ConfigManager 单例，如果加载失败返回 null
      */
     public static ConfigManager loadConfig(String filePath) {
-        INSTANTCE = new ConfigManager();
-        FileHandle fileHandle = Gdx.files.internal(filePath);
+        INSTANTCE = parse(Gdx.files.internal(filePath));
+        return INSTANTCE;
+    }
 
-        if (filePath.endsWith(".json")) {
-            INSTANTCE.loadJson(fileHandle);
-        } else if (filePath.endsWith(".xml")) {
-            INSTANTCE.loadXml(fileHandle);
+    /**
+     * 解析配置文件并返回新的实例，不修改当前单例。
+     * 只做文件读取与解析，可在后台线程调用。
+     *
+     * @param fileHandle 配置文件的文件句柄
+     * @return 解析后的配置，格式不支持或解析失败时返回 null
+     */
+    public static ConfigManager parse(FileHandle fileHandle) {
+        ConfigManager config = new ConfigManager();
+        config.source = fileHandle;
+        String name = fileHandle.name();
+        boolean loaded;
+        if (name.endsWith(".json")) {
+            loaded = config.loadJson(fileHandle);
+        } else if (name.endsWith(".xml")) {
+            loaded = config.loadXml(fileHandle);
         } else {
             logger.error("不支持的配置文件格式。仅支持 JSON 与 XML 格式。");
-            INSTANTCE = null;
+            loaded = false;
         }
-
-        return INSTANTCE;
+        return loaded ? config : null;
     }
 
     /**
      * 解析 JSON 格式的配置文件，并加载各项配置参数。
      *
      * @param fileHandle 配置文件的文件句柄
+     * @return 解析成功返回 true
      */
-    private void loadJson(FileHandle fileHandle) {
+    private boolean loadJson(FileHandle fileHandle) {
         try {
             Json json = new Json();
             // 将 JSON 内容转换为一个临时 ConfigManager 对象
@@ -97,10 +123,19 @@ public class ConfigManager {
             this.iconPath               = tempConfig.iconPath;
             this.defaultAnimationName   = tempConfig.defaultAnimationName;
             this.onClickedAnimationName = tempConfig.onClickedAnimationName;
+            this.idleAnimationName      = tempConfig.idleAnimationName;
+            this.idleTriggerSeconds     = tempConfig.idleTriggerSeconds;
+            this.modelScale             = tempConfig.modelScale;
+            this.foregroundFps          = tempConfig.foregroundFps;
+            this.lowMemoryWhenMinimized = tempConfig.lowMemoryWhenMinimized;
+            this.dragPredictionMillis   = tempConfig.dragPredictionMillis;
+            this.compressAnimations     = tempConfig.compressAnimations;
 
             logger.info("从 JSON 文件加载配置成功: " + fileHandle.path());
+            return true;
         } catch (Exception e) {
             logger.error("读取 JSON 配置出错: " + e.getMessage());
+            return false;
         }
     }
 
@@ -108,8 +143,9 @@ public class ConfigManager {
      * 解析 XML 格式的配置文件，并加载各项配置参数。
      *
      * @param fileHandle 配置文件的文件句柄
+     * @return 解析成功返回 true
      */
-    private void loadXml(FileHandle fileHandle) {
+    private boolean loadXml(FileHandle fileHandle) {
         try {
             XmlReader xmlReader = new XmlReader();
             XmlReader.Element root = xmlReader.parse(fileHandle);
@@ -126,10 +162,20 @@ public class ConfigManager {
             this.iconPath = root.getChildByName("iconPath").getText();
             this.defaultAnimationName = root.getChildByName("defaultAnimationName").getText();
             this.onClickedAnimationName = root.getChildByName("onClickedAnimationName").getText();
+            // 以下为可选项，缺省时保留默认值
+            this.idleAnimationName = root.get("idleAnimationName", idleAnimationName);
+            this.idleTriggerSeconds = root.getFloat("idleTriggerSeconds", idleTriggerSeconds);
+            this.modelScale = root.getFloat("modelScale", modelScale);
+            this.foregroundFps = root.getInt("foregroundFps", foregroundFps);
+            this.lowMemoryWhenMinimized = root.getBoolean("lowMemoryWhenMinimized", lowMemoryWhenMinimized);
+            this.dragPredictionMillis = root.getInt("dragPredictionMillis", dragPredictionMillis);
+            this.compressAnimations = root.getBoolean("compressAnimations", compressAnimations);
 
             logger.info("从 XML 文件加载配置成功: " + fileHandle.path());
+            return true;
         } catch (Exception e) {
             logger.error("读取 XML 配置出错: " + e.getMessage());
+            return false;
         }
     }
 
@@ -142,4 +188,25 @@ public class ConfigManager {
     public static ConfigManager getInstance() {
         return INSTANTCE;
     }
+
+    /**
+     * 热重载后替换单例，只应在 GL 线程调用。
+     */
+    static void setInstance(ConfigManager config) {
+        INSTANTCE = config;
+    }
+
+    /**
+     * @return 配置文件来源，用于 {@link ConfigWatcher} 监听
+     */
+    public FileHandle getSource() {
+        return source;
+    }
+
+    /**
+     * 判断与另一份配置是否指向同一个模型
+     */
+    public boolean isSameModel(ConfigManager other) {
+        return modelDirPath.equals(other.modelDirPath) && modelName.equals(other.modelName);
+    }
 }
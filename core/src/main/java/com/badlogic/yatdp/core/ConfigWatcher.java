@@ -0,0 +1,132 @@
+package com.badlogic.yatdp.core;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ConfigWatcher 监听配置文件的修改，在后台线程重新解析，并把结果交给 GL 线程应用。
+ *
+ * <h3>线程模型</h3>
+ * <pre>
+ * 后台线程：WatchService 事件 → 合并连续事件 → ConfigManager.parse() → pending
+ * GL 线程：每帧 poll()，取到新配置时由 MainApp 一次性应用
+ * </pre>
+ * <p>文件读取与解析都不在 GL 线程进行，GL 线程每帧只做一次原子读取，不会因重载卡顿。
+ * 解析失败的配置会被丢弃，当前配置保持不变。</p>
+ *
+ * <h3>注意事项</h3>
+ * <ul>
+ *     <li>只能监听文件系统中的配置文件，打包进 jar 的配置不会启用热重载</li>
+ *     <li>编辑器保存时往往连续触发多次事件，等待 {@link #DEBOUNCE_MILLIS} 毫秒后合并为一次重载</li>
+ * </ul>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see ConfigManager#parse(FileHandle)
+ * @see MainApp
+ */
+public class ConfigWatcher implements Disposable {
+    private static final Logger logger = new Logger("ConfigWatcher", Logger.DEBUG);
+    private static final long DEBOUNCE_MILLIS = 100;
+
+    private final File file;
+    private final AtomicReference<ConfigManager> pending = new AtomicReference<>();
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(FileHandle configFile) {
+        this.file = configFile.file().getAbsoluteFile();
+    }
+
+    /**
+     * 开始监听配置文件所在目录，重复调用无效
+     */
+    public void start() {
+        if (thread != null) return;
+        if (!file.isFile()) {
+            logger.info("配置文件不在文件系统中，不启用热重载: " + file.getPath());
+            return;
+        }
+
+        Path dir = file.toPath().getParent();
+        try {
+            watchService = dir.getFileSystem().newWatchService();
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException e) {
+            logger.error("无法监听配置文件: " + e.getMessage());
+            return;
+        }
+
+        thread = new Thread(this::watch, "ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("开始监听配置文件: " + file.getPath());
+    }
+
+    /**
+     * 取出最近一次重载的配置，只应在 GL 线程调用
+     *
+     * @return 新配置，没有变化时返回 null
+     */
+    public ConfigManager poll() {
+        if (pending.get() == null) return null;
+        return pending.getAndSet(null);
+    }
+
+    @Override
+    public void dispose() {
+        if (thread == null) return;
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.error("关闭监听出错: " + e.getMessage());
+        }
+        thread = null;
+    }
+
+    private void watch() {
+        Path name = file.toPath().getFileName();
+        try {
+            while (true) {
+                if (!drain(watchService.take(), name)) continue;
+
+                // 合并编辑器保存时连续触发的事件
+                Thread.sleep(DEBOUNCE_MILLIS);
+                for (WatchKey key; (key = watchService.poll()) != null; )
+                    drain(key, name);
+
+                ConfigManager config = ConfigManager.parse(Gdx.files.absolute(file.getPath()));
+                if (config != null) {
+                    pending.set(config);
+                    logger.info("配置文件已重新加载");
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // dispose() 结束监听
+        }
+    }
+
+    /**
+     * 取出并重置事件，返回其中是否有配置文件本身的变化
+     */
+    private static boolean drain(WatchKey key, Path name) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents())
+            if (name.equals(event.context())) changed = true;
+        key.reset();
+        return changed;
+    }
+}
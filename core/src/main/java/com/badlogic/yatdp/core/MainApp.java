@@ -4,14 +4,18 @@ import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Logger;
 import com.badlogic.yatdp.ui.MenuManager;
 import com.badlogic.yatdp.ui.MinIcon;
+import com.badlogic.yatdp.pet.PetManager;
 import com.badlogic.yatdp.pet.SpinePet;
 import com.badlogic.yatdp.input.WindowController;
 import com.badlogic.yatdp.input.YatInputAdapter;
 
-import java.util.function.Consumer;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
 
 
 /**
@@ -20,15 +24,17 @@ import java.util.function.Consumer;
  *
  * <p>主要职责包括：</p>
  * <ul>
- *     <li>初始化桌宠模型（SpinePet）、菜单（MenuManager）、最小化图标（MinIcon）等核心组件</li>
+ *     <li>初始化桌宠管理器（PetManager）、菜单（MenuManager）、最小化图标（MinIcon）等核心组件</li>
  *     <li>管理不同应用状态（普通、菜单、全屏）之间的切换</li>
  *     <li>统一处理渲染循环、屏幕尺寸变化和资源释放</li>
+ *     <li>应用 {@link ConfigWatcher} 热重载的配置，包括更换模型</li>
+ *     <li>最小化期间进入低内存模式，恢复时按需重新加载资源</li>
  * </ul>
  *
  * <h3>模块结构</h3>
  * <pre>
  * MainApp
- * ├── SpinePet         // 动画模型：负责桌宠的 Spine 渲染与交互动画
+ * ├── PetManager       // 桌宠管理器：共享模型资源与批处理器，统一更新与绘制所有 SpinePet
  * ├── MenuManager      // 菜单交互管理器：右键菜单、内容展示、UI 切换等
  * ├── MinIcon          // 最小化图标：托盘图标或窗口缩小时的展示元素
  * ├── YatInputAdapter  // 输入处理器：统一接收鼠标点击、拖拽、快捷键输入等
@@ -47,12 +53,29 @@ import java.util.function.Consumer;
  *     <li>{@link #showFullContent(String)} 显示全屏内容</li>
  *     <li>{@link #backToMenu()} 返回菜单主界面</li>
  *     <li>{@link #getAppState()} 获取当前状态</li>
+ *     <li>{@link #spawnPetWindow()} 在独立窗口中新建一只桌宠</li>
  * </ul>
  *
+ * <h3>低内存模式</h3>
+ * <p>配置 {@code lowMemoryWhenMinimized} 开启时，缩小为 {@link MinIcon} 后：</p>
+ * <ul>
+ *     <li>菜单的 Stage、Skin 与字体被释放，下次显示菜单时重新创建</li>
+ *     <li>不在屏幕上的模型纹理替换为占位，恢复窗口时重新上传</li>
+ *     <li>桌宠不会播放的动画被清空，配置再次用到时在后台重新读取</li>
+ * </ul>
+ * <p>进入与退出时记录堆与常驻内存（RSS）的变化。</p>
+ *
+ * <h3>渲染循环</h3>
+ * <p>桌宠动画由模拟线程以固定步长推进（见 {@code PetSimulation}），{@link #render()} 只插值姿态并绘制。
+ * 普通状态下主窗口使用非连续渲染：只有姿态变化、输入事件或模拟线程的心跳才会绘制一帧，
+ * 桌宠静止时渲染线程不再空转。菜单、全屏内容与休息提醒包含 Scene2D 动画，这些状态下恢复连续渲染（最小化时除外）。
+ * 运行时间与休息提醒仍在渲染线程累计，帧间隔即真实经过的时间。</p>
+ *
  * <p>该类设计为单例，外部模块可通过 {@link #getInstance()} 访问其全局实例。</p>
  *
  * @author baiheyufei
- * @version 1.1
+ * @version 1.3
+ * @see com.badlogic.yatdp.pet.PetManager
  * @see com.badlogic.yatdp.pet.SpinePet
  * @see com.badlogic.yatdp.ui.MenuManager
  * @see com.badlogic.yatdp.ui.MinIcon
@@ -63,14 +86,26 @@ public class MainApp extends ApplicationAdapter {
     private static MainApp INSTANCE; // 单例
     private final Logger logger = new Logger("YatDP", Logger.DEBUG);
     private AppState appState = AppState.NORMAL;
-    private SpinePet pet;
+    private ConfigManager config;
+    private ConfigWatcher configWatcher;
+    private PetManager petManager;
+    private SpinePet pet; // 主桌宠，接收点击与拖拽
     private MinIcon minIcon;
-    private MenuManager menuManager;
+    private MenuManager menuManager; // 低内存模式下为 null，需要时重新创建
+    private InputMultiplexer inputMultiplexer;
+    private Runnable exitCallBack;
+    private boolean lowMemory;
+    private boolean resizePending;
     private YatInputAdapter inputAdapter;
+    private WindowController windowController;
+    private final Vector2 cursorPos = new Vector2();
+    private final Vector2 windowOrigin = new Vector2();
+    private int width, height; // 主窗口尺寸，托盘等回调运行时 Gdx.graphics 可能属于其他窗口
 
     private float runTime = 0f;
 
     private static final float BREAK_REMINDER_TIME = 10f; // 2分钟 = 120秒
+    private static final int PET_WINDOW_SPACING = 160;
 
     public static MainApp getInstance() {
         return INSTANCE;
@@ -80,39 +115,64 @@ public class MainApp extends ApplicationAdapter {
     public void create() {
         INSTANCE = this; // 初始化单例
 
-        ConfigManager config = ConfigManager.loadConfig("config/config.json");
+        config = ConfigManager.loadConfig("config/config.json");
         if (config == null) throw new RuntimeException("Config load failed");
 
-        pet = new SpinePet(config.modelDirPath, config.modelName);
+        width = Gdx.graphics.getWidth();
+        height = Gdx.graphics.getHeight();
+        petManager = new PetManager();
+        petManager.setCompressAnimations(config.compressAnimations);
+        pet = petManager.spawn(config.modelDirPath, config.modelName);
+        pet.applyConfig(config);
+        applyFrameRate();
         minIcon = new MinIcon();
 
         // 创建回调函数
-        Consumer<String> showContentCallback = this::showFullContent;
-        Runnable exitCallBack = () -> {
+        exitCallBack = () -> {
             Gdx.app.exit();
             System.exit(0);
         };
-        WindowController windowController = new WindowController();
+        windowController = new WindowController();
+
+        inputAdapter = new YatInputAdapter(windowController, pet, this);
+        inputAdapter.setDragPrediction(config.dragPredictionMillis / 1000f);
+        inputMultiplexer = new InputMultiplexer(inputAdapter);
+        Gdx.input.setInputProcessor(inputMultiplexer);
 
         // 初始化 MenuManager
-        menuManager = new MenuManager(windowController, showContentCallback, exitCallBack);
+        getMenuManager();
 
-        inputAdapter = new YatInputAdapter(windowController, pet, this);
-        Gdx.input.setInputProcessor(new InputMultiplexer(menuManager.getStage(), inputAdapter));
+        configWatcher = new ConfigWatcher(config.getSource());
+        configWatcher.start();
 
         logger.info("YatDP initialized");
     }
 
     @Override
     public void render() {
+        if (resizePending) relayout();
         clearScreen();
+        float delta = Gdx.graphics.getDeltaTime();
+
+        ConfigManager reloaded = configWatcher.poll();
+        if (reloaded != null) applyConfig(reloaded);
+
+        // 拖拽期间累计的移动事件在这里合并为一次窗口移动
+        inputAdapter.update(delta);
+
+        // 主窗口每帧最先渲染，在这里统一更新所有桌宠（包括独立窗口中的），其他窗口只负责绘制
+        windowController.getWindowOrigin(windowOrigin);
+        petManager.setWindowOrigin(windowOrigin.x, windowOrigin.y);
+        updateClickThrough();
+        petManager.update(delta);
+        Gdx.graphics.setContinuousRendering(appState != AppState.NORMAL && !inputAdapter.getIsMinimized());
 
         if (inputAdapter.getIsMinimized()) {
+            if (!lowMemory && config.lowMemoryWhenMinimized) enterLowMemory();
             minIcon.render();
             return;
         }
-
-        float delta = Gdx.graphics.getDeltaTime();
+        if (lowMemory) leaveLowMemory();
 
         // 更新运行时间
         runTime += delta;
@@ -120,14 +180,14 @@ public class MainApp extends ApplicationAdapter {
 
         switch (appState) {
             case NORMAL:
-                pet.render(delta);
+                petManager.draw();
                 break;
             case MENU:
-                pet.render(delta);
-                menuManager.render();
+                petManager.draw();
+                getMenuManager().render();
                 break;
             case FULL_SCREEN:
-                menuManager.render();
+                getMenuManager().render();
                 break;
             case BREAK_REMINDER:  // 新增状态处理
                 renderBreakReminder();
@@ -136,6 +196,20 @@ public class MainApp extends ApplicationAdapter {
 
     }
 
+    /**
+     * 普通状态下，光标位于模型透明区域时开启鼠标穿透，让点击落到桌面上；
+     * 菜单、提醒、最小化以及拖拽过程中始终关闭穿透。
+     */
+    private void updateClickThrough() {
+        boolean passthrough = false;
+        if (appState == AppState.NORMAL && !inputAdapter.getIsMinimized() && !inputAdapter.getIsLeftPressed()) {
+            windowController.getCursorPosition(cursorPos);
+            passthrough = !pet.hitTest((int) cursorPos.x, (int) cursorPos.y);
+            petManager.setCursor(windowOrigin.x + cursorPos.x, windowOrigin.y + Gdx.graphics.getHeight() - cursorPos.y);
+        }
+        windowController.setMousePassthrough(passthrough);
+    }
+
     private void checkBreakReminder() {
         if (runTime >= BREAK_REMINDER_TIME && appState != AppState.BREAK_REMINDER) {
             showBreakReminder();
@@ -146,17 +220,17 @@ public class MainApp extends ApplicationAdapter {
         appState = AppState.BREAK_REMINDER;
         // 重置计时，避免重复提醒
         runTime = 0f;
+        getMenuManager().showBreakReminderUI();
     }
 
     private void renderBreakReminder() {
-        // 使用MenuManager的stage来渲染休息提醒界面
-        menuManager.createBreakReminderUI();
-        menuManager.render();
+        // 提醒窗口已在进入该状态时显示，这里只渲染
+        getMenuManager().render();
     }
 
     public void backToNormalFromBreak() {
         appState = AppState.NORMAL;
-        menuManager.createMenuUI(false);
+        if (menuManager != null) menuManager.hideAll();
     }
 
     private void clearScreen() {
@@ -166,25 +240,37 @@ public class MainApp extends ApplicationAdapter {
 
     @Override
     public void resize(int width, int height) {
-        pet.resize();
+        this.width = width;
+        this.height = height;
+        // 一次窗口切换可能带来多次回调，只做标记，下一帧开始时统一重新布局一次
+        resizePending = true;
+    }
+
+    private void relayout() {
+        resizePending = false;
+        petManager.resize();
         minIcon.resize(width, height);
-        boolean showMenuTable = appState == AppState.MENU;
-        menuManager.resize(width, height, showMenuTable);
+        if (menuManager != null) menuManager.resize(width, height);
         logger.info("APP Resized.");
     }
 
     @Override
     public void dispose() {
         // Just dispose everything
-        pet.dispose();
+        configWatcher.dispose();
+        petManager.dispose();
         minIcon.dispose();
-        menuManager.dispose();
+        if (menuManager != null) menuManager.dispose();
         logger.info("APP disposed.");
     }
 
     public void toggleMenuMode() {
         appState = (appState == AppState.NORMAL) ? AppState.MENU : AppState.NORMAL;
-        menuManager.createMenuUI(appState == AppState.MENU);
+        if (appState == AppState.MENU) {
+            getMenuManager().showMenuUI(true);
+        } else if (menuManager != null) {
+            menuManager.hideAll();
+        }
     }
 
     /**
@@ -194,8 +280,8 @@ public class MainApp extends ApplicationAdapter {
      */
     public void showFullContent(String content) {
         appState = AppState.FULL_SCREEN;
-        menuManager.setCurrentContent(content);
-        menuManager.createMenuUI(false);
+        getMenuManager().setCurrentContent(content);
+        menuManager.showMenuUI(false);
     }
 
     /**
@@ -203,7 +289,115 @@ public class MainApp extends ApplicationAdapter {
      */
     public void backToMenu() {
         appState = AppState.MENU;
-        menuManager.createMenuUI(true);
+        getMenuManager().showMenuUI(true);
+    }
+
+    /**
+     * 获取菜单，低内存模式释放后在首次需要时重新创建，并重新接入输入处理
+     */
+    private MenuManager getMenuManager() {
+        if (menuManager == null) {
+            menuManager = new MenuManager(windowController, this::showFullContent, exitCallBack);
+            menuManager.resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+            inputMultiplexer.addProcessor(0, menuManager.getStage());
+            // 在菜单中最小化后恢复时，菜单仍处于打开状态
+            if (appState == AppState.MENU) menuManager.showMenuUI(true);
+        }
+        return menuManager;
+    }
+
+    /**
+     * 进入低内存模式：释放菜单、不在屏幕上的纹理与不会播放的动画，再触发一次 GC 让堆收缩
+     */
+    private void enterLowMemory() {
+        String before = memoryUsage();
+        lowMemory = true;
+        if (menuManager != null) {
+            inputMultiplexer.removeProcessor(menuManager.getStage());
+            menuManager.dispose();
+            menuManager = null;
+        }
+        petManager.trimMemory();
+        System.gc();
+        logger.info("Low memory mode on. Before: " + before + ", after: " + memoryUsage());
+    }
+
+    /**
+     * 退出低内存模式：只恢复绘制桌宠所需的纹理，菜单与动画仍按需加载
+     */
+    private void leaveLowMemory() {
+        String before = memoryUsage();
+        lowMemory = false;
+        petManager.restoreMemory();
+        logger.info("Low memory mode off. Before: " + before + ", after: " + memoryUsage());
+    }
+
+    /**
+     * @return 当前堆占用与常驻内存，RSS 只在 Linux 上可读
+     */
+    private static String memoryUsage() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        String rss = "n/a";
+        try (BufferedReader reader = new BufferedReader(new FileReader("/proc/self/status"))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith("VmRSS:")) {
+                    rss = Long.parseLong(line.replaceAll("\\D", "")) / 1024 + " MB";
+                    break;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+            // 非 Linux 系统没有 /proc
+        }
+        return "heap " + (used >> 20) + "/" + (runtime.totalMemory() >> 20) + " MB, RSS " + rss;
+    }
+
+    /**
+     * 新建一只桌宠并放入独立窗口，窗口出现在主窗口右侧。
+     * 新桌宠复用已加载的模型资源，姿态仍由主窗口统一更新。
+     * 通过 {@code postRunnable} 调用时 Gdx.graphics 可能属于其他窗口，因此位置按记录的主窗口尺寸计算。
+     */
+    public void spawnPetWindow() {
+        SpinePet newPet = petManager.spawn(config.modelDirPath, config.modelName);
+        newPet.applyConfig(config);
+        petManager.detach(newPet);
+        newPet.setPosition(width / 2f, 0);
+        int x = Math.round(windowOrigin.x) + PET_WINDOW_SPACING;
+        int y = -Math.round(windowOrigin.y) - height;
+        windowController.spawnPetWindow(new PetWindow(petManager, newPet), x, y);
+    }
+
+    /**
+     * 应用热重载的配置。配置已在后台线程解析完毕，这里只做赋值与切换；
+     * 模型变化时主桌宠在后台加载新模型后交叉淡入淡出，独立窗口中的桌宠保持原模型。
+     *
+     * @param newConfig 新的配置
+     */
+    private void applyConfig(ConfigManager newConfig) {
+        ConfigManager oldConfig = config;
+        config = newConfig;
+        ConfigManager.setInstance(newConfig);
+
+        petManager.setCompressAnimations(newConfig.compressAnimations);
+        if (!newConfig.isSameModel(oldConfig)) {
+            petManager.swapModel(pet, newConfig.modelDirPath, newConfig.modelName, newPet -> {
+                newPet.setLod(pet.getLod());
+                newPet.applyConfig(config);
+                pet = newPet;
+                inputAdapter.setPet(newPet);
+            });
+        }
+        for (SpinePet p : petManager.getPets()) {
+            p.applyConfig(newConfig);
+        }
+        applyFrameRate();
+        inputAdapter.setDragPrediction(newConfig.dragPredictionMillis / 1000f);
+        logger.info("Config applied.");
+    }
+
+    private void applyFrameRate() {
+        int fps = config.foregroundFps > 0 ? config.foregroundFps : Gdx.graphics.getDisplayMode().refreshRate + 1;
+        Gdx.graphics.setForegroundFPS(fps);
     }
 
     public AppState getAppState() {
@@ -0,0 +1,94 @@
+package com.badlogic.yatdp.core;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.yatdp.input.WindowController;
+import com.badlogic.yatdp.input.WindowDrag;
+import com.badlogic.yatdp.pet.PetManager;
+import com.badlogic.yatdp.pet.SpinePet;
+
+/**
+ * PetWindow 是额外桌宠窗口的渲染回调，由 {@link WindowController#spawnPetWindow} 创建。
+ *
+ * <p>该窗口不持有任何资源，也不计算动画：桌宠的姿态由主窗口中的 {@link PetManager#update(float)}
+ * 每帧统一计算，这里只把对应桌宠提交到共享的批处理器中绘制。
+ * 所有窗口共享同一个 GL 上下文，因此纹理与批处理器可以直接复用。</p>
+ *
+ * <h3>交互</h3>
+ * <ul>
+ *     <li>左键拖动：移动该窗口，移动事件经 {@link WindowDrag} 合并为每帧一次</li>
+ *     <li>左键点击（未拖动且命中模型）：触发桌宠点击动画</li>
+ * </ul>
+ *
+ * <p>窗口关闭时把桌宠归还给 {@link PetManager}。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetManager#detach(SpinePet)
+ * @see MainApp#spawnPetWindow()
+ */
+public class PetWindow extends ApplicationAdapter {
+    private final PetManager petManager;
+    private final SpinePet pet;
+    private final WindowController windowController = new WindowController();
+    private final WindowDrag drag = new WindowDrag(windowController);
+    private final Vector2 origin = new Vector2();
+
+    public PetWindow(PetManager petManager, SpinePet pet) {
+        this.petManager = petManager;
+        this.pet = pet;
+    }
+
+    @Override
+    public void create() {
+        ConfigManager config = ConfigManager.getInstance();
+        if (config != null) drag.setPrediction(config.dragPredictionMillis / 1000f);
+        Gdx.input.setInputProcessor(new InputAdapter() {
+            private boolean isDragging = false;
+
+            @Override
+            public boolean touchDown(int x, int y, int pointer, int button) {
+                if (button != Input.Buttons.LEFT) return false;
+                drag.begin(x, y);
+                isDragging = false;
+                return true;
+            }
+
+            @Override
+            public boolean touchDragged(int x, int y, int pointer) {
+                if (!drag.drag(x, y)) return false;
+                isDragging = true;
+                return true;
+            }
+
+            @Override
+            public boolean touchUp(int x, int y, int pointer, int button) {
+                if (button != Input.Buttons.LEFT) return false;
+                drag.end();
+                if (!isDragging && pet.hitTest(x, y)) pet.onClicked();
+                isDragging = false;
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public void render() {
+        Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        drag.update(Gdx.graphics.getDeltaTime());
+        windowController.getWindowOrigin(origin);
+        pet.setWindowOrigin(origin.x, origin.y);
+        petManager.draw(pet, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
+
+    @Override
+    public void dispose() {
+        petManager.despawn(pet);
+    }
+}
@@ -1,9 +1,14 @@
 package com.badlogic.yatdp.input;
 
+import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Graphics;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Window;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3WindowAdapter;
 import com.badlogic.gdx.math.Vector2;
+import org.lwjgl.glfw.GLFW;
 
 /**
  * WindowController 是桌宠程序 YatDP 的窗口管理模块，
@@ -12,10 +17,15 @@ import com.badlogic.gdx.math.Vector2;
  *
  * <h3>功能概述</h3>
  * <ul>
- *     <li><b>moveBy</b>：根据偏移量移动窗口位置，通常由鼠标拖拽触发</li>
+ *     <li><b>moveBy</b>：根据偏移量移动窗口位置，拖拽时由 {@link WindowDrag} 每帧调用一次</li>
  *     <li><b>minimize</b>：将窗口缩小为图标状态（32×32），并标记为最小化</li>
  *     <li><b>expand</b>：展开窗口用于展示菜单界面（300×150）</li>
  *     <li><b>restore</b>：将窗口恢复为默认尺寸（150×150），并标记为未最小化</li>
+ *     <li><b>setGeometry</b>：一次性设置窗口位置与尺寸，以上三种切换都经由它完成，左上角保持不动</li>
+ *     <li><b>setMousePassthrough</b>：开启/关闭 GLFW 鼠标穿透，透明区域的点击交给桌面</li>
+ *     <li><b>getCursorPosition</b>：直接向 GLFW 查询光标位置，穿透期间窗口收不到鼠标事件时仍可用</li>
+ *     <li><b>spawnPetWindow</b>：创建额外的无边框透明置顶窗口，与主窗口共享 GL 上下文</li>
+ *     <li><b>configurePetWindow</b>：主窗口与额外窗口共用的窗口配置</li>
  * </ul>
  *
  * <h3>尺寸定义</h3>
@@ -28,7 +38,7 @@ import com.badlogic.gdx.math.Vector2;
  * <h3>模块协作结构</h3>
  * <pre>
  * WindowController
- * ├── 调用 Gdx.graphics.setWindowedMode(...) 控制窗口大小
+ * ├── setGeometry(...) 在一次 GLFW 调用中设置窗口位置与大小
  * ├── 获取 Lwjgl3Window 控制窗口位置（setPosition）
  * └── 由 YatInputAdapter 调用响应拖拽与菜单切换
  * </pre>
@@ -47,45 +57,126 @@ import com.badlogic.gdx.math.Vector2;
  * </ul>
  *
  * @author baiheyufei
- * @version 1.1
+ * @version 1.3
  */
 public class WindowController {
     private static final int MIN_WIDTH = 32, MIN_HEIGHT = 32;
     private static final int MENU_WIDTH = 300, MENU_HEIGHT = 150;
     private static final int DEFAULT_WIDTH = 150, DEFAULT_HEIGHT = 150;
 
-    public void moveBy(Vector2 delta) {
+    private final double[] cursorX = new double[1], cursorY = new double[1];
+    private boolean isPassthrough = false;
+
+    /**
+     * 按偏移量移动窗口，每次调用都是一次同步的 GLFW 调用，拖拽时应经 {@link WindowDrag} 合并为每帧一次。
+     */
+    public void moveBy(int dx, int dy) {
         Lwjgl3Window window = getWindow();
-        window.setPosition(window.getPositionX() + (int) delta.x,
-            window.getPositionY() + (int) delta.y);
+        window.setPosition(window.getPositionX() + dx, window.getPositionY() + dy);
     }
 
     public void minimize() {
         YatInputAdapter.getInstance().setIsMinimized(true);
-        Lwjgl3Window window = getWindow();
-        int screenX = window.getPositionX();
-        int screenY = window.getPositionY();
-        Gdx.graphics.setWindowedMode(MIN_WIDTH, MIN_HEIGHT);
-        window.setPosition(screenX, screenY);
+        resizeInPlace(MIN_WIDTH, MIN_HEIGHT);
     }
 
     public void expand() {
-        Lwjgl3Window window = getWindow();
-        int screenX = window.getPositionX();
-        int screenY = window.getPositionY();
-        Gdx.graphics.setWindowedMode(MENU_WIDTH, MENU_HEIGHT);
-        window.setPosition(screenX, screenY);
+        resizeInPlace(MENU_WIDTH, MENU_HEIGHT);
     }
 
     public void restore() {
         YatInputAdapter.getInstance().setIsMinimized(false);
+        resizeInPlace(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    }
+
+    /**
+     * 在一次 GLFW 调用中同时设置窗口左上角位置与尺寸（屏幕坐标，y 轴向下）。
+     * 窗口只重新布局一次，帧缓冲也只重新分配一次，随后触发一次 {@code resize} 回调。
+     */
+    public void setGeometry(int x, int y, int width, int height) {
+        GLFW.glfwSetWindowMonitor(getWindow().getWindowHandle(), 0, x, y, width, height, GLFW.GLFW_DONT_CARE);
+    }
+
+    /**
+     * 保持左上角不动改变窗口尺寸，尺寸不变时不做任何调用。
+     * 不使用 {@code Gdx.graphics.setWindowedMode}：它在尺寸变化时会先把窗口移到屏幕中央，
+     * 再由调用方移回原处，一次切换要经过三次 GLFW 调用，中间可能闪现一帧。
+     */
+    private void resizeInPlace(int width, int height) {
+        if (width == Gdx.graphics.getWidth() && height == Gdx.graphics.getHeight()) return;
         Lwjgl3Window window = getWindow();
-        int screenX = window.getPositionX();
-        int screenY = window.getPositionY();
-        Gdx.graphics.setWindowedMode(DEFAULT_WIDTH, DEFAULT_HEIGHT);
-        window.setPosition(screenX, screenY);
+        setGeometry(window.getPositionX(), window.getPositionY(), width, height);
     }
 
+    /**
+     * 开启或关闭窗口的鼠标穿透。仅在状态变化时才调用 GLFW，可每帧调用。
+     *
+     * @param passthrough 为 true 时鼠标事件会穿过窗口交给下层桌面
+     */
+    public void setMousePassthrough(boolean passthrough) {
+        if (passthrough == isPassthrough) return;
+        isPassthrough = passthrough;
+        GLFW.glfwSetWindowAttrib(getWindow().getWindowHandle(), GLFW.GLFW_MOUSE_PASSTHROUGH,
+            passthrough ? GLFW.GLFW_TRUE : GLFW.GLFW_FALSE);
+    }
+
+    /**
+     * 获取光标相对窗口左上角的位置，结果写入 {@code out}。
+     */
+    public Vector2 getCursorPosition(Vector2 out) {
+        GLFW.glfwGetCursorPos(getWindow().getWindowHandle(), cursorX, cursorY);
+        return out.set((float) cursorX[0], (float) cursorY[0]);
+    }
+
+    /**
+     * 获取当前窗口左下角在桌面坐标系（y 轴向上）中的位置，结果写入 {@code out}。
+     * 必须在目标窗口的渲染回调中调用，此时 {@code Gdx.graphics} 指向该窗口。
+     */
+    public Vector2 getWindowOrigin(Vector2 out) {
+        Lwjgl3Window window = getWindow();
+        return out.set(window.getPositionX(), -(window.getPositionY() + Gdx.graphics.getHeight()));
+    }
+
+    /**
+     * 把配置设为无边框、透明、尺寸固定的桌宠窗口，启动器的主窗口与 {@link #spawnPetWindow} 的额外窗口都经由它配置，
+     * 两者的窗口属性保持一致。置顶需在窗口创建后由 {@link #setFloating(Lwjgl3Window)} 开启。
+     */
+    public static void configurePetWindow(Lwjgl3ApplicationConfiguration configuration) {
+        configuration.setWindowedMode(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+        configuration.setDecorated(false);
+        configuration.setResizable(false);
+        configuration.setTransparentFramebuffer(true);
+    }
+
+    /**
+     * 让窗口置顶，应在窗口监听器的 {@code created} 回调中调用
+     */
+    public static void setFloating(Lwjgl3Window window) {
+        GLFW.glfwSetWindowAttrib(window.getWindowHandle(), GLFW.GLFW_FLOATING, GLFW.GLFW_TRUE);
+    }
+
+    /**
+     * 创建一个额外的桌宠窗口。LWJGL3 后端创建新窗口时会与已有窗口共享 GL 上下文，
+     * 因此纹理、着色器与批处理器都可以直接复用，不需要重新加载。
+     *
+     * @param listener 新窗口的渲染回调，只负责提交绘制
+     * @param x        窗口左上角横坐标
+     * @param y        窗口左上角纵坐标
+     * @return 新创建的窗口
+     */
+    public Lwjgl3Window spawnPetWindow(ApplicationListener listener, int x, int y) {
+        Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
+        configurePetWindow(configuration);
+        configuration.setTitle("YatDP pet");
+        configuration.setWindowPosition(x, y);
+        configuration.setWindowListener(new Lwjgl3WindowAdapter() {
+            @Override
+            public void created(Lwjgl3Window window) {
+                setFloating(window);
+            }
+        });
+        return ((Lwjgl3Application) Gdx.app).newWindow(listener, configuration);
+    }
 
     private Lwjgl3Window getWindow() {
         return ((Lwjgl3Graphics) Gdx.graphics).getWindow();
@@ -0,0 +1,142 @@
+package com.badlogic.yatdp.input;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Logger;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * WindowDrag 合并拖拽过程中的鼠标移动事件，每帧只移动一次窗口。
+ *
+ * <h3>为什么要合并</h3>
+ * <p>每次 {@code Lwjgl3Window#setPosition} 都是一次同步的 GLFW 调用，高回报率鼠标在一帧内可能产生多个移动事件，
+ * 逐个移动窗口会让拖拽明显滞后。窗口在两帧之间不动，因此同一帧内的事件都相对同一个窗口位置，
+ * 只需保留最新的一个。</p>
+ *
+ * <h3>使用方式</h3>
+ * <pre>
+ * touchDown    → begin(x, y)
+ * touchDragged → drag(x, y)      // 只记录，不调用 GLFW
+ * render       → update(delta)   // 每帧最多移动一次窗口
+ * touchUp      → end()           // 输出本次拖拽的事件数、移动次数与延迟
+ * </pre>
+ *
+ * <h3>预测平滑</h3>
+ * <p>{@link #setPrediction(float)} 大于 0 时，按平滑后的光标速度把窗口额外向前移动一段，抵消事件到画面之间的延迟。
+ * 预测多出的位移会在下一帧的偏移中自动扣除，光标停下后速度衰减，窗口回到光标下方。</p>
+ *
+ * <h3>注意事项</h3>
+ * <ul>
+ *     <li>坐标与 {@link com.badlogic.gdx.InputProcessor} 一致：相对窗口左上角，y 轴向下</li>
+ *     <li>所有方法都应在所属窗口的渲染线程调用，过程中不分配对象</li>
+ * </ul>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see WindowController#moveBy(int, int)
+ */
+public class WindowDrag {
+    private static final Logger logger = new Logger("WindowDrag", Logger.DEBUG);
+    /// 光标速度的指数平滑系数，越大越跟手，越小越平稳
+    private static final float VELOCITY_SMOOTHING = 0.5f;
+
+    private final WindowController windowController;
+    private final Vector2 anchor = new Vector2();   // 按下时光标相对窗口的位置
+    private final Vector2 offset = new Vector2();   // 光标相对 anchor 的偏移，即窗口还需移动的距离
+    private final Vector2 settled = new Vector2();  // 上一次移动窗口后剩余的偏移
+    private final Vector2 velocity = new Vector2(); // 平滑后的光标速度（像素/秒）
+    private final Vector2 sample = new Vector2();
+    private float prediction;
+    private boolean active;
+
+    private boolean eventPending;
+    private long eventNanos;
+    private int events, moves, latencySamples;
+    private long latencySumNanos, latencyMaxNanos;
+
+    public WindowDrag(WindowController windowController) {
+        this.windowController = windowController;
+    }
+
+    /**
+     * @param seconds 预测时长（秒），0 表示关闭预测
+     */
+    public void setPrediction(float seconds) {
+        prediction = Math.max(seconds, 0);
+    }
+
+    /**
+     * 鼠标按下，记录光标在窗口中的位置
+     */
+    public void begin(int x, int y) {
+        anchor.set(x, y);
+        offset.setZero();
+        settled.setZero();
+        velocity.setZero();
+        active = true;
+        eventPending = false;
+        events = moves = latencySamples = 0;
+        latencySumNanos = latencyMaxNanos = 0;
+    }
+
+    /**
+     * 记录一次移动事件，窗口在下一次 {@link #update(float)} 时才移动
+     *
+     * @return 光标偏离按下位置时返回 true
+     */
+    public boolean drag(int x, int y) {
+        if (!active) return false;
+        offset.set(x - anchor.x, y - anchor.y);
+        events++;
+        if (!eventPending) {
+            eventPending = true;
+            eventNanos = TimeUtils.nanoTime();
+        }
+        return !offset.isZero();
+    }
+
+    /**
+     * 把本帧累计的偏移一次性应用到窗口，每帧调用一次
+     */
+    public void update(float delta) {
+        if (!active) return;
+
+        if (prediction > 0 && delta > 0) {
+            // 上一次移动后到现在，光标在屏幕上移动的距离
+            sample.set(offset).sub(settled).scl(1 / delta);
+            velocity.lerp(sample, VELOCITY_SMOOTHING);
+        } else {
+            velocity.setZero();
+        }
+
+        int moveX = Math.round(offset.x + velocity.x * prediction);
+        int moveY = Math.round(offset.y + velocity.y * prediction);
+        if (moveX != 0 || moveY != 0) {
+            windowController.moveBy(moveX, moveY);
+            moves++;
+            // 窗口移动后光标相对窗口反向移动同样的距离
+            offset.sub(moveX, moveY);
+        }
+        settled.set(offset);
+
+        if (eventPending) {
+            long latency = TimeUtils.timeSinceNanos(eventNanos);
+            latencySumNanos += latency;
+            latencyMaxNanos = Math.max(latencyMaxNanos, latency);
+            latencySamples++;
+            eventPending = false;
+        }
+    }
+
+    /**
+     * 鼠标松开，结束拖拽并输出统计。预测产生的超前位移在这里收回，窗口停在光标下方。
+     */
+    public void end() {
+        if (!active) return;
+        active = false;
+        int moveX = Math.round(offset.x), moveY = Math.round(offset.y);
+        if (moveX != 0 || moveY != 0) windowController.moveBy(moveX, moveY);
+        if (latencySamples == 0) return;
+        logger.debug("Drag: " + events + " events, " + moves + " moves, event-to-move latency avg "
+            + latencySumNanos / latencySamples / 1000 / 1000f + " ms, max " + latencyMaxNanos / 1000 / 1000f + " ms");
+    }
+}
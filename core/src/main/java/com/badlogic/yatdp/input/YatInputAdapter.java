@@ -2,7 +2,6 @@ package com.badlogic.yatdp.input;
 
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputAdapter;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Logger;
 import com.badlogic.yatdp.core.AppState;
 import com.badlogic.yatdp.pet.SpinePet;
@@ -16,8 +15,8 @@ import com.badlogic.yatdp.core.MainApp;
  *
  * <h3>功能概述</h3>
  * <ul>
- *     <li>窗口拖拽：监听鼠标左键按下与拖动，调用 {@link WindowController#moveBy(Vector2)} 实现窗口随鼠标移动</li>
- *     <li>桌宠点击：在鼠标左键点击但未拖动时，调用 {@link SpinePet#onClicked()} 响应点击动画</li>
+ *     <li>窗口拖拽：监听鼠标左键按下与拖动，由 {@link WindowDrag} 合并移动事件，每帧在 {@link #update(float)} 中移动一次窗口</li>
+ *     <li>桌宠点击：在鼠标左键点击但未拖动、且命中模型不透明区域时，调用 {@link SpinePet#onClicked()} 响应点击动画</li>
  *     <li>右键菜单：右键点击时切换应用状态（菜单展开/收起），并控制窗口尺寸显示</li>
  *     <li>最小化恢复：若当前处于最小化状态，右键点击将恢复窗口显示</li>
  * </ul>
@@ -41,8 +40,8 @@ import com.badlogic.yatdp.core.MainApp;
  * <h3>核心逻辑示意</h3>
  * <pre>
  * 鼠标左键按下 → 记录位置
- * 鼠标拖动    → 计算偏移量并移动窗口
- * 鼠标释放    → 若未拖动，则触发宠物点击动画
+ * 鼠标拖动    → 记录偏移量，下一帧统一移动窗口
+ * 鼠标释放    → 若未拖动且点在模型上，则触发宠物点击动画
  *
  * 鼠标右键点击：
  *   - 若最小化 → 恢复窗口
@@ -54,16 +53,16 @@ import com.badlogic.yatdp.core.MainApp;
  * <a href="https://libgdx.com/wiki/input/event-handling">LibGDX Input Event Handling</a>
  *
  * @author baiheyufei
- * @version 1.1
+ * @version 1.2
  */
 public class YatInputAdapter extends InputAdapter {
 
     private static YatInputAdapter INSTANCE;
     private final WindowController windowController;
-    private final SpinePet pet;
+    private SpinePet pet;
     private final MainApp app;
+    private final WindowDrag drag;
 
-    private final Vector2 mouseDownPos = new Vector2();
     private boolean isLeftPressed = false;
     private boolean isDragging = false;
     private boolean isMinimized = false;
@@ -76,12 +75,37 @@ public class YatInputAdapter extends InputAdapter {
         this.windowController = controller;
         this.pet = pet;
         this.app = app;
+        this.drag = new WindowDrag(controller);
 
         INSTANCE = this;
 
         logger.info("YatInputAdapter initialized");
     }
 
+    /**
+     * 更换接收点击的桌宠，例如配置热重载更换了模型之后
+     */
+    public void setPet(SpinePet pet) {
+        this.pet = pet;
+    }
+
+    /**
+     * 设置拖拽预测时长，0 表示关闭
+     *
+     * @param seconds 预测时长（秒）
+     * @see WindowDrag#setPrediction(float)
+     */
+    public void setDragPrediction(float seconds) {
+        drag.setPrediction(seconds);
+    }
+
+    /**
+     * 应用本帧累计的拖拽位移，每帧调用一次
+     */
+    public void update(float delta) {
+        drag.update(delta);
+    }
+
     public static YatInputAdapter getInstance() {
         return INSTANCE;
     }
@@ -90,8 +114,8 @@ public class YatInputAdapter extends InputAdapter {
     public boolean touchDown(int x, int y, int pointer, int button) {
 
         if (button == Input.Buttons.LEFT) {
-            mouseDownPos.set(x, y);
             isLeftPressed = true;
+            drag.begin(x, y);
             return true;
         }
         if (button == Input.Buttons.RIGHT) {
@@ -109,7 +133,8 @@ public class YatInputAdapter extends InputAdapter {
 
         if (button == Input.Buttons.LEFT) {
             isLeftPressed = false;
-            if (!isDragging) pet.onClicked();
+            drag.end();
+            if (!isDragging && pet.hitTest(x, y)) pet.onClicked();
             isDragging = false;
             return true;
         }
@@ -121,8 +146,7 @@ public class YatInputAdapter extends InputAdapter {
         if (!isLeftPressed) return false;
 
         isDragging = true;
-        Vector2 delta = new Vector2(x, y).sub(mouseDownPos);
-        windowController.moveBy(delta);
+        drag.drag(x, y);
         return true;
     }
 
@@ -150,6 +174,9 @@ public class YatInputAdapter extends InputAdapter {
     public boolean getIsMinimized() {
         return isMinimized;
     }
+    public boolean getIsLeftPressed() {
+        return isLeftPressed;
+    }
     public void setIsMinimized(boolean isMinimized) {
         this.isMinimized = isMinimized;
     }
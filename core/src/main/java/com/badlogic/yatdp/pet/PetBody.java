@@ -0,0 +1,68 @@
+package com.badlogic.yatdp.pet;
+
+/**
+ * PetBody 是 {@link PetWorld} 中一只桌宠的碰撞体，使用轴对齐包围盒（AABB）表示。
+ * 坐标系由使用方决定（通常为桌面像素坐标），PetWorld 只比较数值大小。
+ *
+ * <p>该类不依赖任何图形上下文，可在无窗口环境下创建与测试。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetWorld
+ */
+public class PetBody {
+    final int id;
+    int index = -1; // 在 PetWorld 中的下标，未加入时为 -1
+    float minX, minY, maxX, maxY;
+
+    /// 使用方附加的数据，例如对应的 SpinePet
+    public Object userData;
+
+    public PetBody(int id) {
+        this.id = id;
+    }
+
+    /**
+     * 以左下角与宽高设置包围盒。
+     */
+    public PetBody set(float x, float y, float width, float height) {
+        minX = x;
+        minY = y;
+        maxX = x + width;
+        maxY = y + height;
+        return this;
+    }
+
+    public boolean overlaps(PetBody other) {
+        return minX < other.maxX && maxX > other.minX && minY < other.maxY && maxY > other.minY;
+    }
+
+    public boolean contains(float x, float y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    @Override
+    public String toString() {
+        return "PetBody#" + id;
+    }
+}
@@ -0,0 +1,201 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonBounds;
+import com.esotericsoftware.spine.Slot;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+
+import java.util.Arrays;
+
+/**
+ * PetHitTester 负责判断窗口中的某个像素是否落在桌宠模型上，
+ * 用于点击判定以及驱动透明区域的鼠标穿透。
+ *
+ * <h3>判定策略</h3>
+ * <ul>
+ *     <li>模型带有 BoundingBox 附件时，直接使用 {@link SkeletonBounds} 的多边形判定</li>
+ *     <li>否则退化为低分辨率的覆盖遮罩：把可见的 Region/Mesh 附件三角形光栅化到
+ *         {@code cellSize × cellSize} 像素一格的网格上，只判断格子是否被覆盖</li>
+ * </ul>
+ *
+ * <h3>增量构建</h3>
+ * 遮罩采用双缓冲：每帧最多处理 {@link #setSlotsPerFrame(int)} 个插槽写入后台缓冲，
+ * 一轮插槽全部处理完毕后再与前台缓冲交换。默认每帧处理全部插槽，
+ * 对 150×150 的窗口而言整张遮罩只有约 1.4k 个格子，每帧重建的开销可以忽略。
+ *
+ * <h3>坐标约定</h3>
+ * 所有查询坐标均为 Skeleton 的世界坐标（左下角为原点，与窗口像素一致），
+ * 屏幕坐标（左上角为原点）的转换由 {@link SpinePet#hitTest(int, int)} 完成。
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see SpinePet
+ */
+public class PetHitTester {
+    private static final short[] QUAD_TRIANGLES = {0, 1, 2, 2, 3, 0};
+    private static final float MIN_VISIBLE_ALPHA = 0.05f;
+
+    private final SkeletonBounds bounds = new SkeletonBounds();
+    private final FloatArray worldVertices = new FloatArray(32);
+    private final int cellSize;
+
+    private boolean[] mask = new boolean[0];
+    private boolean[] building = new boolean[0];
+    private int maskWidth, maskHeight;
+    private int slotsPerFrame = Integer.MAX_VALUE;
+    private int nextSlot = 0;
+    private boolean useBounds = false;
+
+    public PetHitTester() {
+        this(4);
+    }
+
+    /**
+     * @param cellSize 遮罩每一格对应的像素边长，越大越省但精度越低
+     */
+    public PetHitTester(int cellSize) {
+        if (cellSize < 1) throw new IllegalArgumentException("cellSize must be >= 1.");
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * 根据 Skeleton 当前姿态更新判定数据，应在 {@code updateWorldTransform()} 之后每帧调用一次。
+     *
+     * @param skeleton 已更新世界变换的 Skeleton
+     * @param width    窗口宽度（像素）
+     * @param height   窗口高度（像素）
+     */
+    public void update(Skeleton skeleton, int width, int height) {
+        bounds.update(skeleton, true);
+        useBounds = bounds.getPolygons().size > 0;
+        if (useBounds) return;
+
+        resizeMask(width, height);
+        Array<Slot> drawOrder = skeleton.getDrawOrder();
+        int slotCount = drawOrder.size;
+        int end = (int) Math.min((long) nextSlot + slotsPerFrame, slotCount);
+        Color skeletonColor = skeleton.getColor();
+        for (int i = nextSlot; i < end; i++) {
+            rasterizeSlot(drawOrder.get(i), skeletonColor.a);
+        }
+        nextSlot = end;
+
+        if (nextSlot >= slotCount) {
+            boolean[] finished = building;
+            building = mask;
+            mask = finished;
+            Arrays.fill(building, false);
+            nextSlot = 0;
+        }
+    }
+
+    /**
+     * 判断世界坐标中的点是否落在模型上。
+     */
+    public boolean hit(float x, float y) {
+        if (useBounds) {
+            return bounds.aabbContainsPoint(x, y) && bounds.containsPoint(x, y) != null;
+        }
+        if (x < 0 || y < 0) return false;
+        int cx = (int) x / cellSize, cy = (int) y / cellSize;
+        if (cx >= maskWidth || cy >= maskHeight) return false;
+        return mask[cy * maskWidth + cx];
+    }
+
+    /**
+     * 每帧最多光栅化的插槽数量。小于插槽总数时，遮罩会在多帧内分批构建。
+     */
+    public void setSlotsPerFrame(int slotsPerFrame) {
+        if (slotsPerFrame < 1) throw new IllegalArgumentException("slotsPerFrame must be >= 1.");
+        this.slotsPerFrame = slotsPerFrame;
+    }
+
+    /**
+     * 当前是否使用 BoundingBox 多边形进行判定。
+     */
+    public boolean isUsingBounds() {
+        return useBounds;
+    }
+
+    // -------- Private Helpers -------- //
+
+    private void resizeMask(int width, int height) {
+        int w = (width + cellSize - 1) / cellSize;
+        int h = (height + cellSize - 1) / cellSize;
+        if (w == maskWidth && h == maskHeight) return;
+        maskWidth = w;
+        maskHeight = h;
+        mask = new boolean[w * h];
+        building = new boolean[w * h];
+        nextSlot = 0;
+    }
+
+    private void rasterizeSlot(Slot slot, float skeletonAlpha) {
+        if (!slot.getBone().isActive()) return;
+        Attachment attachment = slot.getAttachment();
+        float[] vertices;
+        short[] triangles;
+        float alpha = skeletonAlpha * slot.getColor().a;
+        if (attachment instanceof RegionAttachment) {
+            RegionAttachment region = (RegionAttachment) attachment;
+            alpha *= region.getColor().a;
+            if (alpha < MIN_VISIBLE_ALPHA) return;
+            vertices = worldVertices.setSize(8);
+            region.computeWorldVertices(slot.getBone(), vertices, 0, 2);
+            triangles = QUAD_TRIANGLES;
+        } else if (attachment instanceof MeshAttachment) {
+            MeshAttachment mesh = (MeshAttachment) attachment;
+            alpha *= mesh.getColor().a;
+            if (alpha < MIN_VISIBLE_ALPHA) return;
+            int count = mesh.getWorldVerticesLength();
+            vertices = worldVertices.setSize(count);
+            mesh.computeWorldVertices(slot, 0, count, vertices, 0, 2);
+            triangles = mesh.getTriangles();
+        } else {
+            return;
+        }
+
+        float scale = 1f / cellSize;
+        for (int t = 0, n = triangles.length; t < n; t += 3) {
+            int i0 = triangles[t] << 1, i1 = triangles[t + 1] << 1, i2 = triangles[t + 2] << 1;
+            rasterizeTriangle(
+                vertices[i0] * scale, vertices[i0 + 1] * scale,
+                vertices[i1] * scale, vertices[i1 + 1] * scale,
+                vertices[i2] * scale, vertices[i2 + 1] * scale);
+        }
+    }
+
+    /**
+     * 以格子中心采样的方式把三角形写入后台遮罩，坐标已换算为格子单位。
+     */
+    private void rasterizeTriangle(float x0, float y0, float x1, float y1, float x2, float y2) {
+        int minX = Math.max(0, (int) Math.floor(Math.min(x0, Math.min(x1, x2))));
+        int minY = Math.max(0, (int) Math.floor(Math.min(y0, Math.min(y1, y2))));
+        int maxX = Math.min(maskWidth - 1, (int) Math.ceil(Math.max(x0, Math.max(x1, x2))));
+        int maxY = Math.min(maskHeight - 1, (int) Math.ceil(Math.max(y0, Math.max(y1, y2))));
+        if (minX > maxX || minY > maxY) return;
+
+        float area = (x1 - x0) * (y2 - y0) - (x2 - x0) * (y1 - y0);
+        if (area == 0) return;
+        float sign = area > 0 ? 1 : -1;
+
+        boolean[] building = this.building;
+        for (int cy = minY; cy <= maxY; cy++) {
+            float py = cy + 0.5f;
+            int row = cy * maskWidth;
+            for (int cx = minX; cx <= maxX; cx++) {
+                if (building[row + cx]) continue;
+                float px = cx + 0.5f;
+                float e0 = ((x1 - x0) * (py - y0) - (y1 - y0) * (px - x0)) * sign;
+                float e1 = ((x2 - x1) * (py - y1) - (y2 - y1) * (px - x1)) * sign;
+                float e2 = ((x0 - x2) * (py - y2) - (y0 - y2) * (px - x2)) * sign;
+                if (e0 >= 0 && e1 >= 0 && e2 >= 0) building[row + cx] = true;
+            }
+        }
+    }
+}
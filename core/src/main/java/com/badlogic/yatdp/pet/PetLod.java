@@ -0,0 +1,30 @@
+package com.badlogic.yatdp.pet;
+
+/**
+ * 桌宠动画的细节等级（LOD）。
+ *
+ * <p>阈值单位为像素：对画面影响小于阈值的时间轴、无附件的骨骼以及约束不再计算。
+ * 影响值由 {@link com.esotericsoftware.spine.utils.SkeletonLod} 在模型加载时预计算。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see SpinePet#setLod(PetLod)
+ */
+public enum PetLod {
+    /// 计算全部时间轴
+    FULL(0f),
+    /// 跳过亚像素级变化，肉眼不可见
+    STANDARD(0.5f),
+    /// 跳过 2 像素以内的细节，适用于最小化或大量桌宠同屏
+    LOW(2f);
+
+    final float pixelThreshold;
+
+    PetLod(float pixelThreshold) {
+        this.pixelThreshold = pixelThreshold;
+    }
+
+    public float getPixelThreshold() {
+        return pixelThreshold;
+    }
+}
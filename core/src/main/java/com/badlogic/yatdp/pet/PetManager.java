@@ -0,0 +1,441 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Logger;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.esotericsoftware.spine.SkeletonRenderer;
+import com.esotericsoftware.spine.utils.TwoColorPolygonBatch;
+
+import java.util.function.Consumer;
+
+/**
+ * PetManager 管理同一渲染循环中的所有桌宠。
+ *
+ * <h3>主要职责</h3>
+ * <ul>
+ *   <li>按「目录/模型名」缓存 {@link PetModel}，同一模型的纹理、SkeletonData 与混合数据只加载一次</li>
+ *   <li>创建与回收 {@link SpinePet}，每只桌宠只持有 Skeleton 与 AnimationState</li>
+ *   <li>动画由 {@link PetSimulation} 在独立线程以固定步长推进，渲染线程每帧只插值姿态、更新碰撞体并绘制</li>
+ *   <li>所有桌宠共用一个 {@link TwoColorPolygonBatch}、{@link SkeletonRenderer} 与相机，
+ *       每帧先统一插值再在一次 begin/end 内绘制</li>
+ *   <li>支持把桌宠分离到独立窗口：姿态仍由主窗口每帧统一插值一次，
+ *       独立窗口只调用 {@link #draw(SpinePet, int, int)} 提交绘制。LWJGL3 后端的所有窗口共享同一 GL 上下文，
+ *       纹理与批处理器无需重复创建</li>
+ *   <li>维护 {@link PetWorld}，把桌宠之间与光标的接触事件转发给对应的 SpinePet</li>
+ *   <li>运行中更换模型：新模型由 {@link PetModelLoader} 在后台加载，每帧 GL 线程只花费
+ *       {@code SWAP_BUDGET_MILLIS} 毫秒上传纹理，加载完成后新旧桌宠交叉淡入淡出，
+ *       淡出结束后才释放旧模型的纹理。从开始加载到淡入淡出结束记录每帧耗时，结束时报告最长一帧与掉帧数</li>
+ *   <li>低内存模式：{@link #trimMemory()} 释放不在屏幕上的模型纹理并清空不会播放的动画，
+ *       {@link #restoreMemory()} 恢复纹理</li>
+ * </ul>
+ *
+ * <h3>模块协作结构</h3>
+ * <pre>
+ * MainApp
+ *  └── PetManager
+ *        ├── ObjectMap&lt;String, PetModel&gt;   // 共享模型资源
+ *        ├── Array&lt;SpinePet&gt;               // 桌宠实例
+ *        ├── TwoColorPolygonBatch           // 共享渲染器（主窗口与独立窗口共用）
+ *        ├── PetModelLoader                 // 后台加载更换的模型
+ *        ├── PetSimulation                  // 固定步长的模拟线程
+ *        └── PetWorld                       // 接触检测
+ * </pre>
+ *
+ * @author baiheyufei
+ * @version 1.1
+ * @see PetModel
+ * @see SpinePet
+ * @see PetWorld
+ */
+public class PetManager {
+    private static final Logger logger = new Logger("PetManager", Logger.DEBUG);
+    private static final float WORLD_CELL_SIZE = 150f;
+    static final float SWAP_FADE_TIME = 0.3f;
+    private static final int SWAP_BUDGET_MILLIS = 4;
+    private static final long FRAME_BUDGET_NANOS = 1000000000L / 60;
+
+    private final ObjectMap<String, PetModel> models = new ObjectMap<>();
+    private final Array<SpinePet> pets = new Array<>();
+    private final ObjectSet<SpinePet> detached = new ObjectSet<>(); // 由独立窗口绘制的桌宠，每帧按桌宠查询
+    private final OrthographicCamera camera = new OrthographicCamera();
+    private final OrthographicCamera windowCamera = new OrthographicCamera();
+    private final TwoColorPolygonBatch batch = new TwoColorPolygonBatch();
+    private final SkeletonRenderer skeletonRenderer = new SkeletonRenderer();
+    private final PetWorld world = new PetWorld(WORLD_CELL_SIZE);
+    private final PetSimulation simulation;
+    private PetModelLoader loader; // 首次更换模型或补回动画时创建
+    private boolean compressAnimations; // 之后加载的模型是否压缩时间轴
+
+    /// 正在进行的模型更换：swapFrom 淡出，swapTo 加载完成后淡入
+    private SpinePet swapFrom, swapTo;
+    private String swapKey;
+    private Consumer<SpinePet> swapListener;
+    private float swapTime;
+    private long swapStartNanos, swapMaxWorkNanos;
+    /// 更换期间的整帧耗时：从开始加载到淡入淡出结束，相邻两次 update 之间的间隔
+    private long swapLastFrameNanos, swapMaxFrameNanos;
+    private int swapFrames, swapSlowFrames;
+
+    /**
+     * 应在主窗口的渲染线程中创建，姿态变化时由模拟线程请求该窗口重绘
+     */
+    public PetManager() {
+        skeletonRenderer.setPremultipliedAlpha(true);
+        simulation = new PetSimulation(Gdx.graphics);
+        simulation.start();
+        world.setListener(new PetWorld.Listener() {
+            @Override
+            public void enter(PetBody a, PetBody b) {
+                ((SpinePet) a.userData).onInteractionEnter((SpinePet) b.userData);
+                ((SpinePet) b.userData).onInteractionEnter((SpinePet) a.userData);
+            }
+
+            @Override
+            public void exit(PetBody a, PetBody b) {
+                ((SpinePet) a.userData).onInteractionExit((SpinePet) b.userData);
+                ((SpinePet) b.userData).onInteractionExit((SpinePet) a.userData);
+            }
+
+            @Override
+            public void cursorEnter(PetBody body) {
+                ((SpinePet) body.userData).onInteractionEnter(null);
+            }
+
+            @Override
+            public void cursorExit(PetBody body) {
+                ((SpinePet) body.userData).onInteractionExit(null);
+            }
+        });
+    }
+
+    /**
+     * 创建一只桌宠。模型首次使用时加载，之后直接复用。
+     *
+     * @param modelDir  模型文件所在目录路径（相对于 assets 目录）
+     * @param modelName 模型文件名（不带扩展名）
+     */
+    public SpinePet spawn(String modelDir, String modelName) {
+        String key = modelDir + "/" + modelName;
+        PetModel model = models.get(key);
+        if (model == null) {
+            model = new PetModel(modelDir, modelName, compressAnimations);
+            models.put(key, model);
+        }
+        return spawn(model);
+    }
+
+    private SpinePet spawn(PetModel model) {
+        SpinePet pet = new SpinePet(model, world.createBody());
+        pets.add(pet);
+        simulation.setPets(pets);
+        logger.info("Pet spawned: " + model.getKey() + " (" + pets.size + " pets)");
+        return pet;
+    }
+
+    /**
+     * 把一只桌宠换成另一个模型，不阻塞渲染。
+     * 模型未加载时在后台加载，完成后创建新桌宠并与旧桌宠交叉淡入淡出，淡出结束后回收旧桌宠；
+     * 旧模型不再被任何桌宠使用时释放其纹理。再次调用会立即结束上一次的淡入淡出。
+     *
+     * @param pet       被替换的桌宠
+     * @param modelDir  新模型所在目录路径（相对于 assets 目录）
+     * @param modelName 新模型文件名（不带扩展名）
+     * @param onSpawned 新桌宠创建后（淡入开始时）调用，可在其中转移输入与配置
+     */
+    public void swapModel(SpinePet pet, String modelDir, String modelName, Consumer<SpinePet> onSpawned) {
+        finishSwap();
+        String key = modelDir + "/" + modelName;
+        swapFrom = pet;
+        swapKey = key;
+        swapListener = onSpawned;
+        swapStartNanos = swapLastFrameNanos = TimeUtils.nanoTime();
+        swapMaxWorkNanos = swapMaxFrameNanos = 0;
+        swapFrames = swapSlowFrames = 0;
+        if (!models.containsKey(key)) {
+            if (loader == null) loader = new PetModelLoader();
+            loader.load(key, compressAnimations);
+        } else if (loader != null) {
+            loader.cancel();
+        }
+    }
+
+    /**
+     * 设置之后加载的模型是否删除冗余关键帧并压缩时间轴，已加载的模型不受影响。
+     * 压缩是有损的，默认关闭。
+     *
+     * @see PetModel#prepare(com.esotericsoftware.spine.SkeletonData, boolean)
+     */
+    public void setCompressAnimations(boolean compressAnimations) {
+        this.compressAnimations = compressAnimations;
+    }
+
+    /**
+     * 回收一只桌宠，其 Skeleton 归还模型的对象池。模型资源在 {@link #dispose()} 时统一释放。
+     */
+    public void despawn(SpinePet pet) {
+        if (!pets.removeValue(pet, true)) return;
+        simulation.setPets(pets);
+        detached.remove(pet);
+        world.removeBody(pet.getBody());
+        pet.dispose();
+    }
+
+    /**
+     * 插值所有桌宠的绘制姿态（包括独立窗口中的桌宠）并检测接触，每帧只应调用一次。
+     * 动画本身由模拟线程推进，这里不做骨骼计算。
+     *
+     * @param delta 时间增量，用于更换模型时的淡入淡出
+     */
+    public void update(float delta) {
+        // 低内存模式清空的动画再次被使用时，交给加载器在后台重新读取
+        for (PetModel model : models.values()) {
+            ObjectSet<String> names = model.takeRestoreRequest();
+            if (names == null) continue;
+            if (loader == null) loader = new PetModelLoader();
+            loader.restore(model, names);
+        }
+        if (loader != null) {
+            loader.releaseAbandoned();
+            loader.finishRestores();
+        }
+        if (swapFrom != null) {
+            recordSwapFrame();
+            updateSwap(delta);
+            // 加载与淡入淡出按帧推进，期间保持连续绘制
+            Gdx.graphics.requestRendering();
+        }
+        float alpha = simulation.getAlpha();
+        Array<SpinePet> pets = this.pets;
+        for (int i = 0, n = pets.size; i < n; i++) {
+            SpinePet pet = pets.get(i);
+            pet.present(alpha);
+            pet.updateBody(pet.getBody(), pet.getWindowOriginX(), pet.getWindowOriginY());
+        }
+        world.step();
+    }
+
+    /**
+     * 在当前窗口中绘制所有未分离的桌宠
+     */
+    public void draw() {
+        camera.update();
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        for (int i = 0, n = pets.size; i < n; i++) {
+            SpinePet pet = pets.get(i);
+            if (!detached.contains(pet)) pet.draw(batch, skeletonRenderer);
+        }
+        batch.end();
+    }
+
+    /**
+     * 在当前（独立）窗口中只绘制一只桌宠，不做任何姿态计算
+     *
+     * @param width  当前窗口宽度
+     * @param height 当前窗口高度
+     */
+    public void draw(SpinePet pet, int width, int height) {
+        windowCamera.setToOrtho(false, width, height);
+        windowCamera.update();
+        batch.setProjectionMatrix(windowCamera.combined);
+        batch.begin();
+        pet.draw(batch, skeletonRenderer);
+        batch.end();
+    }
+
+    /**
+     * 更新并绘制所有未分离的桌宠
+     *
+     * @param delta 时间增量
+     */
+    public void render(float delta) {
+        update(delta);
+        draw();
+    }
+
+    /**
+     * 将桌宠交给独立窗口绘制，主窗口不再绘制它
+     */
+    public void detach(SpinePet pet) {
+        detached.add(pet);
+    }
+
+    /**
+     * 设置所有未分离桌宠所在窗口的桌面坐标原点
+     *
+     * @see SpinePet#setWindowOrigin(float, float)
+     */
+    public void setWindowOrigin(float x, float y) {
+        for (int i = 0, n = pets.size; i < n; i++) {
+            SpinePet pet = pets.get(i);
+            if (!detached.contains(pet)) pet.setWindowOrigin(x, y);
+        }
+    }
+
+    public void resize() {
+        camera.setToOrtho(false);
+    }
+
+    /**
+     * 设置光标在桌面坐标系（y 轴向上，与 {@link SpinePet#setWindowOrigin(float, float)} 一致）中的位置，用于光标接触事件
+     */
+    public void setCursor(float x, float y) {
+        world.setCursor(x, y);
+    }
+
+    /**
+     * 进入低内存模式：清空所有桌宠都不会播放的动画，并释放没有独立窗口在显示的模型纹理。
+     * 纹理由 {@link #restoreMemory()} 恢复；动画在再次被配置使用时才重新读取。更换模型期间不做处理。
+     */
+    public void trimMemory() {
+        if (swapFrom != null) return;
+        ObjectSet<String> keep = new ObjectSet<>();
+        for (PetModel model : models.values()) {
+            keep.clear();
+            boolean visible = false;
+            for (int i = 0, n = pets.size; i < n; i++) {
+                SpinePet pet = pets.get(i);
+                if (pet.getModel() != model) continue;
+                pet.collectAnimations(keep);
+                if (detached.contains(pet)) visible = true;
+            }
+            model.evictAnimations(keep);
+            if (!visible) model.releaseTextures();
+        }
+    }
+
+    /**
+     * 退出低内存模式，重新上传被释放的纹理
+     */
+    public void restoreMemory() {
+        for (PetModel model : models.values()) {
+            model.restoreTextures();
+        }
+    }
+
+    public Array<SpinePet> getPets() {
+        return pets;
+    }
+
+    public PetWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * 释放所有桌宠、共享模型与渲染资源
+     */
+    public void dispose() {
+        simulation.dispose();
+        swapFrom = swapTo = null;
+        swapListener = null;
+        for (SpinePet pet : pets) {
+            pet.dispose();
+        }
+        pets.clear();
+        detached.clear();
+        for (PetModel model : models.values()) {
+            model.dispose();
+        }
+        models.clear();
+        if (loader != null) loader.dispose();
+        batch.dispose();
+    }
+
+    private void updateSwap(float delta) {
+        if (swapTo == null) {
+            long start = TimeUtils.nanoTime();
+            PetModel model = models.get(swapKey);
+            if (model == null) {
+                model = loader.update(SWAP_BUDGET_MILLIS);
+                if (model == null) {
+                    if (!loader.isLoading()) {
+                        logger.error("Model swap cancelled: " + swapKey);
+                        swapFrom = null;
+                        swapListener = null;
+                    }
+                    swapMaxWorkNanos = Math.max(swapMaxWorkNanos, TimeUtils.nanoTime() - start);
+                    return;
+                }
+                models.put(swapKey, model);
+            }
+            swapTo = spawn(model);
+            swapTo.setAlpha(0);
+            swapTime = 0;
+            swapListener.accept(swapTo);
+            swapMaxWorkNanos = Math.max(swapMaxWorkNanos, TimeUtils.nanoTime() - start);
+            return;
+        }
+
+        swapTime += delta;
+        float alpha = Math.min(swapTime / SWAP_FADE_TIME, 1);
+        swapTo.setAlpha(alpha);
+        swapFrom.setAlpha(1 - alpha);
+        if (alpha >= 1) finishSwap();
+    }
+
+    /**
+     * 结束正在进行的更换：已淡入时回收旧桌宠并释放不再使用的模型，仍在加载时保留旧桌宠
+     */
+    private void finishSwap() {
+        if (swapFrom == null) return;
+        if (swapTo != null) {
+            swapTo.setAlpha(1);
+            PetModel oldModel = swapFrom.getModel();
+            despawn(swapFrom);
+            releaseIfUnused(oldModel);
+            String report = "Model swapped to " + swapKey + " in " + TimeUtils.timeSinceNanos(swapStartNanos) / 1000000
+                + " ms over " + swapFrames + " frames, max frame time: " + swapMaxFrameNanos / 1000 / 1000f
+                + " ms (budget " + FRAME_BUDGET_NANOS / 1000 / 1000f + " ms, " + swapSlowFrames + " over)"
+                + ", max GL thread cost per frame: " + swapMaxWorkNanos / 1000 / 1000f + " ms";
+            if (swapSlowFrames > 0) logger.error(report);
+            else logger.info(report);
+        }
+        swapFrom = swapTo = null;
+        swapListener = null;
+    }
+
+    /**
+     * 记录距上一帧的整帧耗时，包括绘制与其他模块，超过一帧预算的计为掉帧
+     */
+    private void recordSwapFrame() {
+        long now = TimeUtils.nanoTime(), frame = now - swapLastFrameNanos;
+        swapLastFrameNanos = now;
+        swapFrames++;
+        swapMaxFrameNanos = Math.max(swapMaxFrameNanos, frame);
+        if (frame > FRAME_BUDGET_NANOS) swapSlowFrames++;
+    }
+
+    /**
+     * @return 最近一次更换模型期间最长的整帧耗时（纳秒），新的更换开始时清零
+     */
+    long getSwapMaxFrameNanos() {
+        return swapMaxFrameNanos;
+    }
+
+    /**
+     * @return 最近一次更换模型期间超过一帧预算（60 FPS）的帧数
+     */
+    int getSwapSlowFrames() {
+        return swapSlowFrames;
+    }
+
+    /**
+     * @return 是否正在更换模型（加载中或淡入淡出中）
+     */
+    boolean isSwapping() {
+        return swapFrom != null;
+    }
+
+    private void releaseIfUnused(PetModel model) {
+        for (int i = 0, n = pets.size; i < n; i++)
+            if (pets.get(i).getModel() == model) return;
+        models.remove(model.getKey());
+        if (loader != null) loader.cancelRestore(model);
+        model.dispose();
+        logger.info("Model released: " + model.getKey());
+    }
+}
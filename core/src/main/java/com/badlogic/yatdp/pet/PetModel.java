@@ -0,0 +1,378 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Logger;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.AnimationState;
+import com.esotericsoftware.spine.AnimationStateData;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonBinary;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.Skin;
+import com.esotericsoftware.spine.Skin.SkinEntry;
+import com.esotericsoftware.spine.TimelineCompressor;
+import com.esotericsoftware.spine.TimelineOptimizer;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+import com.esotericsoftware.spine.utils.SkeletonLod;
+import com.esotericsoftware.spine.utils.SkeletonPool;
+
+/**
+ * PetModel 封装一个 Spine 模型在所有桌宠实例之间共享的只读资源。
+ * 同一模型只加载一次，之后每只 {@link SpinePet} 只额外持有自己的 Skeleton 与 AnimationState。
+ *
+ * <h3>共享资源</h3>
+ * <pre>
+ * PetModel
+ *  ├── TextureAtlas          // 纹理图集（GPU 纹理只上传一次）
+ *  ├── SkeletonData          // 骨骼、插槽、附件与动画数据（含预计算的 LOD 影响值）
+ *  ├── AnimationStateData    // 动画之间的混合时长
+ *  ├── SkeletonPool          // 复用 Skeleton 实例
+ *  └── Sound clickSound      // 点击音效
+ * </pre>
+ *
+ * <p>由 {@link PetManager} 负责创建、缓存与释放，一般不需要直接构造。
+ * 运行中更换模型时由 {@link PetModelLoader} 在后台加载，资源归其 AssetManager 管理。</p>
+ *
+ * <h3>低内存模式</h3>
+ * <ul>
+ *     <li>{@link #releaseTextures()}：纹理显存替换为 1×1 占位，Texture 对象与 TextureRegion 保持有效，
+ *     {@link #restoreTextures()} 从文件重新上传</li>
+ *     <li>{@link #evictAnimations(ObjectSet)}：清空不会播放的动画的时间轴，动画对象与名称保留；
+ *     再次需要时 {@link #requestRestore()}，由 {@link PetModelLoader} 在后台重新读取 .skel，
+ *     GL 线程上 {@link #restoreAnimations(SkeletonData)} 补回</li>
+ * </ul>
+ * <p>清空与补回时间轴都在 {@link #lock} 内进行，与正在推进或插值这个模型的桌宠互斥。
+ * 正在播放或混合中的动画也可能被替换，之后使用这个模型的每个 AnimationState 都会重新计算各轨道的混合方式。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetManager
+ * @see SpinePet
+ */
+public class PetModel {
+    private static final Logger logger = new Logger("PetModel", Logger.DEBUG);
+    static final float MODEL_SCALE = 0.3f;
+    private static final float DEFAULT_MIX = 0.1f;
+    static final String CLICK_SOUND_PATH = "sounds/mixkit-magic-notification-ring-2344.mp3";
+
+    private final String key;
+    private final TextureAtlas atlas;
+    private final SkeletonData skeletonData;
+    private final AnimationStateData animationStateData;
+    private final SkeletonPool skeletonPool;
+    private final Sound clickSound;
+    private final AssetManager assets; // 后台加载的模型由其管理资源，同步加载时为 null
+    private final boolean compressed; // 时间轴是否经有损的关键帧优化与压缩，补回动画时按同样方式处理
+    /// 低内存模式下被替换掉的纹理数据，为 null 表示纹理常驻显存
+    private ObjectMap<Texture, TextureData> releasedTextures;
+    /// 释放纹理后所有纹理页共用的 1×1 占位，恢复时释放
+    private Pixmap placeholder;
+    /// 低内存模式下被清空时间轴的动画
+    private final ObjectSet<String> evictedAnimations = new ObjectSet<>();
+    /// 有桌宠需要被清空的动画，等待 PetManager 交给 PetModelLoader 补回
+    private boolean restoreRequested;
+    /// 使用这个模型的桌宠共用的锁：模拟线程推进、渲染线程插值与修改状态都在锁内进行，
+    /// 替换共享 SkeletonData 中的时间轴时持有它即可与所有这些桌宠互斥
+    final Object lock = new Object();
+    /// 使用这个模型的桌宠的 AnimationState，替换时间轴后通知它们
+    private final Array<AnimationState> animationStates = new Array<>(false, 4);
+
+    /**
+     * 加载模型资源
+     *
+     * @param modelDir  模型文件所在目录路径（相对于 assets 目录）
+     * @param modelName 模型文件名（不带扩展名）,需保持Spine模型的`.atlas`, `.skel`, `.png` 名称一致
+     * @param compress  是否删除冗余关键帧并压缩时间轴，见 {@link #prepare(SkeletonData, boolean)}
+     */
+    PetModel(String modelDir, String modelName, boolean compress) {
+        this(modelDir + "/" + modelName, new TextureAtlas(Gdx.files.internal(modelDir + "/" + modelName + ".atlas")),
+            compress);
+    }
+
+    private PetModel(String key, TextureAtlas atlas, boolean compress) {
+        this(key, atlas, prepare(read(key, atlas), compress), Gdx.audio.newSound(Gdx.files.internal(CLICK_SOUND_PATH)),
+            null, compress);
+    }
+
+    /**
+     * 使用已加载并经 {@link #prepare(SkeletonData, boolean)} 处理的资源创建模型
+     *
+     * @param assets     管理 atlas 与音效的 AssetManager，释放时从中卸载；为 null 时直接释放
+     * @param compressed 处理时是否压缩了时间轴
+     */
+    PetModel(String key, TextureAtlas atlas, SkeletonData skeletonData, Sound clickSound, AssetManager assets,
+             boolean compressed) {
+        this.key = key;
+        this.atlas = atlas;
+        this.skeletonData = skeletonData;
+        this.clickSound = clickSound;
+        this.assets = assets;
+        this.compressed = compressed;
+
+        animationStateData = new AnimationStateData(skeletonData);
+        animationStateData.setMixAll(DEFAULT_MIX); // 所有动画两两之间的混合时长，写入稠密矩阵，不逐对创建 Key
+        for (Animation animation : skeletonData.getAnimations()) {
+            logger.info("Init animation: " + animation.getName());
+        }
+
+        skeletonPool = new SkeletonPool(skeletonData);
+        logger.info("Spine model loaded: " + key);
+    }
+
+    private static SkeletonData read(String key, TextureAtlas atlas) {
+        SkeletonBinary skeletonBinary = new SkeletonBinary(atlas);
+        skeletonBinary.setScale(MODEL_SCALE);
+        return skeletonBinary.readSkeletonData(Gdx.files.internal(key + ".skel"));
+    }
+
+    /**
+     * 对刚读取的 SkeletonData 做 LOD 预计算，可选地删除冗余关键帧并压缩时间轴。
+     * 只涉及 CPU 计算，在 SkeletonData 被使用之前可在后台线程调用。
+     *
+     * <p>关键帧优化与压缩都是有损的，姿态与原始数据相差在误差上限之内，换来更少的内存；
+     * 默认关闭，由配置 {@code compressAnimations} 开启，关闭时按原始关键帧播放。</p>
+     *
+     * @param compress 是否删除冗余关键帧并把时间轴压缩为 16 位量化存储
+     */
+    static SkeletonData prepare(SkeletonData skeletonData, boolean compress) {
+        if (compress) {
+            int removedKeys = new TimelineOptimizer().optimize(skeletonData); // 删除误差范围内的冗余关键帧
+            logger.debug("Redundant keys removed: " + removedKeys);
+        }
+        SkeletonLod.computeImpacts(skeletonData); // 供 PetLod 跳过画面上不可见的细节
+        if (compress) compressTimelines(skeletonData); // 必须在上面两步之后：优化与 LOD 计算需要完整的关键帧
+        return skeletonData;
+    }
+
+    /**
+     * 将骨骼与网格变形时间轴压缩为 16 位量化存储，并输出节省的内存与精度上限
+     */
+    private static void compressTimelines(SkeletonData skeletonData) {
+        TimelineCompressor compressor = new TimelineCompressor();
+        int count = compressor.compress(skeletonData);
+        logger.info("Timelines compressed: " + count
+            + ", " + compressor.getOriginalBytes() + " -> " + compressor.getCompressedBytes() + " bytes"
+            + ", max error: " + compressor.getMaxRotateError() + " deg / " + compressor.getMaxValueError()
+            + " / " + compressor.getMaxTimeError() + " s");
+    }
+
+    /**
+     * 把图集纹理的显存替换为 1×1 占位。Texture 对象与 GL 句柄保留，已有的 TextureRegion 在恢复后继续有效。
+     * 只能从文件重新加载的纹理才会被释放。
+     */
+    void releaseTextures() {
+        if (releasedTextures != null) return;
+        releasedTextures = new ObjectMap<>();
+        placeholder = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        for (Texture texture : atlas.getTextures()) {
+            TextureData data = texture.getTextureData();
+            if (!data.isManaged()) continue;
+            releasedTextures.put(texture, data);
+            // Texture#load 要求新旧数据同为托管；占位保留 Pixmap，GL 上下文丢失后仍能重新上传
+            texture.load(new PixmapTextureData(placeholder, null, false, false, true));
+        }
+        logger.info("Textures released: " + key + " (" + releasedTextures.size + " pages)");
+    }
+
+    /**
+     * 从文件重新上传 {@link #releaseTextures()} 释放的纹理
+     */
+    void restoreTextures() {
+        if (releasedTextures == null) return;
+        for (ObjectMap.Entry<Texture, TextureData> entry : releasedTextures)
+            entry.key.load(entry.value);
+        releasedTextures = null;
+        placeholder.dispose();
+        placeholder = null;
+        logger.info("Textures restored: " + key);
+    }
+
+    /**
+     * 清空不在 {@code keep} 中的动画的时间轴。动画对象、名称与索引保留，混合时长矩阵不受影响。
+     *
+     * @param keep 仍会播放的动画名称
+     */
+    void evictAnimations(ObjectSet<String> keep) {
+        int count = 0;
+        synchronized (lock) {
+            for (Animation animation : skeletonData.getAnimations()) {
+                if (keep.contains(animation.getName()) || evictedAnimations.contains(animation.getName())) continue;
+                TimelineCompressor.release(skeletonData, animation.getTimelines()); // 各 Skeleton 中的解码缓存留给补回的时间轴复用
+                animation.setTimelines(new Array<>(0));
+                evictedAnimations.add(animation.getName());
+                count++;
+            }
+            if (count > 0) timelinesChanged();
+        }
+        if (count > 0) logger.info("Animations evicted: " + key + " (" + count + ")");
+    }
+
+    /**
+     * @return 动画的时间轴是否已被 {@link #evictAnimations(ObjectSet)} 清空
+     */
+    boolean isEvicted(String animationName) {
+        synchronized (lock) {
+            return evictedAnimations.contains(animationName);
+        }
+    }
+
+    /**
+     * 请求补回被清空的动画，不在调用线程读取文件。补回之前播放这些动画时姿态保持不变。
+     */
+    void requestRestore() {
+        synchronized (lock) {
+            if (evictedAnimations.size > 0) restoreRequested = true;
+        }
+    }
+
+    /**
+     * 取出补回请求，只应在 GL 线程调用
+     *
+     * @return 有未处理的请求时返回被清空的动画名称的副本，否则返回 null
+     */
+    ObjectSet<String> takeRestoreRequest() {
+        synchronized (lock) {
+            if (!restoreRequested) return null;
+            restoreRequested = false;
+            return new ObjectSet<>(evictedAnimations);
+        }
+    }
+
+    /**
+     * 重新读取 .skel 并处理其中的指定动画，只涉及 CPU 计算与文件读取，可在后台线程调用
+     *
+     * @param names 需要补回的动画名称
+     * @return 只包含这些动画的 SkeletonData，交给 {@link #restoreAnimations(SkeletonData)}
+     */
+    SkeletonData readAnimations(ObjectSet<String> names) {
+        SkeletonData fresh = read(key, atlas);
+        Array<Animation> animations = fresh.getAnimations();
+        for (int i = animations.size - 1; i >= 0; i--)
+            if (!names.contains(animations.get(i).getName())) animations.removeIndex(i);
+        fresh.indexAnimations();
+        return prepare(fresh, compressed);
+    }
+
+    /**
+     * 把 {@link #readAnimations(ObjectSet)} 读出的时间轴补回仍被清空的动画，在 GL 线程调用。
+     * 新读取的网格变形时间轴引用的是新附件，需换成当前 SkeletonData 中对应的附件才能生效。
+     */
+    void restoreAnimations(SkeletonData fresh) {
+        Array<Animation> animations = fresh.getAnimations();
+        ObjectMap<Attachment, Attachment> attachments = new ObjectMap<>();
+        Array<Skin> freshSkins = fresh.getSkins(), skins = skeletonData.getSkins();
+        for (int i = 0, n = Math.min(freshSkins.size, skins.size); i < n; i++) {
+            Skin skin = skins.get(i);
+            for (SkinEntry entry : freshSkins.get(i).getAttachments())
+                attachments.put(entry.getAttachment(), skin.getAttachment(entry.getSlotIndex(), entry.getName()));
+        }
+        for (Animation source : animations) {
+            for (Timeline timeline : source.getTimelines()) {
+                if (!(timeline instanceof DeformTimeline)) continue;
+                DeformTimeline deform = (DeformTimeline) timeline;
+                deform.setAttachment((VertexAttachment) attachments.get(deform.getAttachment(), deform.getAttachment()));
+            }
+        }
+
+        int count = 0;
+        synchronized (lock) {
+            for (Animation source : animations) {
+                // 先后两次请求可能读出同一动画，已补回的不再替换
+                if (!evictedAnimations.remove(source.getName())) continue;
+                Animation animation = skeletonData.findAnimation(source.getName());
+                float[] impacts = source.getTimelineImpacts();
+                TimelineCompressor.adopt(skeletonData, source.getTimelines());
+                animation.setTimelines(source.getTimelines());
+                animation.setTimelineImpacts(impacts);
+                count++;
+            }
+            if (count > 0) timelinesChanged();
+        }
+        logger.info("Animations restored: " + key + " (" + count + ")");
+    }
+
+    /**
+     * 记录桌宠的 AnimationState，替换时间轴时通知它
+     */
+    void addAnimationState(AnimationState state) {
+        synchronized (lock) {
+            animationStates.add(state);
+        }
+    }
+
+    void removeAnimationState(AnimationState state) {
+        synchronized (lock) {
+            animationStates.removeValue(state, true);
+        }
+    }
+
+    /**
+     * 在锁内调用：轨道上与混合链中的 TrackEntry 按旧时间轴的数量保存了各时间轴的混合方式与旋转状态，
+     * 让它们在下一次 apply 时按新的时间轴重新计算
+     */
+    private void timelinesChanged() {
+        for (int i = 0, n = animationStates.size; i < n; i++)
+            animationStates.get(i).timelinesChanged();
+    }
+
+    /**
+     * 从池中取出一个处于初始姿态的 Skeleton
+     */
+    Skeleton obtainSkeleton() {
+        Skeleton skeleton = skeletonPool.obtain();
+        skeleton.setToSetupPose();
+        skeleton.setPosition(0, 0);
+        skeleton.setTime(0);
+        skeleton.updateWorldTransform();
+        return skeleton;
+    }
+
+    void freeSkeleton(Skeleton skeleton) {
+        skeletonPool.free(skeleton);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public SkeletonData getSkeletonData() {
+        return skeletonData;
+    }
+
+    public AnimationStateData getAnimationStateData() {
+        return animationStateData;
+    }
+
+    public Sound getClickSound() {
+        return clickSound;
+    }
+
+    /**
+     * 释放纹理与音效，调用前所有使用该模型的 SpinePet 都应已释放
+     */
+    void dispose() {
+        skeletonPool.clear();
+        if (placeholder != null) placeholder.dispose();
+        if (assets != null) {
+            // 卸载 SkeletonData 会一并卸载作为依赖的 atlas 及其纹理
+            assets.unload(key + ".skel");
+            assets.unload(CLICK_SOUND_PATH);
+            return;
+        }
+        atlas.dispose();
+        if (clickSound != null) clickSound.dispose();
+    }
+}
@@ -0,0 +1,219 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Logger;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.utils.SkeletonDataLoader;
+import com.esotericsoftware.spine.utils.SkeletonDataLoader.SkeletonDataParameter;
+
+/**
+ * PetModelLoader 在不阻塞渲染的前提下加载 {@link PetModel}，用于运行中更换模型。
+ *
+ * <h3>加载流程</h3>
+ * <pre>
+ * 1. AssetManager 后台线程：解析 .atlas、解码纹理页、通过 SkeletonDataLoader 读取 .skel
+ * 2. GL 线程：每帧在时间预算内逐页上传纹理（AssetManager#update(int)）
+ * 3. 后台线程：{@link PetModel#prepare(SkeletonData, boolean)} LOD 预计算，可选的关键帧优化与时间轴压缩
+ * 4. GL 线程：创建 PetModel（只创建 AnimationStateData 与对象池）
+ * </pre>
+ *
+ * <p>加载出的纹理与音效归内部的 AssetManager 所有，模型释放时从中卸载。
+ * 同一时刻只加载一个模型，所有方法都应在 GL 线程调用。</p>
+ *
+ * <p>低内存模式清空的动画也由这里在后台重新读取（{@link #restore(PetModel, ObjectSet)}），
+ * 读完后在 GL 线程补回，不在应用配置时同步读取文件。</p>
+ *
+ * <p>取消时不等待后台的预处理：预处理结束前资源保留，由 {@link #releaseAbandoned()} 在结束后卸载；
+ * 期间再次加载同一模型则直接沿用这次预处理的结果。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetManager#swapModel(SpinePet, String, String, java.util.function.Consumer)
+ */
+class PetModelLoader implements Disposable {
+    private static final Logger logger = new Logger("PetModelLoader", Logger.DEBUG);
+
+    private final AssetManager assets = new AssetManager(new InternalFileHandleResolver());
+    private final AsyncExecutor executor = new AsyncExecutor(1, "PetModelLoader");
+    private String key;
+    private boolean compress;
+    private AsyncResult<SkeletonData> prepared;
+    private boolean failed;
+    /// 已取消但预处理仍在后台进行的加载，键为模型路径
+    private final ObjectMap<String, AsyncResult<SkeletonData>> abandoned = new ObjectMap<>();
+    /// 其中压缩了时间轴的加载
+    private final ObjectSet<String> abandonedCompressed = new ObjectSet<>();
+    /// 正在后台重新读取被清空动画的模型
+    private final ObjectMap<PetModel, AsyncResult<SkeletonData>> restoring = new ObjectMap<>();
+
+    PetModelLoader() {
+        assets.setLoader(SkeletonData.class, new SkeletonDataLoader(assets.getFileHandleResolver()));
+    }
+
+    /**
+     * 开始加载模型，正在加载的其他模型会被取消
+     *
+     * @param compress 是否删除冗余关键帧并压缩时间轴，见 {@link PetModel#prepare(SkeletonData, boolean)}
+     */
+    void load(String key, boolean compress) {
+        if (key.equals(this.key) && compress == this.compress) return;
+        cancel();
+        this.key = key;
+        this.compress = compress;
+        failed = false;
+        if (abandoned.containsKey(key) && abandonedCompressed.contains(key) == compress) {
+            prepared = abandoned.remove(key); // 刚取消的同一模型，资源仍未卸载
+            abandonedCompressed.remove(key);
+            return;
+        }
+        assets.load(key + ".skel", SkeletonData.class,
+            new SkeletonDataParameter(key + ".atlas", PetModel.MODEL_SCALE));
+        assets.load(PetModel.CLICK_SOUND_PATH, Sound.class);
+    }
+
+    /**
+     * 推进加载，每帧调用一次
+     *
+     * @param budgetMillis 本帧在 GL 线程上最多花费的时间（毫秒）
+     * @return 加载完成的模型，尚未完成或失败时返回 null
+     */
+    PetModel update(int budgetMillis) {
+        if (key == null) return null;
+        try {
+            if (prepared == null) {
+                if (!assets.update(budgetMillis)) return null;
+                SkeletonData skeletonData = assets.get(key + ".skel", SkeletonData.class);
+                boolean compress = this.compress;
+                prepared = executor.submit(() -> PetModel.prepare(skeletonData, compress));
+                return null;
+            }
+            if (!prepared.isDone()) return null;
+
+            PetModel model = new PetModel(key, assets.get(key + ".atlas", TextureAtlas.class), prepared.get(),
+                assets.get(PetModel.CLICK_SOUND_PATH, Sound.class), assets, compress);
+            key = null;
+            prepared = null;
+            return model;
+        } catch (GdxRuntimeException e) {
+            logger.error("模型加载失败: " + key + ", " + e.getMessage());
+            cancel();
+            failed = true;
+            return null;
+        }
+    }
+
+    /**
+     * @return 正在加载某个模型时返回 true
+     */
+    boolean isLoading() {
+        return key != null;
+    }
+
+    /**
+     * @return 资源已加载完毕、已提交或已完成预处理时返回 true
+     */
+    boolean isPreparing() {
+        return prepared != null;
+    }
+
+    /**
+     * @return 上一次加载是否失败
+     */
+    boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * 取消正在进行的加载，不等待后台线程，已加载的部分资源会被卸载
+     */
+    void cancel() {
+        if (key == null) return;
+        // 预处理在后台线程中修改 SkeletonData，结束后再卸载
+        if (prepared != null && !prepared.isDone() && !abandoned.containsKey(key)) {
+            abandoned.put(key, prepared);
+            if (compress) abandonedCompressed.add(key);
+        } else
+            unload(key);
+        key = null;
+        prepared = null;
+    }
+
+    /**
+     * 卸载已取消且预处理已结束的加载的资源，每帧调用一次
+     */
+    void releaseAbandoned() {
+        if (abandoned.size == 0) return;
+        ObjectMap.Entries<String, AsyncResult<SkeletonData>> entries = abandoned.entries();
+        while (entries.hasNext()) {
+            ObjectMap.Entry<String, AsyncResult<SkeletonData>> entry = entries.next();
+            if (!entry.value.isDone()) continue;
+            unload(entry.key);
+            abandonedCompressed.remove(entry.key);
+            entries.remove();
+        }
+    }
+
+    /**
+     * 在后台重新读取模型中被清空的动画，由 {@link #finishRestores()} 补回
+     *
+     * @param names 需要补回的动画名称，调用后不应再修改
+     */
+    void restore(PetModel model, ObjectSet<String> names) {
+        // 新请求包含当时全部被清空的动画，替换同一模型尚未补回的旧请求
+        restoring.put(model, executor.submit(() -> model.readAnimations(names)));
+    }
+
+    /**
+     * 把后台读完的动画补回各自的模型，每帧调用一次
+     */
+    void finishRestores() {
+        if (restoring.size == 0) return;
+        ObjectMap.Entries<PetModel, AsyncResult<SkeletonData>> entries = restoring.entries();
+        while (entries.hasNext()) {
+            ObjectMap.Entry<PetModel, AsyncResult<SkeletonData>> entry = entries.next();
+            if (!entry.value.isDone()) continue;
+            entries.remove();
+            try {
+                entry.key.restoreAnimations(entry.value.get());
+            } catch (GdxRuntimeException e) {
+                logger.error("动画补回失败: " + entry.key.getKey() + ", " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 放弃模型尚未补回的动画，在模型释放前调用，后台读取的结果直接丢弃
+     */
+    void cancelRestore(PetModel model) {
+        restoring.remove(model);
+    }
+
+    private void unload(String key) {
+        // 其他模型也在这个 AssetManager 中，只能按名称卸载本次加载的资源
+        if (assets.contains(key + ".skel")) {
+            assets.unload(key + ".skel");
+        } else if (assets.contains(key + ".atlas")) {
+            assets.unload(key + ".atlas");
+        }
+        if (assets.contains(PetModel.CLICK_SOUND_PATH)) assets.unload(PetModel.CLICK_SOUND_PATH);
+    }
+
+    @Override
+    public void dispose() {
+        cancel();
+        executor.dispose(); // 等待后台的预处理结束
+        abandoned.clear();
+        abandonedCompressed.clear();
+        restoring.clear();
+        assets.dispose();
+    }
+}
@@ -0,0 +1,135 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Logger;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * PetSimulation 在独立线程上以固定步长推进所有桌宠的动画，渲染线程只插值并绘制。
+ *
+ * <h3>线程模型</h3>
+ * <pre>
+ * 模拟线程：每 {@link #STEP} 秒对每只桌宠调用 {@link SpinePet#step(float)} → 姿态变化时请求重绘
+ * 渲染线程：每帧 {@link SpinePet#present(float)}，按 {@link #getAlpha()} 在最近两步之间插值
+ * </pre>
+ * <p>主窗口使用非连续渲染，只有姿态变化、输入事件或心跳时才绘制一帧。
+ * 姿态静止时每 {@link #HEARTBEAT_NANOS} 纳秒仍请求一次重绘，让鼠标穿透、配置热重载与休息提醒继续工作。</p>
+ *
+ * <h3>注意事项</h3>
+ * <ul>
+ *     <li>桌宠列表由 {@link PetManager} 在创建与回收时整体替换，模拟线程不需要加锁遍历</li>
+ *     <li>落后超过 {@link #MAX_LAG_STEPS} 步（如系统休眠后）时丢弃积压的步数，不追赶</li>
+ *     <li>模拟线程中的异常会转交给渲染线程抛出，与在渲染线程中更新时的表现一致</li>
+ * </ul>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see SpinePet#step(float)
+ * @see PetManager
+ */
+class PetSimulation implements Disposable {
+    private static final Logger logger = new Logger("PetSimulation", Logger.DEBUG);
+    static final float STEP = 1 / 60f;
+    private static final long STEP_NANOS = 1000000000L / 60;
+    private static final int MAX_LAG_STEPS = 5;
+    private static final long HEARTBEAT_NANOS = 100000000L;
+
+    private final Graphics graphics; // 主窗口，用于请求重绘
+    private volatile SpinePet[] pets = new SpinePet[0];
+    private volatile long lastStepNanos;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * @param graphics 姿态变化时需要重绘的窗口，应在其渲染线程中传入 {@code Gdx.graphics}
+     */
+    PetSimulation(Graphics graphics) {
+        this.graphics = graphics;
+    }
+
+    /**
+     * 启动模拟线程，重复调用无效
+     */
+    void start() {
+        if (thread != null) return;
+        running = true;
+        lastStepNanos = TimeUtils.nanoTime();
+        thread = new Thread(this::run, "PetSimulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 替换模拟的桌宠列表，只应在渲染线程调用
+     */
+    void setPets(Array<SpinePet> pets) {
+        SpinePet[] array = new SpinePet[pets.size];
+        for (int i = 0; i < pets.size; i++)
+            array[i] = pets.get(i);
+        this.pets = array;
+    }
+
+    /**
+     * @return 距最近一步经过的时间占步长的比例，范围 [0, 1]
+     */
+    float getAlpha() {
+        float alpha = (float) (TimeUtils.nanoTime() - lastStepNanos) / STEP_NANOS;
+        return Math.max(0, Math.min(alpha, 1));
+    }
+
+    @Override
+    public void dispose() {
+        if (thread == null) return;
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    private void run() {
+        long next = TimeUtils.nanoTime(), lastRequest = 0;
+        boolean changedBefore = false;
+        while (running) {
+            boolean changed = false;
+            try {
+                for (SpinePet pet : pets)
+                    changed |= pet.step(STEP);
+            } catch (RuntimeException e) {
+                logger.error("模拟出错: " + e.getMessage());
+                Gdx.app.postRunnable(() -> {
+                    throw new GdxRuntimeException("Pet simulation failed.", e);
+                });
+                return;
+            }
+            long now = TimeUtils.nanoTime();
+            lastStepNanos = now;
+
+            // 姿态停下后再绘制一帧，让插值落到最终姿态上
+            if (changed || changedBefore || now - lastRequest >= HEARTBEAT_NANOS) {
+                graphics.requestRendering();
+                lastRequest = now;
+            }
+            changedBefore = changed;
+
+            next += STEP_NANOS;
+            long sleep = next - TimeUtils.nanoTime();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
+                } catch (InterruptedException e) {
+                    return; // dispose() 结束模拟
+                }
+            } else if (-sleep > STEP_NANOS * MAX_LAG_STEPS) {
+                next = TimeUtils.nanoTime();
+            }
+        }
+    }
+}
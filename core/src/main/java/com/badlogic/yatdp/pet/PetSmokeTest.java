@@ -0,0 +1,140 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Logger;
+import com.badlogic.yatdp.core.ConfigManager;
+import com.esotericsoftware.spine.AnimationState;
+import com.esotericsoftware.spine.AnimationStateData;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonBinary;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.Skin;
+import com.esotericsoftware.spine.attachments.AttachmentLoader;
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+import com.esotericsoftware.spine.attachments.ClippingAttachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.PathAttachment;
+import com.esotericsoftware.spine.attachments.PointAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+
+/**
+ * PetSmokeTest 在没有窗口与 GL 上下文的情况下走一遍桌宠的主要 CPU 路径，
+ * 用作启动后的快速检查，也用于 native-image-agent 追踪反射元数据。
+ *
+ * <h3>检查内容</h3>
+ * <pre>
+ * 1. ConfigManager 解析配置文件（libGDX Json 反射）
+ * 2. SkeletonBinary 读取 .skel，附件不绑定纹理区域
+ * 3. PetModel#prepare：关键帧优化、LOD 预计算与时间轴压缩
+ * 4. 播放默认动画与点击动画，逐帧更新骨骼世界变换
+ * </pre>
+ *
+ * <p>只依赖 Gdx.files 与 Gdx.app，可以运行在 headless 后端上。
+ * 纹理与音效需要 GL/音频设备，不在检查范围内。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetModel
+ */
+public final class PetSmokeTest {
+    private static final Logger logger = new Logger("PetSmokeTest", Logger.DEBUG);
+    private static final float FRAME_TIME = 1 / 60f;
+    private static final float DEFAULT_MIX = 0.1f;
+
+    private PetSmokeTest() {
+    }
+
+    /**
+     * 运行冒烟测试
+     *
+     * @param configPath 配置文件路径（相对于 assets 目录）
+     * @param frames     模拟的帧数
+     * @return 全部步骤成功时返回 true
+     */
+    public static boolean run(String configPath, int frames) {
+        long start = System.nanoTime();
+        ConfigManager config = ConfigManager.parse(Gdx.files.internal(configPath));
+        if (config == null) {
+            logger.error("配置文件解析失败: " + configPath);
+            return false;
+        }
+
+        SkeletonData skeletonData;
+        try {
+            SkeletonBinary skeletonBinary = new SkeletonBinary(new NoTextureAttachmentLoader());
+            skeletonBinary.setScale(PetModel.MODEL_SCALE);
+            skeletonData = PetModel.prepare(skeletonBinary.readSkeletonData(
+                Gdx.files.internal(config.modelDirPath + "/" + config.modelName + ".skel")), config.compressAnimations);
+        } catch (GdxRuntimeException e) {
+            logger.error("模型加载失败: " + e.getMessage());
+            return false;
+        }
+        long loaded = System.nanoTime();
+
+        String defaultAnimation = config.defaultAnimationName;
+        String clickedAnimation = config.onClickedAnimationName;
+        if (skeletonData.findAnimation(defaultAnimation) == null) {
+            logger.error("默认动画不存在: " + defaultAnimation);
+            return false;
+        }
+
+        AnimationStateData stateData = new AnimationStateData(skeletonData);
+        stateData.setMixAll(DEFAULT_MIX);
+        Skeleton skeleton = new Skeleton(skeletonData);
+        AnimationState state = new AnimationState(stateData);
+        state.setAnimation(0, defaultAnimation, true);
+        for (int i = 0; i < frames; i++) {
+            // 中途模拟一次点击，覆盖动画之间的混合
+            if (i == frames / 2 && skeletonData.findAnimation(clickedAnimation) != null) {
+                state.setAnimation(0, clickedAnimation, false);
+                state.addAnimation(0, defaultAnimation, true, 0f);
+            }
+            state.update(FRAME_TIME);
+            state.apply(skeleton);
+            skeleton.update(FRAME_TIME);
+            skeleton.updateWorldTransform();
+        }
+        long end = System.nanoTime();
+
+        logger.info("Smoke test passed: " + config.modelName
+            + ", load " + (loaded - start) / 1000000 + " ms"
+            + ", " + frames + " frames " + (end - loaded) / 1000000 + " ms");
+        return true;
+    }
+
+    /**
+     * 创建不绑定纹理区域的附件，只保留骨骼动画需要的几何数据
+     */
+    static class NoTextureAttachmentLoader implements AttachmentLoader {
+        @Override
+        public RegionAttachment newRegionAttachment(Skin skin, String name, String path) {
+            return new RegionAttachment(name);
+        }
+
+        @Override
+        public MeshAttachment newMeshAttachment(Skin skin, String name, String path) {
+            return new MeshAttachment(name);
+        }
+
+        @Override
+        public BoundingBoxAttachment newBoundingBoxAttachment(Skin skin, String name) {
+            return new BoundingBoxAttachment(name);
+        }
+
+        @Override
+        public ClippingAttachment newClippingAttachment(Skin skin, String name) {
+            return new ClippingAttachment(name);
+        }
+
+        @Override
+        public PathAttachment newPathAttachment(Skin skin, String name) {
+            return new PathAttachment(name);
+        }
+
+        @Override
+        public PointAttachment newPointAttachment(Skin skin, String name) {
+            return new PointAttachment(name);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongArray;
+
+import java.util.Arrays;
+
+/**
+ * PetWorld 负责同屏多只桌宠之间、以及桌宠与鼠标光标之间的接触检测，
+ * 并在接触开始/结束时派发事件，由 {@link SpinePet} 映射为相应动画。
+ *
+ * <h3>实现方式</h3>
+ * <ul>
+ *     <li><b>粗检测</b>：均匀空间哈希。每个 {@link PetBody} 按 AABB 覆盖的格子写入哈希表，
+ *         只有落在同一格子里的两只桌宠才会做 AABB 相交测试，避免 O(n²) 的两两比较</li>
+ *     <li><b>事件</b>：每次 {@link #step()} 把相交的桌宠对编码为 {@code long} 并排序，
+ *         与上一帧的有序数组做归并比较，新增的对派发 enter，消失的对派发 exit</li>
+ *     <li><b>光标</b>：光标作为一个点，在哈希表中只查询一个格子</li>
+ * </ul>
+ *
+ * <h3>性能</h3>
+ * 稳定运行时 {@link #step()} 不分配对象，开销与「桌宠数量 + 实际接触对数」成正比，
+ * 数百只桌宠也可在一帧内完成。格子边长建议取单只桌宠尺寸的 1~2 倍。
+ *
+ * <h3>典型用法</h3>
+ * <pre>{@code
+ * PetWorld world = new PetWorld(150);
+ * world.setListener(listener);
+ * PetBody body = world.createBody();
+ * // 每帧：
+ * body.set(x, y, w, h);
+ * world.setCursor(cursorX, cursorY);
+ * world.step();
+ * }</pre>
+ *
+ * <p>该类不依赖 Gdx 的图形/输入模块，可在无窗口环境下运行。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetBody
+ */
+public class PetWorld {
+    private static final int EMPTY = -1;
+
+    private final float cellSize;
+    private final Array<PetBody> bodies = new Array<>();
+    private int nextId = 0;
+    private Listener listener;
+
+    // 空间哈希：桶头 + 链表节点（节点记录所属格子坐标与 body 下标）
+    private int[] buckets = new int[64];
+    private int[] nodeNext = new int[64], nodeBody = new int[64], nodeCellX = new int[64], nodeCellY = new int[64];
+    private int nodeCount = 0;
+
+    private LongArray pairs = new LongArray(), previousPairs = new LongArray();
+    private final Array<PetBody> cursorBodies = new Array<>(), previousCursorBodies = new Array<>();
+    private boolean hasCursor = false;
+    private float cursorX, cursorY;
+
+    /**
+     * @param cellSize 空间哈希格子边长，与 PetBody 使用同一坐标单位
+     */
+    public PetWorld(float cellSize) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be > 0.");
+        this.cellSize = cellSize;
+    }
+
+    public PetBody createBody() {
+        PetBody body = new PetBody(nextId++);
+        body.index = bodies.size;
+        bodies.add(body);
+        return body;
+    }
+
+    /**
+     * 移除碰撞体。与其相关的接触会立即派发 exit。
+     */
+    public void removeBody(PetBody body) {
+        if (body.index == -1) return;
+        int index = body.index;
+        bodies.removeIndex(index);
+        for (int i = index; i < bodies.size; i++) {
+            bodies.get(i).index = i;
+        }
+        body.index = -1;
+        flushRemoved(body);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void setCursor(float x, float y) {
+        hasCursor = true;
+        cursorX = x;
+        cursorY = y;
+    }
+
+    public void clearCursor() {
+        hasCursor = false;
+    }
+
+    /**
+     * 重建空间哈希，检测所有接触并派发 enter/exit 事件。
+     */
+    public void step() {
+        rebuildHash();
+        collectPairs();
+        dispatchPairs();
+        collectCursor();
+        dispatchCursor();
+    }
+
+    public Array<PetBody> getBodies() {
+        return bodies;
+    }
+
+    /**
+     * 当前相互接触的桌宠对数量。
+     */
+    public int getContactCount() {
+        return previousPairs.size;
+    }
+
+    // -------- Private Helpers -------- //
+
+    private int cellOf(float v) {
+        return (int) Math.floor(v / cellSize);
+    }
+
+    private int bucketOf(int cellX, int cellY) {
+        int h = cellX * 73856093 ^ cellY * 19349663;
+        return h & (buckets.length - 1);
+    }
+
+    private void rebuildHash() {
+        int bodyCount = bodies.size;
+        // 桶数量保持为 2 的幂且不少于 body 数的两倍，降低链表长度
+        int bucketCount = buckets.length;
+        while (bucketCount < bodyCount * 2) bucketCount <<= 1;
+        if (bucketCount != buckets.length) buckets = new int[bucketCount];
+        Arrays.fill(buckets, EMPTY);
+        nodeCount = 0;
+
+        for (int i = 0; i < bodyCount; i++) {
+            PetBody body = bodies.get(i);
+            int x0 = cellOf(body.minX), x1 = cellOf(body.maxX);
+            int y0 = cellOf(body.minY), y1 = cellOf(body.maxY);
+            for (int cy = y0; cy <= y1; cy++) {
+                for (int cx = x0; cx <= x1; cx++) {
+                    insert(cx, cy, i);
+                }
+            }
+        }
+    }
+
+    private void insert(int cellX, int cellY, int bodyIndex) {
+        if (nodeCount == nodeNext.length) {
+            int size = nodeCount << 1;
+            nodeNext = Arrays.copyOf(nodeNext, size);
+            nodeBody = Arrays.copyOf(nodeBody, size);
+            nodeCellX = Arrays.copyOf(nodeCellX, size);
+            nodeCellY = Arrays.copyOf(nodeCellY, size);
+        }
+        int bucket = bucketOf(cellX, cellY);
+        int node = nodeCount++;
+        nodeBody[node] = bodyIndex;
+        nodeCellX[node] = cellX;
+        nodeCellY[node] = cellY;
+        nodeNext[node] = buckets[bucket];
+        buckets[bucket] = node;
+    }
+
+    private void collectPairs() {
+        LongArray pairs = this.pairs;
+        pairs.clear();
+        Array<PetBody> bodies = this.bodies;
+        // 每个节点只与同一链表中、同一格子、下标更大的 body 比较
+        for (int bucket = 0, n = buckets.length; bucket < n; bucket++) {
+            for (int a = buckets[bucket]; a != EMPTY; a = nodeNext[a]) {
+                PetBody bodyA = bodies.get(nodeBody[a]);
+                for (int b = nodeNext[a]; b != EMPTY; b = nodeNext[b]) {
+                    if (nodeCellX[a] != nodeCellX[b] || nodeCellY[a] != nodeCellY[b]) continue;
+                    PetBody bodyB = bodies.get(nodeBody[b]);
+                    if (bodyA.overlaps(bodyB)) pairs.add(pairKey(bodyA.id, bodyB.id));
+                }
+            }
+        }
+        pairs.sort();
+        // 同一对可能共享多个格子，排序后去重
+        long[] items = pairs.items;
+        int unique = 0;
+        for (int i = 0, n = pairs.size; i < n; i++) {
+            if (unique == 0 || items[unique - 1] != items[i]) items[unique++] = items[i];
+        }
+        pairs.size = unique;
+    }
+
+    private void dispatchPairs() {
+        long[] current = pairs.items, previous = previousPairs.items;
+        int i = 0, j = 0, n = pairs.size, m = previousPairs.size;
+        while (i < n || j < m) {
+            if (j == m || (i < n && current[i] < previous[j])) {
+                fireEnter(current[i++]);
+            } else if (i == n || previous[j] < current[i]) {
+                fireExit(previous[j++]);
+            } else {
+                i++;
+                j++;
+            }
+        }
+        LongArray swap = previousPairs;
+        previousPairs = pairs;
+        pairs = swap;
+    }
+
+    private void collectCursor() {
+        cursorBodies.clear();
+        if (!hasCursor) return;
+        int cellX = cellOf(cursorX), cellY = cellOf(cursorY);
+        for (int node = buckets[bucketOf(cellX, cellY)]; node != EMPTY; node = nodeNext[node]) {
+            if (nodeCellX[node] != cellX || nodeCellY[node] != cellY) continue;
+            PetBody body = bodies.get(nodeBody[node]);
+            if (body.contains(cursorX, cursorY)) cursorBodies.add(body);
+        }
+    }
+
+    private void dispatchCursor() {
+        if (listener != null) {
+            for (int i = 0, n = cursorBodies.size; i < n; i++) {
+                PetBody body = cursorBodies.get(i);
+                if (!previousCursorBodies.contains(body, true)) listener.cursorEnter(body);
+            }
+            for (int i = 0, n = previousCursorBodies.size; i < n; i++) {
+                PetBody body = previousCursorBodies.get(i);
+                if (!cursorBodies.contains(body, true)) listener.cursorExit(body);
+            }
+        }
+        previousCursorBodies.clear();
+        previousCursorBodies.addAll(cursorBodies);
+    }
+
+    /**
+     * 被移除的 body 已不在 bodies 中，需要立刻派发 exit 并从上一帧的记录中删掉。
+     */
+    private void flushRemoved(PetBody removed) {
+        long[] items = previousPairs.items;
+        int kept = 0;
+        for (int i = 0, n = previousPairs.size; i < n; i++) {
+            long key = items[i];
+            int a = (int) (key >>> 32), b = (int) key;
+            if (a == removed.id || b == removed.id) {
+                PetBody other = findBody(a == removed.id ? b : a);
+                if (listener != null && other != null) listener.exit(removed, other);
+            } else {
+                items[kept++] = key;
+            }
+        }
+        previousPairs.size = kept;
+        if (previousCursorBodies.removeValue(removed, true) && listener != null) listener.cursorExit(removed);
+    }
+
+    private void fireEnter(long key) {
+        if (listener == null) return;
+        PetBody a = findBody((int) (key >>> 32)), b = findBody((int) key);
+        if (a != null && b != null) listener.enter(a, b);
+    }
+
+    private void fireExit(long key) {
+        if (listener == null) return;
+        PetBody a = findBody((int) (key >>> 32)), b = findBody((int) key);
+        if (a != null && b != null) listener.exit(a, b);
+    }
+
+    private PetBody findBody(int id) {
+        // bodies 按创建顺序排列，id 单调递增，可二分查找
+        int low = 0, high = bodies.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = bodies.get(mid).id;
+            if (midId < id) low = mid + 1;
+            else if (midId > id) high = mid - 1;
+            else return bodies.get(mid);
+        }
+        return null;
+    }
+
+    private static long pairKey(int idA, int idB) {
+        int low = Math.min(idA, idB), high = Math.max(idA, idB);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 接触事件监听器。事件在 {@link #step()} 中同步派发。
+     */
+    public interface Listener {
+        /** 两只桌宠开始接触 */
+        void enter(PetBody a, PetBody b);
+
+        /** 两只桌宠结束接触（包括其中一只被移除） */
+        void exit(PetBody a, PetBody b);
+
+        /** 光标进入桌宠包围盒 */
+        void cursorEnter(PetBody body);
+
+        /** 光标离开桌宠包围盒 */
+        void cursorExit(PetBody body);
+    }
+
+    /**
+     * 空实现的监听器，按需覆盖。
+     */
+    public static class ListenerAdapter implements Listener {
+        public void enter(PetBody a, PetBody b) {
+        }
+
+        public void exit(PetBody a, PetBody b) {
+        }
+
+        public void cursorEnter(PetBody body) {
+        }
+
+        public void cursorExit(PetBody body) {
+        }
+    }
+}
@@ -1,75 +1,93 @@
 package com.badlogic.yatdp.pet;
 
 
+import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.Logger;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.yatdp.core.AppState;
+import com.badlogic.yatdp.core.ConfigManager;
 import com.badlogic.yatdp.core.MainApp;
 import com.esotericsoftware.spine.*;
 import com.esotericsoftware.spine.utils.TwoColorPolygonBatch;
 import com.badlogic.gdx.audio.Sound;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * SpinePet 类封装了桌面宠物的 Spine 模型、动画控制与交互逻辑。
  * <p>
- * 该类负责加载 Spine 模型资源、控制动画播放、处理用户点击事件，以及完成模型的实时渲染。
+ * 该类负责控制单只桌宠的动画播放、处理用户点击事件，并把模型绘制到共享的批处理器中。
+ * 模型资源（纹理、SkeletonData、混合数据、音效）由 {@link PetModel} 在多只桌宠之间共享，
+ * 每个实例只持有自己的 Skeleton 与 AnimationState。
  * 它构成桌宠外观与行为的核心表现层，结合 Spine Runtime 实现动态骨骼动画效果。
  *
  * <h3>主要功能</h3>
  * <ul>
- *   <li>加载指定路径的 Spine 模型（支持二进制 .skel 与 .atlas 格式）</li>
+ *   <li>从共享的 {@link PetModel} 创建独立的骨骼实例</li>
  *   <li>初始化并管理骨骼动画系统</li>
  *   <li>根据程序状态动态调整模型位置（如在菜单模式中左移）</li>
  *   <li>支持用户点击交互：触发互动动画与音效播放</li>
  *   <li>自动处理动画混合，增强自然切换效果</li>
+ *   <li>支持按桌宠切换细节等级（{@link PetLod}），跳过画面上不可见的时间轴与约束</li>
  *   <li>提供资源释放方法，防止内存泄漏</li>
  * </ul>
  *
  * <h3>模块协作结构</h3>
  * <pre>
  * MainApp
- *  └── SpinePet
- *        ├── Skeleton / AnimationState        // 动画控制核心
- *        ├── TwoColorPolygonBatch             // 渲染器
- *        ├── OrthographicCamera               // 视图控制
- *        └── Sound clickSound                 // 交互音效
+ *  └── PetManager                             // 共享批处理器、相机与模型缓存
+ *        └── SpinePet
+ *              ├── PetModel                   // 共享的模型资源与音效
+ *              ├── Skeleton / AnimationState  // 动画控制核心（每只桌宠独有，由模拟线程推进）
+ *              ├── SkeletonSnapshot × 2       // 最近两步的姿态快照
+ *              ├── Skeleton（display）         // 渲染线程插值后的姿态，用于绘制与点击判定
+ *              ├── PetHitTester               // 点击判定与鼠标穿透
+ *              └── PetBody                    // PetWorld 中的碰撞体
  * </pre>
  *
  * <h3>典型用法</h3>
  * <pre>{@code
- * // 初始化宠物模型（指定模型目录与模型名）
- * SpinePet pet = new SpinePet("models", "cat");
+ * // 通过 PetManager 创建宠物（同一模型只加载一次）
+ * SpinePet pet = petManager.spawn("models", "cat");
  *
- * // 每帧调用渲染
- * pet.render(Gdx.graphics.getDeltaTime());
+ * // 每帧由 PetManager 统一更新与绘制
+ * petManager.render(Gdx.graphics.getDeltaTime());
  *
  * // 用户点击事件触发动画与声音
  * pet.onClicked();
  *
- * // 应用关闭时释放资源
- * pet.dispose();
+ * // 不再需要时归还到对象池
+ * petManager.despawn(pet);
  * }</pre>
  *
  * <h3>动画控制说明</h3>
  * <ul>
- *   <li>默认动画：DEFAULT_ANIMATION</li>
- *   <li>点击触发：CLICKED_ANIMATION</li>
- *   <li>闲置一定时间自动触发: IDLE_ANIMATION</>
+ *   <li>默认动画：defaultAnimation</li>
+ *   <li>点击触发：clickedAnimation</li>
+ *   <li>闲置一定时间自动触发: idleAnimation</>
+ *   <li>以上动画名称、闲置时间与缩放可由 {@link #applyConfig(ConfigManager)} 在运行时替换</li>
  *   <li>所有动画之间使用 0.1s 混合过渡</li>
  *   <li>点击动画播放完毕后自动切换回默认动画</li>
  * </ul>
  *
+ * <h3>线程模型</h3>
+ * <pre>
+ * 模拟线程（{@link PetSimulation}）：step(1/60) → 推进动画 → 交换快照 → 捕获姿态
+ * 渲染线程：present(alpha) → 在两份快照之间插值到 display → 点击判定、碰撞体与绘制
+ * </pre>
+ * <p>两个线程通过模型的锁（{@link PetModel#lock}）交替访问，每一步与每一帧各只持锁一次；其余公开方法也在锁内修改状态，
+ * 可在渲染线程随时调用。同一模型的桌宠共用这把锁，模型替换共享的时间轴时也持有它。
+ * 构造时不应用动画：第一次 step 在模拟线程上应用初始姿态并发布快照，之前 present 与 draw 什么都不做，
+ * 新桌宠因此晚一步（约 16ms）出现。插值的姿态比模拟最多晚一步，换来与显示刷新率无关的固定步长动画。</p>
+ *
  * <h3>注意事项</h3>
  * <ul>
  *   <li>模型资源应包含一致命名的 `.atlas`, `.skel`, `.png` 文件</li>
- *   <li>模型缩放比设定为 {@code 0.3f}，请根据分辨率合理调整</li>
+ *   <li>模型按 {@code 0.3f} 加载，其余缩放通过 Skeleton 缩放实现，请根据分辨率合理调整</li>
  *   <li>动画文件中需包含名为 "Relax" 与 "Interact" 的动作</li>
+ *   <li>插值绘制让每只桌宠多持有一个 Skeleton 与两份姿态快照：内置模型约 31 KB，
+ *   是模拟用的 Skeleton + AnimationState（约 15 KB）的两倍，共享模型时每只桌宠共约 44 KB（见 PetMemoryTest）</li>
  * </ul>
  *
  * <h3>日志输出</h3>
@@ -78,168 +96,359 @@ import java.util.List;
  *   <li>点击触发交互行为</li>
  * </ul>
  *
- * <h3>优化方向</>
- * <ul>
- *   <li>动画相关设置放在配置文件中读取，不使用Hard Code</>
- * </ul>
- *
  * @author baiheyufei
- * @version 1.0
- * @see #SpinePet(String, String)
- * @see #render(float)
+ * @version 1.2
+ * @see PetManager#spawn(String, String)
+ * @see #step(float)
+ * @see #present(float)
  * @see #onClicked()
  * @see #dispose()
  */
 public class SpinePet {
     private static final Logger logger = new Logger("SpinePet", Logger.DEBUG);
-    private static final float MODEL_SCALE = 0.3f;
-    private static final float IDLE_TRIGGER_TIME_SECONDS = 60.f;
-    private static final String DEFAULT_ANIMATION = "Relax";
-    private static final String CLICKED_ANIMATION = "Interact";
-    private static final String IDLE_ANIMATION = "Sleep";
-    private static final String CLICK_SOUND_PATH = "sounds/mixkit-magic-notification-ring-2344.mp3";
-
-    private final OrthographicCamera camera = new OrthographicCamera();
-    private final TwoColorPolygonBatch batch = new TwoColorPolygonBatch();
-    private final SkeletonRenderer skeletonRenderer = new SkeletonRenderer();
-    private TextureAtlas atlas;
-    private Skeleton skeleton;
-    private AnimationState animationState;
-    private AnimationStateData animationStateData;
+
+    private final PetModel model;
+    private final PetBody body;
+    private final PetHitTester hitTester = new PetHitTester();
+    private final Vector2 boundsOffset = new Vector2(), boundsSize = new Vector2();
+    private final FloatArray boundsTemp = new FloatArray();
+    private final Skeleton skeleton;      // 模拟线程推进的姿态
+    private final Skeleton display;       // 渲染线程绘制的插值姿态
+    private final AnimationState animationState;
+    private SkeletonSnapshot previous, current;
+    private boolean disposed;
+    private boolean started;   // 模拟线程已完成第一步，快照中有姿态
+    private boolean presented; // 渲染线程已插值出第一份姿态，只在渲染线程访问
     private boolean isPlayingSpecialAnimation = false;
-    private Sound clickSound;
+    private boolean followWindow = true;
+    private PetLod lod;
+    private float windowOriginX, windowOriginY;
+    private float followX = Float.NaN; // 渲染线程计算的对齐位置，下一步生效
     private float idleTime = 0.0f;
+    private float idleTriggerTime = 60f;
+    private String defaultAnimation = "Relax";
+    private String clickedAnimation = "Interact";
+    private String idleAnimation = "Sleep";
 
     /**
-     * 构造函数，初始化 Spine 模型和渲染组件
+     * 构造函数，从共享模型创建桌宠实例。通常通过 {@link PetManager#spawn(String, String)} 调用。
      *
-     * @param modelDir 模型文件所在目录路径（相对于 assets 目录）
-     * @param modelName 模型文件名（不带扩展名）,需保持Spine模型的`.atlas`, `.skel`, `.png` 名称一致
-     * @see #loadSpineModel(String, String)
+     * @param model 共享的模型资源
+     * @param body  该桌宠在 {@link PetWorld} 中的碰撞体
      * @see #configureSkeleton()
+     * @see #initializeAnimations()
      */
-    public SpinePet(String modelDir, String modelName) {
+    SpinePet(PetModel model, PetBody body) {
         Gdx.app.setLogLevel(Logger.INFO);
-        skeletonRenderer.setPremultipliedAlpha(true);
-        loadSpineModel(modelDir, modelName);
+        this.model = model;
+        this.body = body;
+        body.userData = this;
+        skeleton = model.obtainSkeleton();
+        display = model.obtainSkeleton();
+        animationState = new AnimationState(model.getAnimationStateData());
+        model.addAnimationState(animationState);
+        previous = new SkeletonSnapshot(skeleton.getData());
+        current = new SkeletonSnapshot(skeleton.getData());
         configureSkeleton();
         initializeAnimations();
-        loadSoundEffect();
+        setLod(PetLod.STANDARD);
+        // 动画由模拟线程第一次 step 时应用，在此之前 present 不发布姿态，draw 不绘制
         logger.info("SpinePet initialized.");
     }
 
     /**
-     * 渲染方法，执行动画更新和模型绘制
+     * 推进一步动画与闲置逻辑，并捕获新姿态。由 {@link PetSimulation} 在模拟线程以固定步长调用。
      *
-     * @param delta 时间增量，用于动画帧率控制
+     * @param delta 固定的步长（秒）
+     * @return 姿态仍在变化时返回 true（与双缓冲中较旧的一份比较），姿态不变时渲染线程无需重绘
      */
-    public void render(float delta) {
-        updateSkeletonPosition();
-        updateAnimation(delta);
+    boolean step(float delta) {
+        synchronized (model.lock) {
+            if (disposed) return false;
+            if (followWindow && !Float.isNaN(followX)) skeleton.setX(followX);
+            if (!started) {
+                // 第一步只应用初始姿态，两份快照相同，渲染线程从此开始绘制
+                updateAnimation(0);
+                previous.capture(skeleton);
+                current.capture(skeleton);
+                started = true;
+                return true;
+            }
+            updateAnimation(delta);
 
-        if (animationState.getCurrent(0).getAnimation().getName().equals(DEFAULT_ANIMATION)) {
-            idleTime += delta;
-        } else {
-            idleTime = 0.0f;
+            if (animationState.getCurrent(0).getAnimation().getName().equals(defaultAnimation)) {
+                idleTime += delta;
+            } else {
+                idleTime = 0.0f;
+            }
+
+            if (idleTime > idleTriggerTime) {
+                playIdleTimeoutAnimation();
+                idleTime = 0.0f;
+            }
+
+            // 双缓冲：previous 保留上一步的姿态，供渲染线程插值
+            SkeletonSnapshot swap = previous;
+            previous = current;
+            current = swap;
+            return current.capture(skeleton);
         }
+    }
 
-        if (idleTime > IDLE_TRIGGER_TIME_SECONDS) {
-            playIdleTimeoutAnimation();
-            idleTime = 0.0f;
+    /**
+     * 把最近两步之间的插值姿态写入用于绘制的 Skeleton，并更新点击判定，每帧在渲染线程调用一次
+     *
+     * @param alpha 距上一步经过的时间占步长的比例，0 为上一步之前的姿态，1 为最新姿态
+     * @see PetSimulation#getAlpha()
+     */
+    public void present(float alpha) {
+        synchronized (model.lock) {
+            if (disposed) return;
+            followX = computeFollowX();
+            if (!started) return; // 模拟线程尚未发布第一份姿态
+            previous.apply(display, current, alpha);
         }
+        presented = true;
+        hitTester.update(display, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+    }
 
-        camera.update();
-        batch.setProjectionMatrix(camera.combined);
+    /**
+     * @return 是否已有可绘制的姿态，即模拟线程完成第一步后渲染线程调用过 {@link #present(float)}
+     */
+    boolean isPresented() {
+        return presented;
+    }
 
-        batch.begin();
-        skeletonRenderer.draw(batch, skeleton);
-        batch.end();
+    /**
+     * 使用共享的批处理器绘制模型，调用方负责 begin/end
+     */
+    public void draw(TwoColorPolygonBatch batch, SkeletonRenderer skeletonRenderer) {
+        if (presented) skeletonRenderer.draw(batch, display);
     }
 
     /**
-     * 释放所有原生资源
-     *
-     * <p>在程序退出时调用以避免内存泄漏</p>
+     * 归还两个 Skeleton 到模型的对象池。共享的纹理与音效由 {@link PetManager} 释放。
+     * 之后模拟线程即使仍持有这只桌宠也不会再推进它。
      */
     public void dispose() {
-        batch.dispose();
-        if (clickSound != null) {
-            clickSound.dispose();
+        synchronized (model.lock) {
+            if (disposed) return;
+            disposed = true;
+            animationState.clearListeners();
+            animationState.clearTracks();
+            model.removeAnimationState(animationState);
+            skeleton.setLodThreshold(0); // 池中的 Skeleton 会被其他桌宠复用
+            skeleton.setScale(1, 1);
+            skeleton.getColor().a = 1;
+            model.freeSkeleton(skeleton);
+            display.getColor().a = 1;
+            model.freeSkeleton(display);
         }
     }
 
-    public void resize() {
-        camera.setToOrtho(false);
+    /**
+     * 固定模型在窗口中的位置，之后不再随菜单状态自动对齐
+     */
+    public void setPosition(float x, float y) {
+        synchronized (model.lock) {
+            followWindow = false;
+            skeleton.setPosition(x, y);
+        }
     }
 
-    public void onClicked() {
-        if (isPlayingSpecialAnimation) return;
+    /**
+     * 切换细节等级，可在运行时随时调用。像素阈值按 Skeleton 缩放换算为骨骼坐标单位，
+     * 同时作用于 AnimationState（跳过时间轴）与 Skeleton（跳过约束与无附件骨骼）。
+     *
+     * @param lod 细节等级
+     */
+    public void setLod(PetLod lod) {
+        synchronized (model.lock) {
+            if (lod == this.lod) return;
+            this.lod = lod;
+            float scale = Math.max(Math.abs(skeleton.getScaleX()), Math.abs(skeleton.getScaleY()));
+            float threshold = scale == 0 ? 0 : lod.getPixelThreshold() / scale;
+            animationState.setLodThreshold(threshold);
+            skeleton.setLodThreshold(threshold);
+            // 被跳过的骨骼会停在当前姿态，切换时回到初始姿态，误差不超过阈值
+            skeleton.setBonesToSetupPose();
+        }
+    }
 
-        idleTime = 0.0f;
-        isPlayingSpecialAnimation = true;
-        logger.info("Clicked: playing animation and sound.");
+    public PetLod getLod() {
+        return lod;
+    }
 
-        if (clickSound != null) clickSound.play();
+    /**
+     * 设置整体透明度，用于更换模型时的交叉淡入淡出
+     */
+    public void setAlpha(float alpha) {
+        synchronized (model.lock) {
+            skeleton.getColor().a = alpha;
+        }
+    }
 
-        animationState.setAnimation(0, CLICKED_ANIMATION, false);
-        animationState.addAnimation(0, DEFAULT_ANIMATION, true, 0f);
+    /**
+     * 应用配置中的动画名称、闲置时间与缩放，可在运行时随时调用。
+     * 模型中不存在的动画会被忽略并保留原设置；默认动画变化时立即切换过去。
+     *
+     * @param config 新的配置
+     */
+    public void applyConfig(ConfigManager config) {
+        synchronized (model.lock) {
+            idleTriggerTime = config.idleTriggerSeconds;
+            clickedAnimation = checkAnimation(config.onClickedAnimationName, clickedAnimation);
+            idleAnimation = checkAnimation(config.idleAnimationName, idleAnimation);
+            String newDefault = checkAnimation(config.defaultAnimationName, defaultAnimation);
+            if (!newDefault.equals(defaultAnimation)) {
+                defaultAnimation = newDefault;
+                isPlayingSpecialAnimation = false;
+                idleTime = 0.0f;
+                animationState.setAnimation(0, defaultAnimation, true);
+            }
 
-        animationState.addListener(new AnimationState.AnimationStateAdapter() {
-            @Override
-            public void complete(AnimationState.TrackEntry entry) {
-                if (CLICKED_ANIMATION.equals(entry.getAnimation().getName())) {
-                    isPlayingSpecialAnimation = false;
-                }
+            float scale = config.modelScale / PetModel.MODEL_SCALE;
+            if (scale > 0 && scale != skeleton.getScaleX()) {
+                skeleton.setScale(scale, scale);
+                // LOD 阈值按缩放换算，缩放变化后重新计算
+                PetLod current = lod;
+                lod = null;
+                setLod(current);
             }
-        });
+        }
     }
 
-    // -------- Private Helpers -------- //
+    /**
+     * 设置所在窗口左下角在桌面坐标系（y 轴向上）中的位置，用于 {@link PetWorld} 中的接触检测
+     */
+    public void setWindowOrigin(float x, float y) {
+        windowOriginX = x;
+        windowOriginY = y;
+    }
 
-    private void loadSpineModel(String dir, String name) {
-        atlas = new TextureAtlas(Gdx.files.internal(dir + "/" + name + ".atlas"));
-        SkeletonBinary skeletonBinary = new SkeletonBinary(atlas);
-        skeletonBinary.setScale(MODEL_SCALE);
+    public float getWindowOriginX() {
+        return windowOriginX;
+    }
 
-        SkeletonData skeletonData = skeletonBinary.readSkeletonData(Gdx.files.internal(dir + "/" + name + ".skel"));
-        skeleton = new Skeleton(skeletonData);
-        logger.info("Spine model loaded: " + name);
+    public float getWindowOriginY() {
+        return windowOriginY;
     }
 
+    /**
+     * 判断屏幕坐标（左上角为原点）处是否为模型的不透明区域
+     *
+     * @param screenX 窗口内的横坐标
+     * @param screenY 窗口内的纵坐标
+     * @return 命中模型时返回 true，透明区域返回 false
+     * @see PetHitTester
+     */
+    public boolean hitTest(int screenX, int screenY) {
+        return hitTester.hit(screenX, Gdx.graphics.getHeight() - screenY);
+    }
+
+    public void onClicked() {
+        synchronized (model.lock) {
+            if (isPlayingSpecialAnimation) return;
+
+            idleTime = 0.0f;
+            isPlayingSpecialAnimation = true;
+            logger.info("Clicked: playing animation and sound.");
+
+            Sound clickSound = model.getClickSound();
+            if (clickSound != null) clickSound.play();
+
+            animationState.setAnimation(0, clickedAnimation, false);
+            animationState.addAnimation(0, defaultAnimation, true, 0f);
+        }
+    }
+
+    /**
+     * 与其他桌宠或光标开始接触时由 {@link PetWorld.Listener} 调用。
+     * 与其他桌宠接触时播放一次互动动画（不播放音效），光标进入时只重置闲置计时。
+     *
+     * @param other 接触到的桌宠，光标接触时为 null
+     */
+    public void onInteractionEnter(SpinePet other) {
+        synchronized (model.lock) {
+            idleTime = 0.0f;
+            if (other == null || isPlayingSpecialAnimation) return;
+
+            isPlayingSpecialAnimation = true;
+            animationState.setAnimation(0, clickedAnimation, false);
+            animationState.addAnimation(0, defaultAnimation, true, 0f);
+        }
+    }
+
+    /**
+     * 与其他桌宠或光标结束接触时由 {@link PetWorld.Listener} 调用。
+     *
+     * @param other 分开的桌宠，光标离开时为 null
+     */
+    public void onInteractionExit(SpinePet other) {
+        synchronized (model.lock) {
+            idleTime = 0.0f;
+        }
+    }
+
+    /**
+     * 用当前绘制姿态的包围盒更新碰撞体
+     *
+     * @param body    该桌宠在 {@link PetWorld} 中的碰撞体
+     * @param originX 窗口左下角在桌面坐标系中的横坐标
+     * @param originY 窗口左下角在桌面坐标系中的纵坐标
+     */
+    public void updateBody(PetBody body, float originX, float originY) {
+        if (!presented) return;
+        display.getBounds(boundsOffset, boundsSize, boundsTemp);
+        body.set(originX + boundsOffset.x, originY + boundsOffset.y, boundsSize.x, boundsSize.y);
+    }
+
+    public PetBody getBody() {
+        return body;
+    }
+
+    public PetModel getModel() {
+        return model;
+    }
+
+    /**
+     * 把这只桌宠可能播放的动画名称加入 {@code out}，供低内存模式判断哪些动画可以清空
+     */
+    void collectAnimations(ObjectSet<String> out) {
+        synchronized (model.lock) {
+            out.add(defaultAnimation);
+            out.add(clickedAnimation);
+            out.add(idleAnimation);
+        }
+    }
+
+    // -------- Private Helpers -------- //
+
     private void configureSkeleton() {
-        skeleton.updateWorldTransform();
         float screenWidth = Gdx.graphics.getWidth();
         skeleton.setX(screenWidth / 2f);  // default center position
     }
 
-    private void updateSkeletonPosition() {
-        if (((MainApp) Gdx.app.getApplicationListener()).getAppState() == AppState.MENU) {
-            skeleton.setX(75); // align left in menu
+    private float computeFollowX() {
+        if (!followWindow) return Float.NaN;
+        ApplicationListener listener = Gdx.app.getApplicationListener();
+        if (listener instanceof MainApp && ((MainApp) listener).getAppState() == AppState.MENU) {
+            return 75; // align left in menu
         } else {
-            skeleton.setX(Gdx.graphics.getWidth() / 2f); // center normally
+            return Gdx.graphics.getWidth() / 2f; // center normally
         }
     }
 
     private void initializeAnimations() {
-        animationStateData = new AnimationStateData(skeleton.getData());
-
-        Array<Animation> animations = skeleton.getData().getAnimations();
-        List<Animation> animationList = new ArrayList<>();
-        for (Animation animation : animations) {
-            logger.info("Init animation: " + animation.getName());
-            animationList.add(animation);
-        }
-
-        for (Animation a1 : animationList) {
-            for (Animation a2 : animationList) {
-                if (!a1.equals(a2)) {
-                    animationStateData.setMix(a1, a2, 0.1f);
+        animationState.setAnimation(0, defaultAnimation, true);
+        animationState.addListener(new AnimationState.AnimationStateAdapter() {
+            @Override
+            public void complete(AnimationState.TrackEntry entry) {
+                if (clickedAnimation.equals(entry.getAnimation().getName())) {
+                    isPlayingSpecialAnimation = false;
                 }
             }
-        }
-
-        animationState = new AnimationState(animationStateData);
-        animationState.setAnimation(0, DEFAULT_ANIMATION, true);
+        });
     }
 
     private void updateAnimation(float delta) {
@@ -250,14 +459,21 @@ public class SpinePet {
     }
 
     private void playIdleTimeoutAnimation() {
-        animationState.setAnimation(0, IDLE_ANIMATION, false);
+        animationState.setAnimation(0, idleAnimation, false);
         for (int i = 0; i < 5; i++) {
-            animationState.addAnimation(0, IDLE_ANIMATION, false, 0f);
+            animationState.addAnimation(0, idleAnimation, false, 0f);
         }
-        animationState.addAnimation(0, DEFAULT_ANIMATION, true, 0f);
+        animationState.addAnimation(0, defaultAnimation, true, 0f);
     }
 
-    private void loadSoundEffect() {
-        clickSound = Gdx.audio.newSound(Gdx.files.internal(CLICK_SOUND_PATH));
+    private String checkAnimation(String name, String fallback) {
+        if (name == null || name.equals(fallback)) return fallback;
+        if (skeleton.getData().findAnimation(name) == null) {
+            logger.error("Animation not found in model, keeping " + fallback + ": " + name);
+            return fallback;
+        }
+        // 低内存模式清空过的动画在重新被使用时由后台补回
+        if (model.isEvicted(name)) model.requestRestore();
+        return name;
     }
 }
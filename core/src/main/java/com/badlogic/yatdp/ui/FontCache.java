@@ -0,0 +1,270 @@
+package com.badlogic.yatdp.ui;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * 字形缓存：把 FreeType 字体按需栅格化一次，保存为 BMFont 格式（.fnt + 页面 PNG），
+ * 之后的启动直接加载缓存，避免每次在 GL 线程上栅格化整套 CJK 字体。
+ *
+ * <h3>缓存键</h3>
+ * <p>缓存文件名由字体文件内容的 CRC32、字号与字符集哈希组成，任一项变化都会生成新的缓存，
+ * 旧文件不会被误用。</p>
+ *
+ * <h3>文件结构</h3>
+ * <pre>
+ * &lt;cacheDir&gt;/
+ * ├── MapleMono-NF-CN-Bold-1a2b3c4d-16-5e6f7a8b.fnt
+ * ├── MapleMono-NF-CN-Bold-1a2b3c4d-16-5e6f7a8b_0.png
+ * └── ...
+ * </pre>
+ *
+ * <h3>注意事项</h3>
+ * <ul>
+ *     <li>.fnt 最后写入，存在即代表缓存完整；缓存损坏时自动重建</li>
+ *     <li>{@code flip} 或 {@code incremental} 字体无法预先烘焙，直接交给 FreeType 生成</li>
+ *     <li>缓存目录不可写时退回到直接生成，不影响启动</li>
+ * </ul>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see MenuManager
+ */
+public class FontCache {
+    private static final Logger logger = new Logger("FontCache", Logger.DEBUG);
+
+    private static final int PAGE_SIZE = 1024;
+    /// .fnt 中记录 FreeType 原始度量的行，BMFont 加载器会跳过它
+    private static final String METRICS_TAG = "yatdp ";
+
+    private final FileHandle cacheDir;
+
+    /**
+     * 使用系统的用户缓存目录。
+     */
+    public FontCache() {
+        this(defaultCacheDir());
+    }
+
+    public FontCache(FileHandle cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * 加载字体，缓存命中时不再调用 FreeType。
+     *
+     * @param fontFile  TTF/OTF 字体文件
+     * @param parameter FreeType 参数，{@code characters} 决定烘焙的字符集
+     */
+    public BitmapFont load(FileHandle fontFile, FreeTypeFontParameter parameter) {
+        if (parameter.flip || parameter.incremental) return generate(fontFile, parameter);
+
+        String key = key(fontFile, parameter);
+        FileHandle fnt = cacheDir.child(key + ".fnt");
+        if (fnt.exists()) {
+            try {
+                return loadCached(fnt, parameter);
+            } catch (Exception e) {
+                logger.error("字形缓存已损坏，重新生成: " + e.getMessage());
+            }
+        }
+
+        try {
+            long start = System.nanoTime();
+            bake(fontFile, parameter, key);
+            logger.info("字形缓存已生成: " + fnt.path() + " (" + (System.nanoTime() - start) / 1000000 + " ms)");
+            return loadCached(fnt, parameter);
+        } catch (Exception e) {
+            logger.error("无法写入字形缓存，直接生成字体: " + e.getMessage());
+            return generate(fontFile, parameter);
+        }
+    }
+
+    private BitmapFont generate(FileHandle fontFile, FreeTypeFontParameter parameter) {
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(fontFile);
+        BitmapFont font = generator.generateFont(parameter);
+        // 增量模式下生成器需随字体一起保留
+        if (!parameter.incremental) generator.dispose();
+        return font;
+    }
+
+    /**
+     * 栅格化字符集并写出页面 PNG 与 .fnt。
+     */
+    private void bake(FileHandle fontFile, FreeTypeFontParameter parameter, String key) throws IOException {
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(fontFile);
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 1, false);
+        PixmapPacker oldPacker = parameter.packer;
+        try {
+            parameter.packer = packer;
+            BitmapFontData data = generator.generateData(parameter);
+
+            cacheDir.mkdirs();
+            Array<PixmapPacker.Page> pages = packer.getPages();
+            for (int i = 0; i < pages.size; i++)
+                PixmapIO.writePNG(cacheDir.child(key + "_" + i + ".png"), pages.get(i).getPixmap());
+
+            FileHandle temp = cacheDir.child(key + ".fnt.tmp");
+            temp.writeString(toFnt(data, key, pages.size, parameter.size), false, "UTF-8");
+            temp.moveTo(cacheDir.child(key + ".fnt"));
+        } finally {
+            parameter.packer = oldPacker;
+            packer.dispose();
+            generator.dispose();
+        }
+    }
+
+    private BitmapFont loadCached(FileHandle fnt, FreeTypeFontParameter parameter) throws IOException {
+        BitmapFont font = new BitmapFont(fnt);
+        for (TextureRegion region : font.getRegions())
+            region.getTexture().setFilter(parameter.minFilter, parameter.magFilter);
+        applyMetrics(fnt, font.getData());
+        return font;
+    }
+
+    /**
+     * BMFont 加载器会根据字形重新推算 ascent 等度量，与 FreeType 的结果略有出入，
+     * 这里用烘焙时记录的原始值覆盖，保证排版与直接生成时一致。
+     */
+    private static void applyMetrics(FileHandle fnt, BitmapFontData data) throws IOException {
+        try (BufferedReader reader = fnt.reader(256, "UTF-8")) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith("char ")) break;
+                if (!line.startsWith(METRICS_TAG)) continue;
+                for (String token : line.substring(METRICS_TAG.length()).split(" ")) {
+                    int equals = token.indexOf('=');
+                    if (equals == -1) continue;
+                    float value = Float.parseFloat(token.substring(equals + 1));
+                    switch (token.substring(0, equals)) {
+                        case "lineHeight": data.lineHeight = value; break;
+                        case "capHeight": data.capHeight = value; break;
+                        case "ascent": data.ascent = value; break;
+                        case "descent": data.descent = value; break;
+                        case "down": data.down = value; break;
+                        case "xHeight": data.xHeight = value; break;
+                        case "spaceXadvance": data.spaceXadvance = value; break;
+                        default: break;
+                    }
+                }
+                break;
+            }
+        }
+    }
+
+    private static String toFnt(BitmapFontData data, String key, int pageCount, int size) {
+        StringBuilder fnt = new StringBuilder(1024);
+        fnt.append("info face=\"").append(key).append("\" size=").append(size)
+            .append(" bold=0 italic=0 charset=\"\" unicode=1 stretchH=100 smooth=1 aa=1 padding=0,0,0,0 spacing=1,1\n");
+        fnt.append("common lineHeight=").append(Math.round(data.lineHeight))
+            .append(" base=").append(Math.round(data.ascent + data.capHeight))
+            .append(" scaleW=").append(PAGE_SIZE).append(" scaleH=").append(PAGE_SIZE)
+            .append(" pages=").append(pageCount).append(" packed=0\n");
+        for (int i = 0; i < pageCount; i++)
+            fnt.append("page id=").append(i).append(" file=\"").append(key).append('_').append(i).append(".png\"\n");
+        fnt.append(METRICS_TAG)
+            .append("lineHeight=").append(data.lineHeight)
+            .append(" capHeight=").append(data.capHeight)
+            .append(" ascent=").append(data.ascent)
+            .append(" descent=").append(data.descent)
+            .append(" down=").append(data.down)
+            .append(" xHeight=").append(data.xHeight)
+            .append(" spaceXadvance=").append(data.spaceXadvance).append('\n');
+
+        int count = 0;
+        StringBuilder chars = new StringBuilder(4096), kernings = new StringBuilder();
+        int kerningCount = 0;
+        if (data.missingGlyph != null) {
+            appendGlyph(chars, data.missingGlyph, 0);
+            count++;
+        }
+        for (Glyph[] page : data.glyphs) {
+            if (page == null) continue;
+            for (Glyph glyph : page) {
+                if (glyph == null || glyph.id <= 0) continue;
+                appendGlyph(chars, glyph, glyph.id);
+                count++;
+                kerningCount += appendKernings(kernings, glyph);
+            }
+        }
+        fnt.append("chars count=").append(count).append('\n').append(chars);
+        if (kerningCount > 0) fnt.append("kernings count=").append(kerningCount).append('\n').append(kernings);
+        return fnt.toString();
+    }
+
+    private static void appendGlyph(StringBuilder out, Glyph glyph, int id) {
+        // BitmapFontData 加载时 yoffset = -(height + 文件中的值)，这里做逆变换
+        out.append("char id=").append(id)
+            .append(" x=").append(glyph.srcX).append(" y=").append(glyph.srcY)
+            .append(" width=").append(glyph.width).append(" height=").append(glyph.height)
+            .append(" xoffset=").append(glyph.xoffset).append(" yoffset=").append(-(glyph.height + glyph.yoffset))
+            .append(" xadvance=").append(glyph.xadvance)
+            .append(" page=").append(glyph.page).append(" chnl=0\n");
+    }
+
+    private static int appendKernings(StringBuilder out, Glyph glyph) {
+        if (glyph.kerning == null) return 0;
+        int count = 0;
+        for (int page = 0; page < glyph.kerning.length; page++) {
+            byte[] amounts = glyph.kerning[page];
+            if (amounts == null) continue;
+            for (int i = 0; i < amounts.length; i++) {
+                if (amounts[i] == 0) continue;
+                out.append("kerning first=").append(glyph.id)
+                    .append(" second=").append(page * amounts.length + i)
+                    .append(" amount=").append(amounts[i]).append('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String key(FileHandle fontFile, FreeTypeFontParameter parameter) {
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        try (InputStream input = fontFile.read()) {
+            for (int n; (n = input.read(buffer)) != -1; )
+                crc.update(buffer, 0, n);
+        } catch (IOException e) {
+            logger.error("读取字体文件出错: " + e.getMessage());
+        }
+        return String.format(Locale.ROOT, "%s-%08x-%d-%08x", fontFile.nameWithoutExtension(), crc.getValue(),
+            parameter.size, parameter.characters.hashCode());
+    }
+
+    /**
+     * 系统的用户缓存目录：Windows 为 %LOCALAPPDATA%，macOS 为 ~/Library/Caches，
+     * 其他系统遵循 XDG 规范。
+     */
+    private static FileHandle defaultCacheDir() {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        String home = System.getProperty("user.home");
+        String base;
+        if (os.contains("win")) {
+            base = System.getenv("LOCALAPPDATA");
+            if (base == null) base = home + "/AppData/Local";
+        } else if (os.contains("mac")) {
+            base = home + "/Library/Caches";
+        } else {
+            base = System.getenv("XDG_CACHE_HOME");
+            if (base == null || base.isEmpty()) base = home + "/.cache";
+        }
+        return Gdx.files.absolute(base).child("yatdp").child("fonts");
+    }
+}
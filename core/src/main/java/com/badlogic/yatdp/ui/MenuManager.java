@@ -1,6 +1,7 @@
 package com.badlogic.yatdp.ui;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
@@ -29,8 +30,10 @@ import java.util.function.Consumer;
  * <h3>功能概述</h3>
  * <ul>
  *     <li><b>render()</b>：调用 {@link Stage} 渲染 UI</li>
- *     <li><b>resize()</b>：窗口尺寸变更时重建 UI 元素</li>
- *     <li><b>createMenuUI()</b>：创建菜单或内容窗口</li>
+ *     <li><b>resize()</b>：窗口尺寸变更时更新视口</li>
+ *     <li><b>showMenuUI()</b>：显示菜单或内容窗口</li>
+ *     <li><b>showBreakReminderUI()</b>：显示休息提醒窗口</li>
+ *     <li><b>hideAll()</b>：隐藏全部 UI</li>
  *     <li><b>dispose()</b>：释放 UI 资源</li>
  * </ul>
  *
@@ -63,14 +66,18 @@ import java.util.function.Consumer;
  * <ul>
  *     <li>所有 UI 绘制基于 {@link com.badlogic.gdx.scenes.scene2d.Stage}，需在主渲染线程调用</li>
  *     <li>按钮样式通过 Pixmap 创建灰色背景并注册为 "custom-button"</li>
+ *     <li>菜单字体经 {@link FontCache} 缓存，仅首次启动时栅格化；字体文件缺失时改用皮肤自带的 default-font</li>
  *     <li>文本内容展示通过 Label 实现自动换行</li>
+ *     <li>菜单、内容窗口与提醒窗口在构造时一次性创建，之后只切换可见性并更新文本，
+ *     状态切换与每帧渲染均不再重建场景</li>
  * </ul>
  *
  * @author baiheyufei
- * @version 1.1
+ * @version 1.2
  */
 public class MenuManager {
     private static final Logger logger = new Logger("MenuManager", Logger.DEBUG);
+    private static final String CUSTOM_FONT_PATH = "fonts/MapleMono-NF-CN-Bold.ttf";
 
     private final Stage stage;
     private final Skin skin;
@@ -79,6 +86,12 @@ public class MenuManager {
     private final Runnable onExit;
     private String currentContent = "Menu";
 
+    /// 常驻场景中的三组 UI，同一时刻最多显示一组
+    private Table menuTable;
+    private Window contentWindow;
+    private Label contentLabel;
+    private Window breakWindow;
+
     public MenuManager(WindowController windowController,
                        Consumer<String> onContentRequested,
                        Runnable onExit) {
@@ -92,6 +105,12 @@ public class MenuManager {
 
         loadCustomFont();
         createCustomButtonStyle();
+        createDialogStyle();
+
+        createMenuTable();
+        createContentWindow();
+        createBreakReminderWindow();
+        hideAll();
     }
 
     public void render() {
@@ -99,22 +118,46 @@ public class MenuManager {
         stage.draw();
     }
 
-    public void resize(int width, int height, boolean showMenuTable) {
+    /**
+     * 窗口尺寸变更时只更新视口，UI 元素使用固定坐标，无需重建。
+     */
+    public void resize(int width, int height) {
         stage.getViewport().update(width, height, true);
-        createMenuUI(showMenuTable);
     }
 
-    public void createMenuUI(boolean showMenuTable) {
-        stage.clear();
-        if (showMenuTable) {
-            createMenuTable();
-        } else {
-            createContentWindow();
-        }
+    /**
+     * 显示菜单或内容窗口，并隐藏其余 UI。
+     *
+     * @param showMenuTable true 显示菜单，false 显示内容窗口
+     */
+    public void showMenuUI(boolean showMenuTable) {
+        menuTable.setVisible(showMenuTable);
+        contentWindow.setVisible(!showMenuTable);
+        breakWindow.setVisible(false);
+    }
+
+    /**
+     * 显示休息提醒窗口，并隐藏其余 UI。
+     */
+    public void showBreakReminderUI() {
+        menuTable.setVisible(false);
+        contentWindow.setVisible(false);
+        breakWindow.setVisible(true);
+    }
+
+    /**
+     * 隐藏全部 UI，使 Stage 不再拦截普通状态下的输入。
+     */
+    public void hideAll() {
+        menuTable.setVisible(false);
+        contentWindow.setVisible(false);
+        breakWindow.setVisible(false);
     }
 
     public void setCurrentContent(String content) {
+        if (content.equals(currentContent)) return;
         this.currentContent = content;
+        contentLabel.setText(content);
     }
 
     public Stage getStage() {
@@ -147,53 +190,58 @@ public class MenuManager {
         skin.add("custom-button", style, TextButton.TextButtonStyle.class);
     }
 
+    private void createDialogStyle() {
+        Window.WindowStyle dialogStyle = skin.get("dialog", Window.WindowStyle.class);
+        dialogStyle.titleFont = skin.getFont("custom-font");
+        dialogStyle.titleFontColor = Color.LIGHT_GRAY;
+
+        Label.LabelStyle labelStyle = new Label.LabelStyle();
+        labelStyle.font = skin.getFont("custom-font");
+        labelStyle.fontColor = Color.LIGHT_GRAY;
+        skin.add("custom-label", labelStyle, Label.LabelStyle.class);
+    }
+
     private void loadCustomFont() {
-        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(
-            Gdx.files.internal("fonts/MapleMono-NF-CN-Bold.ttf"));
+        FileHandle fontFile = Gdx.files.internal(CUSTOM_FONT_PATH);
+        if (!fontFile.exists()) {
+            // 字体文件需另行下载放入 assets/fonts，缺失时沿用皮肤自带的位图字体，菜单照常可用
+            logger.error("菜单字体缺失，改用默认字体: " + CUSTOM_FONT_PATH);
+            skin.add("custom-font", skin.getFont("default-font"));
+            return;
+        }
+        // 首次启动栅格化后写入字形缓存，之后直接加载 .fnt
         FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
-        BitmapFont customFont = generator.generateFont(parameter);
+        BitmapFont customFont = new FontCache().load(fontFile, parameter);
         skin.add("custom-font", customFont);
-
-        generator.dispose();
     }
 
     private void createMenuTable() {
-        Table table = new Table();
-        table.setSize(150, 150);
-        table.setPosition(150, 0);
+        menuTable = new Table();
+        menuTable.setSize(150, 150);
+        menuTable.setPosition(150, 0);
 
-        table.add(createButton("Minimize", windowController::minimize)).width(120).height(40).pad(5);
-        table.row();
+        menuTable.add(createButton("Minimize", windowController::minimize)).width(120).height(40).pad(5);
+        menuTable.row();
 
-        table.add(createButton("About", () -> onContentRequested.accept(
+        menuTable.add(createButton("About", () -> onContentRequested.accept(
                 "Yet Another Tiny Desktop Pet\n" +
                     "Right click to restore from minimized."
             )
         )).width(120).height(40).pad(5);
-        table.row();
+        menuTable.row();
 
-        table.add(createButton("Exit", onExit)).width(120).height(40).pad(5);
+        menuTable.add(createButton("Exit", onExit)).width(120).height(40).pad(5);
 
-        stage.addActor(table);
+        stage.addActor(menuTable);
     }
 
     private void createContentWindow() {
-        stage.clear();
-
-        Window.WindowStyle dialogStyle = skin.get("dialog", Window.WindowStyle.class);
-        dialogStyle.titleFont = skin.getFont("custom-font");
-        dialogStyle.titleFontColor = Color.LIGHT_GRAY;
-
-        Window contentWindow = new Window("About", dialogStyle);
+        contentWindow = new Window("About", skin, "dialog");
         contentWindow.setSize(300, 150);
         contentWindow.setPosition(0, 0);
         contentWindow.setTouchable(Touchable.enabled);
 
-        Label.LabelStyle labelStyle = new Label.LabelStyle();
-        labelStyle.font = skin.getFont("custom-font");
-        labelStyle.fontColor = Color.LIGHT_GRAY;
-
-        Label contentLabel = new Label(currentContent, labelStyle);
+        contentLabel = new Label(currentContent, skin, "custom-label");
         contentLabel.setWrap(true);
         contentLabel.setAlignment(1);
 
@@ -216,23 +264,13 @@ public class MenuManager {
         stage.addActor(contentWindow);
     }
 
-    public void createBreakReminderUI() {
-        stage.clear();
-
-        Window.WindowStyle dialogStyle = skin.get("dialog", Window.WindowStyle.class);
-        dialogStyle.titleFont = skin.getFont("custom-font");
-        dialogStyle.titleFontColor = Color.LIGHT_GRAY;
-
-        Window breakWindow = new Window("Reminder", dialogStyle);
+    private void createBreakReminderWindow() {
+        breakWindow = new Window("Reminder", skin, "dialog");
         breakWindow.setSize(150, 150);
         breakWindow.setPosition(0, 0);
         breakWindow.setTouchable(Touchable.enabled);
 
-        Label.LabelStyle labelStyle = new Label.LabelStyle();
-        labelStyle.font = skin.getFont("custom-font");
-        labelStyle.fontColor = Color.LIGHT_GRAY;
-
-        Label reminderLabel = new Label("Please take a break", labelStyle);
+        Label reminderLabel = new Label("Please take a break", skin, "custom-label");
         reminderLabel.setWrap(true);
         reminderLabel.setAlignment(Align.center);
 
@@ -253,11 +291,12 @@ public class MenuManager {
     }
 
     private TextButton createButton(String text, Runnable action) {
+        String message = "Button clicked: " + text;
         TextButton button = new TextButton(text, skin, "custom-button");
         button.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                logger.info("Button clicked: " + text);
+                logger.info(message);
                 action.run();
             }
         });
@@ -47,7 +47,13 @@ public class Animation {
 	final String name;
 	Array<Timeline> timelines;
 	final IntSet timelineIDs = new IntSet();
+	int[] propertyIds = new int[0];
+	int[] propertyIndices = new int[0]; // Dense property index per timeline, assigned by propertyData.
+	long[] propertyBits = new long[0]; // Bitset of propertyIndices.
+	SkeletonData propertyData;
+	float[] timelineImpacts; // May be null.
 	float duration;
+	int index = -1;
 
 	public Animation (String name, Array<Timeline> timelines, float duration) {
 		if (name == null) throw new IllegalArgumentException("name cannot be null.");
@@ -61,13 +67,24 @@ public class Animation {
 		return timelines;
 	}
 
+	/** Once the animation has been indexed by {@link SkeletonData#indexAnimations()}, the new timelines may only key properties
+	 * that the skeleton data has already indexed, such as when timelines are replaced by optimized or compressed ones or cleared.
+	 * The indices are looked up without modifying the skeleton data.
+	 * @throws IllegalArgumentException if a timeline keys a property the skeleton data has not indexed. */
 	public void setTimelines (Array<Timeline> timelines) {
 		if (timelines == null) throw new IllegalArgumentException("timelines cannot be null.");
-		this.timelines = timelines;
+		int n = timelines.size;
+		int[] propertyIds = new int[n];
+		for (int i = 0; i < n; i++)
+			propertyIds[i] = timelines.get(i).getPropertyId();
+		if (propertyData != null) propertyData.indexProperties(this, propertyIds, false);
 
+		this.timelines = timelines;
+		this.propertyIds = propertyIds;
 		timelineIDs.clear();
-		for (Timeline timeline : timelines)
-			timelineIDs.add(timeline.getPropertyId());
+		for (int i = 0; i < n; i++)
+			timelineIDs.add(propertyIds[i]);
+		timelineImpacts = null;
 	}
 
 	/** Return true if this animation contains a timeline with the specified property ID. **/
@@ -75,6 +92,29 @@ public class Animation {
 		return timelineIDs.contains(id);
 	}
 
+	/** The distance in skeleton units that visible geometry can move when each timeline is applied, parallel to
+	 * {@link #getTimelines()}. {@link AnimationState} skips timelines with an impact below its
+	 * {@link AnimationState#getLodThreshold() LOD threshold}.
+	 * @return May be null if the impacts have not been computed.
+	 * @see com.esotericsoftware.spine.utils.SkeletonLod */
+	public float[] getTimelineImpacts () {
+		return timelineImpacts;
+	}
+
+	/** @param timelineImpacts May be null. Cleared by {@link #setTimelines(Array)}. */
+	public void setTimelineImpacts (float[] timelineImpacts) {
+		if (timelineImpacts != null && timelineImpacts.length != timelines.size)
+			throw new IllegalArgumentException("timelineImpacts must have one entry per timeline.");
+		this.timelineImpacts = timelineImpacts;
+	}
+
+	/** Return true if this animation contains a timeline with the specified dense property index. The animation must have been
+	 * indexed by {@link SkeletonData#indexAnimations()}. */
+	boolean hasProperty (int index) {
+		int word = index >>> 6;
+		return word < propertyBits.length && (propertyBits[word] & 1L << index) != 0;
+	}
+
 	/** The duration of the animation in seconds, which is the highest time of all keys in the timeline. */
 	public float getDuration () {
 		return duration;
@@ -103,6 +143,12 @@ public class Animation {
 			timelines.get(i).apply(skeleton, lastTime, time, events, alpha, blend, direction);
 	}
 
+	/** The index of this animation in {@link SkeletonData#getAnimations()}, assigned when the skeleton data is loaded, or -1 if
+	 * the animation was not loaded as part of a skeleton data. */
+	public int getIndex () {
+		return index;
+	}
+
 	/** The animation's name, which is unique across all animations in the skeleton. */
 	public String getName () {
 		return name;
@@ -303,6 +349,33 @@ public class Animation {
 			}
 		}
 
+		/** Returns the timeline whose frames are read directly instead of through apply. Compressed timelines return the keys
+		 * around the time, decoded into state kept by the skeleton. */
+		CurveTimeline decoded (Skeleton skeleton, float time) {
+			return this;
+		}
+
+		/** Copies the interpolation of a key frame from another timeline. */
+		void copyCurve (int frameIndex, CurveTimeline source, int sourceFrameIndex) {
+			System.arraycopy(source.curves, sourceFrameIndex * BEZIER_SIZE, curves, frameIndex * BEZIER_SIZE, BEZIER_SIZE);
+		}
+
+		/** Recovers the Bezier control points passed to {@link #setCurve(int, float, float, float, float)} from the samples at 10%
+		 * and 90%, which depend linearly on them.
+		 * @param controlPoints Receives cx1, cy1, cx2, cy2. */
+		void getCurve (int frameIndex, float[] controlPoints) {
+			int i = frameIndex * BEZIER_SIZE;
+			float[] curves = this.curves;
+			// x(0.1) = 0.243 * cx1 + 0.027 * cx2 + 0.001, x(0.9) = 0.027 * cx1 + 0.243 * cx2 + 0.729, same for y.
+			float x1 = curves[i + 1] - 0.001f, y1 = curves[i + 2] - 0.001f;
+			float x9 = curves[i + BEZIER_SIZE - 2] - 0.729f, y9 = curves[i + BEZIER_SIZE - 1] - 0.729f;
+			float det = 0.243f * 0.243f - 0.027f * 0.027f;
+			controlPoints[0] = (0.243f * x1 - 0.027f * x9) / det;
+			controlPoints[1] = (0.243f * y1 - 0.027f * y9) / det;
+			controlPoints[2] = (0.243f * x9 - 0.027f * x1) / det;
+			controlPoints[3] = (0.243f * y9 - 0.027f * y1) / det;
+		}
+
 		/** Returns the interpolated percentage for the specified key frame and linear percentage. */
 		public float getCurvePercent (int frameIndex, float percent) {
 			percent = MathUtils.clamp(percent, 0, 1);
@@ -975,6 +1048,7 @@ public class Animation {
 		VertexAttachment attachment;
 		private final float[] frames; // time, ...
 		private final float[][] frameVertices;
+		int[] ranges; // start, end, ... Null until computed, unless set by a compressed timeline.
 
 		public DeformTimeline (int frameCount) {
 			super(frameCount);
@@ -1020,6 +1094,7 @@ public class Animation {
 		public void setFrame (int frameIndex, float time, float[] vertices) {
 			frames[frameIndex] = time;
 			frameVertices[frameIndex] = vertices;
+			ranges = null;
 		}
 
 		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixBlend blend,
@@ -1036,10 +1111,18 @@ public class Animation {
 
 			float[][] frameVertices = this.frameVertices;
 			int vertexCount = frameVertices[0].length;
+			VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
+			float[] setupVertices = vertexAttachment.getBones() == null ? vertexAttachment.getVertices() : null;
+
+			// Entries outside the slot's dirty range match the setup pose. If the size changes, the entries are unknown.
+			int dirtyStart = 0, dirtyEnd = vertexCount;
+			if (deformArray.size == vertexCount) {
+				dirtyStart = Math.min(slot.deformStart, vertexCount);
+				dirtyEnd = Math.min(slot.deformEnd, vertexCount);
+			}
 
 			float[] frames = this.frames;
 			if (time < frames[0]) { // Time is before first frame.
-				VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
 				switch (blend) {
 				case setup:
 					deformArray.clear();
@@ -1050,78 +1133,81 @@ public class Animation {
 						return;
 					}
 					float[] deform = deformArray.setSize(vertexCount);
-					if (vertexAttachment.getBones() == null) {
+					if (setupVertices != null) {
 						// Unweighted vertex positions.
-						float[] setupVertices = vertexAttachment.getVertices();
-						for (int i = 0; i < vertexCount; i++)
+						for (int i = dirtyStart; i < dirtyEnd; i++)
 							deform[i] += (setupVertices[i] - deform[i]) * alpha;
 					} else {
 						// Weighted deform offsets.
 						alpha = 1 - alpha;
-						for (int i = 0; i < vertexCount; i++)
+						for (int i = dirtyStart; i < dirtyEnd; i++)
 							deform[i] *= alpha;
 					}
+					setDirty(slot, dirtyStart, dirtyEnd, 0, 0);
 				}
 				return;
 			}
 
 			float[] deform = deformArray.setSize(vertexCount);
+			int[] ranges = ranges();
 
 			if (time >= frames[frames.length - 1]) { // Time is after last frame.
-				float[] lastVertices = frameVertices[frames.length - 1];
+				int last = frames.length - 1, start = ranges[last << 1], end = ranges[(last << 1) + 1];
+				float[] lastVertices = frameVertices[last];
 				if (alpha == 1) {
 					if (blend == add) {
-						VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
-						if (vertexAttachment.getBones() == null) {
+						if (setupVertices != null) {
 							// Unweighted vertex positions, no alpha.
-							float[] setupVertices = vertexAttachment.getVertices();
-							for (int i = 0; i < vertexCount; i++)
+							for (int i = start; i < end; i++)
 								deform[i] += lastVertices[i] - setupVertices[i];
 						} else {
 							// Weighted deform offsets, no alpha.
-							for (int i = 0; i < vertexCount; i++)
+							for (int i = start; i < end; i++)
 								deform[i] += lastVertices[i];
 						}
+						setDirty(slot, start, end, dirtyStart, dirtyEnd);
 					} else {
 						// Vertex positions or deform offsets, no alpha.
-						arraycopy(lastVertices, 0, deform, 0, vertexCount);
+						resetDirty(deform, setupVertices, dirtyStart, dirtyEnd, start, end);
+						arraycopy(lastVertices, start, deform, start, end - start);
+						setDirty(slot, start, end, 0, 0);
 					}
 				} else {
 					switch (blend) {
 					case setup: {
-						VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
-						if (vertexAttachment.getBones() == null) {
+						resetDirty(deform, setupVertices, dirtyStart, dirtyEnd, start, end);
+						if (setupVertices != null) {
 							// Unweighted vertex positions, with alpha.
-							float[] setupVertices = vertexAttachment.getVertices();
-							for (int i = 0; i < vertexCount; i++) {
+							for (int i = start; i < end; i++) {
 								float setup = setupVertices[i];
 								deform[i] = setup + (lastVertices[i] - setup) * alpha;
 							}
 						} else {
 							// Weighted deform offsets, with alpha.
-							for (int i = 0; i < vertexCount; i++)
+							for (int i = start; i < end; i++)
 								deform[i] = lastVertices[i] * alpha;
 						}
+						setDirty(slot, start, end, 0, 0);
 						break;
 					}
 					case first:
 					case replace:
 						// Vertex positions or deform offsets, with alpha.
-						for (int i = 0; i < vertexCount; i++)
+						setDirty(slot, start, end, dirtyStart, dirtyEnd);
+						for (int i = slot.deformStart, n = slot.deformEnd; i < n; i++)
 							deform[i] += (lastVertices[i] - deform[i]) * alpha;
 						break;
 					case add:
-						VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
-						if (vertexAttachment.getBones() == null) {
+						if (setupVertices != null) {
 							// Unweighted vertex positions, no alpha.
-							float[] setupVertices = vertexAttachment.getVertices();
-							for (int i = 0; i < vertexCount; i++)
+							for (int i = start; i < end; i++)
 								deform[i] += (lastVertices[i] - setupVertices[i]) * alpha;
 						} else {
 							// Weighted deform offsets, alpha.
-							for (int i = 0; i < vertexCount; i++)
+							for (int i = start; i < end; i++)
 								deform[i] += lastVertices[i] * alpha;
 						}
+						setDirty(slot, start, end, dirtyStart, dirtyEnd);
 					}
 				}
 				return;
@@ -1134,76 +1220,148 @@ public class Animation {
 			float frameTime = frames[frame];
 			float percent = getCurvePercent(frame - 1, 1 - (time - frameTime) / (frames[frame - 1] - frameTime));
 
+			// Only entries that differ from the setup pose in either key are interpolated.
+			int start = ranges[(frame - 1) << 1], end = ranges[((frame - 1) << 1) + 1];
+			int nextStart = ranges[frame << 1], nextEnd = ranges[(frame << 1) + 1];
+			if (start == end) {
+				start = nextStart;
+				end = nextEnd;
+			} else if (nextStart != nextEnd) {
+				start = Math.min(start, nextStart);
+				end = Math.max(end, nextEnd);
+			}
+
 			if (alpha == 1) {
 				if (blend == add) {
-					VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
-					if (vertexAttachment.getBones() == null) {
+					if (setupVertices != null) {
 						// Unweighted vertex positions, no alpha.
-						float[] setupVertices = vertexAttachment.getVertices();
-						for (int i = 0; i < vertexCount; i++) {
+						for (int i = start; i < end; i++) {
 							float prev = prevVertices[i];
 							deform[i] += prev + (nextVertices[i] - prev) * percent - setupVertices[i];
 						}
 					} else {
 						// Weighted deform offsets, no alpha.
-						for (int i = 0; i < vertexCount; i++) {
+						for (int i = start; i < end; i++) {
 							float prev = prevVertices[i];
 							deform[i] += prev + (nextVertices[i] - prev) * percent;
 						}
 					}
+					setDirty(slot, start, end, dirtyStart, dirtyEnd);
 				} else {
 					// Vertex positions or deform offsets, no alpha.
-					for (int i = 0; i < vertexCount; i++) {
+					resetDirty(deform, setupVertices, dirtyStart, dirtyEnd, start, end);
+					for (int i = start; i < end; i++) {
 						float prev = prevVertices[i];
 						deform[i] = prev + (nextVertices[i] - prev) * percent;
 					}
+					setDirty(slot, start, end, 0, 0);
 				}
 			} else {
 				switch (blend) {
 				case setup: {
-					VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
-					if (vertexAttachment.getBones() == null) {
+					resetDirty(deform, setupVertices, dirtyStart, dirtyEnd, start, end);
+					if (setupVertices != null) {
 						// Unweighted vertex positions, with alpha.
-						float[] setupVertices = vertexAttachment.getVertices();
-						for (int i = 0; i < vertexCount; i++) {
+						for (int i = start; i < end; i++) {
 							float prev = prevVertices[i], setup = setupVertices[i];
 							deform[i] = setup + (prev + (nextVertices[i] - prev) * percent - setup) * alpha;
 						}
 					} else {
 						// Weighted deform offsets, with alpha.
-						for (int i = 0; i < vertexCount; i++) {
+						for (int i = start; i < end; i++) {
 							float prev = prevVertices[i];
 							deform[i] = (prev + (nextVertices[i] - prev) * percent) * alpha;
 						}
 					}
+					setDirty(slot, start, end, 0, 0);
 					break;
 				}
 				case first:
 				case replace:
 					// Vertex positions or deform offsets, with alpha.
-					for (int i = 0; i < vertexCount; i++) {
+					setDirty(slot, start, end, dirtyStart, dirtyEnd);
+					for (int i = slot.deformStart, n = slot.deformEnd; i < n; i++) {
 						float prev = prevVertices[i];
 						deform[i] += (prev + (nextVertices[i] - prev) * percent - deform[i]) * alpha;
 					}
 					break;
 				case add:
-					VertexAttachment vertexAttachment = (VertexAttachment)slotAttachment;
-					if (vertexAttachment.getBones() == null) {
+					if (setupVertices != null) {
 						// Unweighted vertex positions, with alpha.
-						float[] setupVertices = vertexAttachment.getVertices();
-						for (int i = 0; i < vertexCount; i++) {
+						for (int i = start; i < end; i++) {
 							float prev = prevVertices[i];
 							deform[i] += (prev + (nextVertices[i] - prev) * percent - setupVertices[i]) * alpha;
 						}
 					} else {
 						// Weighted deform offsets, with alpha.
-						for (int i = 0; i < vertexCount; i++) {
+						for (int i = start; i < end; i++) {
 							float prev = prevVertices[i];
 							deform[i] += (prev + (nextVertices[i] - prev) * percent) * alpha;
 						}
 					}
+					setDirty(slot, start, end, dirtyStart, dirtyEnd);
+				}
+			}
+		}
+
+		/** Returns the range of entries that differ from the setup pose for each key: start, end, ... Computed on first use by
+		 * comparing the keys with the attachment's vertices, or with 0 for a weighted attachment. */
+		int[] ranges () {
+			int[] ranges = this.ranges;
+			if (ranges != null) return ranges;
+			float[][] frameVertices = this.frameVertices;
+			float[] setupVertices = attachment.getBones() == null ? attachment.getVertices() : null;
+			ranges = new int[frameVertices.length << 1];
+			for (int frame = 0, n = frameVertices.length; frame < n; frame++) {
+				float[] vertices = frameVertices[frame];
+				int start = 0, end = vertices.length;
+				if (setupVertices == null) {
+					while (start < end && vertices[start] == 0)
+						start++;
+					while (end > start && vertices[end - 1] == 0)
+						end--;
+				} else if (vertices == setupVertices)
+					start = end;
+				else {
+					while (start < end && vertices[start] == setupVertices[start])
+						start++;
+					while (end > start && vertices[end - 1] == setupVertices[end - 1])
+						end--;
 				}
+				if (start == end) start = end = 0;
+				ranges[frame << 1] = start;
+				ranges[(frame << 1) + 1] = end;
+			}
+			return this.ranges = ranges;
+		}
+
+		/** Sets the entries that are dirty but outside the start and end to the setup pose. */
+		static private void resetDirty (float[] deform, float[] setupVertices, int dirtyStart, int dirtyEnd, int start, int end) {
+			if (dirtyStart == dirtyEnd) return;
+			if (start == end) start = end = dirtyEnd;
+			int headEnd = Math.min(dirtyEnd, start), tailStart = Math.max(dirtyStart, end);
+			if (setupVertices != null) {
+				if (dirtyStart < headEnd) arraycopy(setupVertices, dirtyStart, deform, dirtyStart, headEnd - dirtyStart);
+				if (tailStart < dirtyEnd) arraycopy(setupVertices, tailStart, deform, tailStart, dirtyEnd - tailStart);
+			} else {
+				for (int i = dirtyStart; i < headEnd; i++)
+					deform[i] = 0;
+				for (int i = tailStart; i < dirtyEnd; i++)
+					deform[i] = 0;
+			}
+		}
+
+		/** Sets the slot's dirty range to the union of two ranges, either of which may be empty. */
+		static private void setDirty (Slot slot, int start, int end, int start2, int end2) {
+			if (start == end) {
+				start = start2;
+				end = end2;
+			} else if (start2 != end2) {
+				start = Math.min(start, start2);
+				end = Math.max(end, end2);
 			}
+			slot.deformStart = start;
+			slot.deformEnd = end;
 		}
 	}
 
@@ -31,10 +31,11 @@ package com.esotericsoftware.spine;
 
 import static com.esotericsoftware.spine.Animation.RotateTimeline.*;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.IntArray;
-import com.badlogic.gdx.utils.IntSet;
 import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.Pool.Poolable;
 
@@ -91,9 +92,12 @@ public class AnimationState {
 	private final Array<Event> events = new Array();
 	final Array<AnimationStateListener> listeners = new Array();
 	private final EventQueue queue = new EventQueue();
-	private final IntSet propertyIDs = new IntSet();
+	private long[] propertyBits = new long[0]; // Dense property indices set by the entries processed so far.
+	private final Array<long[]> trackPropertyBits = new Array();
 	boolean animationsChanged;
+	int changedTrack = Integer.MAX_VALUE;
 	private float timeScale = 1;
+	private float lodThreshold;
 	private int unkeyedState;
 
 	final Pool<TrackEntry> trackEntryPool = new Pool() {
@@ -224,9 +228,14 @@ public class AnimationState {
 			float animationLast = current.animationLast, animationTime = current.getAnimationTime();
 			int timelineCount = current.animation.timelines.size;
 			Object[] timelines = current.animation.timelines.items;
+			float[] impacts = lodThreshold > 0 ? current.animation.timelineImpacts : null;
 			if ((i == 0 && mix == 1) || blend == MixBlend.add) {
 				for (int ii = 0; ii < timelineCount; ii++) {
 					Object timeline = timelines[ii];
+					if (impacts != null && impacts[ii] < lodThreshold) {
+						if (blend != MixBlend.add) applySetupPose((Timeline)timeline, skeleton);
+						continue;
+					}
 					if (timeline instanceof AttachmentTimeline)
 						applyAttachmentTimeline((AttachmentTimeline)timeline, skeleton, animationTime, blend, true);
 					else
@@ -242,6 +251,10 @@ public class AnimationState {
 				for (int ii = 0; ii < timelineCount; ii++) {
 					Timeline timeline = (Timeline)timelines[ii];
 					MixBlend timelineBlend = timelineMode[ii] == SUBSEQUENT ? blend : MixBlend.setup;
+					if (impacts != null && impacts[ii] < lodThreshold) {
+						if (timelineBlend == MixBlend.setup) applySetupPose(timeline, skeleton);
+						continue;
+					}
 					if (timeline instanceof RotateTimeline) {
 						applyRotateTimeline((RotateTimeline)timeline, skeleton, animationTime, mix, timelineBlend, timelinesRotation,
 							ii << 1, firstFrame);
@@ -295,10 +308,13 @@ public class AnimationState {
 		int timelineCount = from.animation.timelines.size;
 		Object[] timelines = from.animation.timelines.items;
 		float alphaHold = from.alpha * to.interruptAlpha, alphaMix = alphaHold * (1 - mix);
+		float[] impacts = lodThreshold > 0 ? from.animation.timelineImpacts : null;
 
 		if (blend == MixBlend.add) {
-			for (int i = 0; i < timelineCount; i++)
+			for (int i = 0; i < timelineCount; i++) {
+				if (impacts != null && impacts[i] < lodThreshold) continue;
 				((Timeline)timelines[i]).apply(skeleton, animationLast, animationTime, events, alphaMix, blend, MixDirection.out);
+			}
 		} else {
 			int[] timelineMode = from.timelineMode.items;
 			Object[] timelineHoldMix = from.timelineHoldMix.items;
@@ -338,6 +354,10 @@ public class AnimationState {
 					break;
 				}
 				from.totalAlpha += alpha;
+				if (impacts != null && impacts[i] < lodThreshold) {
+					if (timelineBlend == MixBlend.setup) applySetupPose(timeline, skeleton);
+					continue;
+				}
 				if (timeline instanceof RotateTimeline) {
 					applyRotateTimeline((RotateTimeline)timeline, skeleton, animationTime, alpha, timelineBlend, timelinesRotation,
 						i << 1, firstFrame);
@@ -359,6 +379,15 @@ public class AnimationState {
 		return mix;
 	}
 
+	/** Sets the property of a timeline skipped for LOD to the setup pose. A skipped timeline that would have set its property
+	 * from the setup pose can't just be left out, else the property keeps whatever pose an earlier animation or a lower LOD
+	 * threshold left. The setup pose is within the timeline's impact of the pose it would have set, since impacts are measured
+	 * against the setup pose. Applying before the first key with {@link MixBlend#setup} sets the setup pose without evaluating
+	 * any keys. */
+	private void applySetupPose (Timeline timeline, Skeleton skeleton) {
+		timeline.apply(skeleton, -1, -1, null, 1, MixBlend.setup, MixDirection.in);
+	}
+
 	/** Applies the attachment timeline and sets {@link Slot#attachmentState}.
 	 * @param attachments False when: 1) the attachment timeline is mixing out, 2) mix < attachmentThreshold, and 3) the timeline
 	 *           is not the last timeline to set the slot's attachment. In that case the timeline is applied only so subsequent
@@ -405,6 +434,7 @@ public class AnimationState {
 
 		Bone bone = skeleton.bones.get(timeline.boneIndex);
 		if (!bone.active) return;
+		timeline = (RotateTimeline)timeline.decoded(skeleton, time);
 		float[] frames = timeline.frames;
 		float r1, r2;
 		if (time < frames[0]) { // Time is before first frame.
@@ -712,6 +742,7 @@ public class AnimationState {
 
 	/** @param last May be null. */
 	private TrackEntry trackEntry (int trackIndex, Animation animation, boolean loop, TrackEntry last) {
+		checkIndexed(animation, data.skeletonData);
 		TrackEntry entry = trackEntryPool.obtain();
 		entry.trackIndex = trackIndex;
 		entry.animation = animation;
@@ -741,6 +772,17 @@ public class AnimationState {
 		return entry;
 	}
 
+	/** Mixing tracks properties by the dense indices of the skeleton data. Animations read by the loaders were indexed when the
+	 * skeleton data was loaded. An animation built in code is indexed against the skeleton data the first time it is set, which
+	 * adds any new property IDs, so this should happen before states using the skeleton data are applied on other threads.
+	 * @throws IllegalArgumentException if the animation was indexed by a different skeleton data. */
+	static void checkIndexed (Animation animation, SkeletonData skeletonData) {
+		if (animation.propertyData == null)
+			skeletonData.indexProperties(animation, animation.propertyIds, true);
+		else if (animation.propertyData != skeletonData && animation.timelines.size > 0)
+			throw new IllegalArgumentException("Animation is indexed by a different skeleton data: " + animation.name);
+	}
+
 	private void disposeNext (TrackEntry entry) {
 		TrackEntry next = entry.next;
 		while (next != null) {
@@ -750,50 +792,84 @@ public class AnimationState {
 		entry.next = null;
 	}
 
+	/** Recomputes the mixing modes of every track entry the next time the state is applied. Call this after
+	 * {@link Animation#setTimelines(Array)} replaces the timelines of an animation that may be set on a track or mixing out,
+	 * since the entries keep per-timeline data sized for the old timelines. */
+	public void timelinesChanged () {
+		animationsChanged = true;
+		changedTrack = 0;
+	}
+
 	void animationsChanged () {
 		animationsChanged = false;
 
+		// Every animation in use was indexed by this skeleton data when it was set. Indexing an animation built in code may add
+		// property indices, so the bitsets grow to the current count.
+		int words = propertyBits.length;
+		int requiredWords = (data.skeletonData.getPropertyCount() + 63) >>> 6;
+		if (requiredWords > words) {
+			propertyBits = new long[requiredWords];
+			trackPropertyBits.clear(); // Snapshots are too small.
+			words = requiredWords;
+		}
+
+		// The modes of a track depend only on the properties set by lower tracks, so tracks below the lowest changed track keep
+		// their modes and processing resumes from the properties recorded after the track before it.
+		Array<long[]> trackPropertyBits = this.trackPropertyBits;
+		int start = Math.min(changedTrack, trackPropertyBits.size);
+		changedTrack = Integer.MAX_VALUE;
+		long[] propertyBits = this.propertyBits;
+		if (start > 0)
+			System.arraycopy(trackPropertyBits.get(start - 1), 0, propertyBits, 0, words);
+		else
+			Arrays.fill(propertyBits, 0);
+
 		// Process in the order that animations are applied.
-		propertyIDs.clear(2048);
-		for (int i = 0, n = tracks.size; i < n; i++) {
+		for (int i = start, n = tracks.size; i < n; i++) {
 			TrackEntry entry = tracks.get(i);
-			if (entry == null) continue;
-			while (entry.mixingFrom != null) // Move to last entry, then iterate in reverse.
-				entry = entry.mixingFrom;
-			do {
-				if (entry.mixingTo == null || entry.mixBlend != MixBlend.add) computeHold(entry);
-				entry = entry.mixingTo;
-			} while (entry != null);
+			if (entry != null) {
+				while (entry.mixingFrom != null) // Move to last entry, then iterate in reverse.
+					entry = entry.mixingFrom;
+				do {
+					if (entry.mixingTo == null || entry.mixBlend != MixBlend.add) computeHold(entry);
+					entry = entry.mixingTo;
+				} while (entry != null);
+			}
+			if (i == n - 1) break; // Nothing is above the last track.
+			if (i == trackPropertyBits.size) trackPropertyBits.add(new long[words]);
+			System.arraycopy(propertyBits, 0, trackPropertyBits.get(i), 0, words);
 		}
+		trackPropertyBits.truncate(Math.max(0, tracks.size - 1));
 	}
 
 	private void computeHold (TrackEntry entry) {
 		TrackEntry to = entry.mixingTo;
 		Object[] timelines = entry.animation.timelines.items;
+		int[] propertyIndices = entry.animation.propertyIndices;
 		int timelinesCount = entry.animation.timelines.size;
 		int[] timelineMode = entry.timelineMode.setSize(timelinesCount);
 		entry.timelineHoldMix.clear();
 		Object[] timelineHoldMix = entry.timelineHoldMix.setSize(timelinesCount);
-		IntSet propertyIDs = this.propertyIDs;
+		long[] propertyBits = this.propertyBits;
 
 		if (to != null && to.holdPrevious) {
 			for (int i = 0; i < timelinesCount; i++)
-				timelineMode[i] = propertyIDs.add(((Timeline)timelines[i]).getPropertyId()) ? HOLD_FIRST : HOLD_SUBSEQUENT;
+				timelineMode[i] = addProperty(propertyBits, propertyIndices[i]) ? HOLD_FIRST : HOLD_SUBSEQUENT;
 			return;
 		}
 
 		outer:
 		for (int i = 0; i < timelinesCount; i++) {
 			Timeline timeline = (Timeline)timelines[i];
-			int id = timeline.getPropertyId();
-			if (!propertyIDs.add(id))
+			int index = propertyIndices[i];
+			if (!addProperty(propertyBits, index))
 				timelineMode[i] = SUBSEQUENT;
 			else if (to == null || timeline instanceof AttachmentTimeline || timeline instanceof DrawOrderTimeline
-				|| timeline instanceof EventTimeline || !to.animation.hasTimeline(id)) {
+				|| timeline instanceof EventTimeline || !to.animation.hasProperty(index)) {
 				timelineMode[i] = FIRST;
 			} else {
 				for (TrackEntry next = to.mixingTo; next != null; next = next.mixingTo) {
-					if (next.animation.hasTimeline(id)) continue;
+					if (next.animation.hasProperty(index)) continue;
 					if (next.mixDuration > 0) {
 						timelineMode[i] = HOLD_MIX;
 						timelineHoldMix[i] = next;
@@ -806,6 +882,15 @@ public class AnimationState {
 		}
 	}
 
+	/** Sets the property's bit and returns true if it was not already set. */
+	static private boolean addProperty (long[] propertyBits, int index) {
+		int word = index >>> 6;
+		long bit = 1L << index, bits = propertyBits[word];
+		if ((bits & bit) != 0) return false;
+		propertyBits[word] = bits | bit;
+		return true;
+	}
+
 	/** Returns the track entry for the animation currently playing on the track, or null if no animation is currently playing. */
 	public TrackEntry getCurrent (int trackIndex) {
 		if (trackIndex < 0) throw new IllegalArgumentException("trackIndex must be >= 0.");
@@ -848,6 +933,19 @@ public class AnimationState {
 		this.timeScale = timeScale;
 	}
 
+	/** Timelines with an {@link Animation#getTimelineImpacts() impact} below this distance in skeleton units are not evaluated. The
+	 * properties they would set from the setup pose are set to the setup pose instead, so each is off by less than the threshold
+	 * no matter which animations were applied before. Animations without impacts are always fully applied. Defaults to 0, which
+	 * applies every timeline. */
+	public float getLodThreshold () {
+		return lodThreshold;
+	}
+
+	public void setLodThreshold (float lodThreshold) {
+		if (lodThreshold < 0) throw new IllegalArgumentException("lodThreshold must be >= 0.");
+		this.lodThreshold = lodThreshold;
+	}
+
 	/** The AnimationStateData to look up mix durations. */
 	public AnimationStateData getData () {
 		return data;
@@ -919,6 +1017,7 @@ public class AnimationState {
 
 		public void setAnimation (Animation animation) {
 			if (animation == null) throw new IllegalArgumentException("animation cannot be null.");
+			if (this.animation != null) checkIndexed(animation, this.animation.propertyData);
 			this.animation = animation;
 		}
 
@@ -1209,7 +1308,7 @@ public class AnimationState {
 		void start (TrackEntry entry) {
 			objects.add(EventType.start);
 			objects.add(entry);
-			animationsChanged = true;
+			changed(entry);
 		}
 
 		void interrupt (TrackEntry entry) {
@@ -1220,7 +1319,12 @@ public class AnimationState {
 		void end (TrackEntry entry) {
 			objects.add(EventType.end);
 			objects.add(entry);
+			changed(entry);
+		}
+
+		private void changed (TrackEntry entry) {
 			animationsChanged = true;
+			changedTrack = Math.min(changedTrack, entry.trackIndex);
 		}
 
 		void dispose (TrackEntry entry) {
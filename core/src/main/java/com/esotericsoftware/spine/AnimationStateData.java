@@ -29,16 +29,26 @@
 
 package com.esotericsoftware.spine;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.utils.ObjectFloatMap;
 import com.esotericsoftware.spine.AnimationState.TrackEntry;
 
-/** Stores mix (crossfade) durations to be applied when {@link AnimationState} animations are changed. */
+/** Stores mix (crossfade) durations to be applied when {@link AnimationState} animations are changed.
+ * <p>
+ * Mixes between animations of the {@link #getSkeletonData() skeleton data} are stored in a dense matrix indexed by
+ * {@link Animation#getIndex()}, so setting and looking up a mix does not allocate or hash. Mixes involving other animations fall
+ * back to a map. */
 public class AnimationStateData {
 	final SkeletonData skeletonData;
 	final ObjectFloatMap<Key> animationToMixTime = new ObjectFloatMap(51, 0.8f);
 	final Key tempKey = new Key();
 	float defaultMix;
 
+	/** Row-major from/to mix durations, NaN where no mix has been set. */
+	float[] mixes = new float[0];
+	int mixCount;
+
 	public AnimationStateData (SkeletonData skeletonData) {
 		if (skeletonData == null) throw new IllegalArgumentException("skeletonData cannot be null.");
 		this.skeletonData = skeletonData;
@@ -66,6 +76,11 @@ public class AnimationStateData {
 	public void setMix (Animation from, Animation to, float duration) {
 		if (from == null) throw new IllegalArgumentException("from cannot be null.");
 		if (to == null) throw new IllegalArgumentException("to cannot be null.");
+		if (indexed(from) && indexed(to)) {
+			ensureMixes();
+			mixes[from.index * mixCount + to.index] = duration;
+			return;
+		}
 		Key key = new Key();
 		key.a1 = from;
 		key.a2 = to;
@@ -77,11 +92,34 @@ public class AnimationStateData {
 	public float getMix (Animation from, Animation to) {
 		if (from == null) throw new IllegalArgumentException("from cannot be null.");
 		if (to == null) throw new IllegalArgumentException("to cannot be null.");
+		if (indexed(from) && indexed(to)) {
+			int fromIndex = from.index, toIndex = to.index;
+			if (fromIndex >= mixCount || toIndex >= mixCount) return defaultMix;
+			float mix = mixes[fromIndex * mixCount + toIndex];
+			return mix != mix ? defaultMix : mix; // NaN: not set.
+		}
 		tempKey.a1 = from;
 		tempKey.a2 = to;
 		return animationToMixTime.get(tempKey, defaultMix);
 	}
 
+	/** Sets the mix duration for every pair of different animations in the skeleton data, without creating a key per pair. Mixes
+	 * from an animation to itself are not changed. */
+	public void setMixAll (float duration) {
+		ensureMixes();
+		float[] mixes = this.mixes;
+		for (int from = 0, n = mixCount; from < n; from++) {
+			for (int to = 0, row = from * n; to < n; to++)
+				if (from != to) mixes[row + to] = duration;
+		}
+	}
+
+	/** Removes all mix durations, so {@link #getDefaultMix()} is used for every pair of animations. */
+	public void clearMixes () {
+		Arrays.fill(mixes, Float.NaN);
+		animationToMixTime.clear();
+	}
+
 	/** The mix duration to use when no mix duration has been defined between two animations. */
 	public float getDefaultMix () {
 		return defaultMix;
@@ -91,6 +129,24 @@ public class AnimationStateData {
 		this.defaultMix = defaultMix;
 	}
 
+	/** Returns true if the animation's index refers to it in the skeleton data's animations. */
+	private boolean indexed (Animation animation) {
+		int index = animation.index;
+		return index != -1 && index < skeletonData.animations.size && skeletonData.animations.get(index) == animation;
+	}
+
+	/** Grows the matrix to the current number of animations, keeping mixes already set. */
+	private void ensureMixes () {
+		int count = skeletonData.animations.size;
+		if (count <= mixCount) return;
+		float[] newMixes = new float[count * count];
+		Arrays.fill(newMixes, Float.NaN);
+		for (int from = 0, n = mixCount; from < n; from++)
+			System.arraycopy(mixes, from * n, newMixes, from * count, n);
+		mixes = newMixes;
+		mixCount = count;
+	}
+
 	static class Key {
 		Animation a1, a2;
 
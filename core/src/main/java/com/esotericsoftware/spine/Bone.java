@@ -47,7 +47,7 @@ public class Bone implements Updatable {
 	final BoneData data;
 	final Skeleton skeleton;
 	final Bone parent;
-	final Array<Bone> children = new Array();
+	final Array<Bone> children;
 	float x, y, rotation, scaleX, scaleY, shearX, shearY;
 	float ax, ay, arotation, ascaleX, ascaleY, ashearX, ashearY;
 	boolean appliedValid;
@@ -63,6 +63,8 @@ public class Bone implements Updatable {
 		this.data = data;
 		this.skeleton = skeleton;
 		this.parent = parent;
+		int[] childCounts = skeleton.data.getChildCounts();
+		children = new Array(data.index < childCounts.length ? childCounts[data.index] : 0);
 		setToSetupPose();
 	}
 
@@ -74,6 +76,7 @@ public class Bone implements Updatable {
 		this.skeleton = skeleton;
 		this.parent = parent;
 		data = bone.data;
+		children = new Array(bone.children.size);
 		x = bone.x;
 		y = bone.y;
 		rotation = bone.rotation;
@@ -40,6 +40,7 @@ public class BoneData {
 	float x, y, rotation, scaleX = 1, scaleY = 1, shearX, shearY;
 	TransformMode transformMode = TransformMode.normal;
 	boolean skinRequired;
+	float impact = Float.POSITIVE_INFINITY;
 
 	// Nonessential.
 	final Color color = new Color(0.61f, 0.61f, 0.61f, 1); // 9b9b9bff
@@ -68,6 +69,19 @@ public class BoneData {
 		scaleY = bone.scaleY;
 		shearX = bone.shearX;
 		shearY = bone.shearY;
+		impact = bone.impact;
+	}
+
+	/** The distance in skeleton units that visible geometry can be off when this bone's world transform is not updated. Bones
+	 * with an impact below {@link Skeleton#getLodThreshold()} are left out of {@link Skeleton#updateWorldTransform()}, so only
+	 * bones that have no attachments below them should have a finite impact. Default is infinity.
+	 * @see com.esotericsoftware.spine.utils.SkeletonLod */
+	public float getImpact () {
+		return impact;
+	}
+
+	public void setImpact (float impact) {
+		this.impact = impact;
 	}
 
 	/** The index of the bone in {@link Skeleton#getBones()}. */
@@ -34,6 +34,7 @@ abstract public class ConstraintData {
 	final String name;
 	int order;
 	boolean skinRequired;
+	float impact = Float.POSITIVE_INFINITY;
 
 	public ConstraintData (String name) {
 		if (name == null) throw new IllegalArgumentException("name cannot be null.");
@@ -66,6 +67,17 @@ abstract public class ConstraintData {
 		this.skinRequired = skinRequired;
 	}
 
+	/** The distance in skeleton units that visible geometry can move when this constraint is applied. Constraints with an
+	 * impact below {@link Skeleton#getLodThreshold()} are not applied. Default is infinity.
+	 * @see com.esotericsoftware.spine.utils.SkeletonLod */
+	public float getImpact () {
+		return impact;
+	}
+
+	public void setImpact (float impact) {
+		this.impact = impact;
+	}
+
 	public String toString () {
 		return name;
 	}
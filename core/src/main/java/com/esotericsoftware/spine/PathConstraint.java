@@ -55,7 +55,8 @@ public class PathConstraint implements Updatable {
 
 	private final FloatArray spaces = new FloatArray(), positions = new FloatArray();
 	private final FloatArray world = new FloatArray(), curves = new FloatArray(), lengths = new FloatArray();
-	private final float[] segments = new float[10];
+	private final FloatArray segments = new FloatArray(), cachedWorld = new FloatArray();
+	private boolean[] segmentsValid = new boolean[0];
 
 	public PathConstraint (PathConstraintData data, Skeleton skeleton) {
 		if (data == null) throw new IllegalArgumentException("data cannot be null.");
@@ -279,41 +280,57 @@ public class PathConstraint implements Updatable {
 			path.computeWorldVertices(target, 2, verticesLength, world, 0, 2);
 		}
 
-		// Curve lengths.
-		float[] curves = this.curves.setSize(curveCount);
-		float pathLength = 0;
+		// Curve lengths. The arc-length tables depend only on the world vertices, so they are kept until the path's bones or
+		// deform move it.
+		float[] curves, cachedWorld = this.cachedWorld.items;
+		boolean[] segmentsValid = this.segmentsValid;
+		boolean cached = this.cachedWorld.size == verticesLength && this.curves.size == curveCount;
+		for (int i = 0; cached && i < verticesLength; i++)
+			if (world[i] != cachedWorld[i]) cached = false;
 		float x1 = world[0], y1 = world[1], cx1 = 0, cy1 = 0, cx2 = 0, cy2 = 0, x2 = 0, y2 = 0;
 		float tmpx, tmpy, dddfx, dddfy, ddfx, ddfy, dfx, dfy;
-		for (int i = 0, w = 2; i < curveCount; i++, w += 6) {
-			cx1 = world[w];
-			cy1 = world[w + 1];
-			cx2 = world[w + 2];
-			cy2 = world[w + 3];
-			x2 = world[w + 4];
-			y2 = world[w + 5];
-			tmpx = (x1 - cx1 * 2 + cx2) * 0.1875f;
-			tmpy = (y1 - cy1 * 2 + cy2) * 0.1875f;
-			dddfx = ((cx1 - cx2) * 3 - x1 + x2) * 0.09375f;
-			dddfy = ((cy1 - cy2) * 3 - y1 + y2) * 0.09375f;
-			ddfx = tmpx * 2 + dddfx;
-			ddfy = tmpy * 2 + dddfy;
-			dfx = (cx1 - x1) * 0.75f + tmpx + dddfx * 0.16666667f;
-			dfy = (cy1 - y1) * 0.75f + tmpy + dddfy * 0.16666667f;
-			pathLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
-			dfx += ddfx;
-			dfy += ddfy;
-			ddfx += dddfx;
-			ddfy += dddfy;
-			pathLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
-			dfx += ddfx;
-			dfy += ddfy;
-			pathLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
-			dfx += ddfx + dddfx;
-			dfy += ddfy + dddfy;
-			pathLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
-			curves[i] = pathLength;
-			x1 = x2;
-			y1 = y2;
+		float pathLength = 0;
+		if (cached) {
+			curves = this.curves.items;
+			if (curveCount > 0) pathLength = curves[curveCount - 1];
+		} else {
+			curves = this.curves.setSize(curveCount);
+			for (int i = 0, w = 2; i < curveCount; i++, w += 6) {
+				cx1 = world[w];
+				cy1 = world[w + 1];
+				cx2 = world[w + 2];
+				cy2 = world[w + 3];
+				x2 = world[w + 4];
+				y2 = world[w + 5];
+				tmpx = (x1 - cx1 * 2 + cx2) * 0.1875f;
+				tmpy = (y1 - cy1 * 2 + cy2) * 0.1875f;
+				dddfx = ((cx1 - cx2) * 3 - x1 + x2) * 0.09375f;
+				dddfy = ((cy1 - cy2) * 3 - y1 + y2) * 0.09375f;
+				ddfx = tmpx * 2 + dddfx;
+				ddfy = tmpy * 2 + dddfy;
+				dfx = (cx1 - x1) * 0.75f + tmpx + dddfx * 0.16666667f;
+				dfy = (cy1 - y1) * 0.75f + tmpy + dddfy * 0.16666667f;
+				pathLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
+				dfx += ddfx;
+				dfy += ddfy;
+				ddfx += dddfx;
+				ddfy += dddfy;
+				pathLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
+				dfx += ddfx;
+				dfy += ddfy;
+				pathLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
+				dfx += ddfx + dddfx;
+				dfy += ddfy + dddfy;
+				pathLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
+				curves[i] = pathLength;
+				x1 = x2;
+				y1 = y2;
+			}
+			this.cachedWorld.clear();
+			this.cachedWorld.addAll(world, 0, verticesLength);
+			if (segmentsValid.length < curveCount) this.segmentsValid = segmentsValid = new boolean[curveCount];
+			for (int i = 0; i < curveCount; i++)
+				segmentsValid[i] = false;
 		}
 		if (percentPosition)
 			position *= pathLength;
@@ -324,9 +341,9 @@ public class PathConstraint implements Updatable {
 				spaces[i] *= pathLength;
 		}
 
-		float[] segments = this.segments;
+		float[] segments = this.segments.setSize(curveCount * 10);
 		float curveLength = 0;
-		for (int i = 0, o = 0, curve = 0, segment = 0; i < spacesCount; i++, o += 3) {
+		for (int i = 0, o = 0, curve = 0, segment = 0, s = 0; i < spacesCount; i++, o += 3) {
 			float space = spaces[i];
 			position += space;
 			float p = position;
@@ -368,44 +385,50 @@ public class PathConstraint implements Updatable {
 				cy2 = world[ii + 5];
 				x2 = world[ii + 6];
 				y2 = world[ii + 7];
-				tmpx = (x1 - cx1 * 2 + cx2) * 0.03f;
-				tmpy = (y1 - cy1 * 2 + cy2) * 0.03f;
-				dddfx = ((cx1 - cx2) * 3 - x1 + x2) * 0.006f;
-				dddfy = ((cy1 - cy2) * 3 - y1 + y2) * 0.006f;
-				ddfx = tmpx * 2 + dddfx;
-				ddfy = tmpy * 2 + dddfy;
-				dfx = (cx1 - x1) * 0.3f + tmpx + dddfx * 0.16666667f;
-				dfy = (cy1 - y1) * 0.3f + tmpy + dddfy * 0.16666667f;
-				curveLength = (float)Math.sqrt(dfx * dfx + dfy * dfy);
-				segments[0] = curveLength;
-				for (ii = 1; ii < 8; ii++) {
+				s = curve * 10;
+				if (segmentsValid[curve])
+					curveLength = segments[s + 9];
+				else {
+					segmentsValid[curve] = true;
+					tmpx = (x1 - cx1 * 2 + cx2) * 0.03f;
+					tmpy = (y1 - cy1 * 2 + cy2) * 0.03f;
+					dddfx = ((cx1 - cx2) * 3 - x1 + x2) * 0.006f;
+					dddfy = ((cy1 - cy2) * 3 - y1 + y2) * 0.006f;
+					ddfx = tmpx * 2 + dddfx;
+					ddfy = tmpy * 2 + dddfy;
+					dfx = (cx1 - x1) * 0.3f + tmpx + dddfx * 0.16666667f;
+					dfy = (cy1 - y1) * 0.3f + tmpy + dddfy * 0.16666667f;
+					curveLength = (float)Math.sqrt(dfx * dfx + dfy * dfy);
+					segments[s] = curveLength;
+					for (ii = 1; ii < 8; ii++) {
+						dfx += ddfx;
+						dfy += ddfy;
+						ddfx += dddfx;
+						ddfy += dddfy;
+						curveLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
+						segments[s + ii] = curveLength;
+					}
 					dfx += ddfx;
 					dfy += ddfy;
-					ddfx += dddfx;
-					ddfy += dddfy;
 					curveLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
-					segments[ii] = curveLength;
+					segments[s + 8] = curveLength;
+					dfx += ddfx + dddfx;
+					dfy += ddfy + dddfy;
+					curveLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
+					segments[s + 9] = curveLength;
 				}
-				dfx += ddfx;
-				dfy += ddfy;
-				curveLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
-				segments[8] = curveLength;
-				dfx += ddfx + dddfx;
-				dfy += ddfy + dddfy;
-				curveLength += (float)Math.sqrt(dfx * dfx + dfy * dfy);
-				segments[9] = curveLength;
 				segment = 0;
 			}
 
 			// Weight by segment length.
 			p *= curveLength;
 			for (;; segment++) {
-				float length = segments[segment];
+				float length = segments[s + segment];
 				if (p > length) continue;
 				if (segment == 0)
 					p /= length;
 				else {
-					float prev = segments[segment - 1];
+					float prev = segments[s + segment - 1];
 					p = segment + (p - prev) / (length - prev);
 				}
 				break;
@@ -47,6 +47,8 @@ import com.esotericsoftware.spine.attachments.RegionAttachment;
  * See <a href="http://esotericsoftware.com/spine-runtime-architecture#Instance-objects">Instance objects</a> in the Spine
  * Runtimes Guide. */
 public class Skeleton {
+	static private final TimelineCompressor.Decoded[] noDecoded = new TimelineCompressor.Decoded[0];
+
 	final SkeletonData data;
 	final Array<Bone> bones;
 	final Array<Slot> slots;
@@ -54,51 +56,66 @@ public class Skeleton {
 	final Array<IkConstraint> ikConstraints;
 	final Array<TransformConstraint> transformConstraints;
 	final Array<PathConstraint> pathConstraints;
-	final Array<Updatable> updateCache = new Array();
-	final Array<Bone> updateCacheReset = new Array();
+	final Array<Updatable> updateCache;
+	final Array<Bone> updateCacheReset;
 	Skin skin;
 	final Color color;
 	float time;
 	float scaleX = 1, scaleY = 1;
 	float x, y;
+	float lodThreshold;
+	TimelineCompressor.Decoded[] decoded = noDecoded; // Decoded segments of compressed timelines, created when first applied.
 
 	public Skeleton (SkeletonData data) {
 		if (data == null) throw new IllegalArgumentException("data cannot be null.");
 		this.data = data;
 
-		bones = new Array(data.bones.size);
-		for (BoneData boneData : data.bones) {
+		int boneCount = data.bones.size;
+		Object[] boneData = data.bones.items;
+		bones = new Array(boneCount);
+		Object[] bones = this.bones.items;
+		for (int i = 0; i < boneCount; i++) {
+			BoneData bd = (BoneData)boneData[i];
 			Bone bone;
-			if (boneData.parent == null)
-				bone = new Bone(boneData, this, null);
+			if (bd.parent == null)
+				bone = new Bone(bd, this, null);
 			else {
-				Bone parent = bones.get(boneData.parent.index);
-				bone = new Bone(boneData, this, parent);
+				Bone parent = (Bone)bones[bd.parent.index];
+				bone = new Bone(bd, this, parent);
 				parent.children.add(bone);
 			}
-			bones.add(bone);
+			bones[i] = bone;
 		}
-
-		slots = new Array(data.slots.size);
-		drawOrder = new Array(data.slots.size);
-		for (SlotData slotData : data.slots) {
-			Bone bone = bones.get(slotData.boneData.index);
-			Slot slot = new Slot(slotData, bone);
-			slots.add(slot);
-			drawOrder.add(slot);
+		this.bones.size = boneCount;
+
+		int slotCount = data.slots.size;
+		Object[] slotData = data.slots.items;
+		slots = new Array(slotCount);
+		drawOrder = new Array(slotCount);
+		Object[] slots = this.slots.items;
+		for (int i = 0; i < slotCount; i++) {
+			SlotData sd = (SlotData)slotData[i];
+			slots[i] = new Slot(sd, (Bone)bones[sd.boneData.index]);
 		}
+		this.slots.size = slotCount;
+		System.arraycopy(slots, 0, drawOrder.items, 0, slotCount);
+		drawOrder.size = slotCount;
 
 		ikConstraints = new Array(data.ikConstraints.size);
-		for (IkConstraintData ikConstraintData : data.ikConstraints)
-			ikConstraints.add(new IkConstraint(ikConstraintData, this));
+		for (int i = 0, n = data.ikConstraints.size; i < n; i++)
+			ikConstraints.add(new IkConstraint(data.ikConstraints.get(i), this));
 
 		transformConstraints = new Array(data.transformConstraints.size);
-		for (TransformConstraintData transformConstraintData : data.transformConstraints)
-			transformConstraints.add(new TransformConstraint(transformConstraintData, this));
+		for (int i = 0, n = data.transformConstraints.size; i < n; i++)
+			transformConstraints.add(new TransformConstraint(data.transformConstraints.get(i), this));
 
 		pathConstraints = new Array(data.pathConstraints.size);
-		for (PathConstraintData pathConstraintData : data.pathConstraints)
-			pathConstraints.add(new PathConstraint(pathConstraintData, this));
+		for (int i = 0, n = data.pathConstraints.size; i < n; i++)
+			pathConstraints.add(new PathConstraint(data.pathConstraints.get(i), this));
+
+		// Sized for the common case so building the cache doesn't grow the arrays.
+		updateCache = new Array(boneCount + ikConstraints.size + transformConstraints.size + pathConstraints.size);
+		updateCacheReset = new Array(0);
 
 		color = new Color(1, 1, 1, 1);
 
@@ -145,9 +162,13 @@ public class Skeleton {
 		for (PathConstraint pathConstraint : skeleton.pathConstraints)
 			pathConstraints.add(new PathConstraint(pathConstraint, this));
 
+		updateCache = new Array(skeleton.updateCache.size);
+		updateCacheReset = new Array(skeleton.updateCacheReset.size);
+
 		skin = skeleton.skin;
 		color = new Color(skeleton.color);
 		time = skeleton.time;
+		lodThreshold = skeleton.lodThreshold;
 		scaleX = skeleton.scaleX;
 		scaleY = skeleton.scaleY;
 
@@ -180,38 +201,103 @@ public class Skeleton {
 			}
 		}
 
-		int ikCount = ikConstraints.size, transformCount = transformConstraints.size, pathCount = pathConstraints.size;
+		int ikCount = ikConstraints.size, transformCount = transformConstraints.size;
 		Object[] ikConstraints = this.ikConstraints.items;
 		Object[] transformConstraints = this.transformConstraints.items;
 		Object[] pathConstraints = this.pathConstraints.items;
-		int constraintCount = ikCount + transformCount + pathCount;
-		outer:
-		for (int i = 0; i < constraintCount; i++) {
-			for (int ii = 0; ii < ikCount; ii++) {
-				IkConstraint constraint = (IkConstraint)ikConstraints[ii];
-				if (constraint.data.order == i) {
+		int[] constraintOrder = data.getConstraintOrder();
+		float lodThreshold = this.lodThreshold;
+		for (int i = 0, n = constraintOrder.length; i < n; i++) {
+			int index = constraintOrder[i];
+			if (index < ikCount) {
+				IkConstraint constraint = (IkConstraint)ikConstraints[index];
+				if (constraint.data.impact < lodThreshold)
+					constraint.active = false;
+				else
 					sortIkConstraint(constraint);
-					continue outer;
-				}
-			}
-			for (int ii = 0; ii < transformCount; ii++) {
-				TransformConstraint constraint = (TransformConstraint)transformConstraints[ii];
-				if (constraint.data.order == i) {
+			} else if ((index -= ikCount) < transformCount) {
+				TransformConstraint constraint = (TransformConstraint)transformConstraints[index];
+				if (constraint.data.impact < lodThreshold)
+					constraint.active = false;
+				else
 					sortTransformConstraint(constraint);
-					continue outer;
-				}
-			}
-			for (int ii = 0; ii < pathCount; ii++) {
-				PathConstraint constraint = (PathConstraint)pathConstraints[ii];
-				if (constraint.data.order == i) {
+			} else {
+				PathConstraint constraint = (PathConstraint)pathConstraints[index - transformCount];
+				if (constraint.data.impact < lodThreshold)
+					constraint.active = false;
+				else
 					sortPathConstraint(constraint);
-					continue outer;
-				}
 			}
 		}
 
-		for (int i = 0; i < boneCount; i++)
-			sortBone((Bone)bones[i]);
+		// Bones below the LOD threshold are only updated when a constraint or an updated child needs them.
+		for (int i = 0; i < boneCount; i++) {
+			Bone bone = (Bone)bones[i];
+			if (bone.data.impact >= lodThreshold) sortBone(bone);
+		}
+	}
+
+	/** Updates the cache after the skin was changed from the specified skin. When neither skin has constraints and the bones whose
+	 * active state changes don't affect any constraint, only the subtrees of those bones are removed from the cache and sorted
+	 * again. Otherwise {@link #updateCache()} is called. */
+	private void updateCache (Skin oldSkin) {
+		Skin skin = this.skin;
+		if ((oldSkin != null && oldSkin.constraints.size > 0) || (skin != null && skin.constraints.size > 0)
+			|| pathConstraints.size > 0) { // Path constraints also depend on the skin's attachments.
+			updateCache();
+			return;
+		}
+
+		int boneCount = bones.size;
+		Object[] bones = this.bones.items;
+		boolean[] required = new boolean[boneCount];
+		if (skin != null) {
+			Object[] skinBones = skin.bones.items;
+			for (int i = 0, n = skin.bones.size; i < n; i++)
+				for (BoneData bone = (BoneData)skinBones[i]; bone != null && !required[bone.index]; bone = bone.parent)
+					required[bone.index] = true;
+		}
+
+		// Find the bones whose active state changes and their descendants. Parents come before children.
+		boolean[] constrained = data.getConstrainedBones();
+		boolean[] changed = new boolean[boneCount];
+		boolean anyChanged = false;
+		for (int i = 0; i < boneCount; i++) {
+			Bone bone = (Bone)bones[i];
+			if (bone.active != (!bone.data.skinRequired || required[i])) {
+				if (constrained[i]) {
+					updateCache();
+					return;
+				}
+				changed[i] = true;
+				anyChanged = true;
+			} else if (bone.parent != null && changed[bone.parent.data.index]) //
+				changed[i] = true;
+		}
+		if (!anyChanged) return;
+
+		Array<Updatable> updateCache = this.updateCache;
+		Object[] items = updateCache.items;
+		int count = 0;
+		for (int i = 0, n = updateCache.size; i < n; i++) {
+			Object item = items[i];
+			if (item instanceof Bone && changed[((Bone)item).data.index]) continue;
+			items[count++] = item;
+		}
+		updateCache.truncate(count);
+
+		for (int i = 0; i < boneCount; i++) {
+			if (!changed[i]) continue;
+			Bone bone = (Bone)bones[i];
+			bone.active = !bone.data.skinRequired || required[i];
+			bone.sorted = !bone.active;
+		}
+		float lodThreshold = this.lodThreshold;
+		for (int i = 0; i < boneCount; i++) {
+			if (!changed[i]) continue;
+			Bone bone = (Bone)bones[i];
+			if (bone.data.impact >= lodThreshold) sortBone(bone);
+		}
 	}
 
 	private void sortIkConstraint (IkConstraint constraint) {
@@ -532,7 +618,7 @@ public class Skeleton {
 	}
 
 	/** Sets the skin used to look up attachments before looking in the {@link SkeletonData#getDefaultSkin() default skin}. If the
-	 * skin is changed, {@link #updateCache()} is called.
+	 * skin is changed, the update cache is updated, only for the bones the skins activate or deactivate when possible.
 	 * <p>
 	 * Attachments from the new skin are attached if the corresponding attachment from the old skin was attached. If there was no
 	 * old skin, each slot's setup mode attachment is attached from the new skin.
@@ -558,8 +644,9 @@ public class Skeleton {
 				}
 			}
 		}
+		Skin oldSkin = skin;
 		skin = newSkin;
-		updateCache();
+		updateCache(oldSkin);
 	}
 
 	/** Finds an attachment by looking in the {@link #skin} and {@link SkeletonData#defaultSkin} using the slot name and attachment
@@ -709,6 +796,21 @@ public class Skeleton {
 		this.color.set(color);
 	}
 
+	/** Bones and constraints with an {@link BoneData#getImpact() impact} below this distance in skeleton units are left out of
+	 * {@link #updateWorldTransform()}. Their world transforms are not updated and may be stale. Defaults to 0, which updates
+	 * everything. */
+	public float getLodThreshold () {
+		return lodThreshold;
+	}
+
+	/** Calls {@link #updateCache()} if the threshold changes. */
+	public void setLodThreshold (float lodThreshold) {
+		if (lodThreshold < 0) throw new IllegalArgumentException("lodThreshold must be >= 0.");
+		if (this.lodThreshold == lodThreshold) return;
+		this.lodThreshold = lodThreshold;
+		updateCache();
+	}
+
 	/** Scales the entire skeleton on the X axis. This affects all bones, even if the bone's transform mode disallows scale
 	 * inheritance. */
 	public float getScaleX () {
@@ -318,6 +318,7 @@ public class SkeletonBinary {
 			o = skeletonData.animations.setSize(n = input.readInt(true));
 			for (int i = 0; i < n; i++)
 				o[i] = readAnimation(input, input.readString(), skeletonData);
+			skeletonData.indexAnimations();
 
 		} catch (IOException ex) {
 			throw new SerializationException("Error reading skeleton file.", ex);
@@ -0,0 +1,948 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import static com.esotericsoftware.spine.SkeletonBinary.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.DataOutput;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.SerializationException;
+
+import com.esotericsoftware.spine.Animation.AttachmentTimeline;
+import com.esotericsoftware.spine.Animation.ColorTimeline;
+import com.esotericsoftware.spine.Animation.CurveTimeline;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.DrawOrderTimeline;
+import com.esotericsoftware.spine.Animation.EventTimeline;
+import com.esotericsoftware.spine.Animation.IkConstraintTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintMixTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintPositionTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintSpacingTimeline;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.ScaleTimeline;
+import com.esotericsoftware.spine.Animation.ShearTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TransformConstraintTimeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+import com.esotericsoftware.spine.Animation.TwoColorTimeline;
+import com.esotericsoftware.spine.PathConstraintData.PositionMode;
+import com.esotericsoftware.spine.PathConstraintData.SpacingMode;
+import com.esotericsoftware.spine.Skin.SkinEntry;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.AttachmentType;
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+import com.esotericsoftware.spine.attachments.ClippingAttachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.PathAttachment;
+import com.esotericsoftware.spine.attachments.PointAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+
+/** Saves skeleton data in the Spine binary format read by {@link SkeletonBinary}, for example after
+ * {@link TimelineOptimizer} has removed redundant keys.
+ * <p>
+ * Nonessential data (bone colors, mesh edges, image sizes and paths) is only written when {@link #setNonessential(boolean)} is
+ * true. Animation durations are not stored in the format and are computed from the last key when the data is read. */
+public class SkeletonBinaryWriter {
+	private float scale = 1;
+	private boolean nonessential;
+	private final float[] curve = new float[4];
+
+	/** Divides bone positions, image sizes, and translations as they are written. Use the scale the skeleton data was loaded
+	 * with to write it in the units of the original file. */
+	public float getScale () {
+		return scale;
+	}
+
+	public void setScale (float scale) {
+		if (scale == 0) throw new IllegalArgumentException("scale cannot be 0.");
+		this.scale = scale;
+	}
+
+	/** When true, nonessential data is written. Default is false. */
+	public boolean getNonessential () {
+		return nonessential;
+	}
+
+	public void setNonessential (boolean nonessential) {
+		this.nonessential = nonessential;
+	}
+
+	public void writeSkeletonData (SkeletonData skeletonData, FileHandle file) {
+		if (file == null) throw new IllegalArgumentException("file cannot be null.");
+		writeSkeletonData(skeletonData, file.write(false));
+	}
+
+	/** Writes the skeleton data and closes the stream. */
+	public void writeSkeletonData (SkeletonData skeletonData, OutputStream stream) {
+		if (skeletonData == null) throw new IllegalArgumentException("skeletonData cannot be null.");
+		if (stream == null) throw new IllegalArgumentException("stream cannot be null.");
+
+		// The string table precedes the data that references it, so the data is written first.
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+		SkeletonOutput body = new SkeletonOutput(bytes);
+		SkeletonOutput output = new SkeletonOutput(stream);
+		try {
+			writeBody(body, skeletonData);
+			body.flush();
+
+			output.writeString(skeletonData.hash == null ? "" : skeletonData.hash);
+			output.writeString(skeletonData.version == null ? "" : skeletonData.version);
+			output.writeFloat(skeletonData.x);
+			output.writeFloat(skeletonData.y);
+			output.writeFloat(skeletonData.width);
+			output.writeFloat(skeletonData.height);
+			output.writeBoolean(nonessential);
+			if (nonessential) {
+				output.writeFloat(skeletonData.fps);
+				output.writeString(skeletonData.imagesPath == null ? "" : skeletonData.imagesPath);
+				output.writeString(skeletonData.audioPath == null ? "" : skeletonData.audioPath);
+			}
+
+			// Strings.
+			Array<String> strings = body.strings;
+			output.writeInt(strings.size, true);
+			for (int i = 0, n = strings.size; i < n; i++)
+				output.writeString(strings.get(i));
+
+			bytes.writeTo(output);
+		} catch (IOException ex) {
+			throw new SerializationException("Error writing skeleton file.", ex);
+		} finally {
+			try {
+				output.close();
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	private void writeBody (SkeletonOutput output, SkeletonData skeletonData) throws IOException {
+		float scale = this.scale;
+
+		// Bones.
+		Array<BoneData> bones = skeletonData.bones;
+		output.writeInt(bones.size, true);
+		for (int i = 0, n = bones.size; i < n; i++) {
+			BoneData data = bones.get(i);
+			output.writeString(data.name);
+			if (i > 0) output.writeInt(data.parent.index, true);
+			output.writeFloat(data.rotation);
+			output.writeFloat(data.x / scale);
+			output.writeFloat(data.y / scale);
+			output.writeFloat(data.scaleX);
+			output.writeFloat(data.scaleY);
+			output.writeFloat(data.shearX);
+			output.writeFloat(data.shearY);
+			output.writeFloat(data.length / scale);
+			output.writeInt(data.transformMode.ordinal(), true);
+			output.writeBoolean(data.skinRequired);
+			if (nonessential) output.writeInt(Color.rgba8888(data.color));
+		}
+
+		// Slots.
+		Array<SlotData> slots = skeletonData.slots;
+		output.writeInt(slots.size, true);
+		for (int i = 0, n = slots.size; i < n; i++) {
+			SlotData data = slots.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.boneData.index, true);
+			output.writeInt(Color.rgba8888(data.color));
+			output.writeInt(data.darkColor == null ? -1 : Color.rgb888(data.darkColor));
+			output.writeStringRef(data.attachmentName);
+			output.writeInt(data.blendMode.ordinal(), true);
+		}
+
+		// IK constraints.
+		Array<IkConstraintData> ikConstraints = skeletonData.ikConstraints;
+		output.writeInt(ikConstraints.size, true);
+		for (int i = 0, n = ikConstraints.size; i < n; i++) {
+			IkConstraintData data = ikConstraints.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.order, true);
+			output.writeBoolean(data.skinRequired);
+			writeBones(output, data.bones);
+			output.writeInt(data.target.index, true);
+			output.writeFloat(data.mix);
+			output.writeFloat(data.softness / scale);
+			output.writeByte(data.bendDirection);
+			output.writeBoolean(data.compress);
+			output.writeBoolean(data.stretch);
+			output.writeBoolean(data.uniform);
+		}
+
+		// Transform constraints.
+		Array<TransformConstraintData> transformConstraints = skeletonData.transformConstraints;
+		output.writeInt(transformConstraints.size, true);
+		for (int i = 0, n = transformConstraints.size; i < n; i++) {
+			TransformConstraintData data = transformConstraints.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.order, true);
+			output.writeBoolean(data.skinRequired);
+			writeBones(output, data.bones);
+			output.writeInt(data.target.index, true);
+			output.writeBoolean(data.local);
+			output.writeBoolean(data.relative);
+			output.writeFloat(data.offsetRotation);
+			output.writeFloat(data.offsetX / scale);
+			output.writeFloat(data.offsetY / scale);
+			output.writeFloat(data.offsetScaleX);
+			output.writeFloat(data.offsetScaleY);
+			output.writeFloat(data.offsetShearY);
+			output.writeFloat(data.rotateMix);
+			output.writeFloat(data.translateMix);
+			output.writeFloat(data.scaleMix);
+			output.writeFloat(data.shearMix);
+		}
+
+		// Path constraints.
+		Array<PathConstraintData> pathConstraints = skeletonData.pathConstraints;
+		output.writeInt(pathConstraints.size, true);
+		for (int i = 0, n = pathConstraints.size; i < n; i++) {
+			PathConstraintData data = pathConstraints.get(i);
+			output.writeString(data.name);
+			output.writeInt(data.order, true);
+			output.writeBoolean(data.skinRequired);
+			writeBones(output, data.bones);
+			output.writeInt(data.target.index, true);
+			output.writeInt(data.positionMode.ordinal(), true);
+			output.writeInt(data.spacingMode.ordinal(), true);
+			output.writeInt(data.rotateMode.ordinal(), true);
+			output.writeFloat(data.offsetRotation);
+			output.writeFloat(data.positionMode == PositionMode.fixed ? data.position / scale : data.position);
+			output.writeFloat(
+				data.spacingMode == SpacingMode.length || data.spacingMode == SpacingMode.fixed ? data.spacing / scale : data.spacing);
+			output.writeFloat(data.rotateMix);
+			output.writeFloat(data.translateMix);
+		}
+
+		// Skins. An empty default skin is not stored, so the skins are indexed in the order they are written.
+		Array<Skin> skins = new Array(skeletonData.skins.size);
+		Skin defaultSkin = skeletonData.defaultSkin;
+		if (defaultSkin != null && defaultSkin.attachments.size > 0) skins.add(defaultSkin);
+		for (int i = 0, n = skeletonData.skins.size; i < n; i++) {
+			Skin skin = skeletonData.skins.get(i);
+			if (skin != defaultSkin) skins.add(skin);
+		}
+		if (defaultSkin == null || defaultSkin.attachments.size == 0)
+			output.writeInt(0, true);
+		else
+			writeSkin(output, skeletonData, skins, defaultSkin, true);
+		int start = skins.size > 0 && skins.first() == defaultSkin ? 1 : 0;
+		output.writeInt(skins.size - start, true);
+		for (int i = start, n = skins.size; i < n; i++)
+			writeSkin(output, skeletonData, skins, skins.get(i), false);
+
+		// Events.
+		Array<EventData> events = skeletonData.events;
+		output.writeInt(events.size, true);
+		for (int i = 0, n = events.size; i < n; i++) {
+			EventData data = events.get(i);
+			output.writeStringRef(data.name);
+			output.writeInt(data.intValue, false);
+			output.writeFloat(data.floatValue);
+			output.writeString(data.stringValue);
+			output.writeString(data.audioPath);
+			if (data.audioPath != null) {
+				output.writeFloat(data.volume);
+				output.writeFloat(data.balance);
+			}
+		}
+
+		// Animations.
+		Array<Animation> animations = skeletonData.animations;
+		output.writeInt(animations.size, true);
+		for (int i = 0, n = animations.size; i < n; i++) {
+			Animation animation = animations.get(i);
+			output.writeString(animation.name);
+			writeAnimation(output, animation, skeletonData, skins);
+		}
+	}
+
+	private void writeBones (SkeletonOutput output, Array<BoneData> bones) throws IOException {
+		output.writeInt(bones.size, true);
+		for (int i = 0, n = bones.size; i < n; i++)
+			output.writeInt(bones.get(i).index, true);
+	}
+
+	private void writeSkin (SkeletonOutput output, SkeletonData skeletonData, Array<Skin> skins, Skin skin, boolean defaultSkin)
+		throws IOException {
+
+		if (!defaultSkin) {
+			output.writeStringRef(skin.name);
+			writeBones(output, skin.bones);
+
+			Array<ConstraintData> constraints = skin.constraints;
+			writeConstraints(output, constraints, skeletonData.ikConstraints);
+			writeConstraints(output, constraints, skeletonData.transformConstraints);
+			writeConstraints(output, constraints, skeletonData.pathConstraints);
+		}
+
+		// Attachments grouped by slot.
+		Array<SkinEntry> entries = skin.getAttachments();
+		int slotCount = skeletonData.slots.size;
+		int[] counts = new int[slotCount];
+		int usedSlots = 0;
+		for (int i = 0, n = entries.size; i < n; i++)
+			if (counts[entries.get(i).getSlotIndex()]++ == 0) usedSlots++;
+		output.writeInt(usedSlots, true);
+		for (int slotIndex = 0; slotIndex < slotCount; slotIndex++) {
+			if (counts[slotIndex] == 0) continue;
+			output.writeInt(slotIndex, true);
+			output.writeInt(counts[slotIndex], true);
+			for (int i = 0, n = entries.size; i < n; i++) {
+				SkinEntry entry = entries.get(i);
+				if (entry.getSlotIndex() != slotIndex) continue;
+				output.writeStringRef(entry.getName());
+				writeAttachment(output, skeletonData, skins, entry.getName(), entry.getAttachment());
+			}
+		}
+	}
+
+	/** Writes the indices of the skin's constraints that are in the specified list. */
+	private void writeConstraints (SkeletonOutput output, Array<ConstraintData> constraints, Array<? extends ConstraintData> all)
+		throws IOException {
+		IntArray indices = new IntArray(constraints.size);
+		for (int i = 0, n = constraints.size; i < n; i++) {
+			ConstraintData constraint = constraints.get(i);
+			for (int ii = 0, nn = all.size; ii < nn; ii++) {
+				if (all.get(ii) == constraint) {
+					indices.add(ii);
+					break;
+				}
+			}
+		}
+		output.writeInt(indices.size, true);
+		for (int i = 0, n = indices.size; i < n; i++)
+			output.writeInt(indices.get(i), true);
+	}
+
+	private void writeAttachment (SkeletonOutput output, SkeletonData skeletonData, Array<Skin> skins, String attachmentName,
+		Attachment attachment) throws IOException {
+		float scale = this.scale;
+
+		String name = attachment.getName();
+		output.writeStringRef(name.equals(attachmentName) ? null : name);
+
+		if (attachment instanceof RegionAttachment) {
+			RegionAttachment region = (RegionAttachment)attachment;
+			output.writeByte(AttachmentType.region.ordinal());
+			output.writeStringRef(pathRef(region.getPath(), name));
+			output.writeFloat(region.getRotation());
+			output.writeFloat(region.getX() / scale);
+			output.writeFloat(region.getY() / scale);
+			output.writeFloat(region.getScaleX());
+			output.writeFloat(region.getScaleY());
+			output.writeFloat(region.getWidth() / scale);
+			output.writeFloat(region.getHeight() / scale);
+			output.writeInt(Color.rgba8888(region.getColor()));
+
+		} else if (attachment instanceof BoundingBoxAttachment) {
+			BoundingBoxAttachment box = (BoundingBoxAttachment)attachment;
+			output.writeByte(AttachmentType.boundingbox.ordinal());
+			output.writeInt(box.getWorldVerticesLength() >> 1, true);
+			writeVertices(output, box);
+			if (nonessential) output.writeInt(Color.rgba8888(box.getColor()));
+
+		} else if (attachment instanceof MeshAttachment) {
+			MeshAttachment mesh = (MeshAttachment)attachment;
+			MeshAttachment parent = mesh.getParentMesh();
+			if (parent == null) {
+				output.writeByte(AttachmentType.mesh.ordinal());
+				output.writeStringRef(pathRef(mesh.getPath(), name));
+				output.writeInt(Color.rgba8888(mesh.getColor()));
+				output.writeInt(mesh.getWorldVerticesLength() >> 1, true);
+				float[] uvs = mesh.getRegionUVs();
+				for (int i = 0, n = mesh.getWorldVerticesLength(); i < n; i++)
+					output.writeFloat(uvs[i]);
+				writeShortArray(output, mesh.getTriangles());
+				writeVertices(output, mesh);
+				output.writeInt(mesh.getHullLength() >> 1, true);
+				if (nonessential) {
+					writeShortArray(output, mesh.getEdges());
+					output.writeFloat(mesh.getWidth() / scale);
+					output.writeFloat(mesh.getHeight() / scale);
+				}
+			} else {
+				SkinEntry parentEntry = null;
+				Skin parentSkin = null;
+				outer:
+				for (int i = 0, n = skins.size; i < n; i++) {
+					Array<SkinEntry> entries = skins.get(i).getAttachments();
+					for (int ii = 0, nn = entries.size; ii < nn; ii++) {
+						if (entries.get(ii).getAttachment() == parent) {
+							parentEntry = entries.get(ii);
+							parentSkin = skins.get(i);
+							break outer;
+						}
+					}
+				}
+				if (parentEntry == null) throw new SerializationException("Parent mesh not found in any skin: " + parent.getName());
+				output.writeByte(AttachmentType.linkedmesh.ordinal());
+				output.writeStringRef(pathRef(mesh.getPath(), name));
+				output.writeInt(Color.rgba8888(mesh.getColor()));
+				output.writeStringRef(parentSkin == skeletonData.defaultSkin ? null : parentSkin.name);
+				output.writeStringRef(parentEntry.getName());
+				output.writeBoolean(mesh.getDeformAttachment() == parent);
+				if (nonessential) {
+					output.writeFloat(mesh.getWidth() / scale);
+					output.writeFloat(mesh.getHeight() / scale);
+				}
+			}
+
+		} else if (attachment instanceof PathAttachment) {
+			PathAttachment path = (PathAttachment)attachment;
+			output.writeByte(AttachmentType.path.ordinal());
+			output.writeBoolean(path.getClosed());
+			output.writeBoolean(path.getConstantSpeed());
+			output.writeInt(path.getWorldVerticesLength() >> 1, true);
+			writeVertices(output, path);
+			float[] lengths = path.getLengths();
+			for (int i = 0, n = lengths.length; i < n; i++)
+				output.writeFloat(lengths[i] / scale);
+			if (nonessential) output.writeInt(Color.rgba8888(path.getColor()));
+
+		} else if (attachment instanceof PointAttachment) {
+			PointAttachment point = (PointAttachment)attachment;
+			output.writeByte(AttachmentType.point.ordinal());
+			output.writeFloat(point.getRotation());
+			output.writeFloat(point.getX() / scale);
+			output.writeFloat(point.getY() / scale);
+			if (nonessential) output.writeInt(Color.rgba8888(point.getColor()));
+
+		} else if (attachment instanceof ClippingAttachment) {
+			ClippingAttachment clip = (ClippingAttachment)attachment;
+			output.writeByte(AttachmentType.clipping.ordinal());
+			output.writeInt(clip.getEndSlot().index, true);
+			output.writeInt(clip.getWorldVerticesLength() >> 1, true);
+			writeVertices(output, clip);
+			if (nonessential) output.writeInt(Color.rgba8888(clip.getColor()));
+
+		} else
+			throw new SerializationException("Unsupported attachment: " + attachment.getClass().getName());
+	}
+
+	/** @return Null if the path is the same as the name, as the reader uses the name when the path is null. */
+	static private String pathRef (String path, String name) {
+		return path == null || path.equals(name) ? null : path;
+	}
+
+	private void writeVertices (SkeletonOutput output, VertexAttachment attachment) throws IOException {
+		float scale = this.scale;
+		int vertexCount = attachment.getWorldVerticesLength() >> 1;
+		float[] vertices = attachment.getVertices();
+		int[] bones = attachment.getBones();
+		output.writeBoolean(bones != null);
+		if (bones == null) {
+			for (int i = 0, n = vertices.length; i < n; i++)
+				output.writeFloat(vertices[i] / scale);
+			return;
+		}
+		for (int v = 0, b = 0, w = 0; v < vertexCount; v++) {
+			int boneCount = bones[b++];
+			output.writeInt(boneCount, true);
+			for (int ii = 0; ii < boneCount; ii++, w += 3) {
+				output.writeInt(bones[b++], true);
+				output.writeFloat(vertices[w] / scale);
+				output.writeFloat(vertices[w + 1] / scale);
+				output.writeFloat(vertices[w + 2]);
+			}
+		}
+	}
+
+	private void writeShortArray (SkeletonOutput output, short[] array) throws IOException {
+		if (array == null) {
+			output.writeInt(0, true);
+			return;
+		}
+		output.writeInt(array.length, true);
+		for (int i = 0, n = array.length; i < n; i++)
+			output.writeShort(array[i]);
+	}
+
+	private void writeAnimation (SkeletonOutput output, Animation animation, SkeletonData skeletonData, Array<Skin> skins)
+		throws IOException {
+		float scale = this.scale;
+		Array<Timeline> timelines = TimelineCompressor.decompress(animation.timelines);
+
+		// Slot timelines.
+		Array<Timeline>[] groups = new Array[skeletonData.slots.size];
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i);
+			if (timeline instanceof AttachmentTimeline)
+				group(groups, ((AttachmentTimeline)timeline).slotIndex, timeline);
+			else if (timeline instanceof ColorTimeline)
+				group(groups, ((ColorTimeline)timeline).slotIndex, timeline);
+			else if (timeline instanceof TwoColorTimeline) //
+				group(groups, ((TwoColorTimeline)timeline).slotIndex, timeline);
+		}
+		output.writeInt(groupCount(groups), true);
+		for (int slotIndex = 0, n = groups.length; slotIndex < n; slotIndex++) {
+			Array<Timeline> group = groups[slotIndex];
+			if (group == null) continue;
+			output.writeInt(slotIndex, true);
+			output.writeInt(group.size, true);
+			for (int ii = 0, nn = group.size; ii < nn; ii++) {
+				Timeline timeline = group.get(ii);
+				if (timeline instanceof AttachmentTimeline) {
+					AttachmentTimeline attachmentTimeline = (AttachmentTimeline)timeline;
+					float[] frames = attachmentTimeline.getFrames();
+					String[] names = attachmentTimeline.getAttachmentNames();
+					output.writeByte(SLOT_ATTACHMENT);
+					output.writeInt(frames.length, true);
+					for (int frameIndex = 0, frameCount = frames.length; frameIndex < frameCount; frameIndex++) {
+						output.writeFloat(frames[frameIndex]);
+						output.writeStringRef(names[frameIndex]);
+					}
+				} else if (timeline instanceof ColorTimeline) {
+					ColorTimeline colorTimeline = (ColorTimeline)timeline;
+					float[] frames = colorTimeline.getFrames();
+					int frameCount = colorTimeline.getFrameCount();
+					output.writeByte(SLOT_COLOR);
+					output.writeInt(frameCount, true);
+					for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+						int f = frameIndex * ColorTimeline.ENTRIES;
+						output.writeFloat(frames[f]);
+						output.writeInt(Color.rgba8888(frames[f + 1], frames[f + 2], frames[f + 3], frames[f + 4]));
+						if (frameIndex < frameCount - 1) writeCurve(output, frameIndex, colorTimeline);
+					}
+				} else {
+					TwoColorTimeline colorTimeline = (TwoColorTimeline)timeline;
+					float[] frames = colorTimeline.getFrames();
+					int frameCount = colorTimeline.getFrameCount();
+					output.writeByte(SLOT_TWO_COLOR);
+					output.writeInt(frameCount, true);
+					for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+						int f = frameIndex * TwoColorTimeline.ENTRIES;
+						output.writeFloat(frames[f]);
+						output.writeInt(Color.rgba8888(frames[f + 1], frames[f + 2], frames[f + 3], frames[f + 4]));
+						output.writeInt(Color.rgb888(frames[f + 5], frames[f + 6], frames[f + 7]));
+						if (frameIndex < frameCount - 1) writeCurve(output, frameIndex, colorTimeline);
+					}
+				}
+			}
+		}
+
+		// Bone timelines.
+		groups = new Array[skeletonData.bones.size];
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i);
+			if (timeline instanceof RotateTimeline)
+				group(groups, ((RotateTimeline)timeline).boneIndex, timeline);
+			else if (timeline instanceof TranslateTimeline) //
+				group(groups, ((TranslateTimeline)timeline).boneIndex, timeline);
+		}
+		output.writeInt(groupCount(groups), true);
+		for (int boneIndex = 0, n = groups.length; boneIndex < n; boneIndex++) {
+			Array<Timeline> group = groups[boneIndex];
+			if (group == null) continue;
+			output.writeInt(boneIndex, true);
+			output.writeInt(group.size, true);
+			for (int ii = 0, nn = group.size; ii < nn; ii++) {
+				Timeline timeline = group.get(ii);
+				if (timeline instanceof RotateTimeline) {
+					RotateTimeline rotateTimeline = (RotateTimeline)timeline;
+					float[] frames = rotateTimeline.getFrames();
+					int frameCount = rotateTimeline.getFrameCount();
+					output.writeByte(BONE_ROTATE);
+					output.writeInt(frameCount, true);
+					for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+						int f = frameIndex * RotateTimeline.ENTRIES;
+						output.writeFloat(frames[f]);
+						output.writeFloat(frames[f + 1]);
+						if (frameIndex < frameCount - 1) writeCurve(output, frameIndex, rotateTimeline);
+					}
+				} else {
+					TranslateTimeline translateTimeline = (TranslateTimeline)timeline;
+					float timelineScale = 1;
+					if (timeline instanceof ScaleTimeline)
+						output.writeByte(BONE_SCALE);
+					else if (timeline instanceof ShearTimeline)
+						output.writeByte(BONE_SHEAR);
+					else {
+						output.writeByte(BONE_TRANSLATE);
+						timelineScale = scale;
+					}
+					float[] frames = translateTimeline.getFrames();
+					int frameCount = translateTimeline.getFrameCount();
+					output.writeInt(frameCount, true);
+					for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+						int f = frameIndex * TranslateTimeline.ENTRIES;
+						output.writeFloat(frames[f]);
+						output.writeFloat(frames[f + 1] / timelineScale);
+						output.writeFloat(frames[f + 2] / timelineScale);
+						if (frameIndex < frameCount - 1) writeCurve(output, frameIndex, translateTimeline);
+					}
+				}
+			}
+		}
+
+		// IK constraint timelines.
+		Array<IkConstraintTimeline> ikTimelines = new Array();
+		for (int i = 0, n = timelines.size; i < n; i++)
+			if (timelines.get(i) instanceof IkConstraintTimeline) ikTimelines.add((IkConstraintTimeline)timelines.get(i));
+		output.writeInt(ikTimelines.size, true);
+		for (int i = 0, n = ikTimelines.size; i < n; i++) {
+			IkConstraintTimeline timeline = ikTimelines.get(i);
+			float[] frames = timeline.getFrames();
+			int frameCount = timeline.getFrameCount();
+			output.writeInt(timeline.ikConstraintIndex, true);
+			output.writeInt(frameCount, true);
+			for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+				int f = frameIndex * IkConstraintTimeline.ENTRIES;
+				output.writeFloat(frames[f]);
+				output.writeFloat(frames[f + 1]);
+				output.writeFloat(frames[f + 2] / scale);
+				output.writeByte((int)frames[f + 3]);
+				output.writeBoolean(frames[f + 4] != 0);
+				output.writeBoolean(frames[f + 5] != 0);
+				if (frameIndex < frameCount - 1) writeCurve(output, frameIndex, timeline);
+			}
+		}
+
+		// Transform constraint timelines.
+		Array<TransformConstraintTimeline> transformTimelines = new Array();
+		for (int i = 0, n = timelines.size; i < n; i++)
+			if (timelines.get(i) instanceof TransformConstraintTimeline)
+				transformTimelines.add((TransformConstraintTimeline)timelines.get(i));
+		output.writeInt(transformTimelines.size, true);
+		for (int i = 0, n = transformTimelines.size; i < n; i++) {
+			TransformConstraintTimeline timeline = transformTimelines.get(i);
+			float[] frames = timeline.getFrames();
+			int frameCount = timeline.getFrameCount();
+			output.writeInt(timeline.transformConstraintIndex, true);
+			output.writeInt(frameCount, true);
+			for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+				int f = frameIndex * TransformConstraintTimeline.ENTRIES;
+				for (int v = 0; v < TransformConstraintTimeline.ENTRIES; v++)
+					output.writeFloat(frames[f + v]);
+				if (frameIndex < frameCount - 1) writeCurve(output, frameIndex, timeline);
+			}
+		}
+
+		// Path constraint timelines.
+		groups = new Array[skeletonData.pathConstraints.size];
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i);
+			if (timeline instanceof PathConstraintPositionTimeline)
+				group(groups, ((PathConstraintPositionTimeline)timeline).pathConstraintIndex, timeline);
+			else if (timeline instanceof PathConstraintMixTimeline) //
+				group(groups, ((PathConstraintMixTimeline)timeline).pathConstraintIndex, timeline);
+		}
+		output.writeInt(groupCount(groups), true);
+		for (int index = 0, n = groups.length; index < n; index++) {
+			Array<Timeline> group = groups[index];
+			if (group == null) continue;
+			PathConstraintData data = skeletonData.pathConstraints.get(index);
+			output.writeInt(index, true);
+			output.writeInt(group.size, true);
+			for (int ii = 0, nn = group.size; ii < nn; ii++) {
+				Timeline timeline = group.get(ii);
+				if (timeline instanceof PathConstraintPositionTimeline) {
+					PathConstraintPositionTimeline positionTimeline = (PathConstraintPositionTimeline)timeline;
+					float timelineScale = 1;
+					if (timeline instanceof PathConstraintSpacingTimeline) {
+						output.writeByte(PATH_SPACING);
+						if (data.spacingMode == SpacingMode.length || data.spacingMode == SpacingMode.fixed) timelineScale = scale;
+					} else {
+						output.writeByte(PATH_POSITION);
+						if (data.positionMode == PositionMode.fixed) timelineScale = scale;
+					}
+					float[] frames = positionTimeline.getFrames();
+					int frameCount = positionTimeline.getFrameCount();
+					output.writeInt(frameCount, true);
+					for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+						int f = frameIndex * PathConstraintPositionTimeline.ENTRIES;
+						output.writeFloat(frames[f]);
+						output.writeFloat(frames[f + 1] / timelineScale);
+						if (frameIndex < frameCount - 1) writeCurve(output, frameIndex, positionTimeline);
+					}
+				} else {
+					PathConstraintMixTimeline mixTimeline = (PathConstraintMixTimeline)timeline;
+					float[] frames = mixTimeline.getFrames();
+					int frameCount = mixTimeline.getFrameCount();
+					output.writeByte(PATH_MIX);
+					output.writeInt(frameCount, true);
+					for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+						int f = frameIndex * PathConstraintMixTimeline.ENTRIES;
+						output.writeFloat(frames[f]);
+						output.writeFloat(frames[f + 1]);
+						output.writeFloat(frames[f + 2]);
+						if (frameIndex < frameCount - 1) writeCurve(output, frameIndex, mixTimeline);
+					}
+				}
+			}
+		}
+
+		// Deform timelines, grouped by skin, then by slot.
+		writeDeforms(output, timelines, skins);
+
+		// Draw order timeline.
+		DrawOrderTimeline drawOrderTimeline = null;
+		EventTimeline eventTimeline = null;
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i);
+			if (timeline instanceof DrawOrderTimeline)
+				drawOrderTimeline = (DrawOrderTimeline)timeline;
+			else if (timeline instanceof EventTimeline) //
+				eventTimeline = (EventTimeline)timeline;
+		}
+		if (drawOrderTimeline == null)
+			output.writeInt(0, true);
+		else {
+			float[] frames = drawOrderTimeline.getFrames();
+			int[][] drawOrders = drawOrderTimeline.getDrawOrders();
+			int slotCount = skeletonData.slots.size;
+			int[] positions = new int[slotCount];
+			output.writeInt(frames.length, true);
+			for (int i = 0, n = frames.length; i < n; i++) {
+				output.writeFloat(frames[i]);
+				int[] drawOrder = drawOrders[i];
+				if (drawOrder == null) {
+					output.writeInt(0, true);
+					continue;
+				}
+				// Only moved slots are stored. The reader fills the remaining positions with the unmoved slots in order.
+				int offsetCount = 0;
+				for (int ii = 0; ii < slotCount; ii++) {
+					positions[drawOrder[ii]] = ii;
+					if (drawOrder[ii] != ii) offsetCount++;
+				}
+				output.writeInt(offsetCount, true);
+				for (int slotIndex = 0; slotIndex < slotCount; slotIndex++) {
+					if (positions[slotIndex] == slotIndex) continue;
+					output.writeInt(slotIndex, true);
+					output.writeInt(positions[slotIndex] - slotIndex, true);
+				}
+			}
+		}
+
+		// Event timeline.
+		if (eventTimeline == null)
+			output.writeInt(0, true);
+		else {
+			Event[] events = eventTimeline.getEvents();
+			output.writeInt(events.length, true);
+			for (int i = 0, n = events.length; i < n; i++) {
+				Event event = events[i];
+				EventData eventData = event.getData();
+				output.writeFloat(event.time);
+				output.writeInt(skeletonData.events.indexOf(eventData, true), true);
+				output.writeInt(event.intValue, false);
+				output.writeFloat(event.floatValue);
+				boolean hasString = event.stringValue == null ? eventData.stringValue != null
+					: !event.stringValue.equals(eventData.stringValue);
+				output.writeBoolean(hasString);
+				if (hasString) output.writeString(event.stringValue);
+				if (eventData.audioPath != null) {
+					output.writeFloat(event.volume);
+					output.writeFloat(event.balance);
+				}
+			}
+		}
+	}
+
+	private void writeDeforms (SkeletonOutput output, Array<Timeline> timelines, Array<Skin> skins) throws IOException {
+		// Find the skin and name each deformed attachment is stored under.
+		Array<DeformTimeline> deforms = new Array();
+		Array<SkinEntry> entries = new Array();
+		IntArray skinIndices = new IntArray();
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			if (!(timelines.get(i) instanceof DeformTimeline)) continue;
+			DeformTimeline timeline = (DeformTimeline)timelines.get(i);
+			SkinEntry found = null;
+			int skinIndex = 0;
+			outer:
+			for (int nn = skins.size; skinIndex < nn; skinIndex++) {
+				Array<SkinEntry> skinEntries = skins.get(skinIndex).getAttachments();
+				for (int ii = 0, nnn = skinEntries.size; ii < nnn; ii++) {
+					SkinEntry entry = skinEntries.get(ii);
+					if (entry.getSlotIndex() == timeline.slotIndex && entry.getAttachment() == timeline.attachment) {
+						found = entry;
+						break outer;
+					}
+				}
+			}
+			if (found == null)
+				throw new SerializationException("Deformed attachment not found in any skin: " + timeline.attachment.getName());
+			deforms.add(timeline);
+			entries.add(found);
+			skinIndices.add(skinIndex);
+		}
+
+		int skinCount = 0;
+		for (int skinIndex = 0, n = skins.size; skinIndex < n; skinIndex++)
+			if (skinIndices.contains(skinIndex)) skinCount++;
+		output.writeInt(skinCount, true);
+		IntArray slotIndices = new IntArray();
+		for (int skinIndex = 0, n = skins.size; skinIndex < n; skinIndex++) {
+			if (!skinIndices.contains(skinIndex)) continue;
+			slotIndices.clear();
+			for (int i = 0, nn = deforms.size; i < nn; i++) {
+				int slotIndex = deforms.get(i).slotIndex;
+				if (skinIndices.get(i) == skinIndex && !slotIndices.contains(slotIndex)) slotIndices.add(slotIndex);
+			}
+			slotIndices.sort();
+			output.writeInt(skinIndex, true);
+			output.writeInt(slotIndices.size, true);
+			for (int ii = 0, nn = slotIndices.size; ii < nn; ii++) {
+				int slotIndex = slotIndices.get(ii), attachmentCount = 0;
+				for (int i = 0, nnn = deforms.size; i < nnn; i++)
+					if (skinIndices.get(i) == skinIndex && deforms.get(i).slotIndex == slotIndex) attachmentCount++;
+				output.writeInt(slotIndex, true);
+				output.writeInt(attachmentCount, true);
+				for (int i = 0, nnn = deforms.size; i < nnn; i++) {
+					if (skinIndices.get(i) != skinIndex || deforms.get(i).slotIndex != slotIndex) continue;
+					output.writeStringRef(entries.get(i).getName());
+					writeDeform(output, deforms.get(i));
+				}
+			}
+		}
+	}
+
+	/** Writes the frames as offsets from the setup vertices, trimmed of leading and trailing zeros. */
+	private void writeDeform (SkeletonOutput output, DeformTimeline timeline) throws IOException {
+		float scale = this.scale;
+		VertexAttachment attachment = timeline.attachment;
+		boolean weighted = attachment.getBones() != null;
+		float[] vertices = attachment.getVertices();
+		float[] frames = timeline.getFrames();
+		float[][] frameVertices = timeline.getVertices();
+		int frameCount = frames.length;
+		output.writeInt(frameCount, true);
+		for (int frameIndex = 0; frameIndex < frameCount; frameIndex++) {
+			output.writeFloat(frames[frameIndex]);
+			float[] deform = frameVertices[frameIndex];
+			int start = 0, end = deform.length;
+			while (start < end && offset(deform, vertices, start, weighted) == 0)
+				start++;
+			while (end > start && offset(deform, vertices, end - 1, weighted) == 0)
+				end--;
+			output.writeInt(end - start, true);
+			if (end > start) {
+				output.writeInt(start, true);
+				for (int v = start; v < end; v++)
+					output.writeFloat(offset(deform, vertices, v, weighted) / scale);
+			}
+			if (frameIndex < frameCount - 1) writeCurve(output, frameIndex, timeline);
+		}
+	}
+
+	static private float offset (float[] deform, float[] vertices, int index, boolean weighted) {
+		return weighted ? deform[index] : deform[index] - vertices[index];
+	}
+
+	private void writeCurve (SkeletonOutput output, int frameIndex, CurveTimeline timeline) throws IOException {
+		float type = timeline.getCurveType(frameIndex);
+		if (type == CurveTimeline.STEPPED)
+			output.writeByte(CURVE_STEPPED);
+		else if (type == CurveTimeline.BEZIER) {
+			float[] curve = this.curve;
+			timeline.getCurve(frameIndex, curve);
+			output.writeByte(CURVE_BEZIER);
+			output.writeFloat(curve[0]);
+			output.writeFloat(curve[1]);
+			output.writeFloat(curve[2]);
+			output.writeFloat(curve[3]);
+		} else
+			output.writeByte(CURVE_LINEAR);
+	}
+
+	static private void group (Array<Timeline>[] groups, int index, Timeline timeline) {
+		if (groups[index] == null) groups[index] = new Array();
+		groups[index].add(timeline);
+	}
+
+	static private int groupCount (Array<Timeline>[] groups) {
+		int count = 0;
+		for (Array<Timeline> group : groups)
+			if (group != null) count++;
+		return count;
+	}
+
+	static class SkeletonOutput extends DataOutput {
+		final Array<String> strings = new Array();
+		private final ObjectIntMap<String> stringIndices = new ObjectIntMap();
+
+		public SkeletonOutput (OutputStream output) {
+			super(output);
+		}
+
+		/** Writes a reference into the string table, which is written before the data that uses it.
+		 * @param value May be null. */
+		public void writeStringRef (String value) throws IOException {
+			if (value == null) {
+				writeInt(0, true);
+				return;
+			}
+			int index = stringIndices.get(value, -1);
+			if (index == -1) {
+				index = strings.size;
+				strings.add(value);
+				stringIndices.put(value, index);
+			}
+			writeInt(index + 1, true);
+		}
+
+		/** Writes the UTF-8 byte count rather than the character count, as expected by {@link SkeletonInput#readString()}. */
+		public void writeString (String value) throws IOException {
+			if (value == null) {
+				writeInt(0, true);
+				return;
+			}
+			int charCount = value.length(), byteCount = 0;
+			for (int i = 0; i < charCount; i++) {
+				int c = value.charAt(i);
+				byteCount += c <= 0x7F ? 1 : c <= 0x7FF ? 2 : 3;
+			}
+			writeInt(byteCount + 1, true);
+			for (int i = 0; i < charCount; i++) {
+				int c = value.charAt(i);
+				if (c <= 0x7F)
+					write(c);
+				else if (c <= 0x7FF) {
+					write(0xC0 | c >> 6 & 0x1F);
+					write(0x80 | c & 0x3F);
+				} else {
+					write(0xE0 | c >> 12 & 0x0F);
+					write(0x80 | c >> 6 & 0x3F);
+					write(0x80 | c & 0x3F);
+				}
+			}
+		}
+	}
+}
@@ -36,8 +36,16 @@ import com.esotericsoftware.spine.attachments.Attachment;
 import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
 
 /** Collects each visible {@link BoundingBoxAttachment} and computes the world vertices for its polygon. The polygon vertices are
- * provided along with convenience methods for doing hit detection. */
+ * provided along with convenience methods for doing hit detection.
+ * <p>
+ * Each polygon also has an axis aligned bounding box. When there are many polygons, point queries use a uniform grid over the
+ * polygon AABBs so only the polygons overlapping the queried cell are tested. Unweighted polygons whose bone world transform has
+ * not changed since the last {@link #update(Skeleton, boolean)} are not recomputed. */
 public class SkeletonBounds {
+	/** Below this many polygons the grid is not built and polygons are scanned linearly. */
+	static private final int gridThreshold = 8;
+	static private final int maxGridSide = 16;
+
 	private float minX, minY, maxX, maxY;
 	private Array<BoundingBoxAttachment> boundingBoxes = new Array();
 	private Array<FloatArray> polygons = new Array();
@@ -46,9 +54,17 @@ public class SkeletonBounds {
 			return new FloatArray();
 		}
 	};
+	private final FloatArray aabbs = new FloatArray(); // minX, minY, maxX, maxY per polygon.
+	private final FloatArray transforms = new FloatArray(); // a, b, c, d, worldX, worldY per polygon.
+
+	private boolean gridDirty;
+	private int gridColumns, gridRows;
+	private float gridMinX, gridMinY, gridMaxX, gridMaxY, cellWidth, cellHeight;
+	private int[] cellStarts = new int[0], cellFill = new int[0], cellItems = new int[0];
 
-	/** Clears any previous polygons, finds all visible bounding box attachments, and computes the world vertices for each bounding
-	 * box's polygon.
+	/** Finds all visible bounding box attachments and computes the world vertices for each bounding box's polygon. Polygons of
+	 * unweighted bounding boxes are kept from the previous update when their slot's bone world transform is unchanged and the
+	 * slot has no deform.
 	 * @param updateAabb If true, the axis aligned bounding box containing all the polygons is computed. If false, the
 	 *           SkeletonBounds AABB methods will always return true. */
 	public void update (Skeleton skeleton, boolean updateAabb) {
@@ -58,25 +74,47 @@ public class SkeletonBounds {
 		Array<Slot> slots = skeleton.slots;
 		int slotCount = slots.size;
 
-		boundingBoxes.clear();
-		polygonPool.freeAll(polygons);
-		polygons.clear();
-
+		boolean changed = false;
+		int count = 0;
 		for (int i = 0; i < slotCount; i++) {
 			Slot slot = slots.get(i);
 			if (!slot.bone.active) continue;
 			Attachment attachment = slot.attachment;
 			if (attachment instanceof BoundingBoxAttachment) {
 				BoundingBoxAttachment boundingBox = (BoundingBoxAttachment)attachment;
-				boundingBoxes.add(boundingBox);
-
-				FloatArray polygon = polygonPool.obtain();
-				polygons.add(polygon);
+				FloatArray polygon;
+				if (count < boundingBoxes.size) {
+					if (boundingBoxes.get(count) == boundingBox && !poseChanged(count, slot, boundingBox)) {
+						count++;
+						continue;
+					}
+					boundingBoxes.set(count, boundingBox);
+					polygon = polygons.get(count);
+				} else {
+					boundingBoxes.add(boundingBox);
+					polygon = polygonPool.obtain();
+					polygons.add(polygon);
+				}
 				boundingBox.computeWorldVertices(slot, 0, boundingBox.getWorldVerticesLength(),
 					polygon.setSize(boundingBox.getWorldVerticesLength()), 0, 2);
+				storePose(count, slot.bone);
+				polygonAabbCompute(count, polygon);
+				changed = true;
+				count++;
 			}
 		}
 
+		if (count < boundingBoxes.size) {
+			for (int i = count, n = polygons.size; i < n; i++)
+				polygonPool.free(polygons.get(i));
+			polygons.truncate(count);
+			boundingBoxes.truncate(count);
+			changed = true;
+		}
+		aabbs.setSize(count << 2);
+		transforms.setSize(count * 6);
+		if (changed) gridDirty = true;
+
 		if (updateAabb)
 			aabbCompute();
 		else {
@@ -87,20 +125,55 @@ public class SkeletonBounds {
 		}
 	}
 
+	private boolean poseChanged (int index, Slot slot, BoundingBoxAttachment boundingBox) {
+		if (boundingBox.getBones() != null || (slot.deform != null && slot.deform.size > 0)) return true;
+		Bone bone = slot.bone;
+		float[] transforms = this.transforms.items;
+		int i = index * 6;
+		return transforms[i] != bone.a || transforms[i + 1] != bone.b || transforms[i + 2] != bone.c
+			|| transforms[i + 3] != bone.d || transforms[i + 4] != bone.worldX || transforms[i + 5] != bone.worldY;
+	}
+
+	private void storePose (int index, Bone bone) {
+		int i = index * 6;
+		if (transforms.size < i + 6) transforms.setSize(i + 6);
+		float[] transforms = this.transforms.items;
+		transforms[i] = bone.a;
+		transforms[i + 1] = bone.b;
+		transforms[i + 2] = bone.c;
+		transforms[i + 3] = bone.d;
+		transforms[i + 4] = bone.worldX;
+		transforms[i + 5] = bone.worldY;
+	}
+
+	private void polygonAabbCompute (int index, FloatArray polygon) {
+		float minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+		float[] vertices = polygon.items;
+		for (int ii = 0, nn = polygon.size; ii < nn; ii += 2) {
+			float x = vertices[ii];
+			float y = vertices[ii + 1];
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+		int i = index << 2;
+		if (aabbs.size < i + 4) aabbs.setSize(i + 4);
+		float[] aabbs = this.aabbs.items;
+		aabbs[i] = minX;
+		aabbs[i + 1] = minY;
+		aabbs[i + 2] = maxX;
+		aabbs[i + 3] = maxY;
+	}
+
 	private void aabbCompute () {
 		float minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
-		Array<FloatArray> polygons = this.polygons;
-		for (int i = 0, n = polygons.size; i < n; i++) {
-			FloatArray polygon = polygons.get(i);
-			float[] vertices = polygon.items;
-			for (int ii = 0, nn = polygon.size; ii < nn; ii += 2) {
-				float x = vertices[ii];
-				float y = vertices[ii + 1];
-				minX = Math.min(minX, x);
-				minY = Math.min(minY, y);
-				maxX = Math.max(maxX, x);
-				maxY = Math.max(maxY, y);
-			}
+		float[] aabbs = this.aabbs.items;
+		for (int i = 0, n = this.aabbs.size; i < n; i += 4) {
+			minX = Math.min(minX, aabbs[i]);
+			minY = Math.min(minY, aabbs[i + 1]);
+			maxX = Math.max(maxX, aabbs[i + 2]);
+			maxY = Math.max(maxY, aabbs[i + 3]);
 		}
 		this.minX = minX;
 		this.minY = minY;
@@ -108,6 +181,91 @@ public class SkeletonBounds {
 		this.maxY = maxY;
 	}
 
+	/** Buckets the polygon AABBs into a uniform grid covering all polygons. Cell contents are stored in ascending polygon order so
+	 * the first hit in a cell is also the first hit overall. */
+	private void gridCompute () {
+		gridDirty = false;
+		int count = polygons.size;
+		if (count < gridThreshold) {
+			gridColumns = 0;
+			return;
+		}
+
+		float[] aabbs = this.aabbs.items;
+		float minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+		for (int i = 0, n = count << 2; i < n; i += 4) {
+			minX = Math.min(minX, aabbs[i]);
+			minY = Math.min(minY, aabbs[i + 1]);
+			maxX = Math.max(maxX, aabbs[i + 2]);
+			maxY = Math.max(maxY, aabbs[i + 3]);
+		}
+		int side = Math.min(maxGridSide, (int)Math.ceil(Math.sqrt(count)));
+		gridColumns = side;
+		gridRows = side;
+		gridMinX = minX;
+		gridMinY = minY;
+		gridMaxX = maxX;
+		gridMaxY = maxY;
+		cellWidth = Math.max((maxX - minX) / side, 0.0001f);
+		cellHeight = Math.max((maxY - minY) / side, 0.0001f);
+
+		int cells = side * side;
+		if (cellStarts.length < cells + 1) {
+			cellStarts = new int[cells + 1];
+			cellFill = new int[cells];
+		} else {
+			for (int i = 0; i <= cells; i++)
+				cellStarts[i] = 0;
+		}
+		int[] cellStarts = this.cellStarts;
+
+		// Count the polygons in each cell, then convert the counts to start offsets.
+		for (int i = 0, a = 0; i < count; i++, a += 4) {
+			int c0 = gridColumn(aabbs[a]), c1 = gridColumn(aabbs[a + 2]);
+			int r0 = gridRow(aabbs[a + 1]), r1 = gridRow(aabbs[a + 3]);
+			for (int r = r0; r <= r1; r++)
+				for (int c = c0; c <= c1; c++)
+					cellStarts[r * side + c + 1]++;
+		}
+		for (int i = 0; i < cells; i++)
+			cellStarts[i + 1] += cellStarts[i];
+		int total = cellStarts[cells];
+		if (cellItems.length < total) cellItems = new int[total];
+
+		int[] cellFill = this.cellFill, cellItems = this.cellItems;
+		System.arraycopy(cellStarts, 0, cellFill, 0, cells);
+		for (int i = 0, a = 0; i < count; i++, a += 4) {
+			int c0 = gridColumn(aabbs[a]), c1 = gridColumn(aabbs[a + 2]);
+			int r0 = gridRow(aabbs[a + 1]), r1 = gridRow(aabbs[a + 3]);
+			for (int r = r0; r <= r1; r++)
+				for (int c = c0; c <= c1; c++)
+					cellItems[cellFill[r * side + c]++] = i;
+		}
+	}
+
+	private int gridColumn (float x) {
+		int column = (int)((x - gridMinX) / cellWidth);
+		return column < 0 ? 0 : column >= gridColumns ? gridColumns - 1 : column;
+	}
+
+	private int gridRow (float y) {
+		int row = (int)((y - gridMinY) / cellHeight);
+		return row < 0 ? 0 : row >= gridRows ? gridRows - 1 : row;
+	}
+
+	private boolean polygonAabbContainsPoint (int index, float x, float y) {
+		float[] aabbs = this.aabbs.items;
+		int i = index << 2;
+		return x >= aabbs[i] && y >= aabbs[i + 1] && x <= aabbs[i + 2] && y <= aabbs[i + 3];
+	}
+
+	private boolean polygonAabbIntersectsSegment (int index, float x1, float y1, float x2, float y2) {
+		float[] aabbs = this.aabbs.items;
+		int i = index << 2;
+		return Math.max(x1, x2) >= aabbs[i] && Math.max(y1, y2) >= aabbs[i + 1] && Math.min(x1, x2) <= aabbs[i + 2]
+			&& Math.min(y1, y2) <= aabbs[i + 3];
+	}
+
 	/** Returns true if the axis aligned bounding box contains the point. */
 	public boolean aabbContainsPoint (float x, float y) {
 		return x >= minX && x <= maxX && y >= minY && y <= maxY;
@@ -142,10 +300,51 @@ public class SkeletonBounds {
 	/** Returns the first bounding box attachment that contains the point, or null. When doing many checks, it is usually more
 	 * efficient to only call this method if {@link #aabbContainsPoint(float, float)} returns true. */
 	public BoundingBoxAttachment containsPoint (float x, float y) {
+		int index = containsPointIndex(x, y);
+		return index == -1 ? null : boundingBoxes.get(index);
+	}
+
+	/** Tests many points at once, eg for cursor tracking or for the points of another shape. The grid is built at most once for
+	 * all the points.
+	 * @param points x,y pairs.
+	 * @param offset The <code>points</code> index of the first x value.
+	 * @param count The number of points to test.
+	 * @param hits An output value, for each point the first bounding box attachment that contains it, or null. Must have a
+	 *           length >= <code>count</code>.
+	 * @return The number of points contained by any bounding box. */
+	public int containsPoints (float[] points, int offset, int count, BoundingBoxAttachment[] hits) {
+		if (points == null) throw new IllegalArgumentException("points cannot be null.");
+		if (hits == null) throw new IllegalArgumentException("hits cannot be null.");
+		Array<BoundingBoxAttachment> boundingBoxes = this.boundingBoxes;
+		int hitCount = 0;
+		for (int i = 0, p = offset; i < count; i++, p += 2) {
+			int index = containsPointIndex(points[p], points[p + 1]);
+			if (index == -1)
+				hits[i] = null;
+			else {
+				hits[i] = boundingBoxes.get(index);
+				hitCount++;
+			}
+		}
+		return hitCount;
+	}
+
+	private int containsPointIndex (float x, float y) {
 		Array<FloatArray> polygons = this.polygons;
-		for (int i = 0, n = polygons.size; i < n; i++)
-			if (containsPoint(polygons.get(i), x, y)) return boundingBoxes.get(i);
-		return null;
+		if (gridDirty) gridCompute();
+		if (gridColumns == 0) {
+			for (int i = 0, n = polygons.size; i < n; i++)
+				if (polygonAabbContainsPoint(i, x, y) && containsPoint(polygons.get(i), x, y)) return i;
+			return -1;
+		}
+		if (x < gridMinX || y < gridMinY || x > gridMaxX || y > gridMaxY) return -1;
+		int cell = gridRow(y) * gridColumns + gridColumn(x);
+		int[] cellItems = this.cellItems;
+		for (int ii = cellStarts[cell], nn = cellStarts[cell + 1]; ii < nn; ii++) {
+			int i = cellItems[ii];
+			if (polygonAabbContainsPoint(i, x, y) && containsPoint(polygons.get(i), x, y)) return i;
+		}
+		return -1;
 	}
 
 	/** Returns true if the polygon contains the point. */
@@ -174,7 +373,8 @@ public class SkeletonBounds {
 	public BoundingBoxAttachment intersectsSegment (float x1, float y1, float x2, float y2) {
 		Array<FloatArray> polygons = this.polygons;
 		for (int i = 0, n = polygons.size; i < n; i++)
-			if (intersectsSegment(polygons.get(i), x1, y1, x2, y2)) return boundingBoxes.get(i);
+			if (polygonAabbIntersectsSegment(i, x1, y1, x2, y2) && intersectsSegment(polygons.get(i), x1, y1, x2, y2))
+				return boundingBoxes.get(i);
 		return null;
 	}
 
@@ -243,6 +443,11 @@ public class SkeletonBounds {
 		return polygons;
 	}
 
+	/** The axis aligned bounding box of each polygon, stored as minX, minY, maxX, maxY in {@link #getPolygons()} order. */
+	public FloatArray getPolygonAabbs () {
+		return aabbs;
+	}
+
 	/** Returns the polygon for the specified bounding box, or null. */
 	public FloatArray getPolygon (BoundingBoxAttachment boundingBox) {
 		if (boundingBox == null) throw new IllegalArgumentException("boundingBox cannot be null.");
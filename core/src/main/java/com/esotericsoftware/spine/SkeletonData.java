@@ -30,6 +30,8 @@
 package com.esotericsoftware.spine;
 
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
 
 /** Stores the setup pose and all of the stateless data for a skeleton.
  * <p>
@@ -48,6 +50,12 @@ public class SkeletonData {
 	final Array<PathConstraintData> pathConstraints = new Array();
 	float x, y, width, height;
 	String version, hash;
+	final IntIntMap propertyIndices = new IntIntMap(); // Timeline property ID -> dense index.
+	int decodedCount; // Numbers of the decoded segments of compressed timelines, see TimelineCompressor.
+	final IntArray freeDecodedIndices = new IntArray(0);
+	int[] constraintOrder; // Null until computed.
+	boolean[] constrainedBones; // Null until computed.
+	int[] childCounts; // Null until computed.
 
 	// Nonessential.
 	float fps = 30;
@@ -160,6 +168,50 @@ public class SkeletonData {
 		return null;
 	}
 
+	/** Assigns each animation its {@link Animation#getIndex() index} in {@link #getAnimations()} and indexes the timeline property
+	 * IDs of each animation. Called by the loaders after all animations are read, and must be called again if animations are
+	 * added or removed afterward. Besides this, only setting an animation built in code on an {@link AnimationState} adds property
+	 * indices, so neither must happen while animation states using this skeleton data are applied on other threads. */
+	public void indexAnimations () {
+		Object[] animations = this.animations.items;
+		for (int i = 0, n = this.animations.size; i < n; i++) {
+			Animation animation = (Animation)animations[i];
+			animation.index = i;
+			indexProperties(animation, animation.propertyIds, true);
+		}
+	}
+
+	/** Renumbers the timeline property IDs to dense indices shared by all animations indexed by this skeleton data, so
+	 * {@link AnimationState} can track them with bitsets, and stores them in the animation.
+	 * @param add If true, property IDs not seen before are assigned the next index. If false, the indices are only read and an
+	 *           unknown property ID throws. Synchronized so animations built in code can be indexed while other animations replace
+	 *           their timelines. */
+	synchronized void indexProperties (Animation animation, int[] propertyIds, boolean add) {
+		int n = propertyIds.length, max = -1;
+		int[] indices = new int[n];
+		for (int i = 0; i < n; i++) {
+			int index = propertyIndices.get(propertyIds[i], -1);
+			if (index == -1) {
+				if (!add) throw new IllegalArgumentException("Timeline property is not indexed by the skeleton data: " + propertyIds[i]);
+				index = propertyIndices.size;
+				propertyIndices.put(propertyIds[i], index);
+			}
+			indices[i] = index;
+			max = Math.max(max, index);
+		}
+		long[] bits = new long[(max + 64) >>> 6]; // Empty when there are no timelines.
+		for (int i = 0; i < n; i++)
+			bits[indices[i] >>> 6] |= 1L << indices[i];
+		animation.propertyIndices = indices;
+		animation.propertyBits = bits;
+		animation.propertyData = this;
+	}
+
+	/** The number of distinct timeline property IDs indexed by {@link #indexAnimations()}. */
+	public int getPropertyCount () {
+		return propertyIndices.size;
+	}
+
 	// --- IK constraints
 
 	/** The skeleton's IK constraints. */
@@ -220,6 +272,83 @@ public class SkeletonData {
 		return null;
 	}
 
+	/** Returns the indices of all constraints sorted by {@link ConstraintData#getOrder()}, so {@link Skeleton#updateCache()}
+	 * doesn't have to search for each order. IK constraints are indexed first, then transform constraints, then path
+	 * constraints. Computed on first use and again if the number of constraints changes. */
+	int[] getConstraintOrder () {
+		int ikCount = ikConstraints.size, transformCount = transformConstraints.size;
+		int count = ikCount + transformCount + pathConstraints.size;
+		int[] constraintOrder = this.constraintOrder;
+		if (constraintOrder != null && constraintOrder.length == count) return constraintOrder;
+		constraintOrder = new int[count];
+		int[] orders = new int[count];
+		for (int i = 0; i < count; i++) {
+			ConstraintData constraint;
+			if (i < ikCount)
+				constraint = ikConstraints.get(i);
+			else if (i < ikCount + transformCount)
+				constraint = transformConstraints.get(i - ikCount);
+			else
+				constraint = pathConstraints.get(i - ikCount - transformCount);
+			// Insertion sort, there are few constraints. Equal orders keep IK, transform, path order.
+			int order = constraint.order, ii = i;
+			for (; ii > 0 && orders[ii - 1] > order; ii--) {
+				orders[ii] = orders[ii - 1];
+				constraintOrder[ii] = constraintOrder[ii - 1];
+			}
+			orders[ii] = order;
+			constraintOrder[ii] = i;
+		}
+		return this.constraintOrder = constraintOrder;
+	}
+
+	/** Returns, for each bone index, the number of child bones, so each {@link Bone} can allocate its children array at its final
+	 * size. Computed on first use and again if the number of bones changes. */
+	int[] getChildCounts () {
+		int[] childCounts = this.childCounts;
+		if (childCounts != null && childCounts.length == bones.size) return childCounts;
+		childCounts = new int[bones.size];
+		Object[] bones = this.bones.items;
+		for (int i = 0, n = childCounts.length; i < n; i++) {
+			BoneData parent = ((BoneData)bones[i]).parent;
+			if (parent != null) childCounts[parent.index]++;
+		}
+		return this.childCounts = childCounts;
+	}
+
+	/** Returns, for each bone index, true if the bone is a target or a constrained bone of any constraint, or an ancestor of one.
+	 * Changing which of these bones are active can change the constraint update order. Computed on first use and again if the
+	 * number of bones changes. */
+	boolean[] getConstrainedBones () {
+		boolean[] constrainedBones = this.constrainedBones;
+		if (constrainedBones != null && constrainedBones.length == bones.size) return constrainedBones;
+		constrainedBones = new boolean[bones.size];
+		for (int i = 0, n = ikConstraints.size; i < n; i++) {
+			IkConstraintData constraint = ikConstraints.get(i);
+			markConstrained(constrainedBones, constraint.target);
+			for (int ii = 0, nn = constraint.bones.size; ii < nn; ii++)
+				markConstrained(constrainedBones, constraint.bones.get(ii));
+		}
+		for (int i = 0, n = transformConstraints.size; i < n; i++) {
+			TransformConstraintData constraint = transformConstraints.get(i);
+			markConstrained(constrainedBones, constraint.target);
+			for (int ii = 0, nn = constraint.bones.size; ii < nn; ii++)
+				markConstrained(constrainedBones, constraint.bones.get(ii));
+		}
+		for (int i = 0, n = pathConstraints.size; i < n; i++) {
+			PathConstraintData constraint = pathConstraints.get(i);
+			markConstrained(constrainedBones, constraint.target.boneData);
+			for (int ii = 0, nn = constraint.bones.size; ii < nn; ii++)
+				markConstrained(constrainedBones, constraint.bones.get(ii));
+		}
+		return this.constrainedBones = constrainedBones;
+	}
+
+	static private void markConstrained (boolean[] constrainedBones, BoneData bone) {
+		for (; bone != null && !constrainedBones[bone.index]; bone = bone.parent)
+			constrainedBones[bone.index] = true;
+	}
+
 	// ---
 
 	/** The skeleton's name, which by default is the name of the skeleton data file, if possible.
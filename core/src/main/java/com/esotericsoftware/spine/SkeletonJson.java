@@ -353,6 +353,7 @@ public class SkeletonJson {
 		skeletonData.events.shrink();
 		skeletonData.animations.shrink();
 		skeletonData.ikConstraints.shrink();
+		skeletonData.indexAnimations();
 		return skeletonData;
 	}
 
@@ -0,0 +1,225 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.FloatArray;
+
+import com.esotericsoftware.spine.attachments.Attachment;
+
+/** Stores the pose of a skeleton after {@link Skeleton#updateWorldTransform()}: bone world transforms, slot attachments, colors
+ * and deform, the draw order and the skeleton color.
+ * <p>
+ * A pose can be computed at a fixed step on one thread, captured, and applied on the rendering thread to a second skeleton of
+ * the same {@link SkeletonData}, interpolating between the two most recent captures. The skeleton the pose is applied to only
+ * needs to be drawn or hit tested; {@link Skeleton#updateWorldTransform()} must not be called on it, since its local transforms
+ * are not set.
+ * <p>
+ * A snapshot is not thread safe. The caller must ensure capturing and applying do not happen at the same time. */
+public class SkeletonSnapshot {
+	static private final int BONE_SIZE = 6, SLOT_SIZE = 7;
+
+	final float[] bones; // a, b, c, d, worldX, worldY per bone.
+	final float[] slots; // Color rgba and dark color rgb per slot.
+	final Attachment[] attachments;
+	final FloatArray[] deforms;
+	final int[] deformRanges; // start, end per slot.
+	final int[] drawOrder;
+	final Color color = new Color();
+	boolean captured;
+
+	public SkeletonSnapshot (SkeletonData data) {
+		if (data == null) throw new IllegalArgumentException("data cannot be null.");
+		int slotCount = data.slots.size;
+		bones = new float[data.bones.size * BONE_SIZE];
+		slots = new float[slotCount * SLOT_SIZE];
+		attachments = new Attachment[slotCount];
+		deforms = new FloatArray[slotCount];
+		deformRanges = new int[slotCount << 1];
+		drawOrder = new int[slotCount];
+	}
+
+	/** Stores the current pose of the skeleton.
+	 * @return True if the pose differs from the pose this snapshot held before, or if nothing was captured before. */
+	public boolean capture (Skeleton skeleton) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		boolean changed = !captured || !color.equals(skeleton.color);
+		captured = true;
+		color.set(skeleton.color);
+
+		float[] bones = this.bones;
+		Object[] boneItems = skeleton.bones.items;
+		for (int i = 0, n = skeleton.bones.size, b = 0; i < n; i++, b += BONE_SIZE) {
+			Bone bone = (Bone)boneItems[i];
+			if (bones[b] != bone.a || bones[b + 1] != bone.b || bones[b + 2] != bone.c || bones[b + 3] != bone.d
+				|| bones[b + 4] != bone.worldX || bones[b + 5] != bone.worldY) {
+				bones[b] = bone.a;
+				bones[b + 1] = bone.b;
+				bones[b + 2] = bone.c;
+				bones[b + 3] = bone.d;
+				bones[b + 4] = bone.worldX;
+				bones[b + 5] = bone.worldY;
+				changed = true;
+			}
+		}
+
+		float[] slots = this.slots;
+		Object[] slotItems = skeleton.slots.items;
+		for (int i = 0, n = skeleton.slots.size, s = 0; i < n; i++, s += SLOT_SIZE) {
+			Slot slot = (Slot)slotItems[i];
+			Color c = slot.color;
+			if (slots[s] != c.r || slots[s + 1] != c.g || slots[s + 2] != c.b || slots[s + 3] != c.a) {
+				slots[s] = c.r;
+				slots[s + 1] = c.g;
+				slots[s + 2] = c.b;
+				slots[s + 3] = c.a;
+				changed = true;
+			}
+			Color dark = slot.darkColor;
+			if (dark != null && (slots[s + 4] != dark.r || slots[s + 5] != dark.g || slots[s + 6] != dark.b)) {
+				slots[s + 4] = dark.r;
+				slots[s + 5] = dark.g;
+				slots[s + 6] = dark.b;
+				changed = true;
+			}
+			if (attachments[i] != slot.attachment) {
+				attachments[i] = slot.attachment;
+				changed = true;
+			}
+
+			FloatArray source = slot.deform;
+			if (source == null || source.size == 0) {
+				if (deforms[i] != null && deforms[i].size > 0) {
+					deforms[i].clear();
+					changed = true;
+				}
+				continue;
+			}
+			FloatArray deform = deforms[i];
+			if (deform == null) deforms[i] = deform = new FloatArray(source.size);
+			int r = i << 1;
+			deformRanges[r] = slot.deformStart;
+			deformRanges[r + 1] = slot.deformEnd;
+			if (deform.size != source.size) {
+				deform.clear();
+				deform.addAll(source);
+				changed = true;
+			} else {
+				float[] items = deform.items, sourceItems = source.items;
+				for (int ii = 0, nn = source.size; ii < nn; ii++) {
+					if (items[ii] != sourceItems[ii]) {
+						items[ii] = sourceItems[ii];
+						changed = true;
+					}
+				}
+			}
+		}
+
+		int[] drawOrder = this.drawOrder;
+		Object[] drawOrderItems = skeleton.drawOrder.items;
+		for (int i = 0, n = skeleton.drawOrder.size; i < n; i++) {
+			int index = ((Slot)drawOrderItems[i]).data.index;
+			if (drawOrder[i] != index) {
+				drawOrder[i] = index;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	/** Sets the pose of the skeleton by interpolating from this snapshot to another snapshot of the same skeleton data.
+	 * Attachments and the draw order are taken from the other snapshot. Bone world transforms are interpolated component wise,
+	 * which is accurate for the small changes between two steps.
+	 * @param alpha 0 for this snapshot's pose, 1 for the other snapshot's pose. */
+	public void apply (Skeleton skeleton, SkeletonSnapshot to, float alpha) {
+		if (skeleton == null) throw new IllegalArgumentException("skeleton cannot be null.");
+		if (to == null) throw new IllegalArgumentException("to cannot be null.");
+		if (!to.captured) return;
+		SkeletonSnapshot from = captured ? this : to;
+
+		skeleton.color.set(from.color).lerp(to.color, alpha);
+
+		float[] fromBones = from.bones, toBones = to.bones;
+		Object[] boneItems = skeleton.bones.items;
+		for (int i = 0, n = skeleton.bones.size, b = 0; i < n; i++, b += BONE_SIZE) {
+			Bone bone = (Bone)boneItems[i];
+			bone.a = fromBones[b] + (toBones[b] - fromBones[b]) * alpha;
+			bone.b = fromBones[b + 1] + (toBones[b + 1] - fromBones[b + 1]) * alpha;
+			bone.c = fromBones[b + 2] + (toBones[b + 2] - fromBones[b + 2]) * alpha;
+			bone.d = fromBones[b + 3] + (toBones[b + 3] - fromBones[b + 3]) * alpha;
+			bone.worldX = fromBones[b + 4] + (toBones[b + 4] - fromBones[b + 4]) * alpha;
+			bone.worldY = fromBones[b + 5] + (toBones[b + 5] - fromBones[b + 5]) * alpha;
+		}
+
+		float[] fromSlots = from.slots, toSlots = to.slots;
+		Object[] slotItems = skeleton.slots.items;
+		for (int i = 0, n = skeleton.slots.size, s = 0; i < n; i++, s += SLOT_SIZE) {
+			Slot slot = (Slot)slotItems[i];
+			slot.color.set( //
+				fromSlots[s] + (toSlots[s] - fromSlots[s]) * alpha, //
+				fromSlots[s + 1] + (toSlots[s + 1] - fromSlots[s + 1]) * alpha, //
+				fromSlots[s + 2] + (toSlots[s + 2] - fromSlots[s + 2]) * alpha, //
+				fromSlots[s + 3] + (toSlots[s + 3] - fromSlots[s + 3]) * alpha);
+			if (slot.darkColor != null) {
+				slot.darkColor.set( //
+					fromSlots[s + 4] + (toSlots[s + 4] - fromSlots[s + 4]) * alpha, //
+					fromSlots[s + 5] + (toSlots[s + 5] - fromSlots[s + 5]) * alpha, //
+					fromSlots[s + 6] + (toSlots[s + 6] - fromSlots[s + 6]) * alpha, 1);
+			}
+			slot.setAttachment(to.attachments[i]);
+
+			FloatArray toDeform = to.deforms[i];
+			if (toDeform == null || toDeform.size == 0) {
+				if (slot.deform != null) slot.deform.clear();
+				continue;
+			}
+			FloatArray deform = slot.getDeform();
+			deform.setSize(toDeform.size);
+			float[] items = deform.items, toItems = toDeform.items;
+			FloatArray fromDeform = from.deforms[i];
+			int r = i << 1;
+			if (from.attachments[i] == to.attachments[i] && fromDeform != null && fromDeform.size == toDeform.size) {
+				float[] fromItems = fromDeform.items;
+				for (int ii = 0, nn = toDeform.size; ii < nn; ii++)
+					items[ii] = fromItems[ii] + (toItems[ii] - fromItems[ii]) * alpha;
+				slot.setDeformRange(Math.min(from.deformRanges[r], to.deformRanges[r]),
+					Math.max(from.deformRanges[r + 1], to.deformRanges[r + 1]));
+			} else {
+				System.arraycopy(toItems, 0, items, 0, toDeform.size);
+				slot.setDeformRange(to.deformRanges[r], to.deformRanges[r + 1]);
+			}
+		}
+
+		int[] drawOrder = to.drawOrder;
+		Object[] drawOrderItems = skeleton.drawOrder.items;
+		for (int i = 0, n = skeleton.drawOrder.size; i < n; i++)
+			drawOrderItems[i] = slotItems[drawOrder[i]];
+	}
+}
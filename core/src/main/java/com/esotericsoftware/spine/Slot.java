@@ -45,7 +45,8 @@ public class Slot {
 	final Color color = new Color(), darkColor;
 	Attachment attachment;
 	private float attachmentTime;
-	private FloatArray deform = new FloatArray();
+	FloatArray deform; // Null until first used.
+	int deformStart, deformEnd = Integer.MAX_VALUE;
 
 	int attachmentState;
 
@@ -68,7 +69,9 @@ public class Slot {
 		darkColor = slot.darkColor == null ? null : new Color(slot.darkColor);
 		attachment = slot.attachment;
 		attachmentTime = slot.attachmentTime;
-		deform.addAll(slot.deform);
+		if (slot.deform != null && slot.deform.size > 0) deform = new FloatArray(slot.deform);
+		deformStart = slot.deformStart;
+		deformEnd = slot.deformEnd;
 	}
 
 	/** The slot's setup pose data. */
@@ -109,7 +112,9 @@ public class Slot {
 		if (this.attachment == attachment) return;
 		this.attachment = attachment;
 		attachmentTime = bone.skeleton.time;
-		deform.clear();
+		if (deform != null) deform.clear();
+		deformStart = 0;
+		deformEnd = Integer.MAX_VALUE;
 	}
 
 	/** The time that has elapsed since the last time the attachment was set or cleared. Relies on Skeleton
@@ -125,14 +130,41 @@ public class Slot {
 	/** Values to deform the slot's attachment. For an unweighted mesh, the entries are local positions for each vertex. For a
 	 * weighted mesh, the entries are an offset for each vertex which will be added to the mesh's local vertex positions.
 	 * <p>
-	 * See {@link VertexAttachment#computeWorldVertices(Slot, int, int, float[], int, int)} and {@link DeformTimeline}. */
+	 * See {@link VertexAttachment#computeWorldVertices(Slot, int, int, float[], int, int)} and {@link DeformTimeline}.
+	 * <p>
+	 * If the entries are changed other than by a {@link DeformTimeline}, call {@link #setDeformRange(int, int)}.
+	 * <p>
+	 * The array is allocated on first use, so slots whose attachments are never deformed don't allocate one. */
 	public FloatArray getDeform () {
+		if (deform == null) deform = new FloatArray(0);
 		return deform;
 	}
 
 	public void setDeform (FloatArray deform) {
 		if (deform == null) throw new IllegalArgumentException("deform cannot be null.");
 		this.deform = deform;
+		deformStart = 0;
+		deformEnd = Integer.MAX_VALUE;
+	}
+
+	/** The first {@link #getDeform()} entry that may differ from the setup pose: the attachment's vertices for an unweighted mesh,
+	 * or 0 for a weighted mesh. Entries before it match the setup pose, so they can be skipped. */
+	public int getDeformStart () {
+		return deformStart;
+	}
+
+	/** The {@link #getDeform()} entry after the last that may differ from the setup pose. May be larger than the deform size. */
+	public int getDeformEnd () {
+		return deformEnd;
+	}
+
+	/** Sets the range of {@link #getDeform()} entries that may differ from the setup pose.
+	 * @param end May be larger than the deform size, for example {@link Integer#MAX_VALUE} when all entries may differ. */
+	public void setDeformRange (int start, int end) {
+		if (start < 0) throw new IllegalArgumentException("start must be >= 0: " + start);
+		if (end < start) throw new IllegalArgumentException("end must be >= start: " + end);
+		deformStart = start;
+		deformEnd = end;
 	}
 
 	/** Sets this slot to the setup pose. */
@@ -0,0 +1,730 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import com.esotericsoftware.spine.Animation.CurveTimeline;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.MixBlend;
+import com.esotericsoftware.spine.Animation.MixDirection;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.ScaleTimeline;
+import com.esotericsoftware.spine.Animation.ShearTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+
+/** Replaces bone and deform timelines with compressed timelines that use less memory.
+ * <p>
+ * Values are quantized to 16 bits against the range of each value in the timeline, so the error is at most half the range
+ * divided by 65535. Times are stored as 16 bit deltas in steps of the timeline's length divided by 65535. Deform keys store only
+ * the vertex components that differ from the setup pose. Bezier curves keep their 4 control points instead of the 19 sampled
+ * values.
+ * <p>
+ * A compressed timeline decodes the 2 keys around the applied time into a timeline of the original type and applies that, so it
+ * behaves like the original timeline and {@link AnimationState} can treat it the same. The decoded segment is kept by each
+ * {@link Skeleton} and is only replaced when the time moves to another segment, so skeletons can apply the same animation at
+ * different times, and from different threads, without decoding over each other. Each skeleton that applies a compressed timeline
+ * keeps about 200 bytes for it, plus two copies of the vertices for a deform timeline. {@link CurveTimeline#getFrameCount()}
+ * describes the complete timeline, but the frames of a compressed timeline are not used; use
+ * {@link CompressedTimeline#decompress()} to get the complete timeline.
+ * <p>
+ * Timelines are replaced in place, so property indices and {@link Animation#getTimelineImpacts() impacts} computed earlier remain
+ * valid. Compress after {@link TimelineOptimizer} and {@link com.esotericsoftware.spine.utils.SkeletonLod}, which need every
+ * key. */
+public class TimelineCompressor {
+	static private final int BEZIER_SIZE = 19, QUANTA = 65535;
+
+	private int originalBytes, compressedBytes;
+	private float maxRotateError, maxValueError, maxTimeError;
+
+	/** Compresses the timelines of all animations. Statistics are accumulated until {@link #reset()}.
+	 * @return The number of timelines compressed. */
+	public int compress (SkeletonData data) {
+		if (data == null) throw new IllegalArgumentException("data cannot be null.");
+		int count = 0;
+		Array<Animation> animations = data.animations;
+		for (int i = 0, n = animations.size; i < n; i++)
+			count += compress(data, animations.get(i));
+		return count;
+	}
+
+	/** Compresses the timelines of the animation that become smaller when compressed.
+	 * @param data The skeleton data whose skeletons the animation is applied to, which numbers the decoded segments they keep.
+	 * @return The number of timelines compressed. */
+	public int compress (SkeletonData data, Animation animation) {
+		if (data == null) throw new IllegalArgumentException("data cannot be null.");
+		if (animation == null) throw new IllegalArgumentException("animation cannot be null.");
+		Array<Timeline> timelines = animation.timelines;
+		int count = 0;
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i);
+			if (timeline instanceof CompressedTimeline) continue;
+			Timeline compressed = null;
+			Keys keys = null;
+			int before = 0;
+			if (timeline instanceof RotateTimeline) {
+				RotateTimeline rotate = (RotateTimeline)timeline;
+				keys = Keys.encode(rotate, rotate.frames, RotateTimeline.ENTRIES, 1);
+				if (keys != null) {
+					compressed = new CompressedRotateTimeline(rotate, keys);
+					maxRotateError = Math.max(maxRotateError, keys.maxValueError());
+				}
+				before = curveBytes(rotate, rotate.frames);
+			} else if (timeline instanceof TranslateTimeline) {
+				TranslateTimeline translate = (TranslateTimeline)timeline;
+				keys = Keys.encode(translate, translate.frames, TranslateTimeline.ENTRIES, 2);
+				if (keys != null) {
+					if (timeline instanceof ScaleTimeline)
+						compressed = new CompressedScaleTimeline(translate, keys);
+					else if (timeline instanceof ShearTimeline)
+						compressed = new CompressedShearTimeline(translate, keys);
+					else
+						compressed = new CompressedTranslateTimeline(translate, keys);
+					maxValueError = Math.max(maxValueError, keys.maxValueError());
+				}
+				before = curveBytes(translate, translate.frames);
+			} else if (timeline instanceof DeformTimeline) {
+				DeformTimeline deform = (DeformTimeline)timeline;
+				CompressedDeformTimeline compressedDeform = CompressedDeformTimeline.encode(deform);
+				if (compressedDeform != null) {
+					compressed = compressedDeform;
+					keys = compressedDeform.keys;
+					maxValueError = Math.max(maxValueError, compressedDeform.maxValueError());
+				}
+				before = deformBytes(deform);
+			}
+			if (compressed == null) continue;
+			int after = ((CompressedTimeline)compressed).getByteSize();
+			if (after >= before) continue;
+			maxTimeError = Math.max(maxTimeError, keys.maxTimeError());
+			originalBytes += before;
+			compressedBytes += after;
+			keys.index = allocate(data);
+			timelines.set(i, compressed);
+			count++;
+		}
+		return count;
+	}
+
+	/** Numbers the decoded segments of compressed timelines that were compressed for another skeleton data, such as animations
+	 * read again from a file, before they are applied to skeletons of this skeleton data. Must not be called while skeletons of
+	 * the skeleton data are being posed on other threads. */
+	static public void adopt (SkeletonData data, Array<Timeline> timelines) {
+		if (data == null) throw new IllegalArgumentException("data cannot be null.");
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Keys keys = keys(timelines.get(i));
+			if (keys != null) keys.index = allocate(data);
+		}
+	}
+
+	/** Frees the numbers of the decoded segments of compressed timelines that will no longer be applied, such as when an
+	 * animation's timelines are cleared, so they are reused by later {@link #adopt(SkeletonData, Array) adopted} timelines
+	 * instead of growing the state kept by each skeleton. Must not be called while skeletons of the skeleton data are being posed
+	 * on other threads. */
+	static public void release (SkeletonData data, Array<Timeline> timelines) {
+		if (data == null) throw new IllegalArgumentException("data cannot be null.");
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Keys keys = keys(timelines.get(i));
+			if (keys == null || keys.index == -1) continue;
+			data.freeDecodedIndices.add(keys.index);
+			keys.index = -1;
+		}
+	}
+
+	static private int allocate (SkeletonData data) {
+		IntArray free = data.freeDecodedIndices;
+		return free.size > 0 ? free.pop() : data.decodedCount++;
+	}
+
+	/** @return May be null if the timeline is not compressed. */
+	static private Keys keys (Timeline timeline) {
+		if (timeline instanceof CompressedRotateTimeline) return ((CompressedRotateTimeline)timeline).keys;
+		if (timeline instanceof CompressedTranslateTimeline) return ((CompressedTranslateTimeline)timeline).keys;
+		if (timeline instanceof CompressedScaleTimeline) return ((CompressedScaleTimeline)timeline).keys;
+		if (timeline instanceof CompressedShearTimeline) return ((CompressedShearTimeline)timeline).keys;
+		if (timeline instanceof CompressedDeformTimeline) return ((CompressedDeformTimeline)timeline).keys;
+		return null;
+	}
+
+	/** Returns the decoded segment the skeleton keeps for the compressed timeline, which is new if the skeleton hasn't applied the
+	 * timeline before. */
+	static Decoded decoded (Skeleton skeleton, Keys keys) {
+		int index = keys.index;
+		if (index == -1) throw new IllegalStateException("Compressed timeline was released.");
+		Decoded[] states = skeleton.decoded;
+		if (index >= states.length) skeleton.decoded = states = Arrays.copyOf(states, Math.max(index + 1, skeleton.data.decodedCount));
+		Decoded decoded = states[index];
+		if (decoded == null) states[index] = decoded = new Decoded();
+		if (decoded.keys != keys) { // First use, or the number was released and reused by another timeline.
+			decoded.keys = keys;
+			decoded.segment = -1;
+			decoded.timeline = null;
+		}
+		return decoded;
+	}
+
+	/** Returns a copy of the timelines with each compressed timeline replaced by its complete timeline. */
+	static public Array<Timeline> decompress (Array<Timeline> timelines) {
+		Array<Timeline> result = new Array(timelines.size);
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i);
+			result.add(timeline instanceof CompressedTimeline ? ((CompressedTimeline)timeline).decompress() : timeline);
+		}
+		return result;
+	}
+
+	static private int curveBytes (CurveTimeline timeline, float[] frames) {
+		return frames.length * 4 + (timeline.getFrameCount() - 1) * BEZIER_SIZE * 4;
+	}
+
+	static private int deformBytes (DeformTimeline timeline) {
+		int bytes = curveBytes(timeline, timeline.getFrames());
+		float[] setupVertices = timeline.attachment.getVertices();
+		for (float[] vertices : timeline.getVertices())
+			if (vertices != setupVertices) bytes += vertices.length * 4;
+		return bytes;
+	}
+
+	/** Clears the statistics. */
+	public void reset () {
+		originalBytes = 0;
+		compressedBytes = 0;
+		maxRotateError = 0;
+		maxValueError = 0;
+		maxTimeError = 0;
+	}
+
+	/** The approximate number of bytes used by the keys and curves of the timelines that were compressed, before compression. */
+	public int getOriginalBytes () {
+		return originalBytes;
+	}
+
+	/** The approximate number of bytes used by the compressed timelines, not including the decoded segments kept by each
+	 * skeleton. */
+	public int getCompressedBytes () {
+		return compressedBytes;
+	}
+
+	/** The largest rotation error in degrees caused by quantization. */
+	public float getMaxRotateError () {
+		return maxRotateError;
+	}
+
+	/** The largest translate, scale, shear, or deform error caused by quantization, in the units of each timeline. */
+	public float getMaxValueError () {
+		return maxValueError;
+	}
+
+	/** The largest key time error in seconds. */
+	public float getMaxTimeError () {
+		return maxTimeError;
+	}
+
+	/** A timeline whose keys are compressed. */
+	static public interface CompressedTimeline extends Timeline {
+		/** Returns a new timeline of the original type with all keys decoded. */
+		public Timeline decompress ();
+
+		/** The approximate number of bytes used by the compressed keys. */
+		public int getByteSize ();
+	}
+
+	/** The keys of a compressed timeline decoded for one skeleton: the segment that is decoded and a timeline of the original type
+	 * holding its 2 keys. */
+	static class Decoded {
+		Keys keys; // The keys this was decoded from. A number that is released and reused belongs to other keys.
+		int segment = -1, ticks; // The decoded segment and the ticks of its first key.
+		CurveTimeline timeline; // Null until first decoded.
+	}
+
+	/** Quantized key times, values, and curves. */
+	static class Keys {
+		final int count, valueCount;
+		final float startTime, tick;
+		final char[] deltas; // Ticks from each key to the next.
+		final byte[] curveTypes;
+		final float[] beziers; // cx1, cy1, cx2, cy2, ... May be null.
+		final float[] min, step;
+		final short[] values; // May be null.
+
+		int index = -1; // The number of the decoded segment in Skeleton#decoded.
+
+		private Keys (int count, int valueCount, float startTime, float tick, char[] deltas, byte[] curveTypes, float[] beziers,
+			float[] min, float[] step, short[] values) {
+			this.count = count;
+			this.valueCount = valueCount;
+			this.startTime = startTime;
+			this.tick = tick;
+			this.deltas = deltas;
+			this.curveTypes = curveTypes;
+			this.beziers = beziers;
+			this.min = min;
+			this.step = step;
+			this.values = values;
+		}
+
+		/** @param frames Time followed by the values for each key.
+		 * @return May be null if the timeline has too few keys or keys too close together to be encoded. */
+		static Keys encode (CurveTimeline source, float[] frames, int entries, int valueCount) {
+			int count = frames.length / entries;
+			if (count < 3) return null;
+
+			// Times.
+			float startTime = frames[0], tick = (frames[(count - 1) * entries] - startTime) / QUANTA;
+			if (!(tick > 0)) return null;
+			char[] deltas = new char[count - 1];
+			for (int i = 1, previous = 0; i < count; i++) {
+				int ticks = Math.round((frames[i * entries] - startTime) / tick);
+				if (ticks <= previous) return null; // Zero length segments can't be interpolated.
+				deltas[i - 1] = (char)(ticks - previous);
+				previous = ticks;
+			}
+
+			// Curves.
+			byte[] curveTypes = new byte[count - 1];
+			float[] beziers = null, curve = new float[4];
+			for (int i = 0; i < count - 1; i++) {
+				float type = source.getCurveType(i);
+				curveTypes[i] = (byte)type;
+				if (type != CurveTimeline.BEZIER) continue;
+				if (beziers == null) beziers = new float[(count - 1) << 2];
+				source.getCurve(i, curve);
+				System.arraycopy(curve, 0, beziers, i << 2, 4);
+			}
+
+			// Values.
+			float[] min = new float[valueCount], step = new float[valueCount];
+			short[] values = valueCount == 0 ? null : new short[count * valueCount];
+			for (int v = 0; v < valueCount; v++) {
+				float low = Float.POSITIVE_INFINITY, high = Float.NEGATIVE_INFINITY;
+				for (int i = 0; i < count; i++) {
+					float value = frames[i * entries + 1 + v];
+					low = Math.min(low, value);
+					high = Math.max(high, value);
+				}
+				min[v] = low;
+				step[v] = (high - low) / QUANTA;
+				for (int i = 0; i < count; i++)
+					values[i * valueCount + v] = quantize(frames[i * entries + 1 + v], low, step[v]);
+			}
+			return new Keys(count, valueCount, startTime, tick, deltas, curveTypes, beziers, min, step, values);
+		}
+
+		static short quantize (float value, float min, float step) {
+			return step == 0 ? 0 : (short)Math.round((value - min) / step);
+		}
+
+		float value (int key, int index) {
+			return min[index] + (values[key * valueCount + index] & 0xFFFF) * step[index];
+		}
+
+		/** Moves the decoded segment to the segment containing the time, clamped to the first and last segments.
+		 * @return True if the segment changed and must be decoded. */
+		boolean seek (Decoded decoded, float time) {
+			int segment = decoded.segment, ticks = decoded.ticks;
+			boolean changed = segment == -1;
+			if (changed) segment = 0;
+			char[] deltas = this.deltas;
+			float startTime = this.startTime, tick = this.tick;
+			// Playback usually moves forward by less than a segment, so this is a short walk instead of a search.
+			for (int last = deltas.length - 1; segment < last && time >= startTime + (ticks + deltas[segment]) * tick; segment++)
+				ticks += deltas[segment];
+			while (segment > 0 && time < startTime + ticks * tick)
+				ticks -= deltas[--segment];
+			if (!changed && segment == decoded.segment) return false;
+			decoded.segment = segment;
+			decoded.ticks = ticks;
+			return true;
+		}
+
+		/** Writes the keys of the decoded segment and its curve to key 0 and 1 of the target. */
+		void decode (Decoded decoded, CurveTimeline target, float[] frames, int entries) {
+			int segment = decoded.segment, ticks = decoded.ticks;
+			frames[0] = startTime + ticks * tick;
+			frames[entries] = startTime + (ticks + deltas[segment]) * tick;
+			for (int v = 0; v < valueCount; v++) {
+				frames[1 + v] = value(segment, v);
+				frames[entries + 1 + v] = value(segment + 1, v);
+			}
+			setCurve(target, 0, segment);
+		}
+
+		/** Writes all keys and curves to the target, which must have {@link #count} keys. */
+		void decodeAll (CurveTimeline target, float[] frames, int entries) {
+			for (int i = 0, ticks = 0; i < count; i++) {
+				if (i > 0) ticks += deltas[i - 1];
+				frames[i * entries] = startTime + ticks * tick;
+				for (int v = 0; v < valueCount; v++)
+					frames[i * entries + 1 + v] = value(i, v);
+				if (i < count - 1) setCurve(target, i, i);
+			}
+		}
+
+		private void setCurve (CurveTimeline target, int frameIndex, int segment) {
+			float type = curveTypes[segment];
+			if (type == CurveTimeline.STEPPED)
+				target.setStepped(frameIndex);
+			else if (type == CurveTimeline.BEZIER) {
+				int i = segment << 2;
+				target.setCurve(frameIndex, beziers[i], beziers[i + 1], beziers[i + 2], beziers[i + 3]);
+			} else
+				target.setLinear(frameIndex);
+		}
+
+		float maxValueError () {
+			float max = 0;
+			for (int v = 0; v < valueCount; v++)
+				max = Math.max(max, step[v] / 2);
+			return max;
+		}
+
+		float maxTimeError () {
+			return tick / 2;
+		}
+
+		/** The bytes used by the keys. */
+		int getByteSize () {
+			int bytes = (count - 1) * 3 + valueCount * 8;
+			if (beziers != null) bytes += beziers.length * 4;
+			if (values != null) bytes += values.length * 2;
+			return bytes;
+		}
+	}
+
+	static public class CompressedRotateTimeline extends RotateTimeline implements CompressedTimeline {
+		final Keys keys;
+
+		CompressedRotateTimeline (RotateTimeline source, Keys keys) {
+			super(1); // The frames are not used.
+			boneIndex = source.boneIndex;
+			this.keys = keys;
+		}
+
+		CurveTimeline decoded (Skeleton skeleton, float time) {
+			Decoded decoded = TimelineCompressor.decoded(skeleton, keys);
+			RotateTimeline timeline = (RotateTimeline)decoded.timeline;
+			if (timeline == null) {
+				decoded.timeline = timeline = new RotateTimeline(2);
+				timeline.boneIndex = boneIndex;
+			}
+			if (keys.seek(decoded, time)) keys.decode(decoded, timeline, timeline.frames, ENTRIES);
+			return timeline;
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixBlend blend,
+			MixDirection direction) {
+			decoded(skeleton, time).apply(skeleton, lastTime, time, events, alpha, blend, direction);
+		}
+
+		public int getFrameCount () {
+			return keys.count;
+		}
+
+		public Timeline decompress () {
+			RotateTimeline timeline = new RotateTimeline(keys.count);
+			timeline.boneIndex = boneIndex;
+			keys.decodeAll(timeline, timeline.frames, ENTRIES);
+			return timeline;
+		}
+
+		public int getByteSize () {
+			return keys.getByteSize();
+		}
+	}
+
+	static public class CompressedTranslateTimeline extends TranslateTimeline implements CompressedTimeline {
+		final Keys keys;
+
+		CompressedTranslateTimeline (TranslateTimeline source, Keys keys) {
+			super(1); // The frames are not used.
+			boneIndex = source.boneIndex;
+			this.keys = keys;
+		}
+
+		CurveTimeline decoded (Skeleton skeleton, float time) {
+			Decoded decoded = TimelineCompressor.decoded(skeleton, keys);
+			TranslateTimeline timeline = (TranslateTimeline)decoded.timeline;
+			if (timeline == null) {
+				decoded.timeline = timeline = new TranslateTimeline(2);
+				timeline.boneIndex = boneIndex;
+			}
+			if (keys.seek(decoded, time)) keys.decode(decoded, timeline, timeline.frames, ENTRIES);
+			return timeline;
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixBlend blend,
+			MixDirection direction) {
+			decoded(skeleton, time).apply(skeleton, lastTime, time, events, alpha, blend, direction);
+		}
+
+		public int getFrameCount () {
+			return keys.count;
+		}
+
+		public Timeline decompress () {
+			TranslateTimeline timeline = new TranslateTimeline(keys.count);
+			timeline.boneIndex = boneIndex;
+			keys.decodeAll(timeline, timeline.frames, ENTRIES);
+			return timeline;
+		}
+
+		public int getByteSize () {
+			return keys.getByteSize();
+		}
+	}
+
+	static public class CompressedScaleTimeline extends ScaleTimeline implements CompressedTimeline {
+		final Keys keys;
+
+		CompressedScaleTimeline (TranslateTimeline source, Keys keys) {
+			super(1); // The frames are not used.
+			boneIndex = source.boneIndex;
+			this.keys = keys;
+		}
+
+		CurveTimeline decoded (Skeleton skeleton, float time) {
+			Decoded decoded = TimelineCompressor.decoded(skeleton, keys);
+			ScaleTimeline timeline = (ScaleTimeline)decoded.timeline;
+			if (timeline == null) {
+				decoded.timeline = timeline = new ScaleTimeline(2);
+				timeline.boneIndex = boneIndex;
+			}
+			if (keys.seek(decoded, time)) keys.decode(decoded, timeline, timeline.frames, ENTRIES);
+			return timeline;
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixBlend blend,
+			MixDirection direction) {
+			decoded(skeleton, time).apply(skeleton, lastTime, time, events, alpha, blend, direction);
+		}
+
+		public int getFrameCount () {
+			return keys.count;
+		}
+
+		public Timeline decompress () {
+			ScaleTimeline timeline = new ScaleTimeline(keys.count);
+			timeline.boneIndex = boneIndex;
+			keys.decodeAll(timeline, timeline.frames, ENTRIES);
+			return timeline;
+		}
+
+		public int getByteSize () {
+			return keys.getByteSize();
+		}
+	}
+
+	static public class CompressedShearTimeline extends ShearTimeline implements CompressedTimeline {
+		final Keys keys;
+
+		CompressedShearTimeline (TranslateTimeline source, Keys keys) {
+			super(1); // The frames are not used.
+			boneIndex = source.boneIndex;
+			this.keys = keys;
+		}
+
+		CurveTimeline decoded (Skeleton skeleton, float time) {
+			Decoded decoded = TimelineCompressor.decoded(skeleton, keys);
+			ShearTimeline timeline = (ShearTimeline)decoded.timeline;
+			if (timeline == null) {
+				decoded.timeline = timeline = new ShearTimeline(2);
+				timeline.boneIndex = boneIndex;
+			}
+			if (keys.seek(decoded, time)) keys.decode(decoded, timeline, timeline.frames, ENTRIES);
+			return timeline;
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixBlend blend,
+			MixDirection direction) {
+			decoded(skeleton, time).apply(skeleton, lastTime, time, events, alpha, blend, direction);
+		}
+
+		public int getFrameCount () {
+			return keys.count;
+		}
+
+		public Timeline decompress () {
+			ShearTimeline timeline = new ShearTimeline(keys.count);
+			timeline.boneIndex = boneIndex;
+			keys.decodeAll(timeline, timeline.frames, ENTRIES);
+			return timeline;
+		}
+
+		public int getByteSize () {
+			return keys.getByteSize();
+		}
+	}
+
+	/** Stores for each key only the vertex components that differ from the setup pose, quantized against the range of all
+	 * differences in the timeline. */
+	static public class CompressedDeformTimeline extends DeformTimeline implements CompressedTimeline {
+		final Keys keys;
+		final float[] setupVertices; // Null if weighted.
+		final int[] starts; // For each key, the first index into indices and values. Has count + 1 entries.
+		final char[] indices;
+		final short[] values;
+		final float min, step;
+		final int vertexCount;
+
+		private CompressedDeformTimeline (DeformTimeline source, Keys keys, int[] starts, char[] indices, short[] values, float min,
+			float step) {
+			super(1); // The frames are not used.
+			slotIndex = source.slotIndex;
+			attachment = source.attachment;
+			this.keys = keys;
+			setupVertices = attachment.getBones() == null ? attachment.getVertices() : null;
+			this.starts = starts;
+			this.indices = indices;
+			this.values = values;
+			this.min = min;
+			this.step = step;
+			vertexCount = source.getVertices()[0].length;
+		}
+
+		/** @return May be null if the timeline can't be compressed. */
+		static CompressedDeformTimeline encode (DeformTimeline source) {
+			Keys keys = Keys.encode(source, source.getFrames(), 1, 0);
+			if (keys == null) return null;
+			VertexAttachment attachment = source.attachment;
+			float[] setupVertices = attachment.getBones() == null ? attachment.getVertices() : null;
+			float[][] frameVertices = source.getVertices();
+			int count = keys.count, deformLength = frameVertices[0].length;
+			if (deformLength > QUANTA + 1) return null;
+
+			// Find the changed components and their range.
+			int[] starts = new int[count + 1];
+			float low = Float.POSITIVE_INFINITY, high = Float.NEGATIVE_INFINITY;
+			for (int i = 0; i < count; i++) {
+				float[] vertices = frameVertices[i];
+				starts[i + 1] = starts[i];
+				for (int v = 0; v < deformLength; v++) {
+					float offset = setupVertices == null ? vertices[v] : vertices[v] - setupVertices[v];
+					if (offset == 0) continue;
+					starts[i + 1]++;
+					low = Math.min(low, offset);
+					high = Math.max(high, offset);
+				}
+			}
+			int changed = starts[count];
+			if (changed == 0) low = high = 0;
+			float step = (high - low) / QUANTA;
+
+			char[] indices = new char[changed];
+			short[] values = new short[changed];
+			for (int i = 0, e = 0; i < count; i++) {
+				float[] vertices = frameVertices[i];
+				for (int v = 0; v < deformLength; v++) {
+					float offset = setupVertices == null ? vertices[v] : vertices[v] - setupVertices[v];
+					if (offset == 0) continue;
+					indices[e] = (char)v;
+					values[e++] = Keys.quantize(offset, low, step);
+				}
+			}
+			return new CompressedDeformTimeline(source, keys, starts, indices, values, low, step);
+		}
+
+		CurveTimeline decoded (Skeleton skeleton, float time) {
+			Decoded decoded = TimelineCompressor.decoded(skeleton, keys);
+			DeformTimeline timeline = (DeformTimeline)decoded.timeline;
+			if (timeline == null) {
+				decoded.timeline = timeline = new DeformTimeline(2);
+				timeline.slotIndex = slotIndex;
+				timeline.attachment = attachment;
+			}
+			if (keys.seek(decoded, time)) {
+				keys.decode(decoded, timeline, timeline.getFrames(), 1);
+				float[][] frameVertices = timeline.getVertices();
+				if (frameVertices[0] == null) {
+					frameVertices[0] = new float[vertexCount];
+					frameVertices[1] = new float[vertexCount];
+					timeline.ranges = new int[4];
+				}
+				// The frames are written directly, so the ranges are kept and set from the changed components.
+				decodeKey(decoded.segment, frameVertices[0], timeline.ranges, 0);
+				decodeKey(decoded.segment + 1, frameVertices[1], timeline.ranges, 2);
+			}
+			return timeline;
+		}
+
+		/** Decodes the key's vertices and stores the range of entries that differ from the setup pose. */
+		private void decodeKey (int key, float[] vertices, int[] ranges, int range) {
+			if (setupVertices != null)
+				System.arraycopy(setupVertices, 0, vertices, 0, vertices.length);
+			else
+				Arrays.fill(vertices, 0);
+			char[] indices = this.indices;
+			short[] values = this.values;
+			float min = this.min, step = this.step;
+			int start = starts[key], end = starts[key + 1];
+			for (int e = start; e < end; e++)
+				vertices[indices[e]] += min + (values[e] & 0xFFFF) * step;
+			// The indices are ascending within a key.
+			ranges[range] = start == end ? 0 : indices[start];
+			ranges[range + 1] = start == end ? 0 : indices[end - 1] + 1;
+		}
+
+		public void apply (Skeleton skeleton, float lastTime, float time, Array<Event> events, float alpha, MixBlend blend,
+			MixDirection direction) {
+			decoded(skeleton, time).apply(skeleton, lastTime, time, events, alpha, blend, direction);
+		}
+
+		public int getFrameCount () {
+			return keys.count;
+		}
+
+		public Timeline decompress () {
+			DeformTimeline timeline = new DeformTimeline(keys.count);
+			timeline.slotIndex = slotIndex;
+			timeline.attachment = attachment;
+			keys.decodeAll(timeline, timeline.getFrames(), 1);
+			int[] ranges = new int[keys.count << 1];
+			for (int i = 0; i < keys.count; i++) {
+				float[] vertices = new float[vertexCount];
+				decodeKey(i, vertices, ranges, i << 1);
+				timeline.getVertices()[i] = vertices;
+			}
+			timeline.ranges = ranges;
+			return timeline;
+		}
+
+		float maxValueError () {
+			return step / 2;
+		}
+
+		public int getByteSize () {
+			return keys.getByteSize() + starts.length * 4 + indices.length * 2 + values.length * 2;
+		}
+	}
+}
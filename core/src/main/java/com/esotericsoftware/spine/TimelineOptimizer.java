@@ -0,0 +1,334 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+import com.esotericsoftware.spine.Animation.CurveTimeline;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.MixBlend;
+import com.esotericsoftware.spine.Animation.MixDirection;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.ScaleTimeline;
+import com.esotericsoftware.spine.Animation.ShearTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+
+/** Removes redundant keys from bone and deform timelines while keeping the pose within a configurable error.
+ * <p>
+ * A key is removed when the keys around it can be joined by a single segment: either every value in the run stays within half
+ * the error of the first value, or every segment in the run is linear and each removed key lies within the error of the straight
+ * line between the kept keys. Because the original segments are linear, the largest difference is at a removed key, so the error
+ * holds for every time, not just at keys. Bezier segments are never joined unless their values are constant. The first and last
+ * keys are always kept.
+ * <p>
+ * Optimize right after loading, before skeletons or animation states are created from the skeleton data, or save the result with
+ * {@link SkeletonBinaryWriter} so the reduction is done once offline. */
+public class TimelineOptimizer {
+	private float translateError = 0.01f, rotateError = 0.05f, scaleError = 0.001f, shearError = 0.05f, deformError = 0.01f;
+
+	/** Removes redundant keys from all animations.
+	 * @return The number of keys removed. */
+	public int optimize (SkeletonData data) {
+		if (data == null) throw new IllegalArgumentException("data cannot be null.");
+		int removed = 0;
+		Array<Animation> animations = data.animations;
+		for (int i = 0, n = animations.size; i < n; i++)
+			removed += optimize(animations.get(i));
+		data.indexAnimations();
+		return removed;
+	}
+
+	/** Removes redundant keys from the animation's timelines. The animation's timelines are replaced if any key is removed.
+	 * @return The number of keys removed. */
+	public int optimize (Animation animation) {
+		if (animation == null) throw new IllegalArgumentException("animation cannot be null.");
+		Array<Timeline> timelines = animation.timelines;
+		Array<Timeline> optimized = new Array(timelines.size);
+		int removed = 0;
+		for (int i = 0, n = timelines.size; i < n; i++) {
+			Timeline timeline = timelines.get(i), result = timeline;
+			if (timeline instanceof RotateTimeline)
+				result = optimize((RotateTimeline)timeline);
+			else if (timeline instanceof TranslateTimeline)
+				result = optimize((TranslateTimeline)timeline);
+			else if (timeline instanceof DeformTimeline) //
+				result = optimize((DeformTimeline)timeline);
+			if (result != timeline) removed += frameCount(timeline) - frameCount(result);
+			optimized.add(result);
+		}
+		if (removed > 0) {
+			optimized.shrink();
+			animation.setTimelines(optimized);
+		}
+		return removed;
+	}
+
+	private Timeline optimize (RotateTimeline timeline) {
+		float[] frames = timeline.frames;
+		boolean[] keep = reduce(timeline, frames, RotateTimeline.ENTRIES, 1, null, rotateError, true);
+		if (keep == null) return timeline;
+		RotateTimeline result = new RotateTimeline(count(keep));
+		result.boneIndex = timeline.boneIndex;
+		for (int i = 0, frame = 0, n = keep.length; i < n; i++) {
+			if (!keep[i]) continue;
+			result.setFrame(frame, frames[i * RotateTimeline.ENTRIES], frames[i * RotateTimeline.ENTRIES + 1]);
+			frame++;
+		}
+		copyCurves(timeline, result, keep);
+		return result;
+	}
+
+	private Timeline optimize (TranslateTimeline timeline) {
+		float error = timeline instanceof ScaleTimeline ? scaleError
+			: timeline instanceof ShearTimeline ? shearError : translateError;
+		float[] frames = timeline.frames;
+		boolean[] keep = reduce(timeline, frames, TranslateTimeline.ENTRIES, 2, null, error, false);
+		if (keep == null) return timeline;
+		int count = count(keep);
+		TranslateTimeline result = timeline instanceof ScaleTimeline ? new ScaleTimeline(count)
+			: timeline instanceof ShearTimeline ? new ShearTimeline(count) : new TranslateTimeline(count);
+		result.boneIndex = timeline.boneIndex;
+		for (int i = 0, frame = 0, n = keep.length; i < n; i++) {
+			if (!keep[i]) continue;
+			int f = i * TranslateTimeline.ENTRIES;
+			result.setFrame(frame, frames[f], frames[f + 1], frames[f + 2]);
+			frame++;
+		}
+		copyCurves(timeline, result, keep);
+		return result;
+	}
+
+	private Timeline optimize (DeformTimeline timeline) {
+		float[] frames = timeline.getFrames();
+		float[][] vertices = timeline.getVertices();
+		boolean[] keep = reduce(timeline, frames, 1, 0, vertices, deformError, false);
+		if (keep == null) return timeline;
+		DeformTimeline result = new DeformTimeline(count(keep));
+		result.slotIndex = timeline.slotIndex;
+		result.attachment = timeline.attachment;
+		for (int i = 0, frame = 0, n = keep.length; i < n; i++) {
+			if (!keep[i]) continue;
+			result.setFrame(frame, frames[i], vertices[i]);
+			frame++;
+		}
+		copyCurves(timeline, result, keep);
+		return result;
+	}
+
+	/** Greedily extends each segment as far as the keys in between can be dropped.
+	 * @param vertices If not null, values are read from the vertices of each frame instead of the frames array.
+	 * @return Which keys to keep, or null if no key can be removed. */
+	private boolean[] reduce (CurveTimeline timeline, float[] frames, int entries, int valueCount, float[][] vertices,
+		float error, boolean angles) {
+		int frameCount = timeline.getFrameCount();
+		if (frameCount < 3) return null;
+		boolean[] keep = new boolean[frameCount];
+		keep[0] = true;
+		keep[frameCount - 1] = true;
+		boolean removed = false;
+		for (int anchor = 0, i = 1; i < frameCount - 1; i++) {
+			if (canJoin(timeline, frames, entries, valueCount, vertices, error, angles, anchor, i + 1))
+				removed = true;
+			else {
+				keep[i] = true;
+				anchor = i;
+			}
+		}
+		return removed ? keep : null;
+	}
+
+	/** Returns true if a single segment from key <code>a</code> to key <code>b</code> stays within the error of the original
+	 * keys in between. */
+	private boolean canJoin (CurveTimeline timeline, float[] frames, int entries, int valueCount, float[][] vertices, float error,
+		boolean angles, int a, int b) {
+		if (vertices != null) valueCount = vertices[a].length;
+
+		// Constant run: any interpolation stays within the error.
+		boolean constant = true;
+		outer:
+		for (int k = a + 1; k <= b; k++) {
+			for (int v = 0; v < valueCount; v++) {
+				if (Math.abs(difference(value(frames, entries, vertices, k, v), value(frames, entries, vertices, a, v), angles)) > error
+					* 0.5f) {
+					constant = false;
+					break outer;
+				}
+			}
+		}
+		if (constant) return true;
+
+		// Linear run: each dropped key must be close to the straight line between the kept keys.
+		for (int k = a; k < b; k++)
+			if (timeline.getCurveType(k) != CurveTimeline.LINEAR) return false;
+		float startTime = frames[a * entries], duration = frames[b * entries] - startTime;
+		if (duration <= 0) return false;
+		for (int k = a + 1; k < b; k++) {
+			float percent = (frames[k * entries] - startTime) / duration;
+			for (int v = 0; v < valueCount; v++) {
+				float start = value(frames, entries, vertices, a, v);
+				float line = start + difference(value(frames, entries, vertices, b, v), start, angles) * percent;
+				if (Math.abs(difference(value(frames, entries, vertices, k, v), line, angles)) > error) return false;
+			}
+		}
+		return true;
+	}
+
+	static private float value (float[] frames, int entries, float[][] vertices, int frame, int index) {
+		return vertices != null ? vertices[frame][index] : frames[frame * entries + 1 + index];
+	}
+
+	/** Rotations are interpolated the short way around, so their differences are wrapped to -180..180. */
+	static private float difference (float a, float b, boolean angles) {
+		float d = a - b;
+		if (angles) d -= (16384 - (int)(16384.499999999996 - d / 360)) * 360;
+		return d;
+	}
+
+	/** Copies the curve of each kept key whose following key was also kept. Joined segments are linear. */
+	static private void copyCurves (CurveTimeline source, CurveTimeline result, boolean[] keep) {
+		for (int i = 0, frame = 0, n = keep.length - 1; i < n; i++) {
+			if (!keep[i]) continue;
+			if (keep[i + 1])
+				result.copyCurve(frame, source, i);
+			else
+				result.setLinear(frame);
+			frame++;
+		}
+	}
+
+	static private int count (boolean[] keep) {
+		int count = 0;
+		for (boolean k : keep)
+			if (k) count++;
+		return count;
+	}
+
+	static private int frameCount (Timeline timeline) {
+		return timeline instanceof CurveTimeline ? ((CurveTimeline)timeline).getFrameCount() : 0;
+	}
+
+	/** Applies each animation of both skeleton datas at regular times and returns the largest difference in bone world position
+	 * or deformed vertex between them. Use it to check that an optimized skeleton data still matches the original. Animations
+	 * are matched by name.
+	 * @param step The time in seconds between samples. */
+	static public float measurePoseError (SkeletonData original, SkeletonData optimized, float step) {
+		if (original == null) throw new IllegalArgumentException("original cannot be null.");
+		if (optimized == null) throw new IllegalArgumentException("optimized cannot be null.");
+		if (step <= 0) throw new IllegalArgumentException("step must be > 0.");
+		Skeleton a = new Skeleton(original), b = new Skeleton(optimized);
+		float max = 0;
+		Array<Animation> animations = original.animations;
+		for (int i = 0, n = animations.size; i < n; i++) {
+			Animation animationA = animations.get(i);
+			Animation animationB = optimized.findAnimation(animationA.name);
+			if (animationB == null) throw new IllegalArgumentException("Animation not found: " + animationA.name);
+			for (float time = 0;; time += step) {
+				if (time > animationA.duration) time = animationA.duration;
+				pose(a, animationA, time);
+				pose(b, animationB, time);
+				max = Math.max(max, poseError(a, b));
+				if (time == animationA.duration) break;
+			}
+		}
+		return max;
+	}
+
+	static private void pose (Skeleton skeleton, Animation animation, float time) {
+		skeleton.setToSetupPose();
+		Array<Slot> slots = skeleton.slots;
+		for (int i = 0, n = slots.size; i < n; i++)
+			slots.get(i).getDeform().clear();
+		animation.apply(skeleton, time, time, false, null, 1, MixBlend.setup, MixDirection.in);
+		skeleton.updateWorldTransform();
+	}
+
+	static private float poseError (Skeleton a, Skeleton b) {
+		float max = 0;
+		for (int i = 0, n = a.bones.size; i < n; i++) {
+			Bone boneA = a.bones.get(i), boneB = b.bones.get(i);
+			float dx = boneA.worldX - boneB.worldX, dy = boneA.worldY - boneB.worldY;
+			max = Math.max(max, (float)Math.sqrt(dx * dx + dy * dy));
+		}
+		for (int i = 0, n = a.slots.size; i < n; i++) {
+			FloatArray deformA = a.slots.get(i).getDeform(), deformB = b.slots.get(i).getDeform();
+			if (deformA.size != deformB.size) return Float.POSITIVE_INFINITY;
+			for (int ii = 0; ii < deformA.size; ii++)
+				max = Math.max(max, Math.abs(deformA.get(ii) - deformB.get(ii)));
+		}
+		return max;
+	}
+
+	/** The largest translation difference in skeleton units. Default is 0.01. */
+	public float getTranslateError () {
+		return translateError;
+	}
+
+	public void setTranslateError (float translateError) {
+		this.translateError = translateError;
+	}
+
+	/** The largest rotation difference in degrees. Default is 0.05. */
+	public float getRotateError () {
+		return rotateError;
+	}
+
+	public void setRotateError (float rotateError) {
+		this.rotateError = rotateError;
+	}
+
+	/** The largest scale difference. Default is 0.001. */
+	public float getScaleError () {
+		return scaleError;
+	}
+
+	public void setScaleError (float scaleError) {
+		this.scaleError = scaleError;
+	}
+
+	/** The largest shear difference in degrees. Default is 0.05. */
+	public float getShearError () {
+		return shearError;
+	}
+
+	public void setShearError (float shearError) {
+		this.shearError = shearError;
+	}
+
+	/** The largest deform vertex difference in skeleton units. Default is 0.01. */
+	public float getDeformError () {
+		return deformError;
+	}
+
+	public void setDeformError (float deformError) {
+		this.deformError = deformError;
+	}
+}
@@ -53,7 +53,8 @@ abstract public class VertexAttachment extends Attachment {
 	}
 
 	/** Transforms the attachment's local {@link #getVertices()} to world coordinates. If the slot's {@link Slot#getDeform()} is
-	 * not empty, it is used to deform the vertices.
+	 * not empty, it is used to deform the vertices. Deform entries outside {@link Slot#getDeformStart()} and
+	 * {@link Slot#getDeformEnd()} are not read.
 	 * <p>
 	 * See <a href="http://esotericsoftware.com/spine-runtime-skeletons#World-transforms">World transforms</a> in the Spine
 	 * Runtimes Guide.
@@ -69,8 +70,10 @@ abstract public class VertexAttachment extends Attachment {
 		FloatArray deformArray = slot.getDeform();
 		float[] vertices = this.vertices;
 		int[] bones = this.bones;
+		// Deform entries outside the slot's deform range match the setup pose.
+		int deformStart = slot.getDeformStart(), deformEnd = Math.min(slot.getDeformEnd(), deformArray.size);
 		if (bones == null) {
-			if (deformArray.size > 0) vertices = deformArray.items;
+			if (deformStart < deformEnd) vertices = deformArray.items;
 			Bone bone = slot.getBone();
 			float x = bone.getWorldX(), y = bone.getWorldY();
 			float a = bone.getA(), b = bone.getB(), c = bone.getC(), d = bone.getD();
@@ -88,7 +91,7 @@ abstract public class VertexAttachment extends Attachment {
 			skip += n;
 		}
 		Object[] skeletonBones = skeleton.getBones().items;
-		if (deformArray.size == 0) {
+		if (deformStart >= deformEnd) {
 			for (int w = offset, b = skip * 3; w < count; w += stride) {
 				float wx = 0, wy = 0;
 				int n = bones[v++];
@@ -106,13 +109,24 @@ abstract public class VertexAttachment extends Attachment {
 			float[] deform = deformArray.items;
 			for (int w = offset, b = skip * 3, f = skip << 1; w < count; w += stride) {
 				float wx = 0, wy = 0;
-				int n = bones[v++];
+				int n = bones[v++], deformNext = f + (n << 1);
 				n += v;
-				for (; v < n; v++, b += 3, f += 2) {
-					Bone bone = (Bone)skeletonBones[bones[v]];
-					float vx = vertices[b] + deform[f], vy = vertices[b + 1] + deform[f + 1], weight = vertices[b + 2];
-					wx += (vx * bone.getA() + vy * bone.getB() + bone.getWorldX()) * weight;
-					wy += (vx * bone.getC() + vy * bone.getD() + bone.getWorldY()) * weight;
+				if (f >= deformEnd || deformNext <= deformStart) {
+					// Offsets outside the deform range are 0.
+					for (; v < n; v++, b += 3) {
+						Bone bone = (Bone)skeletonBones[bones[v]];
+						float vx = vertices[b], vy = vertices[b + 1], weight = vertices[b + 2];
+						wx += (vx * bone.getA() + vy * bone.getB() + bone.getWorldX()) * weight;
+						wy += (vx * bone.getC() + vy * bone.getD() + bone.getWorldY()) * weight;
+					}
+					f = deformNext;
+				} else {
+					for (; v < n; v++, b += 3, f += 2) {
+						Bone bone = (Bone)skeletonBones[bones[v]];
+						float vx = vertices[b] + deform[f], vy = vertices[b + 1] + deform[f + 1], weight = vertices[b + 2];
+						wx += (vx * bone.getA() + vy * bone.getB() + bone.getWorldX()) * weight;
+						wy += (vx * bone.getC() + vy * bone.getD() + bone.getWorldY()) * weight;
+					}
 				}
 				worldVertices[w] = wx;
 				worldVertices[w + 1] = wy;
@@ -0,0 +1,308 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine.utils;
+
+import static com.esotericsoftware.spine.utils.SpineUtils.*;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.Animation.ColorTimeline;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.IkConstraintTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintMixTimeline;
+import com.esotericsoftware.spine.Animation.PathConstraintPositionTimeline;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.ScaleTimeline;
+import com.esotericsoftware.spine.Animation.ShearTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TransformConstraintTimeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+import com.esotericsoftware.spine.Animation.TwoColorTimeline;
+import com.esotericsoftware.spine.Bone;
+import com.esotericsoftware.spine.BoneData;
+import com.esotericsoftware.spine.ConstraintData;
+import com.esotericsoftware.spine.IkConstraintData;
+import com.esotericsoftware.spine.PathConstraintData;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.Skin;
+import com.esotericsoftware.spine.Skin.SkinEntry;
+import com.esotericsoftware.spine.Slot;
+import com.esotericsoftware.spine.TransformConstraintData;
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+
+/** Computes the on-screen impact of timelines, bones and constraints so {@link com.esotericsoftware.spine.AnimationState} and
+ * {@link Skeleton} can skip the ones that would move visible geometry by less than a threshold.
+ * <p>
+ * Impacts are upper bounds in skeleton units, measured against the setup pose: the reach of a bone is the largest distance from
+ * the bone to any vertex of an attachment on it or its descendants, a rotation moves geometry by at most angle * reach, a
+ * translation by its offset, and so on. Color timelines count as the largest channel change times the size of the slot's
+ * attachments. Attachment, draw order and event timelines are never skipped. When skeleton units map 1:1 to pixels, the impact is
+ * in pixels. */
+public class SkeletonLod {
+	static private final float MAX_ROTATION = PI; // Rotating further doesn't move a vertex further from where it started.
+
+	private SkeletonLod () {
+	}
+
+	/** Sets {@link Animation#setTimelineImpacts(float[]) timeline impacts} for all animations, {@link BoneData#setImpact(float)
+	 * bone impacts} and {@link ConstraintData#setImpact(float) constraint impacts}. Typically called once after loading. */
+	static public void computeImpacts (SkeletonData data) {
+		if (data == null) throw new IllegalArgumentException("data cannot be null.");
+
+		Skeleton skeleton = new Skeleton(data);
+		skeleton.setToSetupPose();
+		skeleton.updateWorldTransform();
+
+		Array<Bone> bones = skeleton.getBones();
+		int boneCount = bones.size;
+		float[] reach = new float[boneCount];
+		boolean[] geometry = new boolean[boneCount];
+		float[] slotExtent = new float[skeleton.getSlots().size];
+		computeReach(skeleton, data, reach, geometry, slotExtent);
+
+		// Constraints can move everything below the bones they constrain.
+		float[] ikImpacts = constraintImpacts(data.getIkConstraints(), reach);
+		float[] transformImpacts = constraintImpacts(data.getTransformConstraints(), reach);
+		float[] pathImpacts = constraintImpacts(data.getPathConstraints(), reach);
+
+		// Only bones without geometry below them can be skipped, otherwise their attachments would be left behind.
+		for (int i = 0; i < boneCount; i++)
+			bones.get(i).getData().setImpact(geometry[i] ? Float.POSITIVE_INFINITY : 0);
+
+		Array<Animation> animations = data.getAnimations();
+		for (int i = 0, n = animations.size; i < n; i++) {
+			Animation animation = animations.get(i);
+			Array<Timeline> timelines = animation.getTimelines();
+			float[] impacts = new float[timelines.size];
+			for (int ii = 0, nn = timelines.size; ii < nn; ii++)
+				impacts[ii] = timelineImpact(timelines.get(ii), skeleton, reach, slotExtent, ikImpacts, transformImpacts, pathImpacts);
+			animation.setTimelineImpacts(impacts);
+		}
+	}
+
+	static private void computeReach (Skeleton skeleton, SkeletonData data, float[] reach, boolean[] geometry,
+		float[] slotExtent) {
+		Array<Bone> bones = skeleton.getBones();
+		Array<Slot> slots = skeleton.getSlots();
+		FloatArray worldVertices = new FloatArray(32);
+		Array<Bone> influences = new Array();
+		Array<Skin> skins = data.getSkins();
+		for (int s = 0, sn = skins.size; s < sn; s++) {
+			for (SkinEntry entry : skins.get(s).getAttachments()) {
+				Slot slot = slots.get(entry.getSlotIndex());
+				Attachment attachment = entry.getAttachment();
+				influences.clear();
+				float[] vertices;
+				int count;
+				if (attachment instanceof RegionAttachment) {
+					vertices = worldVertices.setSize(8);
+					((RegionAttachment)attachment).computeWorldVertices(slot.getBone(), vertices, 0, 2);
+					count = 8;
+					influences.add(slot.getBone());
+				} else if (attachment instanceof VertexAttachment) {
+					VertexAttachment vertexAttachment = (VertexAttachment)attachment;
+					count = vertexAttachment.getWorldVerticesLength();
+					if (count == 0) continue;
+					vertices = worldVertices.setSize(count);
+					vertexAttachment.computeWorldVertices(slot, 0, count, vertices, 0, 2);
+					influences.add(slot.getBone());
+					int[] weightBones = vertexAttachment.getBones();
+					if (weightBones != null) {
+						for (int i = 0, n = weightBones.length; i < n;) {
+							int nn = weightBones[i++] + i;
+							for (; i < nn; i++) {
+								Bone bone = bones.get(weightBones[i]);
+								if (!influences.contains(bone, true)) influences.add(bone);
+							}
+						}
+					}
+				} else
+					continue;
+
+				float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+				for (int v = 0; v < count; v += 2) {
+					float x = vertices[v], y = vertices[v + 1];
+					minX = Math.min(minX, x);
+					minY = Math.min(minY, y);
+					maxX = Math.max(maxX, x);
+					maxY = Math.max(maxY, y);
+					for (int i = 0, n = influences.size; i < n; i++) {
+						for (Bone bone = influences.get(i); bone != null; bone = bone.getParent()) {
+							int index = bone.getData().getIndex();
+							float dx = x - bone.getWorldX(), dy = y - bone.getWorldY();
+							reach[index] = Math.max(reach[index], (float)Math.sqrt(dx * dx + dy * dy));
+							geometry[index] = true;
+						}
+					}
+				}
+				int slotIndex = entry.getSlotIndex();
+				float dx = maxX - minX, dy = maxY - minY;
+				slotExtent[slotIndex] = Math.max(slotExtent[slotIndex], (float)Math.sqrt(dx * dx + dy * dy));
+			}
+		}
+	}
+
+	static private float[] constraintImpacts (Array<? extends ConstraintData> constraints, float[] reach) {
+		float[] impacts = new float[constraints.size];
+		for (int i = 0, n = constraints.size; i < n; i++) {
+			ConstraintData constraint = constraints.get(i);
+			Array<BoneData> constrained;
+			if (constraint instanceof IkConstraintData)
+				constrained = ((IkConstraintData)constraint).getBones();
+			else if (constraint instanceof TransformConstraintData)
+				constrained = ((TransformConstraintData)constraint).getBones();
+			else
+				constrained = ((PathConstraintData)constraint).getBones();
+			float impact = 0;
+			for (int ii = 0, nn = constrained.size; ii < nn; ii++)
+				impact = Math.max(impact, reach[constrained.get(ii).getIndex()] * MAX_ROTATION);
+			impacts[i] = impact;
+			constraint.setImpact(impact);
+		}
+		return impacts;
+	}
+
+	static private float timelineImpact (Timeline timeline, Skeleton skeleton, float[] reach, float[] slotExtent,
+		float[] ikImpacts, float[] transformImpacts, float[] pathImpacts) {
+		if (timeline instanceof RotateTimeline) {
+			RotateTimeline rotate = (RotateTimeline)timeline;
+			float[] frames = rotate.getFrames();
+			float max = 0;
+			for (int i = 0; i < frames.length; i += RotateTimeline.ENTRIES)
+				max = Math.max(max, Math.abs(frames[i + 1]));
+			return boneImpact(skeleton, rotate.getBoneIndex(), Math.min(max * degRad, MAX_ROTATION) * reach[rotate.getBoneIndex()]);
+		}
+		if (timeline instanceof ScaleTimeline) {
+			ScaleTimeline scale = (ScaleTimeline)timeline;
+			float[] frames = scale.getFrames();
+			float max = 0;
+			for (int i = 0; i < frames.length; i += TranslateTimeline.ENTRIES)
+				max = Math.max(max, Math.max(Math.abs(frames[i + 1] - 1), Math.abs(frames[i + 2] - 1)));
+			return boneImpact(skeleton, scale.getBoneIndex(), max * reach[scale.getBoneIndex()]);
+		}
+		if (timeline instanceof ShearTimeline) {
+			ShearTimeline shear = (ShearTimeline)timeline;
+			float[] frames = shear.getFrames();
+			float max = 0;
+			for (int i = 0; i < frames.length; i += TranslateTimeline.ENTRIES)
+				max = Math.max(max, Math.max(Math.abs(frames[i + 1]), Math.abs(frames[i + 2])));
+			return boneImpact(skeleton, shear.getBoneIndex(), Math.min(max * degRad, MAX_ROTATION) * reach[shear.getBoneIndex()]);
+		}
+		if (timeline instanceof TranslateTimeline) {
+			TranslateTimeline translate = (TranslateTimeline)timeline;
+			float[] frames = translate.getFrames();
+			float max = 0;
+			for (int i = 0; i < frames.length; i += TranslateTimeline.ENTRIES) {
+				float x = frames[i + 1], y = frames[i + 2];
+				max = Math.max(max, (float)Math.sqrt(x * x + y * y));
+			}
+			int boneIndex = translate.getBoneIndex();
+			return boneImpact(skeleton, boneIndex, reach[boneIndex] == 0 ? 0 : max);
+		}
+		if (timeline instanceof ColorTimeline) {
+			ColorTimeline color = (ColorTimeline)timeline;
+			Color setup = skeleton.getData().getSlots().get(color.getSlotIndex()).getColor();
+			float[] frames = color.getFrames();
+			float max = 0;
+			for (int i = 0; i < frames.length; i += ColorTimeline.ENTRIES) {
+				max = Math.max(max, Math.abs(frames[i + 1] - setup.r));
+				max = Math.max(max, Math.abs(frames[i + 2] - setup.g));
+				max = Math.max(max, Math.abs(frames[i + 3] - setup.b));
+				max = Math.max(max, Math.abs(frames[i + 4] - setup.a));
+			}
+			return max * slotExtent[color.getSlotIndex()];
+		}
+		if (timeline instanceof TwoColorTimeline) {
+			TwoColorTimeline color = (TwoColorTimeline)timeline;
+			Color setup = skeleton.getData().getSlots().get(color.getSlotIndex()).getColor();
+			Color setupDark = skeleton.getData().getSlots().get(color.getSlotIndex()).getDarkColor();
+			float[] frames = color.getFrames();
+			float max = 0;
+			for (int i = 0; i < frames.length; i += TwoColorTimeline.ENTRIES) {
+				max = Math.max(max, Math.abs(frames[i + 1] - setup.r));
+				max = Math.max(max, Math.abs(frames[i + 2] - setup.g));
+				max = Math.max(max, Math.abs(frames[i + 3] - setup.b));
+				max = Math.max(max, Math.abs(frames[i + 4] - setup.a));
+				max = Math.max(max, Math.abs(frames[i + 5] - (setupDark == null ? 0 : setupDark.r)));
+				max = Math.max(max, Math.abs(frames[i + 6] - (setupDark == null ? 0 : setupDark.g)));
+				max = Math.max(max, Math.abs(frames[i + 7] - (setupDark == null ? 0 : setupDark.b)));
+			}
+			return max * slotExtent[color.getSlotIndex()];
+		}
+		if (timeline instanceof DeformTimeline) {
+			DeformTimeline deform = (DeformTimeline)timeline;
+			VertexAttachment attachment = deform.getAttachment();
+			Bone bone = skeleton.getSlots().get(deform.getSlotIndex()).getBone();
+			boolean weighted = attachment.getBones() != null;
+			float[] setup = attachment.getVertices();
+			float boneScale = weighted ? 1 : Math.max(bone.getWorldScaleX(), bone.getWorldScaleY());
+			float max = 0;
+			for (float[] vertices : deform.getVertices()) {
+				if (vertices == null) continue;
+				for (int i = 0, n = vertices.length - 1; i < n; i += 2) {
+					// Unweighted keys are absolute positions, weighted keys are offsets.
+					float dx = weighted ? vertices[i] : vertices[i] - setup[i];
+					float dy = weighted ? vertices[i + 1] : vertices[i + 1] - setup[i + 1];
+					max = Math.max(max, (float)Math.sqrt(dx * dx + dy * dy));
+				}
+			}
+			return max * boneScale;
+		}
+		if (timeline instanceof IkConstraintTimeline)
+			return ikImpacts[((IkConstraintTimeline)timeline).getIkConstraintIndex()];
+		if (timeline instanceof TransformConstraintTimeline)
+			return transformImpacts[((TransformConstraintTimeline)timeline).getTransformConstraintIndex()];
+		if (timeline instanceof PathConstraintPositionTimeline)
+			return pathImpacts[((PathConstraintPositionTimeline)timeline).getPathConstraintIndex()];
+		if (timeline instanceof PathConstraintMixTimeline)
+			return pathImpacts[((PathConstraintMixTimeline)timeline).getPathConstraintIndex()];
+		return Float.POSITIVE_INFINITY; // Attachment, draw order, events and unknown timelines.
+	}
+
+	/** Bones that are constraint targets, or below one, drive other bones, so their timelines are never skipped. */
+	static private float boneImpact (Skeleton skeleton, int boneIndex, float impact) {
+		SkeletonData data = skeleton.getData();
+		Array<IkConstraintData> ikConstraints = data.getIkConstraints();
+		Array<TransformConstraintData> transformConstraints = data.getTransformConstraints();
+		for (BoneData bone = data.getBones().get(boneIndex); bone != null; bone = bone.getParent()) {
+			for (int i = 0, n = ikConstraints.size; i < n; i++)
+				if (ikConstraints.get(i).getTarget() == bone) return Float.POSITIVE_INFINITY;
+			for (int i = 0, n = transformConstraints.size; i < n; i++)
+				if (transformConstraints.get(i).getTarget() == bone) return Float.POSITIVE_INFINITY;
+		}
+		return impact;
+	}
+}
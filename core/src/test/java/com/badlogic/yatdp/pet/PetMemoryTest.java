@@ -0,0 +1,109 @@
+package com.badlogic.yatdp.pet;
+
+import com.esotericsoftware.spine.AnimationState;
+import com.esotericsoftware.spine.Skeleton;
+import com.esotericsoftware.spine.SkeletonSnapshot;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证多只桌宠共享同一份 {@link PetModel} 时，每只桌宠只多出自己的骨骼实例与动画状态的内存。
+ *
+ * <h3>基准</h3>
+ * <pre>
+ * 共享：1 个 PetModel + 100 只 SpinePet
+ * 独立：100 份各自读取并处理的模型，每份 1 只 SpinePet
+ * 参照：100 组 Skeleton + AnimationState
+ * 绘制：100 组插值用的 Skeleton + 两份姿态快照，即每只桌宠为多线程渲染多付出的部分
+ * </pre>
+ * <p>内存为 GC 之后仍可达的堆大小之差，除以实例数得到每只桌宠的开销。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetManager
+ */
+class PetMemoryTest {
+    private static final int INSTANCES = 100;
+
+    @BeforeAll
+    static void start() {
+        TestModels.headless();
+    }
+
+    @Test
+    void petsShareModelMemory() {
+        PetWorld world = new PetWorld(150);
+        Object[] keep = new Object[INSTANCES * 3];
+
+        // 预热，让类加载与静态缓存不计入测量
+        PetModel warmup = TestModels.model();
+        new SpinePet(warmup, world.createBody()).dispose();
+
+        long before = usedHeap();
+        PetModel model = TestModels.model();
+        long modelBytes = usedHeap() - before;
+        for (int i = 0; i < INSTANCES; i++) {
+            SpinePet pet = new SpinePet(model, world.createBody());
+            pet.step(PetSimulation.STEP); // 第一步捕获快照，快照中的网格变形此时才分配
+            pet.step(PetSimulation.STEP);
+            keep[i] = pet;
+        }
+        long sharedBytes = usedHeap() - before - modelBytes;
+
+        before = usedHeap();
+        for (int i = 0; i < INSTANCES; i++) {
+            AnimationState state = new AnimationState(model.getAnimationStateData());
+            state.setAnimation(0, "Relax", true);
+            keep[INSTANCES + i] = new Object[] {new Skeleton(model.getSkeletonData()), state};
+        }
+        long instanceBytes = usedHeap() - before;
+
+        Skeleton posed = new Skeleton(model.getSkeletonData());
+        AnimationState state = new AnimationState(model.getAnimationStateData());
+        state.setAnimation(0, "Relax", true);
+        state.update(1);
+        state.apply(posed);
+        posed.updateWorldTransform();
+        before = usedHeap();
+        for (int i = 0; i < INSTANCES; i++) {
+            SkeletonSnapshot previous = new SkeletonSnapshot(posed.getData()), current = new SkeletonSnapshot(posed.getData());
+            previous.capture(posed);
+            current.capture(posed);
+            keep[INSTANCES * 2 + i] = new Object[] {new Skeleton(posed.getData()), previous, current};
+        }
+        long renderBytes = usedHeap() - before;
+        java.util.Arrays.fill(keep, null);
+
+        before = usedHeap();
+        for (int i = 0; i < INSTANCES; i++) {
+            PetModel separate = TestModels.model();
+            SpinePet pet = new SpinePet(separate, world.createBody());
+            pet.step(PetSimulation.STEP);
+            pet.step(PetSimulation.STEP);
+            keep[i] = new Object[] {separate, pet};
+        }
+        long separateBytes = usedHeap() - before;
+
+        System.out.println("Model: " + modelBytes / 1024 + " KB");
+        System.out.println("Per pet, shared model: " + sharedBytes / INSTANCES + " B");
+        System.out.println("Per pet, separate models: " + separateBytes / INSTANCES + " B");
+        System.out.println("Per Skeleton + AnimationState: " + instanceBytes / INSTANCES + " B");
+        System.out.println("Per display Skeleton + 2 snapshots: " + renderBytes / INSTANCES + " B");
+        // 独立模型时每只桌宠多付出约一份模型的内存，共享时没有
+        assertTrue(separateBytes - sharedBytes > modelBytes * INSTANCES / 2, "Pets should share the model data.");
+        assertTrue(keep[0] != null && warmup != null);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // 多次 GC 取最小值，排除尚未回收的临时对象
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
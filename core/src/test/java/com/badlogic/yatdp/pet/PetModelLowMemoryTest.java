@@ -0,0 +1,187 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.yatdp.ui.NullGL20;
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.AnimationState;
+import com.esotericsoftware.spine.Bone;
+import com.esotericsoftware.spine.Skeleton;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证窗口最小化时的低内存模式：纹理释放后能恢复，被清空的动画经 {@link PetModelLoader} 在后台补回后姿态不变。
+ *
+ * <p>headless 后端不提供 GL，由 {@link NullGL20} 代替，纹理的创建与上传都不做任何事，但纹理数据照常读取与替换。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetManager#trimMemory()
+ * @see PetManager#restoreMemory()
+ */
+class PetModelLowMemoryTest {
+    private static final String KEEP = "Relax";
+
+    @BeforeAll
+    static void start() {
+        TestModels.headless();
+        Gdx.gl = Gdx.gl20 = new NullGL20();
+    }
+
+    @Test
+    void texturesReleaseAndRestore() {
+        TextureAtlas atlas = atlas();
+        PetModel model = model(atlas, false);
+        Array<Texture> textures = new Array<>();
+        Array<TextureData> originals = new Array<>();
+        for (Texture texture : atlas.getTextures()) {
+            textures.add(texture);
+            originals.add(texture.getTextureData());
+        }
+        int width = textures.first().getWidth();
+
+        model.releaseTextures(); // 托管的文件纹理换成同为托管的占位，不抛出异常
+        for (Texture texture : textures) {
+            assertTrue(texture.getTextureData() instanceof PixmapTextureData, "Pages hold the placeholder.");
+            assertTrue(texture.getTextureData().isManaged(), "The placeholder stays managed.");
+            assertEquals(1, texture.getWidth());
+        }
+        model.releaseTextures(); // 重复释放无效
+
+        model.restoreTextures();
+        for (int i = 0; i < textures.size; i++)
+            assertSame(originals.get(i), textures.get(i).getTextureData(), "Pages reload their files.");
+        assertEquals(width, textures.first().getWidth());
+        model.dispose();
+    }
+
+    @Test
+    void evictedAnimationsRestoreInBackground() throws InterruptedException {
+        evictAndRestore(false);
+        evictAndRestore(true); // 压缩的时间轴补回时按同样方式处理，并重新分配解码缓存的编号
+    }
+
+    private void evictAndRestore(boolean compress) throws InterruptedException {
+        PetModel model = model(atlas(), compress);
+        String name = null;
+        for (Animation animation : model.getSkeletonData().getAnimations())
+            if (!animation.getName().equals(KEEP)) name = animation.getName();
+        float[] expected = pose(model, name);
+
+        ObjectSet<String> keep = new ObjectSet<>();
+        keep.add(KEEP);
+        model.evictAnimations(keep);
+        assertTrue(model.isEvicted(name));
+        assertFalse(model.isEvicted(KEEP));
+        assertEquals(0, model.getSkeletonData().findAnimation(name).getTimelines().size);
+        assertNull(model.takeRestoreRequest(), "Nothing is read until an evicted animation is needed.");
+
+        model.requestRestore();
+        ObjectSet<String> names = model.takeRestoreRequest();
+        assertTrue(names.contains(name) && !names.contains(KEEP));
+        assertNull(model.takeRestoreRequest(), "A request is taken once.");
+
+        PetModelLoader loader = new PetModelLoader();
+        loader.restore(model, names);
+        long start = System.nanoTime();
+        while (model.isEvicted(name) && System.nanoTime() - start < 10000000000L) {
+            loader.finishRestores();
+            Thread.sleep(1);
+        }
+        System.out.println("Animations restored " + (System.nanoTime() - start) / 1000000 + " ms after the request");
+        assertFalse(model.isEvicted(name), "The loader restores the animations.");
+        assertArrayEquals(expected, pose(model, name), 1e-4f, "Restored animations pose the skeleton as before.");
+
+        loader.dispose();
+        model.dispose();
+    }
+
+    @Test
+    void restoreWhileMixing() {
+        PetModel model = model(atlas(), false), reference = model(atlas(), false);
+        String name = null;
+        for (Animation animation : model.getSkeletonData().getAnimations())
+            if (!animation.getName().equals(KEEP)) name = animation.getName();
+        ObjectSet<String> keep = new ObjectSet<>();
+        keep.add(KEEP);
+        model.evictAnimations(keep);
+
+        // 从保留的动画混合到被清空的动画时补回：两个 TrackEntry 保存的混合方式都按补回前的时间轴计算，需重新计算
+        Skeleton skeleton = new Skeleton(model.getSkeletonData()), expected = new Skeleton(reference.getSkeletonData());
+        AnimationState state = new AnimationState(model.getAnimationStateData());
+        AnimationState expectedState = new AnimationState(reference.getAnimationStateData());
+        model.addAnimationState(state);
+        for (int i = 0; i < 2; i++) {
+            AnimationState each = i == 0 ? state : expectedState;
+            Skeleton target = i == 0 ? skeleton : expected;
+            each.setAnimation(0, KEEP, true);
+            each.update(0.5f);
+            each.apply(target);
+            each.setAnimation(0, name, true).setMixDuration(1);
+            each.update(0.25f);
+            each.apply(target);
+        }
+
+        model.requestRestore();
+        model.restoreAnimations(model.readAnimations(model.takeRestoreRequest()));
+        assertFalse(model.isEvicted(name));
+        for (int i = 0; i < 30; i++) {
+            state.update(1 / 60f);
+            expectedState.update(1 / 60f);
+            state.apply(skeleton);
+            expectedState.apply(expected);
+        }
+        skeleton.updateWorldTransform();
+        expected.updateWorldTransform();
+        assertArrayEquals(pose(expected), pose(skeleton), 1e-3f, "The restored animation mixes in as if never evicted.");
+
+        model.removeAnimationState(state);
+        model.dispose();
+        reference.dispose();
+    }
+
+    private static TextureAtlas atlas() {
+        return new TextureAtlas(Gdx.files.internal(TestModels.KEY + ".atlas"));
+    }
+
+    /**
+     * 创建带有真实 atlas 的测试模型，补回动画时由 atlas 重新读取 .skel
+     */
+    private static PetModel model(TextureAtlas atlas, boolean compress) {
+        return new PetModel(TestModels.KEY, atlas, PetModel.prepare(TestModels.read(), compress), null, null, compress);
+    }
+
+    /**
+     * @return 动画播放 0.5 秒后所有骨骼的世界变换
+     */
+    private static float[] pose(PetModel model, String animation) {
+        Skeleton skeleton = new Skeleton(model.getSkeletonData());
+        AnimationState state = new AnimationState(model.getAnimationStateData());
+        state.setAnimation(0, animation, false);
+        state.update(0.5f);
+        state.apply(skeleton);
+        skeleton.updateWorldTransform();
+        return pose(skeleton);
+    }
+
+    private static float[] pose(Skeleton skeleton) {
+        FloatArray pose = new FloatArray();
+        for (Bone bone : skeleton.getBones())
+            pose.addAll(bone.getA(), bone.getB(), bone.getC(), bone.getD(), bone.getWorldX(), bone.getWorldY());
+        return pose.toArray();
+    }
+}
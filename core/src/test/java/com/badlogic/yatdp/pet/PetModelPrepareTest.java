@@ -0,0 +1,63 @@
+package com.badlogic.yatdp.pet;
+
+import com.esotericsoftware.spine.Animation;
+import com.esotericsoftware.spine.SkeletonData;
+import com.esotericsoftware.spine.TimelineCompressor.CompressedTimeline;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证 {@link PetModel#prepare(SkeletonData, boolean)} 默认保留原始关键帧，只有开启压缩时才做有损的优化与量化。
+ *
+ * @author baiheyufei
+ * @version 1.0
+ */
+class PetModelPrepareTest {
+    @BeforeAll
+    static void start() {
+        TestModels.headless();
+    }
+
+    @Test
+    void uncompressedKeepsExactKeys() {
+        SkeletonData original = TestModels.read(), prepared = PetModel.prepare(TestModels.read(), false);
+        assertEquals(original.getAnimations().size, prepared.getAnimations().size);
+        for (int i = 0, n = original.getAnimations().size; i < n; i++) {
+            Animation expected = original.getAnimations().get(i), actual = prepared.getAnimations().get(i);
+            assertEquals(expected.getTimelines().size, actual.getTimelines().size, "No timeline is removed.");
+            for (int t = 0, tn = expected.getTimelines().size; t < tn; t++) {
+                Animation.Timeline expectedTimeline = expected.getTimelines().get(t);
+                Animation.Timeline actualTimeline = actual.getTimelines().get(t);
+                assertSame(expectedTimeline.getClass(), actualTimeline.getClass(), "Timelines are not compressed.");
+                assertArrayEquals(frames(expectedTimeline), frames(actualTimeline), "Keys are exact.");
+            }
+            assertNotNull(actual.getTimelineImpacts(), "LOD impacts are computed either way.");
+        }
+    }
+
+    @Test
+    void compressedIsOptIn() {
+        SkeletonData prepared = PetModel.prepare(TestModels.read(), true);
+        boolean compressed = false;
+        for (Animation animation : prepared.getAnimations())
+            for (Animation.Timeline timeline : animation.getTimelines())
+                compressed |= timeline instanceof CompressedTimeline;
+        assertTrue(compressed, "Compression replaces timelines when enabled.");
+    }
+
+    /**
+     * @return 关键帧优化与压缩会改写的时间轴的关键帧，其余时间轴返回空数组
+     */
+    private static float[] frames(Animation.Timeline timeline) {
+        if (timeline instanceof Animation.RotateTimeline) return ((Animation.RotateTimeline) timeline).getFrames();
+        if (timeline instanceof Animation.TranslateTimeline) return ((Animation.TranslateTimeline) timeline).getFrames();
+        if (timeline instanceof Animation.DeformTimeline) return ((Animation.DeformTimeline) timeline).getFrames();
+        return new float[0];
+    }
+}
@@ -0,0 +1,94 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证桌宠的第一份姿态由模拟线程发布，并测量模拟与插值的耗时。
+ *
+ * <h3>基准</h3>
+ * <pre>
+ * 延迟：PetSimulation 启动到渲染线程第一次插值出姿态的时间；之后插值的姿态最多落后模拟一步
+ * 耗时：20 只共享模型的桌宠，每步 {@link SpinePet#step(float)} 与每帧 {@link SpinePet#present(float)} 的平均时间
+ * </pre>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetSimulation
+ */
+class PetSimulationTest {
+    private static final int PETS = 20, STEPS = 600;
+
+    @BeforeAll
+    static void start() {
+        TestModels.headless();
+    }
+
+    @Test
+    void firstPoseComesFromSimulationThread() throws InterruptedException {
+        PetModel model = TestModels.model();
+        SpinePet pet = new SpinePet(model, new PetWorld(150).createBody());
+        pet.present(1);
+        assertFalse(pet.isPresented(), "Nothing is drawn before the first step.");
+
+        PetSimulation simulation = new PetSimulation(Gdx.graphics);
+        simulation.setPets(Array.with(pet));
+        long start = System.nanoTime();
+        simulation.start();
+        while (!pet.isPresented() && System.nanoTime() - start < 5000000000L) {
+            pet.present(simulation.getAlpha());
+            Thread.yield();
+        }
+        long latency = System.nanoTime() - start;
+        simulation.dispose();
+
+        System.out.println("First pose presented " + latency / 1000 + " us after the simulation started");
+        assertTrue(pet.isPresented(), "The simulation thread publishes the first pose.");
+        pet.dispose();
+    }
+
+    @Test
+    void benchmark() {
+        PetModel model = TestModels.model();
+        PetWorld world = new PetWorld(150);
+        Array<SpinePet> pets = new Array<>();
+        for (int i = 0; i < PETS; i++)
+            pets.add(new SpinePet(model, world.createBody()));
+
+        // 预热 JIT，不计入测量
+        for (int i = 0; i < STEPS; i++)
+            run(pets);
+
+        long stepNanos = 0, presentNanos = 0;
+        for (int i = 0; i < STEPS; i++) {
+            long start = System.nanoTime();
+            for (SpinePet pet : pets)
+                pet.step(PetSimulation.STEP);
+            stepNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            for (SpinePet pet : pets)
+                pet.present(0.5f);
+            presentNanos += System.nanoTime() - start;
+        }
+        long calls = (long) STEPS * PETS;
+        System.out.println(PETS + " pets sharing a model, us per pet: step " + stepNanos / calls / 1000f + ", present "
+            + presentNanos / calls / 1000f + "; interpolated pose lags the simulation by at most "
+            + PetSimulation.STEP * 1000 + " ms");
+        for (SpinePet pet : pets) {
+            assertTrue(pet.isPresented());
+            pet.dispose();
+        }
+    }
+
+    private static void run(Array<SpinePet> pets) {
+        for (SpinePet pet : pets) {
+            pet.step(PetSimulation.STEP);
+            pet.present(0.5f);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.yatdp.ui.NullGL20;
+import com.esotericsoftware.spine.Skin;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证运行中更换模型：后台加载、交叉淡入淡出、淡出结束后才释放旧模型，以及取消后再次加载同一模型时沿用预处理。
+ *
+ * <p>仓库中只有一个测试模型，以不同的路径（{@code test/./test_spine_model}）读取同一份文件作为另一个模型。
+ * headless 后端不提供 GL，由 {@link NullGL20} 代替，纹理照常创建与释放，只是不上传。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetManager#swapModel(SpinePet, String, String, java.util.function.Consumer)
+ */
+class PetSwapTest {
+    private static final String DIR = "test/test_spine_model", OTHER_DIR = "test/./test_spine_model";
+    private static final String NAME = "build_char_002_amiya_winter#1";
+    private static final float FRAME = 1 / 60f;
+    private static final long TIMEOUT_NANOS = 10000000000L;
+
+    @BeforeAll
+    static void start() {
+        TestModels.headless();
+        Gdx.gl = Gdx.gl20 = new NullGL20();
+    }
+
+    @Test
+    void oldModelIsReleasedAfterTheFade() {
+        PetManager manager = new PetManager();
+        SpinePet pet = manager.spawn(DIR, NAME);
+        Texture oldTexture = texture(pet.getModel());
+        SpinePet[] spawned = new SpinePet[1];
+
+        manager.swapModel(pet, OTHER_DIR, NAME, newPet -> spawned[0] = newPet);
+        long start = System.nanoTime();
+        while (spawned[0] == null && System.nanoTime() - start < TIMEOUT_NANOS)
+            manager.update(FRAME);
+        assertNotNull(spawned[0], "The new model loads in the background.");
+        assertNotEquals(pet.getModel(), spawned[0].getModel());
+
+        // 淡入淡出期间两只桌宠都在，旧模型的纹理仍然有效
+        manager.update(PetManager.SWAP_FADE_TIME / 2);
+        assertTrue(manager.isSwapping());
+        assertTrue(manager.getPets().contains(pet, true) && manager.getPets().contains(spawned[0], true));
+        assertNotEquals(0, oldTexture.getTextureObjectHandle(), "The old model is kept while it fades out.");
+
+        manager.update(PetManager.SWAP_FADE_TIME / 2 + FRAME);
+        assertFalse(manager.isSwapping());
+        assertFalse(manager.getPets().contains(pet, true), "The old pet is despawned after the fade.");
+        assertEquals(0, oldTexture.getTextureObjectHandle(), "The unused old model is released after the fade.");
+
+        System.out.println("Swap: max frame " + manager.getSwapMaxFrameNanos() / 1000 / 1000f + " ms, "
+            + manager.getSwapSlowFrames() + " frames over budget");
+        assertTrue(manager.getSwapMaxFrameNanos() > 0, "Frame times are recorded during the swap.");
+        manager.dispose();
+    }
+
+    @Test
+    void cancelledLoadReusesThePreparation() {
+        String key = OTHER_DIR + "/" + NAME;
+        PetModelLoader loader = new PetModelLoader();
+        loader.load(key, true); // 压缩让预处理足够长，取消时仍在后台进行
+        long start = System.nanoTime();
+        while (!loader.isPreparing() && System.nanoTime() - start < TIMEOUT_NANOS)
+            assertNull(loader.update(4));
+        assertTrue(loader.isPreparing(), "The assets load and the preparation starts.");
+
+        loader.cancel();
+        assertFalse(loader.isLoading());
+        loader.load(key, true);
+        assertTrue(loader.isPreparing(), "Loading the same model again continues the cancelled preparation.");
+
+        // 以另一种方式处理时不沿用，重新加载资源
+        loader.cancel();
+        loader.load(key, false);
+        assertFalse(loader.isPreparing(), "A preparation in another mode is not reused.");
+        PetModel model = null;
+        while (model == null && System.nanoTime() - start < TIMEOUT_NANOS) {
+            loader.releaseAbandoned();
+            model = loader.update(4);
+        }
+        assertNotNull(model);
+        model.dispose();
+        loader.dispose();
+    }
+
+    /**
+     * @return 模型默认皮肤中第一个带纹理区域的附件所在的纹理页
+     */
+    private static Texture texture(PetModel model) {
+        for (Skin.SkinEntry entry : model.getSkeletonData().getDefaultSkin().getAttachments()) {
+            if (entry.getAttachment() instanceof RegionAttachment)
+                return ((RegionAttachment) entry.getAttachment()).getRegion().getTexture();
+            if (entry.getAttachment() instanceof MeshAttachment)
+                return ((MeshAttachment) entry.getAttachment()).getRegion().getTexture();
+        }
+        throw new AssertionError("The model has no textured attachment.");
+    }
+}
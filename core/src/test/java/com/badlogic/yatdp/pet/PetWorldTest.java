@@ -0,0 +1,226 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证 {@link PetWorld} 的接触事件，并测量数百只桌宠时每次 {@link PetWorld#step()} 的耗时。
+ *
+ * <h3>基准</h3>
+ * <pre>
+ * 600 只 150×150 的桌宠在 3840×2160 的桌面上随机移动，格子边长 150，每步移动所有桌宠后 step()
+ * </pre>
+ *
+ * <p>PetWorld 不依赖 Gdx 的图形与输入模块，测试不需要启动 headless 后端。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see PetWorld
+ */
+class PetWorldTest {
+    private static final float CELL = 150, SIZE = 150;
+    private static final int BODIES = 600, STEPS = 1000;
+    private static final float FRAME_BUDGET_MICROS = 16667;
+
+    @Test
+    void contactsEnterAndExitOnce() {
+        PetWorld world = new PetWorld(CELL);
+        Recorder events = new Recorder(world);
+        PetBody a = world.createBody().set(0, 0, SIZE, SIZE);
+        PetBody b = world.createBody().set(400, 0, SIZE, SIZE);
+        world.step();
+        events.expect();
+
+        b.set(100, 0, SIZE, SIZE);
+        world.step();
+        events.expect("enter #0 #1");
+        assertEquals(1, world.getContactCount());
+
+        // 仍在接触时不重复派发 enter
+        b.set(120, 20, SIZE, SIZE);
+        world.step();
+        world.step();
+        events.expect();
+
+        b.set(SIZE, 0, SIZE, SIZE); // 边与边相接不算接触
+        world.step();
+        events.expect("exit #0 #1");
+        assertEquals(0, world.getContactCount());
+        assertEquals(a.getMaxX(), b.getMinX());
+    }
+
+    @Test
+    void contactsAcrossCellBoundaries() {
+        PetWorld world = new PetWorld(CELL);
+        Recorder events = new Recorder(world);
+        // 两只桌宠只在格子 (0, 0) 与 (1, 0) 的边界两侧重叠一小段，也跨越多个格子
+        world.createBody().set(CELL - 60, -10, 61, 20);
+        PetBody b = world.createBody().set(CELL, -100, SIZE * 2, SIZE * 2);
+        world.step();
+        events.expect("enter #0 #1");
+
+        // 在多个共享格子中重叠的同一对只派发一次
+        b.set(-CELL, -CELL, CELL * 3, CELL * 3);
+        world.step();
+        events.expect();
+
+        // 负坐标（副屏在主屏左侧）向下取整到正确的格子
+        b.set(-SIZE - 10, -10, SIZE, 20);
+        world.step();
+        events.expect("exit #0 #1");
+    }
+
+    @Test
+    void cursorEnterAndExit() {
+        PetWorld world = new PetWorld(CELL);
+        Recorder events = new Recorder(world);
+        world.createBody().set(0, 0, SIZE, SIZE);
+        world.createBody().set(100, 0, SIZE, SIZE);
+        events.clear();
+
+        world.setCursor(50, 50);
+        world.step();
+        events.expect("enter #0 #1", "cursorEnter #0");
+
+        world.setCursor(120, 50); // 两只桌宠重叠处
+        world.step();
+        events.expect("cursorEnter #1");
+
+        world.setCursor(200, 50);
+        world.step();
+        events.expect("cursorExit #0");
+
+        world.clearCursor();
+        world.step();
+        events.expect("cursorExit #1");
+    }
+
+    @Test
+    void removingOverlappingBodyExitsImmediately() {
+        PetWorld world = new PetWorld(CELL);
+        Recorder events = new Recorder(world);
+        PetBody a = world.createBody().set(0, 0, SIZE, SIZE);
+        PetBody b = world.createBody().set(100, 0, SIZE, SIZE);
+        PetBody c = world.createBody().set(200, 0, SIZE, SIZE);
+        world.setCursor(120, 50);
+        world.step();
+        events.clear();
+
+        world.removeBody(b);
+        events.expect("exit #1 #0", "exit #1 #2", "cursorExit #1");
+        assertEquals(0, world.getContactCount());
+        assertEquals(2, world.getBodies().size);
+
+        // 移除后剩余的桌宠下标连续，事件照常派发
+        world.step();
+        events.expect();
+        c.set(50, 0, SIZE, SIZE);
+        world.step();
+        events.expect("enter #0 #2", "cursorEnter #2");
+        world.removeBody(b); // 重复移除无效
+        events.expect();
+        assertEquals(a, world.getBodies().first());
+    }
+
+    @Test
+    void benchmark() {
+        PetWorld world = new PetWorld(CELL);
+        Recorder events = new Recorder(world);
+        events.recording = false;
+        Array<PetBody> bodies = new Array<>();
+        float[] velocities = new float[BODIES * 2];
+        MathUtils.random.setSeed(1);
+        for (int i = 0; i < BODIES; i++) {
+            bodies.add(world.createBody().set(MathUtils.random(3840 - SIZE), MathUtils.random(2160 - SIZE), SIZE, SIZE));
+            velocities[i * 2] = MathUtils.random(-4f, 4f);
+            velocities[i * 2 + 1] = MathUtils.random(-4f, 4f);
+        }
+
+        // 预热，让 JIT 编译与哈希表扩容不计入测量
+        for (int i = 0; i < STEPS; i++)
+            step(world, bodies, velocities);
+        events.clear();
+
+        long allocated = TestModels.allocatedBytes();
+        long start = System.nanoTime(), max = 0;
+        int contacts = 0;
+        for (int i = 0; i < STEPS; i++) {
+            long stepStart = System.nanoTime();
+            step(world, bodies, velocities);
+            max = Math.max(max, System.nanoTime() - stepStart);
+            contacts += world.getContactCount();
+        }
+        float micros = (System.nanoTime() - start) / 1000f / STEPS;
+        allocated = TestModels.allocatedBytes() - allocated;
+
+        System.out.println(BODIES + " bodies: " + micros + " us per step, max " + max / 1000 + " us, "
+            + contacts / STEPS + " contacts, " + events.count / STEPS + " events per step, " + allocated
+            + " bytes allocated");
+        assertTrue(micros < FRAME_BUDGET_MICROS / 10, "Contact detection should take a small part of a frame.");
+        assertTrue(allocated < STEPS, "Steady-state steps should not allocate.");
+    }
+
+    private static void step(PetWorld world, Array<PetBody> bodies, float[] velocities) {
+        for (int i = 0, n = bodies.size; i < n; i++) {
+            PetBody body = bodies.get(i);
+            float x = body.getMinX() + velocities[i * 2], y = body.getMinY() + velocities[i * 2 + 1];
+            if (x < 0 || x > 3840 - SIZE) velocities[i * 2] = -velocities[i * 2];
+            if (y < 0 || y > 2160 - SIZE) velocities[i * 2 + 1] = -velocities[i * 2 + 1];
+            body.set(x, y, SIZE, SIZE);
+        }
+        world.setCursor(1920, 1080);
+        world.step();
+    }
+
+    /**
+     * 按派发顺序记录事件，事件对中的两只桌宠按 PetWorld 传入的顺序记录
+     */
+    private static class Recorder implements PetWorld.Listener {
+        final Array<String> events = new Array<>();
+        boolean recording = true; // 基准中只计数，不拼接字符串
+        int count;
+
+        Recorder(PetWorld world) {
+            world.setListener(this);
+        }
+
+        @Override
+        public void enter(PetBody a, PetBody b) {
+            record("enter", a, b);
+        }
+
+        @Override
+        public void exit(PetBody a, PetBody b) {
+            record("exit", a, b);
+        }
+
+        @Override
+        public void cursorEnter(PetBody body) {
+            record("cursorEnter", body, null);
+        }
+
+        @Override
+        public void cursorExit(PetBody body) {
+            record("cursorExit", body, null);
+        }
+
+        private void record(String type, PetBody a, PetBody b) {
+            count++;
+            if (recording) events.add(type + " #" + a.getId() + (b != null ? " #" + b.getId() : ""));
+        }
+
+        void expect(String... expected) {
+            assertEquals(Array.with(expected).toString(), events.toString());
+            clear();
+        }
+
+        void clear() {
+            events.clear();
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.badlogic.yatdp.pet;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.esotericsoftware.spine.SkeletonBinary;
+import com.esotericsoftware.spine.SkeletonData;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 测试用的模型加载与内存测量工具，测试以 assets 目录为工作目录运行。
+ *
+ * <p>模型通过 {@link PetSmokeTest.NoTextureAttachmentLoader} 读取，附件不绑定纹理区域，
+ * 不需要 GL 上下文即可创建 {@link PetModel} 与 {@link SpinePet}。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ */
+final class TestModels {
+    static final String KEY = "test/test_spine_model/build_char_002_amiya_winter#1";
+
+    private TestModels() {
+    }
+
+    /**
+     * 在没有 Gdx.app 时启动 headless 后端，提供 Gdx.files、Gdx.graphics 与 Gdx.app
+     */
+    static synchronized void headless() {
+        if (Gdx.app != null) return;
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        configuration.updatesPerSecond = -1; // 不需要渲染循环
+        new HeadlessApplication(new ApplicationAdapter() {
+        }, configuration);
+    }
+
+    /**
+     * 读取测试模型，未经 {@link PetModel#prepare(SkeletonData, boolean)} 处理
+     */
+    static SkeletonData read() {
+        SkeletonBinary skeletonBinary = new SkeletonBinary(new PetSmokeTest.NoTextureAttachmentLoader());
+        skeletonBinary.setScale(PetModel.MODEL_SCALE);
+        return skeletonBinary.readSkeletonData(Gdx.files.internal(KEY + ".skel"));
+    }
+
+    /**
+     * 创建没有纹理与音效的测试模型，时间轴不压缩，与默认配置一致
+     */
+    static PetModel model() {
+        return new PetModel(KEY, new TextureAtlas(), PetModel.prepare(read(), false), null, null, false);
+    }
+
+    /**
+     * @return 当前线程至今分配的字节数
+     */
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(
+            Thread.currentThread().getId());
+    }
+}
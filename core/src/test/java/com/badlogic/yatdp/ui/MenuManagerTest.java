@@ -0,0 +1,97 @@
+package com.badlogic.yatdp.ui;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.yatdp.input.WindowController;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 验证 {@link MenuManager} 常驻的 UI 在切换状态与逐帧渲染时不再重建场景、不再分配内存。
+ *
+ * <h3>测量方式</h3>
+ * <pre>
+ * 预热：每种状态各渲染若干帧，让 Scene2D 的缓冲与字形缓存达到稳定大小
+ * 测量：菜单 → 内容 → 休息提醒 → 隐藏 循环切换，每个状态渲染若干帧，统计当前线程分配的字节数
+ * </pre>
+ * <p>headless 后端不提供 GL，由 {@link NullGL20} 代替，它本身不分配内存。</p>
+ * <p>菜单字体 fonts/MapleMono-NF-CN-Bold.ttf 不随仓库提交，缺失时菜单使用皮肤自带的位图字体，测试同样适用。</p>
+ *
+ * @author baiheyufei
+ * @version 1.0
+ * @see MenuManager
+ */
+class MenuManagerTest {
+    private static final int CYCLES = 600, FRAMES = 5;
+
+    @BeforeAll
+    static void start() {
+        if (Gdx.app == null) {
+            HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+            configuration.updatesPerSecond = -1; // 不需要渲染循环
+            new HeadlessApplication(new ApplicationAdapter() {
+            }, configuration);
+        }
+        Gdx.gl = Gdx.gl20 = new NullGL20();
+    }
+
+    @Test
+    void switchingStatesAllocatesNothing() {
+        MenuManager menu = new MenuManager(new WindowController(), content -> {
+        }, () -> {
+        });
+        menu.resize(300, 150);
+        Actor menuTable = menu.getStage().getActors().get(0);
+        int actors = menu.getStage().getActors().size;
+
+        for (int i = 0; i < 10; i++)
+            cycle(menu);
+        long bytes = allocatedBytes();
+        for (int i = 0; i < CYCLES; i++)
+            cycle(menu);
+        bytes = allocatedBytes() - bytes;
+
+        int frames = CYCLES * 4 * FRAMES;
+        System.out.println("MenuManager: " + bytes + " bytes allocated in " + frames + " frames over "
+            + CYCLES * 4 + " state changes");
+        assertEquals(actors, menu.getStage().getActors().size, "actors are kept, not rebuilt");
+        assertSame(menuTable, menu.getStage().getActors().get(0), "actors are kept, not rebuilt");
+        // 读取分配量本身与 JIT 会零星分配几 KB；每帧哪怕分配一个对象也至少 16 字节
+        assertTrue(bytes < frames, "steady state allocated " + bytes + " bytes in " + frames + " frames");
+        menu.dispose();
+    }
+
+    private static void cycle(MenuManager menu) {
+        menu.showMenuUI(true);
+        render(menu);
+        menu.setCurrentContent("About");
+        menu.showMenuUI(false);
+        render(menu);
+        menu.showBreakReminderUI();
+        render(menu);
+        menu.hideAll();
+        render(menu);
+    }
+
+    private static void render(MenuManager menu) {
+        for (int i = 0; i < FRAMES; i++)
+            menu.render();
+    }
+
+    /**
+     * @return 当前线程至今分配的字节数
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(
+            Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,138 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.utils.FloatArray;
+
+import com.esotericsoftware.spine.attachments.Attachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+import com.esotericsoftware.spine.attachments.VertexAttachment;
+import com.esotericsoftware.spine.utils.SkeletonLod;
+
+/** Timelines skipped by the {@link AnimationState#getLodThreshold() LOD threshold} leave an error bounded by their impacts,
+ * whatever was applied before. */
+class AnimationStateLodTest {
+	static private final float STEP = 1 / 60f, THRESHOLD = 5;
+
+	@Test
+	void skippedTimelinesDontKeepEarlierPoses () {
+		SkeletonData data = TestSkeletons.read(1);
+		SkeletonLod.computeImpacts(data);
+		AnimationStateData stateData = new AnimationStateData(data);
+		stateData.setMixAll(0.1f);
+		Animation from = data.findAnimation("Interact"), to = data.findAnimation("Relax");
+
+		// Sum of the impacts of the timelines that are skipped once the animation has been switched.
+		float bound = 0;
+		int skipped = 0;
+		for (float impact : to.getTimelineImpacts()) {
+			if (impact >= THRESHOLD) continue;
+			bound += impact;
+			skipped++;
+		}
+		assertTrue(skipped > 0, "the threshold skips some timelines");
+
+		// Full detail throughout.
+		Skeleton reference = new Skeleton(data);
+		AnimationState referenceState = new AnimationState(stateData);
+		referenceState.setAnimation(0, from, true);
+		run(referenceState, reference, 1);
+		referenceState.setAnimation(0, to, true);
+		run(referenceState, reference, 1);
+
+		// Full detail, then the threshold is raised when switching, so the skipped properties were last set by the first animation.
+		Skeleton switched = new Skeleton(data);
+		AnimationState switchedState = new AnimationState(stateData);
+		switchedState.setAnimation(0, from, true);
+		run(switchedState, switched, 1);
+		switchedState.setLodThreshold(THRESHOLD);
+		switchedState.setAnimation(0, to, true);
+		run(switchedState, switched, 1);
+
+		// Only the second animation, at the threshold from the start.
+		Skeleton fresh = new Skeleton(data);
+		AnimationState freshState = new AnimationState(stateData);
+		freshState.setLodThreshold(THRESHOLD);
+		freshState.setAnimation(0, to, true);
+		run(freshState, fresh, 1);
+
+		float error = maxVertexDistance(reference, switched);
+		System.out.println("LOD threshold " + THRESHOLD + ", " + skipped + " of " + to.getTimelines().size
+			+ " timelines skipped: max vertex error " + error + ", bound " + bound + ", history difference "
+			+ maxVertexDistance(switched, fresh));
+		// Impacts are first order estimates measured from the setup pose, so skipped timelines that compound, such as a skipped
+		// rotation of a bone that also has a skipped translation, can exceed their sum slightly.
+		assertTrue(error <= bound * 1.25f, "error " + error + " is within the impacts of the skipped timelines " + bound);
+		assertEquals(0, maxVertexDistance(switched, fresh), 0.01f, "the pose doesn't depend on the earlier animation");
+	}
+
+	private void run (AnimationState state, Skeleton skeleton, float seconds) {
+		for (int i = 0, n = Math.round(seconds / STEP); i < n; i++) {
+			state.update(STEP);
+			state.apply(skeleton);
+			skeleton.updateWorldTransform();
+		}
+	}
+
+	/** Returns the largest distance between the world vertices of the attachments of two skeletons of the same data. */
+	static float maxVertexDistance (Skeleton a, Skeleton b) {
+		FloatArray verticesA = new FloatArray(), verticesB = new FloatArray();
+		float max = 0;
+		for (int i = 0, n = a.slots.size; i < n; i++) {
+			int count = worldVertices(a.slots.get(i), verticesA);
+			if (count == 0 || worldVertices(b.slots.get(i), verticesB) != count) continue;
+			for (int ii = 0; ii < count; ii += 2) {
+				max = Math.max(max, (float)Math.hypot(verticesA.items[ii] - verticesB.items[ii],
+					verticesA.items[ii + 1] - verticesB.items[ii + 1]));
+			}
+		}
+		return max;
+	}
+
+	static private int worldVertices (Slot slot, FloatArray vertices) {
+		Attachment attachment = slot.attachment;
+		if (attachment instanceof RegionAttachment) {
+			vertices.setSize(8);
+			((RegionAttachment)attachment).computeWorldVertices(slot.bone, vertices.items, 0, 2);
+			return 8;
+		}
+		if (attachment instanceof VertexAttachment) {
+			int length = ((VertexAttachment)attachment).getWorldVerticesLength();
+			vertices.setSize(length);
+			((VertexAttachment)attachment).computeWorldVertices(slot, 0, length, vertices.items, 0, 2);
+			return length;
+		}
+		return 0;
+	}
+}
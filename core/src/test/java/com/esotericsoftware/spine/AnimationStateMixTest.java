@@ -0,0 +1,158 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.utils.Array;
+
+import com.esotericsoftware.spine.Animation.Timeline;
+
+/** Dense property indices are fixed when the skeleton data is loaded or an animation built in code is first set, and mixing
+ * cost with deep mix chains. */
+class AnimationStateMixTest {
+	static private final float STEP = 1 / 60f;
+
+	@Test
+	void applyingDoesNotIndexProperties () {
+		SkeletonData data = TestSkeletons.read(1);
+		int count = data.getPropertyCount();
+		assertTrue(count > 0);
+
+		AnimationStateData stateData = new AnimationStateData(data);
+		stateData.setMixAll(0.5f);
+		AnimationState state = new AnimationState(stateData);
+		Skeleton skeleton = new Skeleton(data);
+		for (int i = 0; i < 120; i++) {
+			if (i % 10 == 0) state.setAnimation(0, data.animations.get(i / 10 % data.animations.size), true);
+			state.update(STEP);
+			state.apply(skeleton);
+		}
+		assertEquals(count, data.getPropertyCount(), "applying reads the indices only");
+
+		// Replacing or clearing timelines keeps the animation indexed without adding indices.
+		Animation animation = data.animations.get(0);
+		Array<Timeline> timelines = animation.getTimelines();
+		animation.setTimelines(new Array(0));
+		assertSame(data, animation.propertyData);
+		animation.setTimelines(timelines);
+		assertSame(data, animation.propertyData);
+		assertEquals(count, data.getPropertyCount());
+	}
+
+	@Test
+	void unindexedPropertiesAreRejected () {
+		SkeletonData data = TestSkeletons.read(1);
+		SkeletonData other = TestSkeletons.read(1);
+		AnimationState state = new AnimationState(new AnimationStateData(data));
+		assertThrows(IllegalArgumentException.class, () -> state.setAnimation(0, other.animations.get(0), true));
+
+		// A property the skeleton data has never seen, here a slot index past the last slot.
+		Animation.ColorTimeline timeline = new Animation.ColorTimeline(1);
+		timeline.setSlotIndex(data.slots.size);
+		Array<Timeline> timelines = new Array();
+		timelines.add(timeline);
+		assertThrows(IllegalArgumentException.class, () -> data.animations.get(0).setTimelines(timelines));
+	}
+
+	@Test
+	void animationsBuiltInCodeAreIndexedOnFirstUse () {
+		SkeletonData data = TestSkeletons.read(1);
+		int count = data.getPropertyCount();
+		Animation.RotateTimeline rotate = new Animation.RotateTimeline(1);
+		rotate.setBoneIndex(1);
+		rotate.setFrame(0, 0, 45);
+		// A property the skeleton data has never seen is added on first use.
+		Animation.ColorTimeline color = new Animation.ColorTimeline(1);
+		color.setSlotIndex(data.slots.size);
+		Array<Timeline> timelines = new Array();
+		timelines.add(rotate);
+		timelines.add(color);
+		Animation animation = new Animation("code", timelines, 1);
+		assertNull(animation.propertyData);
+
+		AnimationStateData stateData = new AnimationStateData(data);
+		stateData.setMixAll(0.5f);
+		AnimationState state = new AnimationState(stateData);
+		Skeleton skeleton = new Skeleton(data);
+		state.setAnimation(0, data.animations.get(0), true);
+		state.update(STEP);
+		state.apply(skeleton);
+		state.setAnimation(0, animation, true);
+		assertSame(data, animation.propertyData);
+		assertEquals(count + 1, data.getPropertyCount());
+
+		// Mixing into the animation and then applying it alone reaches its pose.
+		animation.setTimelines(new Array(new Timeline[] {rotate}));
+		for (int i = 0; i < 60; i++) {
+			state.update(STEP);
+			state.apply(skeleton);
+		}
+		assertEquals(data.bones.get(1).rotation + 45, skeleton.bones.get(1).rotation, 0.001f);
+	}
+
+	@Test
+	void benchmark () {
+		SkeletonData data = TestSkeletons.read(1);
+		Skeleton skeleton = new Skeleton(data);
+		StringBuilder buffer = new StringBuilder("AnimationState with deep mix chains, " + data.animations.size + " animations, "
+			+ data.getPropertyCount() + " properties, us per frame switching animation every frame:");
+		for (int depth : new int[] {1, 4, 16, 64}) {
+			AnimationStateData stateData = new AnimationStateData(data);
+			stateData.setMixAll(depth * STEP);
+			AnimationState state = new AnimationState(stateData);
+			run(state, skeleton, data, 2000); // Warm up.
+			long start = System.nanoTime();
+			int maxDepth = run(state, skeleton, data, 2000);
+			long time = System.nanoTime() - start;
+			buffer.append(" chain ").append(maxDepth).append(' ').append(time / 2000 / 1000f);
+			assertTrue(maxDepth >= depth / 2);
+		}
+		System.out.println(buffer);
+	}
+
+	/** Sets a different animation every frame so the mixing from chain grows to the mix duration.
+	 * @return The deepest mixing from chain. */
+	private int run (AnimationState state, Skeleton skeleton, SkeletonData data, int frames) {
+		int maxDepth = 0;
+		for (int i = 0; i < frames; i++) {
+			state.setAnimation(0, data.animations.get(i % data.animations.size), true);
+			state.update(STEP);
+			state.apply(skeleton);
+			int depth = 0;
+			for (AnimationState.TrackEntry entry = state.getCurrent(0); entry.mixingFrom != null; entry = entry.mixingFrom)
+				depth++;
+			maxDepth = Math.max(maxDepth, depth);
+		}
+		return maxDepth;
+	}
+}
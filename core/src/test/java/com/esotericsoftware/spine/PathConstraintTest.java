@@ -0,0 +1,167 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.esotericsoftware.spine.PathConstraintData.PositionMode;
+import com.esotericsoftware.spine.PathConstraintData.RotateMode;
+import com.esotericsoftware.spine.PathConstraintData.SpacingMode;
+import com.esotericsoftware.spine.attachments.PathAttachment;
+
+/** Compares constant speed path constraints that keep their arc-length tables between updates with constraints that compute
+ * them again, and benchmarks updates of a still and a moving path. */
+class PathConstraintTest {
+	@Test
+	void cachedTablesMatchRecomputed () {
+		SkeletonData data = path(8, 12);
+		Skeleton cached = new Skeleton(data), recomputed = new Skeleton(data);
+		Bone cachedPath = cached.findBone("path"), recomputedPath = recomputed.findBone("path");
+		for (int frame = 0; frame < 300; frame++) {
+			// The path moves for a while, then stays still while the bones slide along it across the curves.
+			float rotation = frame < 100 ? frame * 0.7f : frame < 200 ? 70 : 70 + (frame - 200) * 0.3f;
+			float position = (frame % 150) / 150f;
+			cachedPath.setRotation(rotation);
+			recomputedPath.setRotation(rotation);
+			cached.pathConstraints.first().setPosition(position);
+
+			// A new constraint starts without tables.
+			recomputed.pathConstraints.set(0, new PathConstraint(cached.pathConstraints.first(), recomputed));
+			recomputed.updateCache();
+
+			cached.updateWorldTransform();
+			recomputed.updateWorldTransform();
+			for (int i = 0, n = cached.bones.size; i < n; i++) {
+				Bone a = cached.bones.get(i), b = recomputed.bones.get(i);
+				String message = "frame " + frame + ", " + a.data.name;
+				assertEquals(b.worldX, a.worldX, message);
+				assertEquals(b.worldY, a.worldY, message);
+				assertEquals(b.a, a.a, message);
+				assertEquals(b.b, a.b, message);
+				assertEquals(b.c, a.c, message);
+				assertEquals(b.d, a.d, message);
+			}
+		}
+	}
+
+	@Test
+	void benchmark () {
+		SkeletonData data = path(16, 30);
+		Skeleton skeleton = new Skeleton(data);
+		Bone path = skeleton.findBone("path");
+		PathConstraint constraint = skeleton.pathConstraints.first();
+		skeleton.updateWorldTransform();
+		int updates = 20000;
+		long still = Long.MAX_VALUE, moving = Long.MAX_VALUE;
+		float sum = 0;
+		for (int run = 0; run < 5; run++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < updates; i++) {
+				constraint.setPosition((i % 100) / 100f);
+				constraint.update();
+				sum += skeleton.bones.peek().worldX;
+			}
+			still = Math.min(still, System.nanoTime() - start);
+			start = System.nanoTime();
+			for (int i = 0; i < updates; i++) {
+				constraint.setPosition((i % 100) / 100f);
+				path.setRotation(i % 360); // Every update moves the path, so the tables are computed again.
+				path.updateWorldTransform();
+				constraint.update();
+				sum += skeleton.bones.peek().worldX;
+			}
+			moving = Math.min(moving, System.nanoTime() - start);
+			path.setRotation(0);
+			path.updateWorldTransform();
+		}
+		assertFalse(Float.isNaN(sum));
+		System.out.println("PathConstraint constant speed, " + constraint.bones.size + " bones on 16 curves, ns per update: still path "
+			+ still / updates + ", moving path " + moving / updates);
+	}
+
+	/** A skeleton with an open constant speed path of the curve count on the "path" bone, and a chain of bones constrained to
+	 * it. */
+	static private SkeletonData path (int curves, int boneCount) {
+		SkeletonData data = new SkeletonData();
+		BoneData root = new BoneData(0, "root", null), pathBone = new BoneData(1, "path", root);
+		data.bones.add(root);
+		data.bones.add(pathBone);
+		PathConstraintData constraint = new PathConstraintData("path");
+		BoneData parent = root;
+		for (int i = 0; i < boneCount; i++) {
+			BoneData bone = new BoneData(data.bones.size, "bone" + i, parent);
+			bone.setLength(8);
+			if (i > 0) bone.setX(8);
+			data.bones.add(bone);
+			constraint.bones.add(bone);
+			parent = bone;
+		}
+
+		// Each knot is its incoming handle, the point, and its outgoing handle, along a wave.
+		int knots = curves + 1;
+		float[] vertices = new float[knots * 6];
+		for (int i = 0; i < knots; i++) {
+			float x = i * 40, y = (i % 2 == 0 ? 1 : -1) * 30;
+			vertices[i * 6] = x - 15;
+			vertices[i * 6 + 1] = y;
+			vertices[i * 6 + 2] = x;
+			vertices[i * 6 + 3] = y;
+			vertices[i * 6 + 4] = x + 15;
+			vertices[i * 6 + 5] = y;
+		}
+		float[] lengths = new float[curves];
+		for (int i = 0; i < curves; i++)
+			lengths[i] = (i + 1) * 50;
+		PathAttachment attachment = new PathAttachment("path");
+		attachment.setVertices(vertices);
+		attachment.setWorldVerticesLength(vertices.length);
+		attachment.setLengths(lengths);
+		attachment.setConstantSpeed(true);
+
+		SlotData slot = new SlotData(0, "path", pathBone);
+		slot.setAttachmentName("path");
+		data.slots.add(slot);
+		Skin skin = new Skin("default");
+		skin.setAttachment(0, "path", attachment);
+		data.skins.add(skin);
+		data.setDefaultSkin(skin);
+
+		constraint.setTarget(slot);
+		constraint.setPositionMode(PositionMode.percent);
+		constraint.setSpacingMode(SpacingMode.length);
+		constraint.setRotateMode(RotateMode.chainScale);
+		constraint.setRotateMix(1);
+		constraint.setTranslateMix(1);
+		data.pathConstraints.add(constraint);
+		return data;
+	}
+}
@@ -0,0 +1,165 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import com.esotericsoftware.spine.Animation.CurveTimeline;
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+
+/** Skeleton data written by {@link SkeletonBinaryWriter} reads back equal, and {@link TimelineOptimizer} stays within its
+ * tolerance, both when applied after loading and when saved with the writer. */
+class SkeletonBinaryWriterTest {
+	/** Bone world positions and deformed vertices of the optimized data stay within this distance of the original, in the units
+	 * of the bundled model. The optimizer's per key tolerances compound down the bone hierarchy. */
+	static private final float POSE_TOLERANCE = 0.5f;
+
+	@TempDir Path temp;
+
+	@Test
+	void roundTrip () throws Exception {
+		SkeletonData original = TestSkeletons.read(1);
+		byte[] bytes = write(original);
+		SkeletonData read = read(bytes);
+
+		assertEquals(original.hash, read.hash);
+		assertEquals(original.bones.size, read.bones.size);
+		for (int i = 0; i < original.bones.size; i++) {
+			BoneData a = original.bones.get(i), b = read.bones.get(i);
+			assertEquals(a.name, b.name);
+			assertEquals(a.parent == null ? -1 : a.parent.index, b.parent == null ? -1 : b.parent.index);
+			assertEquals(a.x, b.x);
+			assertEquals(a.y, b.y);
+			assertEquals(a.rotation, b.rotation);
+			assertEquals(a.scaleX, b.scaleX);
+			assertEquals(a.scaleY, b.scaleY);
+			assertEquals(a.transformMode, b.transformMode);
+		}
+		assertEquals(original.slots.size, read.slots.size);
+		for (int i = 0; i < original.slots.size; i++) {
+			SlotData a = original.slots.get(i), b = read.slots.get(i);
+			assertEquals(a.name, b.name);
+			assertEquals(a.boneData.index, b.boneData.index);
+			assertEquals(a.attachmentName, b.attachmentName);
+			assertEquals(a.color, b.color);
+			assertEquals(a.blendMode, b.blendMode);
+		}
+		assertEquals(original.skins.size, read.skins.size);
+		for (int i = 0; i < original.skins.size; i++)
+			assertEquals(original.skins.get(i).getAttachments().size, read.skins.get(i).getAttachments().size);
+		assertEquals(original.ikConstraints.size, read.ikConstraints.size);
+		assertEquals(original.transformConstraints.size, read.transformConstraints.size);
+		assertEquals(original.pathConstraints.size, read.pathConstraints.size);
+		assertEquals(original.events.size, read.events.size);
+
+		assertEquals(original.animations.size, read.animations.size);
+		for (int i = 0; i < original.animations.size; i++) {
+			Animation a = original.animations.get(i), b = read.animations.get(i);
+			assertEquals(a.name, b.name);
+			assertEquals(a.duration, b.duration);
+			assertEquals(a.timelines.size, b.timelines.size, a.name);
+			// Timelines are written grouped by bone and slot index, so they are matched by property.
+			ObjectMap<String, Timeline> timelinesB = new ObjectMap();
+			for (Timeline timeline : b.timelines)
+				timelinesB.put(property(timeline), timeline);
+			for (Timeline timelineA : a.timelines) {
+				Timeline timelineB = timelinesB.get(property(timelineA));
+				assertNotNull(timelineB, a.name + " " + property(timelineA));
+				assertSame(timelineA.getClass(), timelineB.getClass());
+				if (timelineA instanceof CurveTimeline) {
+					CurveTimeline curveA = (CurveTimeline)timelineA, curveB = (CurveTimeline)timelineB;
+					assertEquals(curveA.getFrameCount(), curveB.getFrameCount());
+					for (int frame = 0; frame < curveA.getFrameCount() - 1; frame++)
+						assertEquals(curveA.getCurveType(frame), curveB.getCurveType(frame));
+				}
+			}
+		}
+		// Bezier control points are recovered from the sampled curves, which loses a little float precision.
+		assertEquals(0, TimelineOptimizer.measurePoseError(original, read, 1 / 60f), 0.001f);
+
+		// Writing what was read again gives the same structure, floats aside, and the precision loss doesn't accumulate.
+		byte[] rewritten = write(read);
+		assertEquals(bytes.length, rewritten.length);
+		assertEquals(0, TimelineOptimizer.measurePoseError(original, read(rewritten), 1 / 60f), 0.001f);
+	}
+
+	@Test
+	void optimizedPoseStaysWithinTolerance () throws Exception {
+		SkeletonData original = TestSkeletons.read(1);
+		SkeletonData optimized = TestSkeletons.read(1);
+		int removed = new TimelineOptimizer().optimize(optimized);
+		float error = TimelineOptimizer.measurePoseError(original, optimized, 1 / 60f);
+
+		byte[] originalBytes = Files.readAllBytes(new File(TestSkeletons.MODEL + ".skel").toPath());
+		byte[] optimizedBytes = write(optimized);
+		float savedError = TimelineOptimizer.measurePoseError(original, read(optimizedBytes), 1 / 60f);
+
+		System.out.println("TimelineOptimizer: " + removed + " keys removed, max pose error " + error + ", saved " + savedError
+			+ ", file " + originalBytes.length + " -> " + optimizedBytes.length + " bytes");
+		assertTrue(removed > 0);
+		assertTrue(error <= POSE_TOLERANCE, "pose error " + error);
+		assertEquals(error, savedError, 1e-4f, "saving doesn't change the optimized poses");
+	}
+
+	/** Deform property IDs include the ID of the attachment instance, which differs between loads, so the attachment is identified
+	 * by name instead. */
+	static private String property (Timeline timeline) {
+		if (timeline instanceof DeformTimeline) {
+			DeformTimeline deform = (DeformTimeline)timeline;
+			return "deform " + deform.getSlotIndex() + " " + deform.getAttachment().getName();
+		}
+		return Integer.toString(timeline.getPropertyId());
+	}
+
+	private byte[] write (SkeletonData data) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new SkeletonBinaryWriter().writeSkeletonData(data, bytes);
+		return bytes.toByteArray();
+	}
+
+	private SkeletonData read (byte[] bytes) throws Exception {
+		File file = Files.createTempFile(temp, "skeleton", ".skel").toFile();
+		Files.write(file.toPath(), bytes);
+		SkeletonBinary binary = new SkeletonBinary(new TestSkeletons.NoTextureAttachmentLoader());
+		return binary.readSkeletonData(new FileHandle(file));
+	}
+}
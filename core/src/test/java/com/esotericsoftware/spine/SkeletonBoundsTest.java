@@ -0,0 +1,162 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+
+/** Compares the indexed {@link SkeletonBounds} queries with a linear scan of the polygons, and benchmarks query time against the
+ * polygon count. */
+class SkeletonBoundsTest {
+	static private final float AREA = 1000, BOX_SIZE = 40;
+
+	@Test
+	void indexedQueriesMatchLinearScan () {
+		Random random = new Random(1);
+		for (int count : new int[] {1, 4, 8, 30, 200}) {
+			Skeleton skeleton = boxes(count, random);
+			SkeletonBounds bounds = new SkeletonBounds();
+			bounds.update(skeleton, true);
+			assertEquals(count, bounds.getPolygons().size);
+
+			float[] points = new float[2000];
+			for (int i = 0; i < points.length; i++)
+				points[i] = random.nextFloat() * (AREA + BOX_SIZE * 2) - BOX_SIZE;
+			BoundingBoxAttachment[] hits = new BoundingBoxAttachment[points.length / 2];
+			int hitCount = bounds.containsPoints(points, 0, hits.length, hits), expectedHits = 0;
+			for (int i = 0; i < hits.length; i++) {
+				float x = points[i * 2], y = points[i * 2 + 1];
+				BoundingBoxAttachment expected = linearContainsPoint(bounds, x, y);
+				if (expected != null) expectedHits++;
+				assertSame(expected, bounds.containsPoint(x, y), "containsPoint " + count + " polygons at " + x + ", " + y);
+				assertSame(expected, hits[i], "containsPoints " + count + " polygons at " + x + ", " + y);
+			}
+			assertEquals(expectedHits, hitCount);
+		}
+	}
+
+	@Test
+	void updateRecomputesOnlyMovedPolygons () {
+		Skeleton skeleton = boxes(20, new Random(2));
+		SkeletonBounds bounds = new SkeletonBounds();
+		bounds.update(skeleton, true);
+		FloatArray moved = bounds.getPolygons().get(3), still = bounds.getPolygons().get(4);
+		float movedX = moved.get(0);
+		still.set(0, -12345); // Only visible after the update if the polygon was not recomputed.
+
+		Bone bone = skeleton.findSlot("slot3").getBone();
+		bone.setX(bone.getX() + 100);
+		skeleton.updateWorldTransform();
+		bounds.update(skeleton, true);
+
+		assertEquals(movedX + 100, bounds.getPolygons().get(3).get(0), 0.001f);
+		assertEquals(-12345, bounds.getPolygons().get(4).get(0), "unmoved polygon is kept");
+		float x = bounds.getPolygonAabbs().get(3 * 4) + 1, y = bounds.getPolygonAabbs().get(3 * 4 + 1) + 1;
+		assertSame(linearContainsPoint(bounds, x, y), bounds.containsPoint(x, y), "grid is rebuilt after a polygon moves");
+	}
+
+	@Test
+	void benchmark () {
+		Random random = new Random(3);
+		float[] points = new float[20000];
+		for (int i = 0; i < points.length; i++)
+			points[i] = random.nextFloat() * AREA;
+		StringBuilder report = new StringBuilder("SkeletonBounds point queries, ns per query (linear / indexed):");
+		for (int count : new int[] {4, 16, 64, 256, 1024}) {
+			SkeletonBounds bounds = new SkeletonBounds();
+			bounds.update(boxes(count, random), true);
+			int found = 0;
+			long linear = Long.MAX_VALUE, indexed = Long.MAX_VALUE;
+			for (int run = 0; run < 5; run++) {
+				long start = System.nanoTime();
+				for (int i = 0; i < points.length; i += 2)
+					if (linearContainsPoint(bounds, points[i], points[i + 1]) != null) found++;
+				linear = Math.min(linear, System.nanoTime() - start);
+				start = System.nanoTime();
+				for (int i = 0; i < points.length; i += 2)
+					if (bounds.containsPoint(points[i], points[i + 1]) != null) found--;
+				indexed = Math.min(indexed, System.nanoTime() - start);
+			}
+			assertEquals(0, found);
+			int queries = points.length / 2;
+			report.append(' ').append(count).append(" polygons ").append(linear / queries).append(" / ").append(indexed / queries)
+				.append(',');
+		}
+		report.setLength(report.length() - 1);
+		System.out.println(report);
+	}
+
+	/** The first bounding box containing the point, found by testing every polygon as before the index existed. */
+	static private BoundingBoxAttachment linearContainsPoint (SkeletonBounds bounds, float x, float y) {
+		Array<FloatArray> polygons = bounds.getPolygons();
+		for (int i = 0, n = polygons.size; i < n; i++)
+			if (bounds.containsPoint(polygons.get(i), x, y)) return bounds.getBoundingBoxes().get(i);
+		return null;
+	}
+
+	/** A skeleton with a bone per bounding box, at random positions in the area and with random rotations. */
+	static private Skeleton boxes (int count, Random random) {
+		SkeletonData data = new SkeletonData();
+		BoneData root = new BoneData(0, "root", null);
+		data.bones.add(root);
+		Skin skin = new Skin("default");
+		for (int i = 0; i < count; i++) {
+			BoneData boneData = new BoneData(i + 1, "bone" + i, root);
+			boneData.setX(random.nextFloat() * AREA);
+			boneData.setY(random.nextFloat() * AREA);
+			boneData.setRotation(random.nextFloat() * 360);
+			data.bones.add(boneData);
+			SlotData slotData = new SlotData(i, "slot" + i, boneData);
+			slotData.setAttachmentName("box");
+			data.slots.add(slotData);
+
+			// A triangle and a square alternate so polygons aren't all the same shape.
+			float size = BOX_SIZE * (0.5f + random.nextFloat());
+			BoundingBoxAttachment box = new BoundingBoxAttachment("box");
+			box.setVertices(i % 2 == 0 ? new float[] {-size, -size, size, -size, size, size, -size, size}
+				: new float[] {-size, -size, size, -size, 0, size});
+			box.setWorldVerticesLength(box.getVertices().length);
+			skin.setAttachment(i, "box", box);
+		}
+		data.skins.add(skin);
+		data.setDefaultSkin(skin);
+		Skeleton skeleton = new Skeleton(data);
+		skeleton.updateWorldTransform();
+		return skeleton;
+	}
+}
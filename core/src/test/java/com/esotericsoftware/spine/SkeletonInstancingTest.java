@@ -0,0 +1,92 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+/** Instantiation time and per-instance heap of 1,000 skeletons of the bundled model. */
+class SkeletonInstancingTest {
+	static private final int COUNT = 1000;
+
+	@Test
+	void instancesAllocateOnlyWhatTheyUse () {
+		SkeletonData data = TestSkeletons.read(1);
+		Skeleton skeleton = new Skeleton(data);
+		for (Slot slot : skeleton.slots)
+			assertNull(slot.deform, "deform is allocated on first use");
+		for (Bone bone : skeleton.bones)
+			assertEquals(bone.children.size, ((Array)bone.children).items.length, "children array has its final size");
+		int capacity = ((Array)skeleton.updateCache).items.length;
+		skeleton.updateCache();
+		assertEquals(capacity, ((Array)skeleton.updateCache).items.length, "update cache doesn't grow");
+
+		Skeleton copy = new Skeleton(skeleton);
+		for (Slot slot : copy.slots)
+			assertNull(slot.deform, "copies don't allocate unused deform");
+	}
+
+	@Test
+	void benchmark () {
+		SkeletonData data = TestSkeletons.read(1);
+		Skeleton[] skeletons = new Skeleton[COUNT];
+		for (int i = 0; i < COUNT; i++) // Warm up.
+			skeletons[i] = new Skeleton(data);
+
+		long bytes = TestSkeletons.allocatedBytes(), start = System.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			skeletons[i] = new Skeleton(data);
+		long time = System.nanoTime() - start;
+		bytes = TestSkeletons.allocatedBytes() - bytes;
+
+		Skeleton source = skeletons[0];
+		long copyBytes = TestSkeletons.allocatedBytes(), copyStart = System.nanoTime();
+		for (int i = 0; i < COUNT; i++)
+			skeletons[i] = new Skeleton(source);
+		long copyTime = System.nanoTime() - copyStart;
+		copyBytes = TestSkeletons.allocatedBytes() - copyBytes;
+
+		// What an empty deform array per slot, as allocated before, would add to each instance.
+		FloatArray[] deforms = new FloatArray[data.slots.size];
+		long deformBytes = TestSkeletons.allocatedBytes();
+		for (int i = 0; i < deforms.length; i++)
+			deforms[i] = new FloatArray();
+		deformBytes = TestSkeletons.allocatedBytes() - deformBytes;
+
+		System.out.println("Skeleton instancing, " + COUNT + " instances, " + data.bones.size + " bones, " + data.slots.size
+			+ " slots: new " + time / COUNT / 1000f + " us and " + bytes / COUNT + " bytes each, copy " + copyTime / COUNT / 1000f
+			+ " us and " + copyBytes / COUNT + " bytes each, eager deform arrays would add " + deformBytes + " bytes each");
+		assertTrue(bytes > 0);
+	}
+}
@@ -0,0 +1,105 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+import com.badlogic.gdx.files.FileHandle;
+
+import com.esotericsoftware.spine.attachments.AttachmentLoader;
+import com.esotericsoftware.spine.attachments.BoundingBoxAttachment;
+import com.esotericsoftware.spine.attachments.ClippingAttachment;
+import com.esotericsoftware.spine.attachments.MeshAttachment;
+import com.esotericsoftware.spine.attachments.PathAttachment;
+import com.esotericsoftware.spine.attachments.PointAttachment;
+import com.esotericsoftware.spine.attachments.RegionAttachment;
+
+/** Loads the bundled test model without textures and measures allocations for the tests and benchmarks. Tests run with the
+ * assets directory as the working directory. */
+class TestSkeletons {
+	static final String MODEL = "test/test_spine_model/build_char_002_amiya_winter#1";
+
+	/** Reads the bundled model. Attachments have no texture regions, which is enough for posing and bounds. */
+	static SkeletonData read (float scale) {
+		SkeletonBinary binary = new SkeletonBinary(new NoTextureAttachmentLoader());
+		binary.setScale(scale);
+		return binary.readSkeletonData(new FileHandle(new File(MODEL + ".skel")));
+	}
+
+	/** Returns the number of bytes allocated by the current thread so far. */
+	static long allocatedBytes () {
+		return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(
+			Thread.currentThread().getId());
+	}
+
+	/** Poses the skeleton at the time in the animation, starting from the setup pose. */
+	static void pose (Skeleton skeleton, Animation animation, float time) {
+		skeleton.setToSetupPose();
+		animation.apply(skeleton, time, time, true, null, 1, Animation.MixBlend.setup, Animation.MixDirection.in);
+		skeleton.updateWorldTransform();
+	}
+
+	/** Returns the largest distance between the world positions of the bones of two skeletons of the same data. */
+	static float maxBoneDistance (Skeleton a, Skeleton b) {
+		float max = 0;
+		for (int i = 0, n = a.bones.size; i < n; i++) {
+			Bone boneA = a.bones.get(i), boneB = b.bones.get(i);
+			max = Math.max(max, (float)Math.hypot(boneA.worldX - boneB.worldX, boneA.worldY - boneB.worldY));
+		}
+		return max;
+	}
+
+	static class NoTextureAttachmentLoader implements AttachmentLoader {
+		public RegionAttachment newRegionAttachment (Skin skin, String name, String path) {
+			return new RegionAttachment(name);
+		}
+
+		public MeshAttachment newMeshAttachment (Skin skin, String name, String path) {
+			return new MeshAttachment(name);
+		}
+
+		public BoundingBoxAttachment newBoundingBoxAttachment (Skin skin, String name) {
+			return new BoundingBoxAttachment(name);
+		}
+
+		public ClippingAttachment newClippingAttachment (Skin skin, String name) {
+			return new ClippingAttachment(name);
+		}
+
+		public PathAttachment newPathAttachment (Skin skin, String name) {
+			return new PathAttachment(name);
+		}
+
+		public PointAttachment newPointAttachment (Skin skin, String name) {
+			return new PointAttachment(name);
+		}
+	}
+}
@@ -0,0 +1,237 @@
+/******************************************************************************
+ * Spine Runtimes License Agreement
+ * Last updated January 1, 2020. Replaces all prior versions.
+ *
+ * Copyright (c) 2013-2020, Esoteric Software LLC
+ *
+ * Integration of the Spine Runtimes into software or otherwise creating
+ * derivative works of the Spine Runtimes is permitted under the terms and
+ * conditions of Section 2 of the Spine Editor License Agreement:
+ * http://esotericsoftware.com/spine-editor-license
+ *
+ * Otherwise, it is permitted to integrate the Spine Runtimes into software
+ * or otherwise create derivative works of the Spine Runtimes (collectively,
+ * "Products"), provided that each user of the Products must obtain their own
+ * Spine Editor license and redistribution of the Products in any form must
+ * include this license and copyright notice.
+ *
+ * THE SPINE RUNTIMES ARE PROVIDED BY ESOTERIC SOFTWARE LLC "AS IS" AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL ESOTERIC SOFTWARE LLC BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES,
+ * BUSINESS INTERRUPTION, OR LOSS OF USE, DATA, OR PROFITS) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+ * THE SPINE RUNTIMES, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *****************************************************************************/
+
+package com.esotericsoftware.spine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.badlogic.gdx.utils.Array;
+
+import com.esotericsoftware.spine.Animation.DeformTimeline;
+import com.esotericsoftware.spine.Animation.RotateTimeline;
+import com.esotericsoftware.spine.Animation.Timeline;
+import com.esotericsoftware.spine.Animation.TranslateTimeline;
+import com.esotericsoftware.spine.TimelineCompressor.CompressedDeformTimeline;
+import com.esotericsoftware.spine.TimelineCompressor.CompressedTimeline;
+
+/** Compressed timelines decode within the quantization bounds, keep their decoded segments per skeleton, and report their
+ * memory. */
+class TimelineCompressorTest {
+	static private final float STEP = 1 / 60f;
+
+	@Test
+	void decompressedKeysAreWithinQuantizationBounds () {
+		SkeletonData original = TestSkeletons.read(1), data = TestSkeletons.read(1);
+		TimelineCompressor compressor = new TimelineCompressor();
+		int count = compressor.compress(data);
+		assertTrue(count > 0);
+
+		int checked = 0;
+		for (int i = 0; i < data.animations.size; i++) {
+			Array<Timeline> originals = original.animations.get(i).timelines, timelines = data.animations.get(i).timelines;
+			for (int ii = 0; ii < timelines.size; ii++) {
+				if (!(timelines.get(ii) instanceof CompressedTimeline)) continue;
+				Timeline decompressed = ((CompressedTimeline)timelines.get(ii)).decompress();
+				Timeline source = originals.get(ii);
+				assertSame(source.getClass(), decompressed.getClass());
+				float[] expected, actual;
+				int entries;
+				float bound = compressor.getMaxValueError();
+				if (source instanceof RotateTimeline) {
+					expected = ((RotateTimeline)source).frames;
+					actual = ((RotateTimeline)decompressed).frames;
+					entries = RotateTimeline.ENTRIES;
+					bound = compressor.getMaxRotateError();
+				} else if (source instanceof TranslateTimeline) {
+					expected = ((TranslateTimeline)source).frames;
+					actual = ((TranslateTimeline)decompressed).frames;
+					entries = TranslateTimeline.ENTRIES;
+				} else {
+					DeformTimeline deform = (DeformTimeline)source;
+					expected = deform.getFrames();
+					actual = ((DeformTimeline)decompressed).getFrames();
+					entries = 1;
+					for (int frame = 0; frame < expected.length; frame++) {
+						float[] vertices = deform.getVertices()[frame], decoded = ((DeformTimeline)decompressed).getVertices()[frame];
+						for (int v = 0; v < vertices.length; v++)
+							assertEquals(vertices[v], decoded[v], bound * 1.01f + 1e-6f);
+					}
+				}
+				assertEquals(expected.length, actual.length);
+				for (int e = 0; e < expected.length; e++) {
+					float error = e % entries == 0 ? compressor.getMaxTimeError() : bound;
+					assertEquals(expected[e], actual[e], error * 1.01f + 1e-6f);
+				}
+				checked++;
+			}
+		}
+		assertEquals(count, checked);
+	}
+
+	@Test
+	void report () {
+		SkeletonData original = TestSkeletons.read(1), data = TestSkeletons.read(1);
+		TimelineCompressor compressor = new TimelineCompressor();
+		int count = compressor.compress(data);
+		float poseError = TimelineOptimizer.measurePoseError(original, data, STEP);
+
+		// Decoded segments a skeleton keeps once it has applied every animation.
+		Skeleton skeleton = new Skeleton(data);
+		long bytes = TestSkeletons.allocatedBytes();
+		for (Animation animation : data.animations)
+			TestSkeletons.pose(skeleton, animation, animation.duration / 2);
+		bytes = TestSkeletons.allocatedBytes() - bytes;
+
+		System.out.println("TimelineCompressor: " + count + " timelines, " + compressor.getOriginalBytes() + " -> "
+			+ compressor.getCompressedBytes() + " bytes shared, " + bytes + " bytes decoded per skeleton applying every animation"
+			+ ", max error " + compressor.getMaxRotateError() + " deg, " + compressor.getMaxValueError() + " units, "
+			+ compressor.getMaxTimeError() + " s, max pose error " + poseError);
+		assertTrue(compressor.getCompressedBytes() < compressor.getOriginalBytes());
+		assertTrue(poseError < 0.05f, "pose error " + poseError);
+	}
+
+	@Test
+	void deformRangesCoverChangedEntries () {
+		SkeletonData data = TestSkeletons.read(1);
+		new TimelineCompressor().compress(data);
+		Skeleton skeleton = new Skeleton(data);
+		int checked = 0;
+		for (Animation animation : data.animations) {
+			for (Timeline timeline : animation.timelines) {
+				if (!(timeline instanceof CompressedDeformTimeline)) continue;
+				CompressedDeformTimeline compressed = (CompressedDeformTimeline)timeline;
+				DeformTimeline decompressed = (DeformTimeline)compressed.decompress();
+				int[] sparse = decompressed.ranges;
+				decompressed.ranges = null;
+				int[] compared = decompressed.ranges(); // Computed by comparing with the setup pose.
+				float[] frames = decompressed.getFrames();
+				for (int frame = 0; frame < frames.length; frame++) {
+					// Components whose quantized offset is exactly 0 may be inside the sparse range only.
+					int start = sparse[frame << 1], end = sparse[(frame << 1) + 1];
+					int compareStart = compared[frame << 1], compareEnd = compared[(frame << 1) + 1];
+					if (compareStart != compareEnd) assertTrue(start <= compareStart && compareEnd <= end);
+					if (frame < frames.length - 1) {
+						DeformTimeline decoded = (DeformTimeline)compressed.decoded(skeleton, frames[frame]);
+						assertEquals(start, decoded.ranges[0]);
+						assertEquals(end, decoded.ranges[1]);
+						assertEquals(sparse[(frame + 1) << 1], decoded.ranges[2]);
+						assertEquals(sparse[((frame + 1) << 1) + 1], decoded.ranges[3]);
+					}
+				}
+				checked++;
+			}
+		}
+		assertTrue(checked > 0);
+
+		// Decoding new segments writes into the skeleton's arrays.
+		for (Animation animation : data.animations)
+			TestSkeletons.pose(skeleton, animation, animation.duration / 3);
+		long bytes = TestSkeletons.allocatedBytes();
+		for (int pass = 0; pass < 100; pass++) {
+			for (Animation animation : data.animations) {
+				TestSkeletons.pose(skeleton, animation, animation.duration / 3);
+				TestSkeletons.pose(skeleton, animation, animation.duration / 2);
+			}
+		}
+		bytes = TestSkeletons.allocatedBytes() - bytes;
+		// Measuring allocates about 1 KB itself, less than the 32 bytes per segment change that allocating ranges would take.
+		assertTrue(bytes < 2048, "posing again allocated " + bytes + " bytes");
+	}
+
+	@Test
+	void skeletonsDecodeIndependently () throws Exception {
+		SkeletonData data = TestSkeletons.read(1);
+		new TimelineCompressor().compress(data);
+		Animation animation = data.findAnimation("Relax");
+		float duration = animation.duration;
+
+		// Expected poses, each skeleton posed alone.
+		Skeleton expectedA = new Skeleton(data), expectedB = new Skeleton(data);
+		TestSkeletons.pose(expectedA, animation, duration * 0.2f);
+		TestSkeletons.pose(expectedB, animation, duration * 0.8f);
+
+		// Skeletons posed in turn at times in different segments.
+		Skeleton a = new Skeleton(data), b = new Skeleton(data);
+		for (int i = 0; i < 3; i++) {
+			TestSkeletons.pose(a, animation, duration * 0.2f);
+			TestSkeletons.pose(b, animation, duration * 0.8f);
+		}
+		assertEquals(0, TestSkeletons.maxBoneDistance(expectedA, a));
+		assertEquals(0, TestSkeletons.maxBoneDistance(expectedB, b));
+
+		// Skeletons posed on two threads at once.
+		Skeleton[] skeletons = {new Skeleton(data), new Skeleton(data)};
+		float[] times = {duration * 0.2f, duration * 0.8f};
+		float[] errors = new float[2];
+		Thread[] threads = new Thread[2];
+		for (int t = 0; t < 2; t++) {
+			int index = t;
+			threads[t] = new Thread( () -> {
+				Skeleton expected = index == 0 ? expectedA : expectedB;
+				for (int i = 0; i < 2000; i++) {
+					// Moving through the whole animation between checks makes both threads decode other segments meanwhile.
+					TestSkeletons.pose(skeletons[index], animation, duration * i / 2000);
+					TestSkeletons.pose(skeletons[index], animation, times[index]);
+					errors[index] = Math.max(errors[index], TestSkeletons.maxBoneDistance(expected, skeletons[index]));
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertEquals(0, errors[0]);
+		assertEquals(0, errors[1]);
+	}
+
+	@Test
+	void releasedTimelinesAreReused () {
+		SkeletonData data = TestSkeletons.read(1);
+		new TimelineCompressor().compress(data);
+		int decodedCount = data.decodedCount;
+		Animation animation = data.findAnimation("Relax");
+		Array<Timeline> timelines = animation.timelines;
+		Skeleton expected = new Skeleton(data), skeleton = new Skeleton(data);
+		TestSkeletons.pose(expected, animation, 1);
+		TestSkeletons.pose(skeleton, animation, 1);
+
+		for (int i = 0; i < 3; i++) {
+			// Clear the animation and set its timelines again, as low memory mode evicts and restores it.
+			TimelineCompressor.release(data, timelines);
+			animation.setTimelines(new Array(0));
+			TimelineCompressor.adopt(data, timelines);
+			animation.setTimelines(timelines);
+
+			TestSkeletons.pose(skeleton, animation, 1);
+			assertEquals(0, TestSkeletons.maxBoneDistance(expected, skeleton));
+			assertEquals(decodedCount, data.decodedCount, "released numbers are reused");
+		}
+	}
+}
@@ -1,21 +1,44 @@
 package com.badlogic.yatdp.lwjgl3;
 
+import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Window;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3WindowAdapter;
 import com.badlogic.yatdp.core.MainApp;
-import org.lwjgl.glfw.GLFW;
+import com.badlogic.yatdp.input.WindowController;
+import com.badlogic.yatdp.pet.PetSmokeTest;
 
 import java.awt.*;
+import java.lang.management.ManagementFactory;
 
 /**
  * Launches the desktop (LWJGL3) application.
+ * <p>
+ * Prints the time from JVM start to the first rendered frame. With
+ * {@code -Dyatdp.exitAfterFrames=N} the app exits after N frames, which the
+ * {@code cdsArchive} Gradle task uses as the AppCDS training run.
+ * <p>
+ * {@code --smoke-test} loads the configured model and steps its animations on
+ * the headless backend, without a window, then exits with status 0 on success.
+ * With {@code -Pagent} the {@code smokeTest} Gradle task also traces
+ * native-image metadata through it.
  */
 public class Lwjgl3Launcher {
+    private static final String EXIT_AFTER_FRAMES_PROPERTY = "yatdp.exitAfterFrames";
+    private static final String SMOKE_TEST_ARG = "--smoke-test";
+    private static final int SMOKE_TEST_FRAMES = 600;
 
     public static void main(String[] args) {
+        for (String arg : args) {
+            if (SMOKE_TEST_ARG.equals(arg)) {
+                runSmokeTest();
+                return;
+            }
+        }
         if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
         createApplication();
     }
@@ -24,6 +47,27 @@ public class Lwjgl3Launcher {
         new Lwjgl3Application(new MainApp(), getDefaultConfiguration());
     }
 
+    private static void runSmokeTest() {
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        configuration.updatesPerSecond = -1; // 不需要渲染循环
+        new HeadlessApplication(new ApplicationAdapter() {
+            private boolean passed;
+
+            @Override
+            public void create() {
+                passed = PetSmokeTest.run("config/config.json", SMOKE_TEST_FRAMES);
+                long jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+                System.out.println("Time to smoke test end: " + (System.currentTimeMillis() - jvmStartTime) + " ms");
+                Gdx.app.exit();
+            }
+
+            @Override
+            public void dispose() {
+                System.exit(passed ? 0 : 1);
+            }
+        }, configuration);
+    }
+
     private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
         Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
         configuration.setTitle("Yet Another Tiny Desktop pet.");
@@ -37,18 +81,17 @@ public class Lwjgl3Launcher {
         //// useful for testing performance, but can also be very stressful to some hardware.
         //// You may also need to configure GPU drivers to fully disable Vsync; this can cause screen tearing.
 
-        configuration.setWindowedMode(150, 150);
+        WindowController.configurePetWindow(configuration); // 无边框透明窗口，额外的桌宠窗口使用同一配置
         //// You can change these files; they are in lwjgl3/src/main/resources/ .
         //// They can also be loaded from the root of assets/ .
         configuration.setWindowIcon("赤色のチューリップx128.png", "赤色のチューリップx64.png", "赤色のチューリップx32.png", "赤色のチューリップx16.png");
         configuration.setWindowPosition(0, 50);   // TO BE SET IN CONFIG
-        configuration.setDecorated(false);
-        configuration.setTransparentFramebuffer(true);
         configuration.setWindowListener(new Lwjgl3WindowAdapter() {
             @Override
             public void created(Lwjgl3Window window) {
                 // 初始化时启用置顶，之后可通过配置文件来实现是否启用置顶的功能
-                GLFW.glfwSetWindowAttrib(window.getWindowHandle(), GLFW.GLFW_FLOATING, GLFW.GLFW_TRUE);
+                WindowController.setFloating(window);
+                watchStartup();
                 if (SystemTray.isSupported()) {
                     System.out.println("系统托盘支持已启用");
                     try {
@@ -62,6 +105,37 @@ public class Lwjgl3Launcher {
         return configuration;
     }
 
+    /**
+     * Reports the time to the first frame and, for training runs, exits after
+     * the requested number of frames. Runnables posted while others run are
+     * executed in the next frame, so re-posting counts frames.
+     */
+    private static void watchStartup() {
+        final long jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+        final int exitAfterFrames = Integer.getInteger(EXIT_AFTER_FRAMES_PROPERTY, 0);
+        Gdx.app.postRunnable(new Runnable() {
+            private int frames;
+
+            @Override
+            public void run() {
+                frames++;
+                if (frames == 2) {
+                    // The first frame has been rendered when the second one starts.
+                    boolean cds = false;
+                    for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments())
+                        if (arg.startsWith("-XX:SharedArchiveFile=")) cds = true;
+                    System.out.println("Time to first frame: " + (System.currentTimeMillis() - jvmStartTime) + " ms"
+                        + (cds ? " (AppCDS)" : ""));
+                }
+                if (exitAfterFrames > 0 && frames >= exitAfterFrames) {
+                    Gdx.app.exit();
+                    return;
+                }
+                if (frames < 2 || exitAfterFrames > 0) Gdx.app.postRunnable(this);
+            }
+        });
+    }
+
     private static TrayIcon createTrayIcon() {
         Image icon = Toolkit.getDefaultToolkit().getImage(
             Lwjgl3Launcher.class.getResource("/赤色のチューリップx32.png")
@@ -81,6 +155,11 @@ public class Lwjgl3Launcher {
 
         PopupMenu popup = new PopupMenu();
 
+        // 托盘回调运行在 AWT 线程，需切回渲染线程再创建窗口
+        MenuItem newPetItem = new MenuItem("New Pet");
+        newPetItem.addActionListener(e -> Gdx.app.postRunnable(() -> MainApp.getInstance().spawnPetWindow()));
+        popup.add(newPetItem);
+
         // 分隔线
         popup.addSeparator();
 
@@ -26,6 +26,7 @@ import java.io.File;
 import java.io.InputStreamReader;
 import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.List;
 
 import static org.lwjgl.system.JNI.invokePPP;
 import static org.lwjgl.system.JNI.invokePPZ;
@@ -36,7 +37,9 @@ import static org.lwjgl.system.macosx.ObjCRuntime.sel_getUid;
  * Adds some utilities to ensure that the JVM was started with the
  * {@code -XstartOnFirstThread} argument, which is required on macOS for LWJGL 3
  * to function. Also helps on Windows when users have names with characters from
- * outside the Latin alphabet, a common cause of startup crashes.
+ * outside the Latin alphabet, a common cause of startup crashes. When it has to
+ * relaunch the JVM, it also passes the AppCDS archive created by the
+ * {@code cdsArchive} Gradle task, if one sits next to the JAR.
  * <br>
  * <a href="https://jvm-gaming.org/t/starting-jvm-on-mac-with-xstartonfirstthread-programmatically/57547">Based on this java-gaming.org post by kappa</a>
  * @author damios
@@ -140,7 +143,9 @@ public class StartupHelper {
         jvmArgs.add(javaExecPath);
         jvmArgs.add("-XstartOnFirstThread");
         jvmArgs.add("-D" + JVM_RESTARTED_ARG + "=true");
-        jvmArgs.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        List<String> inputArguments = ManagementFactory.getRuntimeMXBean().getInputArguments();
+        jvmArgs.addAll(inputArguments);
+        addSharedArchive(jvmArgs, inputArguments);
         jvmArgs.add("-cp");
         jvmArgs.add(System.getProperty("java.class.path"));
         String mainClass = System.getenv("JAVA_MAIN_CLASS_" + pid);
@@ -180,6 +185,43 @@ public class StartupHelper {
         return true;
     }
 
+    /**
+     * Finds the AppCDS archive for the running JAR: a file next to it with the
+     * same name and a {@code .jsa} extension.
+     *
+     * @return the archive, or null if the app isn't running from a JAR or there
+     *         is no archive for it
+     */
+    public static File findSharedArchive() {
+        try {
+            File jar = new File(StartupHelper.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            String name = jar.getName();
+            if (!jar.isFile() || !name.endsWith(".jar")) return null;
+            File archive = new File(jar.getParentFile(), name.substring(0, name.length() - 4) + ".jsa");
+            return archive.isFile() ? archive : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Adds the AppCDS archive to the arguments of the relaunched JVM, unless
+     * one was already given or the JVM is too old to use dynamic archives.
+     */
+    private static void addSharedArchive(List<String> jvmArgs, List<String> inputArguments) {
+        for (String arg : inputArguments) {
+            if (arg.startsWith("-XX:SharedArchiveFile=") || arg.startsWith("-Xshare")) return;
+        }
+        // Dynamic archives (-XX:ArchiveClassesAtExit) can be used starting with Java 13.
+        String version = System.getProperty("java.specification.version", "1.8");
+        if (version.startsWith("1.") || Integer.parseInt(version.split("\\.")[0]) < 13) return;
+        File archive = findSharedArchive();
+        if (archive == null) return;
+        jvmArgs.add("-XX:SharedArchiveFile=" + archive.getAbsolutePath());
+        // If the archive doesn't match the JAR anymore, start without it instead of failing.
+        jvmArgs.add("-Xshare:auto");
+    }
+
     /**
      * Starts a new JVM if the application was started on macOS without the
      * {@code -XstartOnFirstThread} argument. Returns whether a new JVM was